@@ -41,7 +41,8 @@ public class CorsConfig {
                 "X-Requested-With",
                 HttpHeaders.COOKIE
         ));
-        config.setExposedHeaders(List.of(HttpHeaders.SET_COOKIE));
+        // X-Next-Cursor: 상품 고급 검색 다음 페이지 커서
+        config.setExposedHeaders(List.of(HttpHeaders.SET_COOKIE, "X-Next-Cursor"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
@@ -0,0 +1,75 @@
+package com.livemart.common.event.envelope;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dual-read Kafka Deserializer (protobuf 엔벨로프 + 레거시 JSON)
+ *
+ * - lm-encoding=proto : EventDecoder로 한 번만 디코딩
+ * - 헤더 없음 / json   : 기존 JSON Deserializer에 위임 (마이그레이션 이전 레코드, 전환 전 프로듀서)
+ * - acceptOnly 지정 시 : lm-event-type이 목록에 없으면 본문을 읽지 않고 null 반환
+ *   → 컨테이너 팩토리에 RecordFilterStrategy(record.value() == null)를 함께 설정해 리스너 호출 생략
+ */
+public class EnvelopeDeserializer<T> implements Deserializer<T> {
+
+    private final EventDecoder<T> decoder;
+    private final Deserializer<T> legacyDeserializer;
+    private final Set<String> acceptedTypes;
+
+    public EnvelopeDeserializer(EventDecoder<T> decoder, Deserializer<T> legacyDeserializer) {
+        this(decoder, legacyDeserializer, null);
+    }
+
+    private EnvelopeDeserializer(EventDecoder<T> decoder, Deserializer<T> legacyDeserializer, Set<String> acceptedTypes) {
+        this.decoder = decoder;
+        this.legacyDeserializer = legacyDeserializer;
+        this.acceptedTypes = acceptedTypes;
+    }
+
+    /**
+     * 헤더의 이벤트 타입 기준 필터 (헤더 없는 레거시 레코드는 항상 역직렬화)
+     */
+    public EnvelopeDeserializer<T> acceptOnly(Set<String> eventTypes) {
+        return new EnvelopeDeserializer<>(decoder, legacyDeserializer, Set.copyOf(eventTypes));
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        legacyDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return legacyDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) return null;
+
+        String eventType = EventEnvelope.eventType(headers);
+        if (acceptedTypes != null && eventType != null && !acceptedTypes.contains(eventType)) {
+            return null;
+        }
+
+        if (EventEnvelope.encoding(headers) == EventEnvelope.Encoding.PROTOBUF) {
+            try {
+                return decoder.decode(data, EventEnvelope.schemaVersion(headers));
+            } catch (RuntimeException e) {
+                throw new SerializationException(
+                        "Failed to decode protobuf event: topic=" + topic + ", type=" + eventType, e);
+            }
+        }
+        return legacyDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        legacyDeserializer.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.livemart.common.event.envelope;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * 엔벨로프 헤더 + 단일 인코딩 Kafka Serializer
+ *
+ * encoding=JSON    : 기존 JsonSerializer와 동일한 본문 + 엔벨로프 헤더 (마이그레이션 1단계)
+ * encoding=PROTOBUF: EventEncoder로 protobuf 본문 + 엔벨로프 헤더 (모든 소비자가 dual-read 배포된 뒤 전환)
+ */
+public class EnvelopeSerializer<T> implements Serializer<T> {
+
+    private final EventEncoder<T> encoder;
+    private final EventEnvelope.Encoding encoding;
+    private final Serializer<T> jsonSerializer;
+
+    public EnvelopeSerializer(EventEncoder<T> encoder, EventEnvelope.Encoding encoding) {
+        this(encoder, encoding, new JsonSerializer<>());
+    }
+
+    public EnvelopeSerializer(EventEncoder<T> encoder, EventEnvelope.Encoding encoding, Serializer<T> jsonSerializer) {
+        this.encoder = encoder;
+        this.encoding = encoding;
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (data == null) return null;
+
+        EventEnvelope.write(headers, encoder.eventType(data), encoder.schemaVersion(), encoding);
+        return encoding == EventEnvelope.Encoding.PROTOBUF
+                ? encoder.encode(data)
+                : jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
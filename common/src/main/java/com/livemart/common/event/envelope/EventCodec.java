@@ -0,0 +1,11 @@
+package com.livemart.common.event.envelope;
+
+/**
+ * 도메인 이벤트 객체 ↔ protobuf 바이트 변환기 (같은 이벤트를 발행도 하고 소비도 하는 쪽)
+ *
+ * 서비스마다 이벤트 클래스가 다르므로(order-service OrderEvent, product-service OrderEvent 등)
+ * 코덱은 각 서비스가 구현하고, 스키마(livemart_events.proto)만 common에서 공유한다.
+ * 소비만 하는 서비스는 EventDecoder만 구현한다 — 인코딩 없는 코덱을 Serializer에 넘기는 실수를 컴파일 시점에 막는다.
+ */
+public interface EventCodec<T> extends EventEncoder<T>, EventDecoder<T> {
+}
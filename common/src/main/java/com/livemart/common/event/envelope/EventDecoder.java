@@ -0,0 +1,13 @@
+package com.livemart.common.event.envelope;
+
+/**
+ * protobuf 바이트 → 도메인 이벤트 객체 (소비자용, EnvelopeDeserializer)
+ */
+@FunctionalInterface
+public interface EventDecoder<T> {
+
+    /**
+     * @param schemaVersion 레코드 헤더의 스키마 버전 — 구버전 페이로드 호환 처리용
+     */
+    T decode(byte[] payload, int schemaVersion);
+}
@@ -0,0 +1,19 @@
+package com.livemart.common.event.envelope;
+
+/**
+ * 도메인 이벤트 객체 → protobuf 바이트 (프로듀서용, EnvelopeSerializer)
+ */
+public interface EventEncoder<T> {
+
+    /**
+     * lm-event-type 헤더 값
+     */
+    String eventType(T event);
+
+    /**
+     * encode가 생성하는 페이로드의 스키마 버전
+     */
+    int schemaVersion();
+
+    byte[] encode(T event);
+}
@@ -0,0 +1,98 @@
+package com.livemart.common.event.envelope;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kafka 이벤트 엔벨로프 헤더 규약
+ *
+ * 레코드 값(본문)은 이벤트 페이로드를 한 번만 인코딩하고, 라우팅/버전 정보는 헤더에 싣는다.
+ * - lm-event-type     : 이벤트 타입 (예: ORDER_CREATED) — 소비자는 본문을 읽지 않고 스킵 판단
+ * - lm-schema-version : 페이로드 스키마 버전 (livemart_events.proto 기준)
+ * - lm-encoding       : proto | json — 헤더가 없으면 마이그레이션 이전 JSON 레코드로 간주
+ *
+ * 헤더 값은 kcat 등으로 바로 읽을 수 있도록 UTF-8 문자열로 기록한다.
+ */
+public final class EventEnvelope {
+
+    public static final String HEADER_EVENT_TYPE = "lm-event-type";
+    public static final String HEADER_SCHEMA_VERSION = "lm-schema-version";
+    public static final String HEADER_ENCODING = "lm-encoding";
+
+    public enum Encoding {
+        JSON("json"),
+        PROTOBUF("proto");
+
+        private final String headerValue;
+
+        Encoding(String headerValue) {
+            this.headerValue = headerValue;
+        }
+
+        public String headerValue() {
+            return headerValue;
+        }
+
+        /**
+         * application.yml 값(json / protobuf / proto) → Encoding
+         */
+        public static Encoding from(String value) {
+            if (value == null) return JSON;
+            return switch (value.trim().toLowerCase()) {
+                case "proto", "protobuf" -> PROTOBUF;
+                case "json" -> JSON;
+                default -> throw new IllegalArgumentException("Unknown event encoding: " + value);
+            };
+        }
+    }
+
+    private EventEnvelope() {
+    }
+
+    public static void write(Headers headers, String eventType, int schemaVersion, Encoding encoding) {
+        if (headers == null) return;
+        put(headers, HEADER_EVENT_TYPE, eventType);
+        put(headers, HEADER_SCHEMA_VERSION, Integer.toString(schemaVersion));
+        put(headers, HEADER_ENCODING, encoding.headerValue());
+    }
+
+    /**
+     * @return 이벤트 타입, 헤더가 없으면 null (레거시 레코드)
+     */
+    public static String eventType(Headers headers) {
+        return read(headers, HEADER_EVENT_TYPE);
+    }
+
+    /**
+     * @return 스키마 버전, 헤더가 없으면 1
+     */
+    public static int schemaVersion(Headers headers) {
+        String value = read(headers, HEADER_SCHEMA_VERSION);
+        return value != null ? Integer.parseInt(value) : 1;
+    }
+
+    /**
+     * @return 본문 인코딩, 헤더가 없으면 JSON (레거시 레코드)
+     */
+    public static Encoding encoding(Headers headers) {
+        String value = read(headers, HEADER_ENCODING);
+        return Encoding.PROTOBUF.headerValue().equals(value) ? Encoding.PROTOBUF : Encoding.JSON;
+    }
+
+    private static void put(Headers headers, String key, String value) {
+        headers.remove(key);
+        if (value != null) {
+            headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String read(Headers headers, String key) {
+        if (headers == null) return null;
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null
+                ? new String(header.value(), StandardCharsets.UTF_8)
+                : null;
+    }
+}
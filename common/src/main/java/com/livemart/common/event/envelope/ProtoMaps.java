@@ -0,0 +1,55 @@
+package com.livemart.common.event.envelope;
+
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * protobuf 메시지 → Map 변환 (Map 페이로드로 소비하는 리스너의 dual-read용)
+ *
+ * 키는 JSON 필드명(camelCase)이라 기존 JSON → LinkedHashMap 역직렬화 결과와 같은 키로 조회된다.
+ * 값이 없는 optional 필드는 생략, 열거형은 이름, 금액은 10진 문자열 그대로 둔다.
+ */
+public final class ProtoMaps {
+
+    private ProtoMaps() {
+    }
+
+    public static Map<String, Object> toMap(Message message) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (FieldDescriptor field : message.getDescriptorForType().getFields()) {
+            if (field.isRepeated()) {
+                List<Object> values = new ArrayList<>();
+                for (int i = 0; i < message.getRepeatedFieldCount(field); i++) {
+                    values.add(toValue(field, message.getRepeatedField(field, i)));
+                }
+                map.put(field.getJsonName(), values);
+            } else if (!field.hasPresence() || message.hasField(field)) {
+                map.put(field.getJsonName(), toValue(field, message.getField(field)));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * payload 파서를 받아 Map 디코더 생성 (소비 전용)
+     */
+    @SuppressWarnings("rawtypes")
+    public static <M extends Message> EventDecoder<Map> decoder(Function<byte[], M> parser) {
+        return (payload, schemaVersion) -> toMap(parser.apply(payload));
+    }
+
+    private static Object toValue(FieldDescriptor field, Object value) {
+        return switch (field.getJavaType()) {
+            case MESSAGE -> toMap((Message) value);
+            case ENUM -> ((EnumValueDescriptor) value).getName();
+            default -> value;
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.livemart.common.event.envelope;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * EventEncoder / EventDecoder 구현용 값 변환 유틸
+ *
+ * - 금액: BigDecimal ↔ 10진 문자열 (정밀도 보존, null ↔ "")
+ * - 시각: LocalDateTime ↔ UTC 기준 epoch millis (벽시계 값 그대로 왕복, null ↔ 0)
+ */
+public final class ProtoValues {
+
+    private ProtoValues() {
+    }
+
+    public static String decimal(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    public static BigDecimal decimal(String value) {
+        return value == null || value.isEmpty() ? null : new BigDecimal(value);
+    }
+
+    public static long epochMillis(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    public static LocalDateTime localDateTime(long epochMillis) {
+        return epochMillis != 0L ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC) : null;
+    }
+
+    public static String text(String value) {
+        return value != null ? value : "";
+    }
+
+    public static String text(Enum<?> value) {
+        return value != null ? value.name() : "";
+    }
+
+    public static String nullIfEmpty(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    public static <E extends Enum<E>> E enumValue(Class<E> type, String value) {
+        return value == null || value.isEmpty() ? null : Enum.valueOf(type, value);
+    }
+
+    public static <M> M parse(Parser<M> parser, byte[] payload) {
+        try {
+            return parser.parseFrom(payload);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Malformed protobuf payload", e);
+        }
+    }
+}
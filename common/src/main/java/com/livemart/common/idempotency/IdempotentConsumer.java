@@ -0,0 +1,107 @@
+package com.livemart.common.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * 멱등 컨슈머 — 처리 기록 테이블 조회를 최근 이벤트 필터(RecentEventFilter) 뒤로 미룬다
+ *
+ * 대부분의 이벤트는 처음 오는 것이라 매번 하는 existsById는 거의 항상 "없음"이다.
+ * - 필터에 없음 (확실히 새 이벤트): 조회 없이 바로 처리. 중복 판정은 핸들러가 같은 트랜잭션에서 넣는
+ *   처리 기록의 유일 키가 맡는다 — 재시작 직후나 리밸런스로 다른 인스턴스가 처리했던 레코드가 와도 키 충돌로 걸러진다.
+ * - 필터에 있음 (중복일 수도): 처리 기록을 조회해 있으면 건너뛰고, 없으면 오탐으로 세고 처리한다.
+ *
+ * 핸들러는 처리 기록 INSERT를 업무 변경과 같은 트랜잭션에서, 가능하면 맨 앞에서 flush해야 한다
+ * (키 충돌 시 DataIntegrityViolationException → 롤백 후 중복으로 판정).
+ *
+ * 메트릭 (consumer 태그):
+ * - consumer.dedup.lookups{result=avoided|duplicate|false_positive} — avoided가 생략한 DB 조회 수
+ * - consumer.dedup.duplicate.keys — 필터를 통과했지만 유일 키에서 걸린 중복
+ * - consumer.dedup.false.positive.ratio — 필터 오탐 비율 false_positive / (avoided + false_positive)
+ */
+@Slf4j
+public class IdempotentConsumer {
+
+    private final RecentEventFilter filter;
+    private final Counter avoided;
+    private final Counter duplicates;
+    private final Counter falsePositives;
+    private final Counter duplicateKeys;
+
+    public IdempotentConsumer(String name, MeterRegistry registry,
+                              Duration window, int expectedEventsPerWindow, double falsePositiveRate) {
+        this(name, registry, window, expectedEventsPerWindow, falsePositiveRate, System::nanoTime);
+    }
+
+    IdempotentConsumer(String name, MeterRegistry registry,
+                       Duration window, int expectedEventsPerWindow, double falsePositiveRate,
+                       LongSupplier nanoClock) {
+        this.filter = new RecentEventFilter(window, expectedEventsPerWindow, falsePositiveRate, nanoClock);
+        this.avoided = lookups(name, "avoided", registry);
+        this.duplicates = lookups(name, "duplicate", registry);
+        this.falsePositives = lookups(name, "false_positive", registry);
+        this.duplicateKeys = Counter.builder("consumer.dedup.duplicate.keys")
+                .description("Duplicates that passed the recent-event filter and were rejected by the processed-event key")
+                .tag("consumer", name)
+                .register(registry);
+        Gauge.builder("consumer.dedup.false.positive.ratio", this, IdempotentConsumer::falsePositiveRatio)
+                .description("Share of new events the recent-event filter reported as possible duplicates")
+                .tag("consumer", name)
+                .register(registry);
+    }
+
+    /**
+     * 중복이 아니면 handler 실행
+     *
+     * @param eventId   이벤트 고유 id (처리 기록 키)
+     * @param processed 처리 기록 조회 — 필터가 "중복일 수도"라고 할 때와 키 충돌 확인에만 호출
+     * @param handler   업무 처리 + 처리 기록 INSERT (한 트랜잭션)
+     * @return 처리했으면 true, 중복이라 건너뛰었으면 false
+     */
+    public boolean process(String eventId, Predicate<String> processed, Runnable handler) {
+        if (!filter.mightContain(eventId)) {
+            avoided.increment();
+        } else if (processed.test(eventId)) {
+            duplicates.increment();
+            return false;
+        } else {
+            falsePositives.increment();
+        }
+
+        try {
+            handler.run();
+        } catch (DataIntegrityViolationException e) {
+            // 처리 기록 키 충돌인지 확인 — 다른 무결성 오류는 그대로 던진다
+            if (!processed.test(eventId)) {
+                throw e;
+            }
+            duplicateKeys.increment();
+            filter.add(eventId);
+            log.warn("Duplicate event rejected by processed-event key: eventId={}", eventId);
+            return false;
+        }
+        filter.add(eventId);
+        return true;
+    }
+
+    private double falsePositiveRatio() {
+        double positives = falsePositives.count();
+        double total = avoided.count() + positives;
+        return total == 0 ? 0 : positives / total;
+    }
+
+    private static Counter lookups(String name, String result, MeterRegistry registry) {
+        return Counter.builder("consumer.dedup.lookups")
+                .description("Dedup decisions by whether the processed-event table had to be queried")
+                .tag("consumer", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.livemart.common.idempotency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 처리한 이벤트 id의 시간 구간별 Bloom 필터
+ *
+ * window를 BUCKETS개 구간으로 나눠 현재 구간 필터에 기록하고, 창을 벗어난 구간은 통째로 버린다.
+ * mightContain이 false면 창 안에서 기록한 적 없는 id (거짓 음성 없음), true면 기록했을 수도 있는 id.
+ * 메모리는 구간 수 × 구간당 비트 수로 고정 — 예상보다 많이 들어오면 오탐률만 올라간다.
+ */
+final class RecentEventFilter {
+
+    static final int BUCKETS = 4;
+
+    private final long bucketNanos;
+    private final int bitsPerBucket;
+    private final int hashes;
+    private final LongSupplier nanoClock;
+    private final AtomicReferenceArray<Bucket> ring = new AtomicReferenceArray<>(BUCKETS);
+
+    RecentEventFilter(Duration window, int expectedEventsPerWindow, double falsePositiveRate, LongSupplier nanoClock) {
+        if (window.isNegative() || window.isZero() || expectedEventsPerWindow <= 0
+                || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("dedup window, expected events and false-positive rate (0~1) must be positive: "
+                    + window + "/" + expectedEventsPerWindow + "/" + falsePositiveRate);
+        }
+        int perBucket = Math.max(1, (expectedEventsPerWindow + BUCKETS - 1) / BUCKETS);
+        long bits = (long) Math.ceil(-perBucket * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitsPerBucket = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashes = Math.max(1, (int) Math.round((double) bitsPerBucket / perBucket * Math.log(2)));
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+        this.nanoClock = nanoClock;
+    }
+
+    boolean mightContain(String eventId) {
+        long slot = slot();
+        long hash = hash64(eventId);
+        for (int i = 0; i < BUCKETS; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.slot > slot - BUCKETS && bucket.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void add(String eventId) {
+        current(slot()).add(hash64(eventId));
+    }
+
+    private long slot() {
+        return nanoClock.getAsLong() / bucketNanos;
+    }
+
+    // 구간이 바뀌면 가장 오래된 자리를 새 필터로 교체 — 교체는 구간당 한 번뿐이라 잠금 비용은 무시할 수준
+    private Bucket current(long slot) {
+        int index = (int) Math.floorMod(slot, (long) BUCKETS);
+        Bucket bucket = ring.get(index);
+        if (bucket != null && bucket.slot == slot) {
+            return bucket;
+        }
+        synchronized (ring) {
+            bucket = ring.get(index);
+            if (bucket == null || bucket.slot < slot) {
+                bucket = new Bucket(slot);
+                ring.set(index, bucket);
+            }
+            return bucket;
+        }
+    }
+
+    // FNV-1a 64비트 + murmur3 finalizer
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private final class Bucket {
+        private final long slot;
+        private final AtomicLongArray words = new AtomicLongArray((bitsPerBucket + 63) / 64);
+
+        private Bucket(long slot) {
+            this.slot = slot;
+        }
+
+        // 이중 해싱(h1 + i·h2)으로 k개 위치 계산
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int bit = index(h1 + i * h2);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int bit = index(h1 + i * h2);
+                long mask = 1L << bit;
+                words.getAndUpdate(bit >>> 6, word -> word | mask);
+            }
+        }
+
+        private int index(int combined) {
+            return (combined < 0 ? ~combined : combined) % bitsPerBucket;
+        }
+    }
+}
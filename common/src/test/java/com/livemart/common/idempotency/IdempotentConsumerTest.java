@@ -0,0 +1,134 @@
+package com.livemart.common.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IdempotentConsumer")
+class IdempotentConsumerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    // processed_events 테이블 역할 — 핸들러가 INSERT, 키가 있으면 PK 위반
+    private final Set<String> table = new HashSet<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final Predicate<String> processed = id -> {
+        lookups.incrementAndGet();
+        return table.contains(id);
+    };
+
+    private final IdempotentConsumer consumer = new IdempotentConsumer(
+            "order-events", registry, Duration.ofMinutes(10), 10_000, 0.01, clock::get);
+
+    @Test
+    @DisplayName("처음 보는 이벤트는 처리 기록을 조회하지 않고 처리한다")
+    void newEventsSkipLookup() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(consumer.process("ORD-" + i, processed, insert("ORD-" + i))).isTrue();
+        }
+
+        assertThat(lookups).hasValue(0);
+        assertThat(lookups("avoided")).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("창 안에서 다시 온 이벤트는 조회로 확인하고 건너뛴다")
+    void redeliveredEventIsSkipped() {
+        AtomicInteger handled = new AtomicInteger();
+        consumer.process("ORD-1", processed, () -> {
+            handled.incrementAndGet();
+            table.add("ORD-1");
+        });
+
+        boolean result = consumer.process("ORD-1", processed, handled::incrementAndGet);
+
+        assertThat(result).isFalse();
+        assertThat(handled).hasValue(1);
+        assertThat(lookups).hasValue(1);
+        assertThat(lookups("duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("창을 벗어났거나 다른 인스턴스가 처리한 이벤트는 처리 기록 PK 충돌로 걸러진다")
+    void duplicateKeyIsTreatedAsDuplicate() {
+        table.add("ORD-1");  // 재시작 전 / 다른 인스턴스가 처리
+
+        boolean result = consumer.process("ORD-1", processed, insert("ORD-1"));
+
+        assertThat(result).isFalse();
+        assertThat(registry.get("consumer.dedup.duplicate.keys").counter().count()).isEqualTo(1);
+        // 이후 재전달은 필터에서 바로 조회 경로로
+        assertThat(consumer.process("ORD-1", processed, insert("ORD-1"))).isFalse();
+        assertThat(lookups("duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("처리 기록과 무관한 무결성 오류, 핸들러 실패는 그대로 던지고 기록하지 않는다")
+    void failuresPropagateAndAreNotRemembered() {
+        assertThatThrownBy(() -> consumer.process("ORD-1", processed, () -> {
+            throw new DataIntegrityViolationException("fk_products_category");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> consumer.process("ORD-2", processed, () -> {
+            throw new IllegalStateException("insufficient stock");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // 재시도는 다시 "새 이벤트"로 처리
+        assertThat(consumer.process("ORD-2", processed, insert("ORD-2"))).isTrue();
+        assertThat(lookups("avoided")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("window가 지나면 오래된 구간을 버린다")
+    void forgetsEventsOutsideWindow() {
+        consumer.process("ORD-1", processed, insert("ORD-1"));
+
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+        consumer.process("ORD-1", processed, insert("ORD-1"));
+
+        assertThat(lookups("duplicate")).isZero();
+        assertThat(registry.get("consumer.dedup.duplicate.keys").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("예상보다 많이 들어와 필터가 포화되면 오탐이 늘고 비율 게이지에 드러난다")
+    void reportsFalsePositiveRatio() {
+        IdempotentConsumer small = new IdempotentConsumer(
+                "tiny", registry, Duration.ofMinutes(10), 8, 0.5, clock::get);
+        for (int i = 0; i < 500; i++) {
+            small.process("SEEN-" + i, processed, insert("SEEN-" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            small.process("NEW-" + i, processed, insert("NEW-" + i));
+        }
+
+        double falsePositives = registry.get("consumer.dedup.lookups")
+                .tags("consumer", "tiny", "result", "false_positive").counter().count();
+        assertThat(falsePositives).isGreaterThanOrEqualTo(10);
+        assertThat(registry.get("consumer.dedup.false.positive.ratio").tag("consumer", "tiny").gauge().value())
+                .isGreaterThan(0.0);
+    }
+
+    private Runnable insert(String eventId) {
+        return () -> {
+            if (!table.add(eventId)) {
+                throw new DataIntegrityViolationException("duplicate key processed_events_pkey");
+            }
+        };
+    }
+
+    private double lookups(String result) {
+        return registry.get("consumer.dedup.lookups")
+                .tags("consumer", "order-events", "result", result).counter().count();
+    }
+}
@@ -2,13 +2,20 @@ package com.livemart.inventory.consumer;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.livemart.common.event.envelope.EventEnvelope;
+import com.livemart.common.event.envelope.ProtoMaps;
+import com.livemart.common.event.envelope.ProtoValues;
+import com.livemart.common.event.proto.OrderEventPayload;
 import com.livemart.inventory.dto.InventoryRequest;
 import com.livemart.inventory.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -18,13 +25,27 @@ public class OrderEventConsumer {
     private final ObjectMapper objectMapper;
 
     @KafkaListener(topics = "order-events", groupId = "inventory-service")
-    public void handleOrderEvent(String message) {
+    public void handleOrderEvent(ConsumerRecord<String, byte[]> record) {
         try {
-            JsonNode event = objectMapper.readTree(message);
-            String eventType = event.path("eventType").asText();
-            JsonNode payload = event.has("payload") && event.get("payload").isTextual()
-                    ? objectMapper.readTree(event.get("payload").asText())
-                    : event.path("payload");
+            String eventType = EventEnvelope.eventType(record.headers());
+            if (eventType != null && !eventType.equals("ORDER_CREATED") && !eventType.equals("ORDER_CANCELLED")) {
+                log.debug("Ignoring event type: {}", eventType);
+                return;
+            }
+
+            JsonNode event = EventEnvelope.encoding(record.headers()) == EventEnvelope.Encoding.PROTOBUF
+                    ? objectMapper.valueToTree(ProtoMaps.toMap(ProtoValues.parse(OrderEventPayload.parser(), record.value())))
+                    : objectMapper.readTree(new String(record.value(), StandardCharsets.UTF_8));
+            eventType = event.path("eventType").asText();
+            // DomainEvent 래핑(payload) 형식과 OrderEvent 직접 발행 형식 모두 허용
+            JsonNode payload;
+            if (event.has("payload")) {
+                payload = event.get("payload").isTextual()
+                        ? objectMapper.readTree(event.get("payload").asText())
+                        : event.get("payload");
+            } else {
+                payload = event;
+            }
 
             switch (eventType) {
                 case "ORDER_CREATED" -> handleOrderCreated(payload);
@@ -32,7 +53,8 @@ public class OrderEventConsumer {
                 default -> log.debug("Ignoring event type: {}", eventType);
             }
         } catch (Exception e) {
-            log.error("Failed to process order event: {}", message, e);
+            log.error("Failed to process order event: topic={}, offset={}, key={}",
+                    record.topic(), record.offset(), record.key(), e);
         }
     }
 
@@ -0,0 +1,112 @@
+package com.livemart.order.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.livemart.common.event.DomainEvent;
+import com.livemart.order.domain.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * order-events 인코딩별 직렬화/역직렬화 비용 비교 (ADR-007)
+ *
+ * - outbox   : OutboxPublisher 경로 — OrderEvent JSON을 DomainEvent.payload 문자열로 한 번 더 JSON 인코딩,
+ *              소비 측은 inventory OrderEventConsumer처럼 readTree 2회
+ * - json     : 직접 Kafka 경로 — JsonSerializer와 같은 OrderEvent JSON 1회
+ * - protobuf : EnvelopeSerializer + OrderEventCodec
+ *
+ * 레코드당 바이트 수는 @Setup에서 한 번 출력한다.
+ * 실행: ./gradlew :order-service:jmh  (결과: build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderEventEncodingBenchmark {
+
+    @Param({"1", "5"})
+    private int itemCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final OrderEventCodec codec = new OrderEventCodec();
+
+    private OrderEvent event;
+    private byte[] outboxBytes;
+    private byte[] jsonBytes;
+    private byte[] protoBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<OrderEvent.OrderItemInfo> items = new java.util.ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderEvent.OrderItemInfo.builder()
+                    .productId(1000L + i)
+                    .productName("무선 블루투스 이어폰 " + i)
+                    .quantity(1 + i)
+                    .price(new BigDecimal("59900.00"))
+                    .build());
+        }
+        event = OrderEvent.builder()
+                .eventType(OrderEvent.EventType.ORDER_CREATED)
+                .orderId(123456L)
+                .orderNumber("ORD-20261018-7F3A9C21")
+                .userId(42L)
+                .items(items)
+                .totalAmount(new BigDecimal("59900.00").multiply(BigDecimal.valueOf(itemCount)))
+                .status(OrderStatus.PENDING)
+                .occurredAt(LocalDateTime.of(2026, 10, 18, 12, 30, 15))
+                .build();
+
+        outboxBytes = encodeOutbox();
+        jsonBytes = encodeJson();
+        protoBytes = encodeProtobuf();
+
+        System.out.printf("%n[order-events bytes/event, items=%d] outbox=%d, json=%d, protobuf=%d%n",
+                itemCount, outboxBytes.length, jsonBytes.length, protoBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeOutbox() throws Exception {
+        DomainEvent domainEvent = DomainEvent.builder()
+                .eventId("9b2f6c1e-0d7a-4c55-8f0e-3c1d2a7b9e44")
+                .aggregateType("Order")
+                .aggregateId(event.getOrderNumber())
+                .eventType(event.getEventType().name())
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+        return objectMapper.writeValueAsBytes(domainEvent);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] encodeProtobuf() {
+        return codec.encode(event);
+    }
+
+    @Benchmark
+    public JsonNode decodeOutbox() throws Exception {
+        JsonNode outer = objectMapper.readTree(outboxBytes);
+        return objectMapper.readTree(outer.get("payload").asText());
+    }
+
+    @Benchmark
+    public OrderEvent decodeJson() throws Exception {
+        return objectMapper.readValue(jsonBytes, OrderEvent.class);
+    }
+
+    @Benchmark
+    public OrderEvent decodeProtobuf() {
+        return codec.decode(protoBytes, OrderEventCodec.SCHEMA_VERSION);
+    }
+}
@@ -0,0 +1,214 @@
+package com.livemart.order.query;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 목록 1페이지(20건) 조회 지연시간 — 주문당 항목 100개
+ *
+ * JPA가 실제로 내보내는 SQL 형태를 JDBC로 재현해 H2(PostgreSQL 모드)에서 비교한다.
+ * - lazyItems  : 주문 페이지 조회 후 주문마다 order_items 지연 로딩 (1 + N 쿼리)
+ * - fetchJoin  : 페이지 주문 ID로 orders ⋈ order_items 한 번에 조회 (20 × 100 = 2,000행)
+ * - summary    : order_summary 단일 테이블 조회 (20행)
+ *
+ * 세 경로 모두 Page 응답용 COUNT 쿼리를 포함한다.
+ * 실행: ./gradlew :order-service:jmhJar && java -jar order-service/build/libs/order-service-2.0.0-jmh.jar OrderListPageBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderListPageBenchmark {
+
+    private static final long USER_ID = 42L;
+    private static final int ORDERS = 200;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100"})
+    private int itemsPerOrder;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:order-list;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("""
+                    CREATE TABLE orders (
+                        id BIGINT PRIMARY KEY, order_number VARCHAR(255) NOT NULL UNIQUE, user_id BIGINT NOT NULL,
+                        total_amount DECIMAL(10,2) NOT NULL, status VARCHAR(20) NOT NULL,
+                        payment_method VARCHAR(50) NOT NULL, created_at TIMESTAMP(6) NOT NULL)""");
+            ddl.execute("CREATE INDEX idx_orders_user_created ON orders(user_id, created_at DESC)");
+            ddl.execute("""
+                    CREATE TABLE order_items (
+                        id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL, product_id BIGINT NOT NULL,
+                        product_name VARCHAR(200) NOT NULL, product_price DECIMAL(10,2) NOT NULL,
+                        quantity INT NOT NULL, total_price DECIMAL(12,2) NOT NULL)""");
+            ddl.execute("CREATE INDEX idx_order_items_order_id ON order_items(order_id)");
+            ddl.execute("""
+                    CREATE TABLE order_summary (
+                        order_id BIGINT PRIMARY KEY, order_number VARCHAR(255) NOT NULL UNIQUE, user_id BIGINT NOT NULL,
+                        status VARCHAR(20) NOT NULL, total_amount DECIMAL(10,2) NOT NULL, item_count INT NOT NULL,
+                        total_quantity INT NOT NULL, first_item_name VARCHAR(200), thumbnail_url VARCHAR(500),
+                        payment_method VARCHAR(50), created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6))""");
+            ddl.execute("CREATE INDEX idx_order_summary_user_created ON order_summary(user_id, created_at DESC)");
+        }
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement drop = connection.createStatement()) {
+            drop.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void lazyItems(Blackhole bh) throws Exception {
+        bh.consume(count("SELECT COUNT(*) FROM orders WHERE user_id = ?"));
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT id, order_number, total_amount, status, payment_method, created_at
+                FROM orders WHERE user_id = ? ORDER BY created_at DESC LIMIT ?""")) {
+            ps.setLong(1, USER_ID);
+            ps.setInt(2, PAGE_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                    bh.consume(rs.getString(2));
+                    bh.consume(rs.getBigDecimal(3));
+                }
+            }
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id, product_id, product_name, product_price, quantity, total_price FROM order_items WHERE order_id = ?")) {
+            for (Long id : ids) {
+                ps.setLong(1, id);
+                int itemCount = 0;
+                String firstName = null;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (itemCount++ == 0) firstName = rs.getString(3);
+                        bh.consume(rs.getBigDecimal(4));
+                    }
+                }
+                bh.consume(itemCount);
+                bh.consume(firstName);
+            }
+        }
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) throws Exception {
+        bh.consume(count("SELECT COUNT(*) FROM orders WHERE user_id = ?"));
+        Map<Long, Integer> itemCounts = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT o.id, o.order_number, o.total_amount, o.status, i.id, i.product_name, i.product_price, i.quantity
+                FROM orders o JOIN order_items i ON i.order_id = o.id
+                WHERE o.id IN (SELECT id FROM orders WHERE user_id = ? ORDER BY created_at DESC LIMIT ?)
+                ORDER BY o.created_at DESC, i.id""")) {
+            ps.setLong(1, USER_ID);
+            ps.setInt(2, PAGE_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    itemCounts.merge(rs.getLong(1), 1, Integer::sum);
+                    bh.consume(rs.getString(2));
+                    bh.consume(rs.getString(6));
+                    bh.consume(rs.getBigDecimal(7));
+                }
+            }
+        }
+        bh.consume(itemCounts);
+    }
+
+    @Benchmark
+    public void summary(Blackhole bh) throws Exception {
+        bh.consume(count("SELECT COUNT(*) FROM order_summary WHERE user_id = ?"));
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT order_id, order_number, total_amount, status, item_count, total_quantity,
+                       first_item_name, thumbnail_url, payment_method, created_at
+                FROM order_summary WHERE user_id = ? ORDER BY created_at DESC LIMIT ?""")) {
+            ps.setLong(1, USER_ID);
+            ps.setInt(2, PAGE_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    bh.consume(rs.getString(2));
+                    bh.consume(rs.getBigDecimal(3));
+                    bh.consume(rs.getInt(5));
+                    bh.consume(rs.getString(7));
+                }
+            }
+        }
+    }
+
+    private long count(String sql) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, USER_ID);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void seed() throws Exception {
+        connection.setAutoCommit(false);
+        LocalDateTime base = LocalDateTime.of(2026, 10, 1, 9, 0);
+        try (PreparedStatement order = connection.prepareStatement(
+                "INSERT INTO orders VALUES (?, ?, ?, ?, 'DELIVERED', 'CARD', ?)");
+             PreparedStatement item = connection.prepareStatement(
+                     "INSERT INTO order_items VALUES (?, ?, ?, ?, 9900.00, 1, 9900.00)");
+             PreparedStatement summary = connection.prepareStatement(
+                     "INSERT INTO order_summary VALUES (?, ?, ?, 'DELIVERED', ?, ?, ?, ?, NULL, 'CARD', ?, NULL)")) {
+            long itemId = 1;
+            for (long id = 1; id <= ORDERS; id++) {
+                Timestamp createdAt = Timestamp.valueOf(base.plusMinutes(id));
+                String orderNumber = "ORD-BENCH-" + id;
+                long total = 9900L * itemsPerOrder;
+
+                order.setLong(1, id);
+                order.setString(2, orderNumber);
+                order.setLong(3, USER_ID);
+                order.setLong(4, total);
+                order.setTimestamp(5, createdAt);
+                order.addBatch();
+
+                for (int i = 0; i < itemsPerOrder; i++) {
+                    item.setLong(1, itemId++);
+                    item.setLong(2, id);
+                    item.setLong(3, 1000L + i);
+                    item.setString(4, "상품 " + i);
+                    item.addBatch();
+                }
+                item.executeBatch();
+
+                summary.setLong(1, id);
+                summary.setString(2, orderNumber);
+                summary.setLong(3, USER_ID);
+                summary.setLong(4, total);
+                summary.setInt(5, itemsPerOrder);
+                summary.setInt(6, itemsPerOrder);
+                summary.setString(7, "상품 0");
+                summary.setTimestamp(8, createdAt);
+                summary.addBatch();
+            }
+            order.executeBatch();
+            summary.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+}
@@ -5,6 +5,7 @@ import com.livemart.order.domain.Order;
 import com.livemart.order.domain.OrderItem;
 import com.livemart.order.domain.OrderStatus;
 import com.livemart.order.domain.event.OrderCreatedEvent;
+import com.livemart.order.query.service.OrderSummaryProjector;
 import com.livemart.order.repository.OrderRepository;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
@@ -38,6 +39,7 @@ import java.util.UUID;
 public class CreateOrderCommandHandler {
 
     private final OrderRepository orderRepository;
+    private final OrderSummaryProjector orderSummaryProjector;
     private final ApplicationEventPublisher eventPublisher;
 
     /**
@@ -85,6 +87,7 @@ public class CreateOrderCommandHandler {
 
         // 4. Write DB 저장 (Command Side)
         Order saved = orderRepository.save(order);
+        orderSummaryProjector.created(saved, null);
         log.info("주문 저장 완료: orderId={}, orderNumber={}", saved.getId(), saved.getOrderNumber());
 
         // 5. 도메인 이벤트 발행 (Kafka로 전파)
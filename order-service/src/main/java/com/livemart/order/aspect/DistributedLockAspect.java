@@ -1,5 +1,6 @@
 package com.livemart.order.aspect;
 
+import com.livemart.order.metrics.OrderPipelineProfiler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -22,6 +23,7 @@ import java.lang.reflect.Method;
 public class DistributedLockAspect {
 
     private final RedissonClient redissonClient;
+    private final OrderPipelineProfiler pipelineProfiler;
     private final ExpressionParser parser = new SpelExpressionParser();
 
     @Around("@annotation(com.livemart.order.aspect.DistributedLock)")
@@ -34,11 +36,14 @@ public class DistributedLockAspect {
         RLock lock = redissonClient.getLock(key);
 
         try {
+            long waitStart = System.nanoTime();
             boolean available = lock.tryLock(
                     distributedLock.waitTime(),
                     distributedLock.leaseTime(),
                     distributedLock.timeUnit()
             );
+            // 락 대기시간 → orders.lock.wait.seconds + 주문 단계별 트레이스(lock_wait)
+            pipelineProfiler.recordLockWait(System.nanoTime() - waitStart, available);
 
             if (!available) {
                 log.error("Lock acquisition failed: {}", key);
@@ -52,6 +57,7 @@ public class DistributedLockAspect {
             Thread.currentThread().interrupt();
             throw new RuntimeException("락 획득 중 인터럽트 발생", e);
         } finally {
+            pipelineProfiler.clearLockWait();
             if (lock.isHeldByCurrentThread()) {
                 lock.unlock();
                 log.info("Lock released: {}", key);
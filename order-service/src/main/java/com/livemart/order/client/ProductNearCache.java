@@ -0,0 +1,113 @@
+package com.livemart.order.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.livemart.order.dto.ProductInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 정보 near-cache (JVM 로컬, Caffeine)
+ *
+ * 주문 생성 시 가격/상품명/상태/판매자만 이 캐시에서 읽는다.
+ * 재고는 캐시 값을 신뢰하지 않고 재고 차감 단계에서 ProductFeignClient로 다시 조회한다.
+ *
+ * - 무효화: product-events(CREATED/UPDATED/DELETED) 수신 시 해당 상품 제거 (ProductCacheInvalidationListener)
+ * - 안전 TTL: 이벤트 유실/지연 대비 order.product-cache.ttl 경과 시 강제 만료
+ * - 크기 상한: order.product-cache.max-size (W-TinyLFU 축출)
+ *
+ * 메트릭:
+ *   cache.gets{cache=productNearCache, result=hit|miss}  → 적중률
+ *   orders.product.cache.hit.age                         : 적중 시 엔트리 나이 (최대 staleness 상한)
+ *   orders.product.cache.invalidation.lag                : 상품 변경 시각 → 무효화 반영까지 지연
+ */
+@Slf4j
+@Component
+public class ProductNearCache {
+
+    public static final String CACHE_NAME = "productNearCache";
+
+    private final ProductFeignClient productFeignClient;
+    private final Ticker ticker;
+    private final Cache<Long, Entry> cache;
+    private final Timer hitAge;
+    private final Timer invalidationLag;
+    private final Counter invalidations;
+
+    @Autowired
+    public ProductNearCache(ProductFeignClient productFeignClient,
+                            MeterRegistry registry,
+                            @Value("${order.product-cache.max-size:10000}") long maxSize,
+                            @Value("${order.product-cache.ttl:60s}") Duration ttl) {
+        this(productFeignClient, registry, maxSize, ttl, Ticker.systemTicker());
+    }
+
+    ProductNearCache(ProductFeignClient productFeignClient, MeterRegistry registry,
+                     long maxSize, Duration ttl, Ticker ticker) {
+        this.productFeignClient = productFeignClient;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+
+        this.hitAge = Timer.builder("orders.product.cache.hit.age")
+                .description("Age of product near-cache entries when served")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.invalidationLag = Timer.builder("orders.product.cache.invalidation.lag")
+                .description("Delay between a product change and near-cache invalidation")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.invalidations = Counter.builder("orders.product.cache.invalidations.total")
+                .description("Product near-cache entries invalidated by product-events")
+                .register(registry);
+    }
+
+    /**
+     * 캐시 조회, 미스 시 상품 서비스에서 적재. 같은 상품의 동시 미스는 한 번만 호출된다.
+     */
+    public ProductInfo get(Long productId) {
+        boolean[] loaded = {false};
+        Entry entry = cache.get(productId, id -> {
+            loaded[0] = true;
+            return new Entry(productFeignClient.getProduct(id), ticker.read());
+        });
+        if (!loaded[0]) {
+            hitAge.record(ticker.read() - entry.loadedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+        return entry.product();
+    }
+
+    /**
+     * 상품 변경 이벤트 반영
+     *
+     * @param changedAt 상품 서비스의 변경 시각 (없으면 지연 미기록)
+     */
+    public void invalidate(Long productId, LocalDateTime changedAt) {
+        cache.invalidate(productId);
+        invalidations.increment();
+        if (changedAt != null) {
+            Duration lag = Duration.between(changedAt, LocalDateTime.now());
+            invalidationLag.record(lag.isNegative() ? Duration.ZERO : lag);
+        }
+        log.debug("Product near-cache invalidated: productId={}", productId);
+    }
+
+    private record Entry(ProductInfo product, long loadedAtNanos) {
+    }
+}
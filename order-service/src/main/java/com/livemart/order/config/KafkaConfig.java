@@ -1,6 +1,14 @@
 package com.livemart.order.config;
 
+import com.livemart.common.event.envelope.EnvelopeDeserializer;
+import com.livemart.common.event.envelope.EnvelopeSerializer;
+import com.livemart.common.event.envelope.EventEnvelope;
+import com.livemart.common.event.envelope.ProtoMaps;
+import com.livemart.common.event.envelope.ProtoValues;
+import com.livemart.common.event.proto.PaymentEventPayload;
+import com.livemart.common.event.proto.ProductEventPayload;
 import com.livemart.order.event.OrderEvent;
+import com.livemart.order.event.OrderEventCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -16,19 +24,22 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Kafka 설정
- * - Producer: order-events (OrderEvent) + DLT용 String
- * - Consumer: payment-events with DLQ (Dead Letter Queue)
- *   실패 시 3회 지수 백오프(1s→2s→4s) 재시도 후 payment-events.DLT로 이동
+ * - Producer: order-events (OrderEvent, 엔벨로프 헤더 + livemart.events.encoding 인코딩) + DLT용 String
+ * - Consumer: payment-events 배치 리스너 with DLQ (Dead Letter Queue)
+ *   실패 시 배치 전체를 3회 지수 백오프(1s→2s→4s) 재시도 후 레코드별로 payment-events.DLT로 이동
+ * - Consumer: product-events → 상품 near-cache 무효화 (인스턴스별 브로드캐스트 구독)
  */
 @Slf4j
 @EnableKafka
@@ -38,18 +49,24 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${livemart.events.encoding:json}")
+    private String eventEncoding;
+
+    @Value("${order.payment-consumer.max-poll-records:500}")
+    private int paymentMaxPollRecords;
+
     // ── Producer: OrderEvent ─────────────────────────────────────────
 
     @Bean
     public ProducerFactory<String, OrderEvent> producerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         config.put(ProducerConfig.ACKS_CONFIG, "all");
         config.put(ProducerConfig.RETRIES_CONFIG, 3);
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        return new DefaultKafkaProducerFactory<>(config);
+        // json: 기존 본문 + 엔벨로프 헤더 / protobuf: 모든 order-events 소비자가 dual-read 배포된 뒤 전환
+        return new DefaultKafkaProducerFactory<>(config, new StringSerializer(),
+                new EnvelopeSerializer<>(new OrderEventCodec(), EventEnvelope.Encoding.from(eventEncoding)));
     }
 
     @Bean
@@ -116,12 +133,16 @@ public class KafkaConfig {
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-payment-group");
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.util.LinkedHashMap");
-        return new DefaultKafkaConsumerFactory<>(config);
+        // 배치 리스너: poll 1회분을 한 트랜잭션으로 반영 (OrderPaymentConsumer)
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, paymentMaxPollRecords);
+
+        // Dual-read: protobuf 엔벨로프 → Map / 레거시 JSON → LinkedHashMap (리스너는 동일한 Map 키로 조회)
+        JsonDeserializer<Map> legacy = new JsonDeserializer<>(Map.class, false);
+        legacy.addTrustedPackages("*");
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new EnvelopeDeserializer<>(
+                        ProtoMaps.decoder(bytes -> ProtoValues.parse(PaymentEventPayload.parser(), bytes)),
+                        legacy));
     }
 
     @Bean
@@ -131,11 +152,48 @@ public class KafkaConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(paymentConsumerFactory());
         factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setBatchListener(true);
         // 파티션 3개에 맞춰 동시 소비 스레드 3개 → 처리량 3배 향상
         factory.setConcurrency(3);
         return factory;
     }
 
+    // ── Consumer: ProductEvent (near-cache 무효화) ────────────────────
+
+    /**
+     * 인스턴스마다 고유 group.id → 모든 인스턴스가 모든 무효화 이벤트 수신
+     * 기동 시점 이전 이벤트는 필요 없으므로(캐시가 비어 있음) latest, 오프셋 커밋도 하지 않는다.
+     */
+    @Bean
+    public ConsumerFactory<String, Map> productCacheConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-product-cache-" + UUID.randomUUID());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        JsonDeserializer<Map> legacy = new JsonDeserializer<>(Map.class, false);
+        legacy.addTrustedPackages("*");
+        legacy.setUseTypeHeaders(false);
+        // 재고 변경 등 무효화 대상이 아닌 타입은 헤더만 보고 본문 디코딩 생략
+        EnvelopeDeserializer<Map> deserializer = new EnvelopeDeserializer<>(
+                ProtoMaps.decoder(bytes -> ProtoValues.parse(ProductEventPayload.parser(), bytes)),
+                legacy)
+                .acceptOnly(Set.of("CREATED", "UPDATED", "DELETED"));
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), deserializer);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Map> productCacheListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Map> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(productCacheConsumerFactory());
+        factory.setRecordFilterStrategy(record -> record.value() == null);
+        // 리스너가 ack하지 않음 → 인스턴스마다 생기는 일회성 group의 오프셋이 브로커에 쌓이지 않는다
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
     // ── Kafka 토픽 자동 생성 (파티션 3개 × 복제 1개) ───────────────────────────
 
     /**
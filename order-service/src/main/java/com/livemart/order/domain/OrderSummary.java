@@ -0,0 +1,81 @@
+package com.livemart.order.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 주문 목록 조회용 비정규화 읽기 모델 (order_summary)
+ *
+ * 목록 화면에 필요한 값(항목 수, 대표 상품명, 썸네일)을 주문 생성 시점에 한 번 계산해 두고,
+ * 이후에는 상태만 갱신한다. → 목록 조회가 order_items를 전혀 읽지 않는다.
+ * 행은 OrderSummaryProjector가 주문 상태 변경과 같은 트랜잭션에서 유지한다.
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_user_created", columnList = "userId, createdAt DESC"),
+        @Index(name = "idx_order_summary_user_status_created", columnList = "userId, status, createdAt DESC"),
+        @Index(name = "idx_order_summary_status_created", columnList = "status, createdAt DESC")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    @Id
+    private Long orderId;
+
+    @Column(nullable = false, unique = true)
+    private String orderNumber;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false)
+    private int totalQuantity;
+
+    @Column(length = 200)
+    private String firstItemName;
+
+    @Column(length = 500)
+    private String thumbnailUrl;
+
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static OrderSummary from(Order order, String thumbnailUrl) {
+        List<OrderItem> items = order.getItems();
+        return OrderSummary.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .itemCount(items.size())
+                .totalQuantity(items.stream().mapToInt(OrderItem::getQuantity).sum())
+                .firstItemName(items.isEmpty() ? null : items.get(0).getProductName())
+                .thumbnailUrl(thumbnailUrl)
+                .paymentMethod(order.getPaymentMethod())
+                .createdAt(order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.livemart.order.dto;
+
+/**
+ * 결제 이벤트 배치 반영 결과
+ *
+ * @param confirmed 확정 처리된 주문 수
+ * @param cancelled 취소 처리된 주문 수
+ * @param skipped   반영 없이 넘어간 건수 (중복·이미 전이된 이벤트, 대상 주문 없음, 결제 취소 실패·동시 변경으로 보류된 주문)
+ */
+public record PaymentBatchResult(int confirmed, int cancelled, int skipped) {
+
+    public static final PaymentBatchResult EMPTY = new PaymentBatchResult(0, 0, 0);
+}
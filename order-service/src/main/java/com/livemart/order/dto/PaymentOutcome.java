@@ -0,0 +1,25 @@
+package com.livemart.order.dto;
+
+import com.livemart.order.domain.OrderStatus;
+
+/**
+ * payment-events 1건을 주문 상태 전이 관점으로 정규화한 값
+ *
+ * 전이 규칙은 멱등이다 — 이미 전이된 주문에 같은 이벤트가 재전달되면 상태가 바뀌지 않는다.
+ * - COMPLETED : PENDING → CONFIRMED
+ * - FAILED    : PENDING / CONFIRMED → CANCELLED
+ */
+public record PaymentOutcome(String orderNumber, Type type, String transactionId) {
+
+    public enum Type {
+        COMPLETED, FAILED
+    }
+
+    public OrderStatus apply(OrderStatus current) {
+        return switch (type) {
+            case COMPLETED -> current == OrderStatus.PENDING ? OrderStatus.CONFIRMED : current;
+            case FAILED -> current == OrderStatus.PENDING || current == OrderStatus.CONFIRMED
+                    ? OrderStatus.CANCELLED : current;
+        };
+    }
+}
@@ -14,4 +14,7 @@ public class ProductInfo {
     private String name;
     private BigDecimal price;
     private Integer stockQuantity;
+    private String imageUrl;
+    private String status;
+    private Long sellerId;
 }
\ No newline at end of file
@@ -1,21 +1,29 @@
 package com.livemart.order.event;
 
+import com.livemart.order.dto.PaymentBatchResult;
+import com.livemart.order.dto.PaymentOutcome;
 import com.livemart.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Kafka Consumer: payment-events 수신
+ * Kafka Batch Consumer: payment-events 수신
  * - PAYMENT_COMPLETED → 주문 확인(ORDER_CONFIRMED)
  * - PAYMENT_FAILED    → 주문 취소(ORDER_CANCELLED)
  * - PAYMENT_CANCELLED → 로그
+ *
+ * poll 1회분(최대 max.poll.records)을 한 번에 받아 OrderService.applyPaymentOutcomes로
+ * 단일 트랜잭션 반영한다. 결제 백로그 시 메시지당 DB 왕복 3~4회 → 배치당 2~3회.
+ *
+ * 파티션 키가 주문번호이므로 같은 주문의 이벤트는 같은 파티션 → 같은 배치 내에서 오프셋 순서로 전달된다.
+ * 반영 중 예외가 나면 배치 전체가 에러 핸들러로 재시도되며, 상태 전이가 멱등이므로 중복 반영되지 않는다.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,51 +37,51 @@ public class OrderPaymentConsumer {
         groupId = "order-service-payment-group",
         containerFactory = "paymentKafkaListenerContainerFactory"
     )
-    public void handlePaymentEvent(
-            @Payload Map<String, Object> event,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+    public void handlePaymentEvents(List<ConsumerRecord<String, Map<String, Object>>> records) {
+        List<PaymentOutcome> outcomes = new ArrayList<>(records.size());
 
-        try {
-            String eventType   = String.valueOf(event.get("eventType"));
-            String orderNumber = String.valueOf(event.get("orderNumber"));
-            String transactionId = String.valueOf(event.get("transactionId"));
-
-            log.info("결제 이벤트 수신: type={}, order={}, txn={}", eventType, orderNumber, transactionId);
-
-            switch (eventType) {
-                case "PAYMENT_COMPLETED" -> handlePaymentCompleted(orderNumber, transactionId);
-                case "PAYMENT_FAILED"    -> handlePaymentFailed(orderNumber, transactionId);
-                case "PAYMENT_CANCELLED" -> log.info("결제 취소 이벤트 수신: order={}", orderNumber);
-                default                  -> log.debug("처리하지 않는 결제 이벤트: {}", eventType);
+        for (ConsumerRecord<String, Map<String, Object>> record : records) {
+            PaymentOutcome outcome = toOutcome(record);
+            if (outcome != null) {
+                outcomes.add(outcome);
             }
-        } catch (Exception e) {
-            log.error("결제 이벤트 처리 실패: event={}", event, e);
         }
-    }
 
-    /**
-     * 결제 완료 → 주문 확인 상태로 변경
-     */
-    private void handlePaymentCompleted(String orderNumber, String transactionId) {
-        try {
-            var orderResp = orderService.getOrderByOrderNumber(orderNumber);
-            orderService.confirmOrder(orderResp.getId());
-            log.info("결제 완료 → 주문 확인 처리: order={}, txn={}", orderNumber, transactionId);
-        } catch (Exception e) {
-            log.error("주문 확인 처리 실패: order={}", orderNumber, e);
-        }
+        if (outcomes.isEmpty()) return;
+
+        PaymentBatchResult result = orderService.applyPaymentOutcomes(outcomes);
+        log.info("결제 이벤트 배치 처리: records={}, outcomes={}, confirmed={}, cancelled={}, skipped={}",
+                records.size(), outcomes.size(), result.confirmed(), result.cancelled(), result.skipped());
     }
 
     /**
-     * 결제 실패 → 주문 취소
+     * 레코드 → 상태 전이 대상 변환. 전이가 없는 이벤트나 잘못된 페이로드는 null
      */
-    private void handlePaymentFailed(String orderNumber, String transactionId) {
-        try {
-            var orderResp = orderService.getOrderByOrderNumber(orderNumber);
-            orderService.cancelOrder(orderResp.getId(), "결제 실패: " + transactionId);
-            log.info("결제 실패 → 주문 취소 처리: order={}, txn={}", orderNumber, transactionId);
-        } catch (Exception e) {
-            log.error("결제 실패로 인한 주문 취소 처리 실패: order={}", orderNumber, e);
+    private PaymentOutcome toOutcome(ConsumerRecord<String, Map<String, Object>> record) {
+        Map<String, Object> event = record.value();
+        if (event == null || event.get("orderNumber") == null) {
+            log.warn("잘못된 결제 이벤트 무시: partition={}, offset={}, event={}",
+                    record.partition(), record.offset(), event);
+            return null;
         }
+
+        String eventType     = String.valueOf(event.get("eventType"));
+        String orderNumber   = String.valueOf(event.get("orderNumber"));
+        String transactionId = String.valueOf(event.get("transactionId"));
+
+        log.debug("결제 이벤트 수신: type={}, order={}, txn={}", eventType, orderNumber, transactionId);
+
+        return switch (eventType) {
+            case "PAYMENT_COMPLETED" -> new PaymentOutcome(orderNumber, PaymentOutcome.Type.COMPLETED, transactionId);
+            case "PAYMENT_FAILED"    -> new PaymentOutcome(orderNumber, PaymentOutcome.Type.FAILED, transactionId);
+            case "PAYMENT_CANCELLED" -> {
+                log.info("결제 취소 이벤트 수신: order={}", orderNumber);
+                yield null;
+            }
+            default -> {
+                log.debug("처리하지 않는 결제 이벤트: {}", eventType);
+                yield null;
+            }
+        };
     }
 }
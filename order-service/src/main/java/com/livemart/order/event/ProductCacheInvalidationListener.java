@@ -0,0 +1,79 @@
+package com.livemart.order.event;
+
+import com.livemart.order.client.ProductNearCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * product-events 수신 → 상품 near-cache 무효화
+ *
+ * near-cache는 인스턴스마다 따로 있으므로 모든 인스턴스가 모든 이벤트를 받아야 한다.
+ * → 인스턴스별 고유 group.id + latest 오프셋 (KafkaConfig.productCacheConsumerFactory)
+ * 재고 변경(STOCK_CHANGED)은 캐시가 재고를 신뢰하지 않으므로 무시한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidationListener {
+
+    static final Set<String> INVALIDATING_TYPES = Set.of("CREATED", "UPDATED", "DELETED");
+
+    private final ProductNearCache productNearCache;
+
+    @KafkaListener(
+        topics = "product-events",
+        containerFactory = "productCacheListenerContainerFactory"
+    )
+    public void handleProductEvent(ConsumerRecord<String, Map<String, Object>> record) {
+        Map<String, Object> event = record.value();
+        String eventType = String.valueOf(event.get("eventType"));
+        if (!INVALIDATING_TYPES.contains(eventType)) return;
+
+        Long productId = toLong(event.get("productId"));
+        if (productId == null) {
+            log.warn("productId 없는 상품 이벤트 무시: eventType={}, offset={}", eventType, record.offset());
+            return;
+        }
+        productNearCache.invalidate(productId, toLocalDateTime(event.get("occurredAt")));
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number n) return n.longValue();
+        if (value instanceof String s && !s.isEmpty()) return Long.valueOf(s);
+        return null;
+    }
+
+    /**
+     * occurredAt 표현 차이 흡수 — protobuf: epoch millis(UTC 벽시계) / JSON: ISO 문자열 또는 [y,M,d,h,m,s,n] 배열
+     */
+    private static LocalDateTime toLocalDateTime(Object value) {
+        try {
+            if (value instanceof Number n && n.longValue() != 0L) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(n.longValue()), ZoneOffset.UTC);
+            }
+            if (value instanceof String s && !s.isEmpty()) {
+                return LocalDateTime.parse(s);
+            }
+            if (value instanceof List<?> parts && parts.size() >= 5) {
+                int[] f = new int[7];
+                for (int i = 0; i < Math.min(parts.size(), 7); i++) {
+                    f[i] = ((Number) parts.get(i)).intValue();
+                }
+                return LocalDateTime.of(f[0], f[1], f[2], f[3], f[4], f[5], f[6]);
+            }
+        } catch (RuntimeException e) {
+            log.debug("상품 이벤트 occurredAt 파싱 실패: {}", value);
+        }
+        return null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.livemart.order.metrics;
 
 import com.livemart.order.dto.OrderResponse;
+import com.livemart.order.dto.PaymentBatchResult;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -26,6 +27,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * Grafana 쿼리 예시:
  *   rate(orders_created_total{status="success"}[5m])  → 분당 주문 생성률
  *   histogram_quantile(0.99, orders_processing_seconds_bucket) → P99 처리 시간
+ *
+ * 단계별(검증/저장/재고/결제/이벤트) 분해는 OrderPipelineProfiler 참고
  */
 @Slf4j
 @Aspect
@@ -111,4 +114,18 @@ public class OrderMetricsAspect {
         log.debug("[Metrics] 주문 확정 - orders.confirmed.total++");
         return result;
     }
+
+    /**
+     * applyPaymentOutcomes() 배치 반영 결과만큼 확정/취소 카운터 증가 (결제 이벤트 배치 리스너)
+     */
+    @Around("execution(* com.livemart.order.service.OrderService.applyPaymentOutcomes(..))")
+    public Object measurePaymentBatch(ProceedingJoinPoint pjp) throws Throwable {
+        Object result = pjp.proceed();
+        if (result instanceof PaymentBatchResult batch) {
+            orderConfirmed.increment(batch.confirmed());
+            orderCancelled.increment(batch.cancelled());
+            log.debug("[Metrics] 결제 배치 반영 - confirmed+={}, cancelled+={}", batch.confirmed(), batch.cancelled());
+        }
+        return result;
+    }
 }
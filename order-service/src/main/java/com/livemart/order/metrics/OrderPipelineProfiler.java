@@ -0,0 +1,199 @@
+package com.livemart.order.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 주문 생성 파이프라인 단계별 지연시간 계측
+ *
+ * OrderMetricsAspect는 createOrder 전체를 하나의 블록으로 측정하므로,
+ * P99가 튀었을 때 검증/재고 차감/저장/결제/이벤트 발행 중 어디가 원인인지 알 수 없다.
+ * 이 컴포넌트는 각 단계를 다음 세 가지로 동시에 기록한다.
+ *
+ * 1. Micrometer Timer (히스토그램)
+ *    - orders.stage.seconds{stage, outcome}  : 단계별 처리 시간
+ *    - orders.lock.wait.seconds{outcome}     : 분산 락 대기 시간 (_sum = 누적 대기시간 카운터)
+ *    - orders.stage.retries.total{stage}     : 단계별 재시도(폴백 포함) 횟수
+ * 2. OpenTelemetry 스팬 (order.create.{stage}) — 모든 단계에 동일한 속성 세트 부여
+ * 3. SlowOrderSampler 링 버퍼 — 임계값 초과 주문의 단계별 소요시간 (/actuator/sloworders)
+ *
+ * Grafana 쿼리 예시:
+ *   histogram_quantile(0.99, sum by (le, stage) (rate(orders_stage_seconds_bucket[5m])))
+ */
+@Slf4j
+@Component
+public class OrderPipelineProfiler {
+
+    public static final String TAG_STAGE = "livemart.order.stage";
+    private static final String TAG_USER_ID = "livemart.user.id";
+    private static final String TAG_ORDER_NUMBER = "livemart.order.number";
+    private static final String TAG_OPERATION = "livemart.operation";
+    private static final String TAG_OUTCOME = "livemart.outcome";
+    private static final String OPERATION = "createOrder";
+
+    private final MeterRegistry registry;
+    private final Tracer tracer;
+    private final SlowOrderSampler sampler;
+    private final Map<OrderStage, Counter> retryCounters = new EnumMap<>(OrderStage.class);
+
+    /**
+     * DistributedLockAspect가 측정한 락 대기시간을 같은 스레드의 createOrderInternal로 전달
+     * (락 획득은 @Transactional 진입 전에 일어나므로 Trace가 아직 없다)
+     */
+    private final ThreadLocal<Long> pendingLockWaitNanos = new ThreadLocal<>();
+
+    public OrderPipelineProfiler(MeterRegistry registry, Tracer tracer, SlowOrderSampler sampler) {
+        this.registry = registry;
+        this.tracer = tracer;
+        this.sampler = sampler;
+        for (OrderStage stage : OrderStage.values()) {
+            retryCounters.put(stage, Counter.builder("orders.stage.retries.total")
+                    .tag("stage", stage.key())
+                    .description("Retries and fallbacks taken inside an order pipeline stage")
+                    .register(registry));
+        }
+    }
+
+    /**
+     * 분산 락 대기시간 기록 (DistributedLockAspect에서 호출)
+     */
+    public void recordLockWait(long nanos, boolean acquired) {
+        Timer.builder("orders.lock.wait.seconds")
+                .tag("outcome", acquired ? "acquired" : "timeout")
+                .description("Time spent waiting for the order distributed lock")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (acquired) {
+            pendingLockWaitNanos.set(nanos);
+        }
+    }
+
+    /**
+     * 락 해제 시 호출 — 스레드 풀 재사용 시 이전 요청 값이 새어 나가지 않도록 정리
+     */
+    public void clearLockWait() {
+        pendingLockWaitNanos.remove();
+    }
+
+    /**
+     * 주문 1건의 계측 시작
+     */
+    public Trace begin(Long userId) {
+        Trace trace = new Trace(userId);
+        Long lockWait = pendingLockWaitNanos.get();
+        if (lockWait != null) {
+            pendingLockWaitNanos.remove();
+            trace.stageNanos.put(OrderStage.LOCK_WAIT, lockWait);
+        }
+        return trace;
+    }
+
+    private void recordStage(OrderStage stage, boolean success, long nanos) {
+        Timer.builder("orders.stage.seconds")
+                .tag("stage", stage.key())
+                .tag("outcome", success ? "success" : "failure")
+                .description("Order creation time broken down by pipeline stage")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 주문 1건의 단계별 측정 상태 (요청 스레드 전용, 스레드 안전하지 않음)
+     */
+    public final class Trace {
+
+        private final long startNanos = System.nanoTime();
+        private final Long userId;
+        private final Map<OrderStage, Long> stageNanos = new EnumMap<>(OrderStage.class);
+        private String orderNumber;
+        private int retries;
+        private boolean finished;
+
+        private Trace(Long userId) {
+            this.userId = userId;
+        }
+
+        public void orderNumber(String orderNumber) {
+            this.orderNumber = orderNumber;
+        }
+
+        /**
+         * 단계 실행 — Timer 기록 + 스팬 생성, 예외는 그대로 전파
+         */
+        public <T> T stage(OrderStage stage, Supplier<T> action) {
+            Span span = tracer.nextSpan()
+                    .name("order.create." + stage.key())
+                    .tag(TAG_OPERATION, OPERATION)
+                    .tag(TAG_STAGE, stage.key())
+                    .tag(TAG_USER_ID, userId != null ? userId.toString() : "unknown")
+                    .tag(TAG_ORDER_NUMBER, orderNumber != null ? orderNumber : "pending")
+                    .start();
+            long start = System.nanoTime();
+            boolean success = false;
+            try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
+                T result = action.get();
+                success = true;
+                return result;
+            } catch (RuntimeException e) {
+                span.error(e);
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                stageNanos.merge(stage, elapsed, Long::sum);
+                recordStage(stage, success, elapsed);
+                span.tag(TAG_OUTCOME, success ? "success" : "failure");
+                span.end();
+            }
+        }
+
+        public void stage(OrderStage stage, Runnable action) {
+            stage(stage, () -> {
+                action.run();
+                return null;
+            });
+        }
+
+        /**
+         * 단계 내부 재시도/폴백 1회 기록
+         */
+        public void retry(OrderStage stage) {
+            retries++;
+            retryCounters.get(stage).increment();
+        }
+
+        /**
+         * 계측 종료 — 임계값 초과 시 링 버퍼에 샘플 기록. 중복 호출은 무시
+         */
+        public void finish(boolean success) {
+            if (finished) return;
+            finished = true;
+
+            long total = System.nanoTime() - startNanos + stageNanos.getOrDefault(OrderStage.LOCK_WAIT, 0L);
+            Map<String, Long> stages = new LinkedHashMap<>();
+            stageNanos.forEach((stage, nanos) -> stages.put(stage.key(), nanos));
+
+            boolean sampled = sampler.offer(new SlowOrderSampler.Sample(
+                    orderNumber, userId, success ? "success" : "failure",
+                    total, stages, retries, Instant.now()));
+            if (sampled) {
+                log.info("[Profiling] 느린 주문 샘플링: orderNumber={}, totalMs={}, stages={}",
+                        orderNumber, TimeUnit.NANOSECONDS.toMillis(total), stages);
+            }
+        }
+    }
+}
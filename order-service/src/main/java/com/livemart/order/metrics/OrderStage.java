@@ -0,0 +1,28 @@
+package com.livemart.order.metrics;
+
+/**
+ * 주문 생성 파이프라인 단계
+ *
+ * 메트릭 태그(stage=...)와 스팬 이름(order.create.{key})에 동일한 key를 사용하여
+ * Grafana 패널과 Jaeger 트레이스를 같은 이름으로 대조할 수 있도록 한다.
+ */
+public enum OrderStage {
+
+    LOCK_WAIT("lock_wait"),
+    VALIDATION("validation"),
+    PERSISTENCE("persistence"),
+    STOCK_DEDUCTION("stock_deduction"),
+    PAYMENT("payment"),
+    SUMMARY_PROJECTION("summary_projection"),
+    EVENT_PUBLISH("event_publish");
+
+    private final String key;
+
+    OrderStage(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
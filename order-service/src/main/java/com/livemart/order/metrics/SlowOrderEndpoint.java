@@ -0,0 +1,60 @@
+package com.livemart.order.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 느린 주문 단계별 소요시간 조회 Actuator 엔드포인트
+ *
+ * GET /actuator/sloworders?limit=20
+ * → 링 버퍼에 남아 있는 주문 중 가장 느린 N건의 단계별 소요시간(ms)
+ */
+@Component
+@Endpoint(id = "sloworders")
+@RequiredArgsConstructor
+public class SlowOrderEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SlowOrderSampler sampler;
+
+    @ReadOperation
+    public Map<String, Object> slowOrders(@Nullable Integer limit) {
+        List<Map<String, Object>> samples = sampler.slowest(limit != null ? limit : DEFAULT_LIMIT).stream()
+                .map(this::toView)
+                .toList();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("thresholdMs", sampler.thresholdMs());
+        body.put("capacity", sampler.capacity());
+        body.put("recorded", sampler.recordedCount());
+        body.put("samples", samples);
+        return body;
+    }
+
+    private Map<String, Object> toView(SlowOrderSampler.Sample sample) {
+        Map<String, Double> stagesMs = new LinkedHashMap<>();
+        sample.stageNanos().forEach((stage, nanos) -> stagesMs.put(stage, toMillis(nanos)));
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("orderNumber", sample.orderNumber());
+        view.put("userId", sample.userId());
+        view.put("outcome", sample.outcome());
+        view.put("totalMs", toMillis(sample.totalNanos()));
+        view.put("stagesMs", stagesMs);
+        view.put("retries", sample.retries());
+        view.put("completedAt", sample.completedAt());
+        return view;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,97 @@
+package com.livemart.order.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 느린 주문 샘플링 링 버퍼
+ *
+ * 임계값(order.profiling.slow-threshold-ms)을 넘은 주문만 고정 크기 배열에 기록하고,
+ * 가득 차면 가장 오래된 샘플을 덮어쓴다. → 메모리 사용량이 capacity로 상한
+ *
+ * 조회 시에는 버퍼 스냅샷을 총 소요시간 내림차순으로 정렬해 상위 N건을 돌려준다.
+ * 기록은 주문 1건당 한 번, 조회는 운영자 수동 호출이므로 단순 synchronized로 충분하다.
+ */
+@Component
+public class SlowOrderSampler {
+
+    private final long thresholdNanos;
+    private final Sample[] buffer;
+    private int next;
+    private long recorded;
+
+    public SlowOrderSampler(@Value("${order.profiling.slow-threshold-ms:500}") long thresholdMs,
+                            @Value("${order.profiling.sample-capacity:128}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("sample-capacity must be positive: " + capacity);
+        }
+        this.thresholdNanos = thresholdMs * 1_000_000L;
+        this.buffer = new Sample[capacity];
+    }
+
+    /**
+     * 임계값 이상인 경우에만 샘플을 기록한다.
+     *
+     * @return 기록 여부
+     */
+    public boolean offer(Sample sample) {
+        if (sample.totalNanos() < thresholdNanos) {
+            return false;
+        }
+        synchronized (this) {
+            buffer[next] = sample;
+            next = (next + 1) % buffer.length;
+            recorded++;
+        }
+        return true;
+    }
+
+    /**
+     * 버퍼에 남아 있는 샘플 중 가장 느린 limit건
+     */
+    public List<Sample> slowest(int limit) {
+        Sample[] snapshot;
+        synchronized (this) {
+            snapshot = buffer.clone();
+        }
+        return Arrays.stream(snapshot)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingLong(Sample::totalNanos).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    public synchronized long recordedCount() {
+        return recorded;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public long thresholdMs() {
+        return thresholdNanos / 1_000_000L;
+    }
+
+    /**
+     * 주문 1건의 단계별 소요시간 스냅샷
+     *
+     * @param stageNanos 단계 key → 소요시간(ns), 실행되지 않은 단계는 포함하지 않음
+     */
+    public record Sample(
+            String orderNumber,
+            Long userId,
+            String outcome,
+            long totalNanos,
+            Map<String, Long> stageNanos,
+            int retries,
+            Instant completedAt
+    ) {}
+}
@@ -38,12 +38,13 @@ public class OrderQueryController {
         return ResponseEntity.ok(orderQueryService.getOrderByNumber(orderNumber));
     }
 
-    @Operation(summary = "사용자 주문 요약 목록", description = "사용자의 주문 요약 목록 (경량 DTO)")
+    @Operation(summary = "사용자 주문 요약 목록", description = "사용자의 주문 요약 목록 (경량 DTO, status로 필터 가능)")
     @GetMapping("/user/{userId}/summary")
     public ResponseEntity<Page<OrderSummaryResponse>> getUserOrderSummaries(
             @PathVariable Long userId,
+            @RequestParam(required = false) OrderStatus status,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(orderQueryService.getUserOrderSummaries(userId, pageable));
+        return ResponseEntity.ok(orderQueryService.getUserOrderSummaries(userId, status, pageable));
     }
 
     @Operation(summary = "상태별 주문 조회", description = "주문 상태별로 요약 목록을 조회합니다")
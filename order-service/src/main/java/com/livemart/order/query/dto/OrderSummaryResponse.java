@@ -1,6 +1,7 @@
 package com.livemart.order.query.dto;
 
 import com.livemart.order.domain.OrderStatus;
+import com.livemart.order.domain.OrderSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 /**
  * CQRS Query 모델 - 주문 요약 (읽기 전용, 경량)
+ * order_summary 한 행으로만 구성 — order_items 조회 없음
  */
 @Getter
 @Builder
@@ -21,6 +23,25 @@ public class OrderSummaryResponse {
     private BigDecimal totalAmount;
     private OrderStatus status;
     private int itemCount;
+    private int totalQuantity;
+    private String firstItemName;
+    private String thumbnailUrl;
     private String paymentMethod;
     private LocalDateTime createdAt;
+
+    public static OrderSummaryResponse from(OrderSummary summary) {
+        return OrderSummaryResponse.builder()
+                .id(summary.getOrderId())
+                .orderNumber(summary.getOrderNumber())
+                .userId(summary.getUserId())
+                .totalAmount(summary.getTotalAmount())
+                .status(summary.getStatus())
+                .itemCount(summary.getItemCount())
+                .totalQuantity(summary.getTotalQuantity())
+                .firstItemName(summary.getFirstItemName())
+                .thumbnailUrl(summary.getThumbnailUrl())
+                .paymentMethod(summary.getPaymentMethod())
+                .createdAt(summary.getCreatedAt())
+                .build();
+    }
 }
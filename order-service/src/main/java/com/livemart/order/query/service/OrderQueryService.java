@@ -7,6 +7,7 @@ import com.livemart.order.dto.OrderItemResponse;
 import com.livemart.order.query.dto.OrderStatisticsResponse;
 import com.livemart.order.query.dto.OrderSummaryResponse;
 import com.livemart.order.repository.OrderRepository;
+import com.livemart.order.repository.OrderSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -30,6 +31,7 @@ import java.util.List;
 public class OrderQueryService {
 
     private final OrderRepository orderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
 
     /**
      * 주문 상세 조회 (캐시 적용)
@@ -51,19 +53,21 @@ public class OrderQueryService {
     }
 
     /**
-     * 사용자별 주문 요약 목록 (경량 DTO)
+     * 사용자별 주문 요약 목록 (order_summary 단일 테이블, 항목 컬렉션 로딩 없음)
      */
-    public Page<OrderSummaryResponse> getUserOrderSummaries(Long userId, Pageable pageable) {
-        return orderRepository.findByUserId(userId, pageable)
-                .map(this::toSummaryResponse);
+    public Page<OrderSummaryResponse> getUserOrderSummaries(Long userId, OrderStatus status, Pageable pageable) {
+        return (status == null
+                ? orderSummaryRepository.findByUserId(userId, pageable)
+                : orderSummaryRepository.findByUserIdAndStatus(userId, status, pageable))
+                .map(OrderSummaryResponse::from);
     }
 
     /**
      * 상태별 주문 요약 목록
      */
     public Page<OrderSummaryResponse> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        return orderRepository.findByStatus(status, pageable)
-                .map(this::toSummaryResponse);
+        return orderSummaryRepository.findByStatus(status, pageable)
+                .map(OrderSummaryResponse::from);
     }
 
     /**
@@ -101,19 +105,6 @@ public class OrderQueryService {
                 .build();
     }
 
-    private OrderSummaryResponse toSummaryResponse(Order order) {
-        return OrderSummaryResponse.builder()
-                .id(order.getId())
-                .orderNumber(order.getOrderNumber())
-                .userId(order.getUserId())
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus())
-                .itemCount(order.getItems() != null ? order.getItems().size() : 0)
-                .paymentMethod(order.getPaymentMethod())
-                .createdAt(order.getCreatedAt())
-                .build();
-    }
-
     private OrderResponse toDetailResponse(Order order) {
         List<OrderItemResponse> items = order.getItems().stream()
                 .map(item -> OrderItemResponse.builder()
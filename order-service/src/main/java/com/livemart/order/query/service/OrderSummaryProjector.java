@@ -0,0 +1,51 @@
+package com.livemart.order.query.service;
+
+import com.livemart.order.domain.Order;
+import com.livemart.order.domain.OrderStatus;
+import com.livemart.order.domain.OrderSummary;
+import com.livemart.order.repository.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * order_summary 읽기 모델 갱신 (CQRS Projection)
+ *
+ * 주문 쓰기 트랜잭션에 참여한다(REQUIRED). 주문 변경이 롤백되면 요약도 함께 롤백되므로
+ * 비동기 프로젝션과 달리 목록과 상세 사이에 지연이 없다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class OrderSummaryProjector {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+
+    /**
+     * 주문 생성 — 항목 집계는 이 시점에 한 번만 계산
+     */
+    public void created(Order order, String thumbnailUrl) {
+        orderSummaryRepository.save(OrderSummary.from(order, thumbnailUrl));
+    }
+
+    public void statusChanged(Order order) {
+        statusChanged(List.of(order.getId()), order.getStatus());
+    }
+
+    /**
+     * 일괄 상태 전이 반영 (결제 이벤트 배치 등)
+     */
+    public void statusChanged(Collection<Long> orderIds, OrderStatus status) {
+        if (orderIds.isEmpty()) return;
+        int updated = orderSummaryRepository.updateStatus(orderIds, status, LocalDateTime.now());
+        if (updated != orderIds.size()) {
+            log.warn("order_summary 행 누락: status={}, expected={}, updated={}", status, orderIds.size(), updated);
+        }
+    }
+}
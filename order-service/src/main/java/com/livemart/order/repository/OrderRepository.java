@@ -6,11 +6,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,4 +48,31 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @EntityGraph(attributePaths = {"items"})
     Page<Order> findAllBy(Pageable pageable);
+
+    // ── 결제 이벤트 배치 처리 ────────────────────────────────────────
+
+    // poll 1회분의 대상 주문 + 항목을 단일 쿼리로 로딩 (이벤트 페이로드에 항목 포함)
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.orderNumber IN :orderNumbers")
+    List<Order> findAllByOrderNumberInWithItems(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    // 조건부 일괄 확정: PENDING인 행만 전이 → 재전달 이벤트에 대해 멱등
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.livemart.order.domain.OrderStatus.CONFIRMED, " +
+           "o.confirmedAt = :now, o.updatedAt = :now " +
+           "WHERE o.id IN :ids AND o.status = com.livemart.order.domain.OrderStatus.PENDING")
+    int bulkConfirm(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // 조건부 일괄 취소: PENDING/CONFIRMED인 행만 전이
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.livemart.order.domain.OrderStatus.CANCELLED, " +
+           "o.cancelledAt = :now, o.updatedAt = :now " +
+           "WHERE o.id IN :ids AND o.status IN (com.livemart.order.domain.OrderStatus.PENDING, " +
+           "com.livemart.order.domain.OrderStatus.CONFIRMED)")
+    int bulkCancel(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // 일괄 전이 건수가 기대와 다를 때, 이번 배치(now)가 실제로 전이시킨 행만 식별
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status = :status AND o.updatedAt = :now")
+    List<Long> findIdsTransitionedAt(@Param("ids") Collection<Long> ids,
+                                     @Param("status") OrderStatus status,
+                                     @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,36 @@
+package com.livemart.order.repository;
+
+import com.livemart.order.domain.OrderStatus;
+import com.livemart.order.domain.OrderSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    // idx_order_summary_user_created
+    Page<OrderSummary> findByUserId(Long userId, Pageable pageable);
+
+    // idx_order_summary_status_created
+    Page<OrderSummary> findByStatus(OrderStatus status, Pageable pageable);
+
+    Page<OrderSummary> findByUserIdAndStatus(Long userId, OrderStatus status, Pageable pageable);
+
+    /**
+     * 상태 동기화 — 요약 엔티티를 로딩하지 않고 UPDATE 1회
+     * (주문 엔티티와 같은 트랜잭션에서 호출되므로 영속성 컨텍스트는 비우지 않는다)
+     */
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = :now WHERE s.orderId IN :orderIds")
+    int updateStatus(@Param("orderIds") Collection<Long> orderIds,
+                     @Param("status") OrderStatus status,
+                     @Param("now") LocalDateTime now);
+}
@@ -8,6 +8,9 @@ import com.livemart.order.domain.OrderItem;
 import com.livemart.order.domain.OrderStatus;
 import com.livemart.order.dto.*;
 import com.livemart.order.event.OrderEvent;
+import com.livemart.order.metrics.OrderPipelineProfiler;
+import com.livemart.order.metrics.OrderStage;
+import com.livemart.order.query.service.OrderSummaryProjector;
 import com.livemart.common.event.DomainEvent;
 import com.livemart.common.event.EventPublisher;
 import com.livemart.common.exception.BusinessException;
@@ -24,10 +27,18 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -39,6 +50,8 @@ public class OrderService {
     private final EventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
     private final ParallelProductValidationService parallelValidationService;
+    private final OrderPipelineProfiler pipelineProfiler;
+    private final OrderSummaryProjector orderSummaryProjector;
 
     public OrderService(OrderRepository orderRepository,
                        ProductFeignClient productFeignClient,
@@ -46,7 +59,9 @@ public class OrderService {
                        KafkaTemplate<String, OrderEvent> kafkaTemplate,
                        java.util.Optional<EventPublisher> eventPublisher,
                        java.util.Optional<ObjectMapper> objectMapper,
-                       ParallelProductValidationService parallelValidationService) {
+                       ParallelProductValidationService parallelValidationService,
+                       OrderPipelineProfiler pipelineProfiler,
+                       OrderSummaryProjector orderSummaryProjector) {
         this.orderRepository = orderRepository;
         this.productFeignClient = productFeignClient;
         this.paymentFeignClient = paymentFeignClient;
@@ -54,6 +69,8 @@ public class OrderService {
         this.eventPublisher = eventPublisher.orElse(null);
         this.objectMapper = objectMapper.orElse(new com.fasterxml.jackson.databind.ObjectMapper());
         this.parallelValidationService = parallelValidationService;
+        this.pipelineProfiler = pipelineProfiler;
+        this.orderSummaryProjector = orderSummaryProjector;
     }
 
     private static final String ORDER_TOPIC = "order-events";
@@ -68,10 +85,26 @@ public class OrderService {
         Long userId = request.getUserId();
         log.info("Creating order for userId: {}", userId);
 
+        // 단계별 지연시간 계측 (Timer + OTel 스팬 + 느린 주문 링 버퍼)
+        OrderPipelineProfiler.Trace trace = pipelineProfiler.begin(userId);
+        boolean success = false;
+        try {
+            OrderResponse response = createOrderStages(request, trace);
+            success = true;
+            return response;
+        } finally {
+            trace.finish(success);
+        }
+    }
+
+    private OrderResponse createOrderStages(OrderCreateRequest request, OrderPipelineProfiler.Trace trace) {
+        Long userId = request.getUserId();
+
         // 1. 상품 정보 병렬 조회 및 재고 검증 (Java 21 Structured Concurrency)
         //    단일 상품: 직접 조회 / 복수 상품: StructuredTaskScope.ShutdownOnFailure 병렬 조회
         //    → N개 상품 순차 조회 대비 최대 N배 성능 향상 (네트워크 I/O 병렬화)
-        List<ProductInfo> validatedProducts = parallelValidationService.validateInParallel(request.getItems());
+        List<ProductInfo> validatedProducts = trace.stage(OrderStage.VALIDATION,
+                () -> parallelValidationService.validateInParallel(request.getItems()));
 
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
@@ -96,6 +129,7 @@ public class OrderService {
 
         // 2. 주문 생성
         String orderNumber = generateOrderNumber();
+        trace.orderNumber(orderNumber);
         Order order = Order.builder()
                 .orderNumber(orderNumber)
                 .userId(userId)
@@ -111,20 +145,30 @@ public class OrderService {
             order.addOrderItem(item);
         }
 
-        orderRepository.save(order);
+        trace.stage(OrderStage.PERSISTENCE, () -> orderRepository.save(order));
 
-        // 3. 재고 차감
-        try {
-            for (OrderItemRequest itemRequest : request.getItems()) {
-                ProductInfo product = productFeignClient.getProduct(itemRequest.getProductId());
-                int newStock = product.getStockQuantity() - itemRequest.getQuantity();
-                productFeignClient.updateStock(itemRequest.getProductId(), newStock);
+        // 3. 재고 차감 — 재고는 near-cache가 아닌 상품 서비스 최신 값 기준
+        trace.stage(OrderStage.STOCK_DEDUCTION, () -> {
+            try {
+                for (OrderItemRequest itemRequest : request.getItems()) {
+                    ProductInfo product = productFeignClient.getProduct(itemRequest.getProductId());
+                    int newStock = product.getStockQuantity() - itemRequest.getQuantity();
+                    if (newStock < 0) {
+                        log.warn("Insufficient stock: productId={}, required={}, available={}",
+                                itemRequest.getProductId(), itemRequest.getQuantity(), product.getStockQuantity());
+                        throw BusinessException.insufficientStock(itemRequest.getProductId());
+                    }
+                    productFeignClient.updateStock(itemRequest.getProductId(), newStock);
+                }
+            } catch (BusinessException e) {
+                orderRepository.delete(order);
+                throw e;
+            } catch (Exception e) {
+                log.error("Failed to update stock. Rolling back order: {}", orderNumber, e);
+                orderRepository.delete(order);
+                throw BusinessException.conflict("재고 업데이트 실패. 주문이 취소되었습니다.");
             }
-        } catch (Exception e) {
-            log.error("Failed to update stock. Rolling back order: {}", orderNumber, e);
-            orderRepository.delete(order);
-            throw BusinessException.conflict("재고 업데이트 실패. 주문이 취소되었습니다.");
-        }
+        });
 
         // 4. 결제 처리
         // Payment Service의 PaymentMethod Enum 값으로 변환
@@ -140,18 +184,28 @@ public class OrderService {
                 .paymentMethod(paymentMethod)
                 .build();
 
-        try {
-            PaymentResponse paymentResponse = paymentFeignClient.processPayment(paymentRequest);
-            order.setPaymentTransactionId(paymentResponse.getTransactionId());
-            log.info("결제 완료: transactionId={}", paymentResponse.getTransactionId());
-        } catch (Exception e) {
-            log.error("결제 실패. 주문 롤백: {}", order.getOrderNumber(), e);
-            orderRepository.delete(order);
-            throw BusinessException.paymentFailed("결제 처리 실패: " + e.getMessage());
-        }
+        trace.stage(OrderStage.PAYMENT, () -> {
+            try {
+                PaymentResponse paymentResponse = paymentFeignClient.processPayment(paymentRequest);
+                order.setPaymentTransactionId(paymentResponse.getTransactionId());
+                log.info("결제 완료: transactionId={}", paymentResponse.getTransactionId());
+            } catch (Exception e) {
+                log.error("결제 실패. 주문 롤백: {}", order.getOrderNumber(), e);
+                orderRepository.delete(order);
+                throw BusinessException.paymentFailed("결제 처리 실패: " + e.getMessage());
+            }
+        });
+
+        // 목록 조회용 요약 행 — 재고/결제 실패로 주문이 삭제되는 경우를 피해 결제 성공 후 기록
+        String thumbnailUrl = validatedProducts.isEmpty() ? null : validatedProducts.get(0).getImageUrl();
+        trace.stage(OrderStage.SUMMARY_PROJECTION, () -> orderSummaryProjector.created(order, thumbnailUrl));
 
-        // 5. 주문 이벤트 발행
-        publishOrderEvent(order, OrderEvent.EventType.ORDER_CREATED, null);
+        // 5. 주문 이벤트 발행 (Outbox 실패 → 직접 Kafka 폴백은 재시도로 집계)
+        trace.stage(OrderStage.EVENT_PUBLISH, () -> {
+            if (publishOrderEvent(order, OrderEvent.EventType.ORDER_CREATED, null)) {
+                trace.retry(OrderStage.EVENT_PUBLISH);
+            }
+        });
 
         return toResponse(order);
     }
@@ -176,7 +230,10 @@ public class OrderService {
         return "ORD-" + timestamp + "-" + random;
     }
 
-    private void publishOrderEvent(Order order, OrderEvent.EventType eventType, String cancelReason) {
+    /**
+     * @return Outbox 발행 실패로 직접 Kafka 폴백 경로를 탔는지 여부
+     */
+    private boolean publishOrderEvent(Order order, OrderEvent.EventType eventType, String cancelReason) {
         List<OrderEvent.OrderItemInfo> items = order.getItems().stream()
                 .map(item -> OrderEvent.OrderItemInfo.builder()
                         .productId(item.getProductId())
@@ -209,16 +266,18 @@ public class OrderService {
                         .build();
                 eventPublisher.publish(ORDER_TOPIC, domainEvent);
                 log.info("Order event published via Outbox: eventType={}, orderNumber={}", eventType, order.getOrderNumber());
+                return false;
             } catch (Exception e) {
                 log.warn("Outbox publish failed, falling back to direct Kafka: {}", e.getMessage());
                 kafkaTemplate.send(ORDER_TOPIC, order.getOrderNumber(), event);
                 log.info("Order event published directly: eventType={}, orderNumber={}", eventType, order.getOrderNumber());
+                return true;
             }
-        } else {
-            // EventPublisher가 없으면 직접 Kafka로 발행
-            kafkaTemplate.send(ORDER_TOPIC, order.getOrderNumber(), event);
-            log.info("Order event published directly via Kafka: eventType={}, orderNumber={}", eventType, order.getOrderNumber());
         }
+        // EventPublisher가 없으면 직접 Kafka로 발행
+        kafkaTemplate.send(ORDER_TOPIC, order.getOrderNumber(), event);
+        log.info("Order event published directly via Kafka: eventType={}, orderNumber={}", eventType, order.getOrderNumber());
+        return false;
     }
 
     private OrderResponse toResponse(Order order) {
@@ -284,6 +343,7 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> BusinessException.notFound("Order", orderId));
         order.confirm();
+        orderSummaryProjector.statusChanged(order);
         publishOrderEvent(order, OrderEvent.EventType.ORDER_CONFIRMED, null);
         return toResponse(order);
     }
@@ -293,6 +353,7 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> BusinessException.notFound("Order", orderId));
         order.ship();
+        orderSummaryProjector.statusChanged(order);
         publishOrderEvent(order, OrderEvent.EventType.ORDER_SHIPPED, null);
         return toResponse(order);
     }
@@ -302,6 +363,7 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> BusinessException.notFound("Order", orderId));
         order.deliver();
+        orderSummaryProjector.statusChanged(order);
         publishOrderEvent(order, OrderEvent.EventType.ORDER_DELIVERED, null);
         return toResponse(order);
     }
@@ -330,6 +392,7 @@ public class OrderService {
 
             // 2. 주문 상태 변경
             order.cancel();
+            orderSummaryProjector.statusChanged(order);
 
             // 3. 취소 이벤트 발행 (재고 복구는 Product Service에서 이벤트 수신 후 처리)
             publishOrderEvent(order, OrderEvent.EventType.ORDER_CANCELLED, reason);
@@ -344,4 +407,111 @@ public class OrderService {
             throw BusinessException.conflict("주문 취소에 실패했습니다: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 결제 이벤트 배치 반영 (OrderPaymentConsumer 배치 리스너 전용)
+     *
+     * 메시지당 [주문번호 조회 → ID 조회 → UPDATE] 왕복 대신, poll 1회분을
+     * [IN 조회 1회 → 조건부 일괄 UPDATE 최대 2회]로 처리한다.
+     *
+     * - 순서 보장: 같은 주문의 이벤트는 poll 내 오프셋 순서대로 상태 머신에 적용 후 최종 상태만 기록
+     * - 멱등성: 전이 규칙(PaymentOutcome.apply) + UPDATE의 현재 상태 조건으로 재전달 시 무변경
+     * - 동시 변경: 일괄 UPDATE 건수가 모자라면 이번 배치가 실제로 전이시킨 행만 이벤트 발행
+     */
+    @Transactional
+    public PaymentBatchResult applyPaymentOutcomes(List<PaymentOutcome> outcomes) {
+        if (outcomes.isEmpty()) return PaymentBatchResult.EMPTY;
+
+        Map<String, List<PaymentOutcome>> byOrder = new LinkedHashMap<>();
+        for (PaymentOutcome outcome : outcomes) {
+            byOrder.computeIfAbsent(outcome.orderNumber(), k -> new ArrayList<>()).add(outcome);
+        }
+
+        Map<String, Order> orders = orderRepository.findAllByOrderNumberInWithItems(byOrder.keySet()).stream()
+                .collect(Collectors.toMap(Order::getOrderNumber, Function.identity()));
+
+        List<Order> toConfirm = new ArrayList<>();
+        List<Order> toCancel = new ArrayList<>();
+        Map<String, String> cancelReasons = new HashMap<>();
+        int skipped = 0;
+
+        for (Map.Entry<String, List<PaymentOutcome>> entry : byOrder.entrySet()) {
+            Order order = orders.get(entry.getKey());
+            if (order == null) {
+                log.warn("결제 이벤트 대상 주문 없음: order={}, events={}", entry.getKey(), entry.getValue().size());
+                skipped += entry.getValue().size();
+                continue;
+            }
+
+            OrderStatus status = order.getStatus();
+            for (PaymentOutcome outcome : entry.getValue()) {
+                OrderStatus next = outcome.apply(status);
+                if (next == status) {
+                    skipped++;
+                    continue;
+                }
+                if (next == OrderStatus.CANCELLED) {
+                    cancelReasons.put(order.getOrderNumber(), "결제 실패: " + outcome.transactionId());
+                }
+                status = next;
+            }
+
+            if (status == OrderStatus.CONFIRMED && order.getStatus() != OrderStatus.CONFIRMED) {
+                toConfirm.add(order);
+            } else if (status == OrderStatus.CANCELLED && order.getStatus() != OrderStatus.CANCELLED) {
+                toCancel.add(order);
+            }
+        }
+
+        // 결제 취소는 외부 호출이므로 건별 — 실패한 주문은 기존 cancelOrder와 동일하게 취소하지 않음
+        int cancelCandidates = toCancel.size();
+        toCancel.removeIf(order -> !cancelPaymentQuietly(order, cancelReasons.get(order.getOrderNumber())));
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Order> confirmed = bulkTransition(toConfirm, OrderStatus.CONFIRMED, now, orderRepository::bulkConfirm);
+        List<Order> cancelled = bulkTransition(toCancel, OrderStatus.CANCELLED, now, orderRepository::bulkCancel);
+        orderSummaryProjector.statusChanged(confirmed.stream().map(Order::getId).toList(), OrderStatus.CONFIRMED);
+        orderSummaryProjector.statusChanged(cancelled.stream().map(Order::getId).toList(), OrderStatus.CANCELLED);
+
+        // 영속성 컨텍스트는 일괄 UPDATE 후 비워졌으므로 아래 상태 변경은 이벤트 페이로드에만 반영된다
+        for (Order order : confirmed) {
+            order.confirm();
+            publishOrderEvent(order, OrderEvent.EventType.ORDER_CONFIRMED, null);
+        }
+        for (Order order : cancelled) {
+            order.cancel();
+            publishOrderEvent(order, OrderEvent.EventType.ORDER_CANCELLED, cancelReasons.get(order.getOrderNumber()));
+        }
+
+        skipped += (toConfirm.size() - confirmed.size()) + (cancelCandidates - cancelled.size());
+        log.info("결제 이벤트 배치 반영: events={}, orders={}, confirmed={}, cancelled={}, skipped={}",
+                outcomes.size(), byOrder.size(), confirmed.size(), cancelled.size(), skipped);
+        return new PaymentBatchResult(confirmed.size(), cancelled.size(), skipped);
+    }
+
+    private List<Order> bulkTransition(List<Order> targets, OrderStatus target, LocalDateTime now,
+                                       BiFunction<List<Long>, LocalDateTime, Integer> update) {
+        if (targets.isEmpty()) return List.of();
+
+        List<Long> ids = targets.stream().map(Order::getId).toList();
+        int updated = update.apply(ids, now);
+        if (updated == ids.size()) return targets;
+
+        // API 취소 등 동시 변경으로 조건에 맞지 않은 행이 있음 → 이번 배치가 전이시킨 행만 추림
+        Set<Long> applied = new HashSet<>(orderRepository.findIdsTransitionedAt(ids, target, now));
+        log.warn("일괄 상태 전이 일부 누락: target={}, expected={}, updated={}", target, ids.size(), updated);
+        return targets.stream().filter(order -> applied.contains(order.getId())).toList();
+    }
+
+    private boolean cancelPaymentQuietly(Order order, String reason) {
+        if (order.getPaymentTransactionId() == null) return true;
+        try {
+            paymentFeignClient.cancelPayment(order.getPaymentTransactionId(), Map.of("reason", reason));
+            log.info("Payment cancelled: transactionId={}", order.getPaymentTransactionId());
+            return true;
+        } catch (Exception e) {
+            log.error("결제 취소 실패로 주문 취소 보류: order={}", order.getOrderNumber(), e);
+            return false;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.livemart.order.service;
 
-import com.livemart.order.client.ProductFeignClient;
+import com.livemart.order.client.ProductNearCache;
 import com.livemart.order.dto.OrderItemRequest;
 import com.livemart.order.dto.ProductInfo;
 import com.livemart.common.exception.BusinessException;
@@ -29,6 +29,11 @@ import java.util.concurrent.StructuredTaskScope;
  * - Virtual Thread에서 실행되므로 블로킹 I/O도 효율적
  * - scope.throwIfFailed()로 예외를 호출 스레드로 정확히 전파
  *
+ * [Near-cache]
+ * 가격/상품명/상태는 ProductNearCache에서 읽는다 (적중 시 원격 호출 없음).
+ * 캐시된 재고는 오래됐을 수 있으므로 여기서는 판매 상태만 검증하고,
+ * 재고 충분 여부는 OrderService의 재고 차감 단계에서 최신 값으로 판단한다.
+ *
  * [Java 21 Preview → Java 23 Final]
  * JEP 453 (Java 21 Preview) → JEP 462 (Java 22 Preview) → Final in Java 23
  * 현재 프로젝트 Java 21 기준: --enable-preview 필요 (build.gradle에 설정됨)
@@ -38,14 +43,16 @@ import java.util.concurrent.StructuredTaskScope;
 @RequiredArgsConstructor
 public class ParallelProductValidationService {
 
-    private final ProductFeignClient productFeignClient;
+    private static final String STATUS_ACTIVE = "ACTIVE";
+
+    private final ProductNearCache productNearCache;
 
     /**
-     * N개 상품을 병렬로 조회하고 재고를 검증합니다.
+     * N개 상품을 병렬로 조회하고 판매 가능 여부를 검증합니다.
      *
      * @param items 주문 항목 목록
      * @return 검증된 상품 정보 목록 (items와 동일한 순서 보장)
-     * @throws BusinessException 재고 부족 시
+     * @throws BusinessException 판매 중이 아닌 상품 포함 시
      * @throws RuntimeException 상품 서비스 호출 실패 시
      */
     public List<ProductInfo> validateInParallel(List<OrderItemRequest> items) {
@@ -90,16 +97,15 @@ public class ParallelProductValidationService {
     }
 
     private ProductInfo validateSingleProduct(OrderItemRequest item) {
-        ProductInfo product = productFeignClient.getProductWithLock(item.getProductId());
+        ProductInfo product = productNearCache.get(item.getProductId());
 
-        if (product.getStockQuantity() < item.getQuantity()) {
-            log.warn("Insufficient stock: productId={}, required={}, available={}",
-                    item.getProductId(), item.getQuantity(), product.getStockQuantity());
-            throw BusinessException.insufficientStock(product.getId());
+        if (product.getStatus() != null && !STATUS_ACTIVE.equals(product.getStatus())) {
+            log.warn("Product not on sale: productId={}, status={}", item.getProductId(), product.getStatus());
+            throw BusinessException.conflict("판매 중인 상품이 아닙니다: productId=" + item.getProductId());
         }
 
-        log.debug("Product validated: productId={}, name={}, stock={}",
-                product.getId(), product.getName(), product.getStockQuantity());
+        log.debug("Product validated: productId={}, name={}, price={}",
+                product.getId(), product.getName(), product.getPrice());
         return product;
     }
 }
@@ -4,6 +4,7 @@ import com.livemart.order.domain.Order;
 import com.livemart.order.domain.OrderStatus;
 import com.livemart.order.domain.ReturnRequest;
 import com.livemart.order.dto.ReturnRequestDto;
+import com.livemart.order.query.service.OrderSummaryProjector;
 import com.livemart.order.repository.OrderRepository;
 import com.livemart.order.repository.ReturnRequestRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +26,7 @@ public class ReturnService {
 
     private final ReturnRequestRepository returnRequestRepository;
     private final OrderRepository orderRepository;
+    private final OrderSummaryProjector orderSummaryProjector;
 
     @Transactional
     public ReturnRequestDto.Response createReturn(ReturnRequestDto.Create request) {
@@ -93,6 +95,7 @@ public class ReturnService {
         // 주문 상태도 CANCELLED로 변경 (환불 처리)
         Order order = returnRequest.getOrder();
         order.cancel();
+        orderSummaryProjector.statusChanged(order);
 
         log.info("반품 완료: returnNumber={}, refundAmount={}", returnRequest.getReturnNumber(), returnRequest.getRefundAmount());
         return ReturnRequestDto.Response.from(returnRequest);
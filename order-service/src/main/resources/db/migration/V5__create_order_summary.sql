@@ -0,0 +1,43 @@
+-- 주문 목록 조회용 비정규화 읽기 테이블 (order_items 조인/지연 로딩 제거)
+-- 주문 생성·상태 변경 트랜잭션에서 OrderSummaryProjector가 함께 갱신한다
+
+CREATE TABLE IF NOT EXISTS order_summary (
+    order_id BIGINT PRIMARY KEY,
+    order_number VARCHAR(255) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    item_count INT NOT NULL,
+    total_quantity INT NOT NULL,
+    first_item_name VARCHAR(200),
+    thumbnail_url VARCHAR(500),
+    payment_method VARCHAR(50),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+-- 사용자별 최신순 목록
+CREATE INDEX IF NOT EXISTS idx_order_summary_user_created ON order_summary(user_id, created_at DESC);
+
+-- 사용자 + 상태 필터 목록
+CREATE INDEX IF NOT EXISTS idx_order_summary_user_status_created ON order_summary(user_id, status, created_at DESC);
+
+-- 관리자 상태별 목록
+CREATE INDEX IF NOT EXISTS idx_order_summary_status_created ON order_summary(status, created_at DESC);
+
+-- 기존 주문 백필 (썸네일은 상품 서비스 조회가 필요하므로 비워 둔다)
+INSERT INTO order_summary (order_id, order_number, user_id, status, total_amount, item_count, total_quantity,
+                           first_item_name, payment_method, created_at, updated_at)
+SELECT o.id,
+       o.order_number,
+       o.user_id,
+       o.status,
+       o.total_amount,
+       (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id),
+       (SELECT COALESCE(SUM(i.quantity), 0) FROM order_items i WHERE i.order_id = o.id),
+       (SELECT i.product_name FROM order_items i WHERE i.order_id = o.id ORDER BY i.id LIMIT 1),
+       o.payment_method,
+       o.created_at,
+       o.updated_at
+FROM orders o
+ON CONFLICT (order_id) DO NOTHING;
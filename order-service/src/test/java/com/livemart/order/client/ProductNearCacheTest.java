@@ -0,0 +1,137 @@
+package com.livemart.order.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.livemart.common.exception.BusinessException;
+import com.livemart.order.dto.OrderItemRequest;
+import com.livemart.order.dto.ProductInfo;
+import com.livemart.order.event.ProductCacheInvalidationListener;
+import com.livemart.order.service.ParallelProductValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductNearCache 단위 테스트")
+class ProductNearCacheTest {
+
+    private static final Long PRODUCT_ID = 10L;
+
+    @Mock
+    private ProductFeignClient productFeignClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private ProductNearCache cache;
+    private ParallelProductValidationService validationService;
+    private ProductCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        Ticker ticker = nanos::get;
+        cache = new ProductNearCache(productFeignClient, meterRegistry, 100, Duration.ofSeconds(60), ticker);
+        validationService = new ParallelProductValidationService(cache);
+        listener = new ProductCacheInvalidationListener(cache);
+    }
+
+    @Test
+    @DisplayName("같은 상품의 두 번째 주문은 상품 서비스를 호출하지 않는다")
+    void hit_skipsRemoteCall() {
+        given(productFeignClient.getProduct(PRODUCT_ID)).willReturn(product("15000", "ACTIVE"));
+
+        order();
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        order();
+
+        then(productFeignClient).should(times(1)).getProduct(PRODUCT_ID);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", ProductNearCache.CACHE_NAME, "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.product.cache.hit.age").timer().max(TimeUnit.SECONDS))
+                .isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("가격 변경 이벤트 수신 후 다음 주문은 새 가격으로 생성된다")
+    void priceUpdate_reflectedOnNextOrder() {
+        given(productFeignClient.getProduct(PRODUCT_ID))
+                .willReturn(product("15000", "ACTIVE"))
+                .willReturn(product("12000", "ACTIVE"));
+
+        assertThat(order().getPrice()).isEqualByComparingTo("15000");
+
+        listener.handleProductEvent(productEvent("UPDATED", "12000"));
+
+        assertThat(order().getPrice()).isEqualByComparingTo("12000");
+        then(productFeignClient).should(times(2)).getProduct(PRODUCT_ID);
+        assertThat(meterRegistry.get("orders.product.cache.invalidations.total").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.product.cache.invalidation.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("재고 변경 이벤트는 캐시를 무효화하지 않는다")
+    void stockChange_keepsEntry() {
+        given(productFeignClient.getProduct(PRODUCT_ID)).willReturn(product("15000", "ACTIVE"));
+
+        order();
+        listener.handleProductEvent(productEvent("STOCK_CHANGED", "15000"));
+        order();
+
+        then(productFeignClient).should(times(1)).getProduct(PRODUCT_ID);
+    }
+
+    @Test
+    @DisplayName("이벤트가 유실돼도 TTL 경과 후에는 다시 조회한다")
+    void ttl_boundsStaleness() {
+        given(productFeignClient.getProduct(PRODUCT_ID))
+                .willReturn(product("15000", "ACTIVE"))
+                .willReturn(product("12000", "ACTIVE"));
+
+        order();
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        assertThat(order().getPrice()).isEqualByComparingTo("12000");
+    }
+
+    @Test
+    @DisplayName("판매 중지 상품은 주문 검증에서 거절")
+    void inactiveProduct_rejected() {
+        given(productFeignClient.getProduct(PRODUCT_ID)).willReturn(product("15000", "INACTIVE"));
+
+        assertThatThrownBy(this::order).isInstanceOf(BusinessException.class);
+    }
+
+    private ProductInfo order() {
+        OrderItemRequest item = OrderItemRequest.builder().productId(PRODUCT_ID).quantity(1).build();
+        return validationService.validateInParallel(List.of(item)).get(0);
+    }
+
+    private static ProductInfo product(String price, String status) {
+        return new ProductInfo(PRODUCT_ID, "테스트 상품", new BigDecimal(price), 3, null, status, 7L);
+    }
+
+    private static ConsumerRecord<String, Map<String, Object>> productEvent(String eventType, String price) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", eventType);
+        event.put("productId", PRODUCT_ID);
+        event.put("price", price);
+        event.put("occurredAt", LocalDateTime.now().minusSeconds(1).toString());
+        return new ConsumerRecord<>("product-events", 0, 0L, String.valueOf(PRODUCT_ID), event);
+    }
+}
@@ -0,0 +1,220 @@
+package com.livemart.order.event;
+
+import com.livemart.order.client.PaymentFeignClient;
+import com.livemart.order.client.ProductFeignClient;
+import com.livemart.order.domain.Order;
+import com.livemart.order.domain.OrderStatus;
+import com.livemart.order.metrics.OrderPipelineProfiler;
+import com.livemart.order.metrics.SlowOrderSampler;
+import com.livemart.order.query.service.OrderSummaryProjector;
+import com.livemart.order.repository.OrderRepository;
+import com.livemart.order.service.OrderService;
+import com.livemart.order.service.ParallelProductValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 결제 이벤트 배치 리스너 처리량 벤치마크
+ *
+ * Kafka는 MockConsumer(인메모리 브로커 대역)로, DB는 호출마다 왕복 지연을 흉내 내는 Repository 대역으로 대체한다.
+ * - 메시지 단위: 기존 경로(주문번호 조회 → ID 조회 → dirty checking UPDATE)를 그대로 재현
+ * - 배치 단위: poll 1회분을 OrderPaymentConsumer.handlePaymentEvents로 전달
+ *
+ * 처리량(msg/s)은 실행 환경에 따라 달라지므로 로그로만 남기고, 검증은 메시지당 DB 왕복 수 비율로 한다.
+ */
+@Slf4j
+@DisplayName("OrderPaymentConsumer 배치 처리량 벤치마크")
+class OrderPaymentConsumerThroughputTest {
+
+    private static final String TOPIC = "payment-events";
+    private static final int PARTITIONS = 3;
+    private static final int ORDERS = 3_000;
+    private static final int MAX_POLL_RECORDS = 500;
+    private static final long ROUND_TRIP_NANOS = 200_000; // 0.2ms
+
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final Map<String, Order> store = new LinkedHashMap<>();
+    private final Map<Long, Order> storeById = new HashMap<>();
+
+    private OrderService orderService;
+    private OrderPaymentConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        OrderRepository repository = mock(OrderRepository.class);
+
+        given(repository.findByOrderNumber(anyString())).willAnswer(inv -> {
+            roundTrip();
+            return Optional.ofNullable(store.get(inv.<String>getArgument(0)));
+        });
+        given(repository.findById(anyLong())).willAnswer(inv -> {
+            roundTrip();
+            return Optional.ofNullable(storeById.get(inv.<Long>getArgument(0)));
+        });
+        given(repository.findAllByOrderNumberInWithItems(anyCollection())).willAnswer(inv -> {
+            roundTrip();
+            Collection<String> numbers = inv.getArgument(0);
+            return numbers.stream().map(store::get).filter(o -> o != null).toList();
+        });
+        given(repository.bulkConfirm(anyCollection(), any())).willAnswer(inv -> {
+            roundTrip();
+            Collection<Long> ids = inv.getArgument(0);
+            int updated = 0;
+            for (Long id : ids) {
+                Order order = storeById.get(id);
+                if (order.getStatus() == OrderStatus.PENDING) {
+                    order.confirm();
+                    updated++;
+                }
+            }
+            return updated;
+        });
+
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, OrderEvent> kafkaTemplate = mock(KafkaTemplate.class);
+        OrderPipelineProfiler profiler = new OrderPipelineProfiler(
+                new SimpleMeterRegistry(), Tracer.NOOP, new SlowOrderSampler(500, 16));
+
+        orderService = new OrderService(repository, mock(ProductFeignClient.class), mock(PaymentFeignClient.class),
+                kafkaTemplate, Optional.empty(), Optional.empty(),
+                mock(ParallelProductValidationService.class), profiler, mock(OrderSummaryProjector.class));
+        consumer = new OrderPaymentConsumer(orderService);
+
+        for (long id = 1; id <= ORDERS; id++) {
+            Order order = Order.builder()
+                    .id(id)
+                    .orderNumber("ORD-BENCH-" + id)
+                    .userId(id % 100)
+                    .totalAmount(BigDecimal.valueOf(10000))
+                    .status(OrderStatus.PENDING)
+                    .build();
+            store.put(order.getOrderNumber(), order);
+            storeById.put(id, order);
+        }
+    }
+
+    @Test
+    @DisplayName("배치 리스너는 메시지당 DB 왕복을 1/10 이하로 줄인다")
+    void batchListenerThroughput() {
+        // 기존 경로: 메시지당 findByOrderNumber + findById + UPDATE flush
+        MockConsumer<String, Map<String, Object>> perMessageBroker = backlog();
+        long perMessageStart = System.nanoTime();
+        int perMessageCount = drain(perMessageBroker, records -> {
+            for (ConsumerRecord<String, Map<String, Object>> record : records) {
+                var order = orderService.getOrderByOrderNumber(String.valueOf(record.value().get("orderNumber")));
+                orderService.confirmOrder(order.getId());
+                roundTrip(); // 트랜잭션 커밋 시 dirty checking UPDATE
+            }
+        });
+        long perMessageNanos = System.nanoTime() - perMessageStart;
+        long perMessageTrips = roundTrips.getAndSet(0);
+
+        new ArrayList<>(store.values()).forEach(this::resetToPending);
+
+        // 배치 경로
+        MockConsumer<String, Map<String, Object>> batchBroker = backlog();
+        long batchStart = System.nanoTime();
+        int batchCount = drain(batchBroker, consumer::handlePaymentEvents);
+        long batchNanos = System.nanoTime() - batchStart;
+        long batchTrips = roundTrips.get();
+
+        double perMessageTripsPerMsg = (double) perMessageTrips / perMessageCount;
+        double batchTripsPerMsg = (double) batchTrips / batchCount;
+        log.info("[payment-consumer] per-message: {} msgs, {} msg/s, {} DB trips/msg",
+                perMessageCount, Math.round(perMessageCount / (perMessageNanos / 1e9)), perMessageTripsPerMsg);
+        log.info("[payment-consumer] batch({}): {} msgs, {} msg/s, {} DB trips/msg",
+                MAX_POLL_RECORDS, batchCount, Math.round(batchCount / (batchNanos / 1e9)), batchTripsPerMsg);
+
+        assertThat(batchCount).isEqualTo(perMessageCount).isEqualTo(ORDERS);
+        assertThat(store.values()).allMatch(o -> o.getStatus() == OrderStatus.CONFIRMED);
+        assertThat(batchTripsPerMsg).isLessThanOrEqualTo(perMessageTripsPerMsg / 10);
+    }
+
+    private MockConsumer<String, Map<String, Object>> backlog() {
+        MockConsumer<String, Map<String, Object>> broker = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        List<TopicPartition> partitions = new ArrayList<>();
+        Map<TopicPartition, Long> beginning = new HashMap<>();
+        for (int p = 0; p < PARTITIONS; p++) {
+            TopicPartition tp = new TopicPartition(TOPIC, p);
+            partitions.add(tp);
+            beginning.put(tp, 0L);
+        }
+        broker.assign(partitions);
+        broker.updateBeginningOffsets(beginning);
+
+        long[] offsets = new long[PARTITIONS];
+        for (Order order : store.values()) {
+            int partition = Math.floorMod(order.getOrderNumber().hashCode(), PARTITIONS);
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", "PAYMENT_COMPLETED");
+            event.put("orderNumber", order.getOrderNumber());
+            event.put("transactionId", "TXN-" + order.getId());
+            broker.addRecord(new ConsumerRecord<>(TOPIC, partition, offsets[partition]++, order.getOrderNumber(), event));
+        }
+        return broker;
+    }
+
+    /**
+     * 리스너 컨테이너처럼 max.poll.records 단위로 잘라 전달
+     */
+    private int drain(MockConsumer<String, Map<String, Object>> broker,
+                      java.util.function.Consumer<List<ConsumerRecord<String, Map<String, Object>>>> listener) {
+        int total = 0;
+        ConsumerRecords<String, Map<String, Object>> polled;
+        while (!(polled = broker.poll(Duration.ZERO)).isEmpty()) {
+            List<ConsumerRecord<String, Map<String, Object>>> all = new ArrayList<>();
+            polled.forEach(all::add);
+            for (int from = 0; from < all.size(); from += MAX_POLL_RECORDS) {
+                List<ConsumerRecord<String, Map<String, Object>>> batch =
+                        all.subList(from, Math.min(all.size(), from + MAX_POLL_RECORDS));
+                listener.accept(batch);
+                total += batch.size();
+            }
+        }
+        return total;
+    }
+
+    private void resetToPending(Order order) {
+        Order fresh = Order.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .totalAmount(order.getTotalAmount())
+                .status(OrderStatus.PENDING)
+                .build();
+        store.put(fresh.getOrderNumber(), fresh);
+        storeById.put(fresh.getId(), fresh);
+    }
+
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+    }
+}
@@ -7,12 +7,17 @@ import com.livemart.order.domain.OrderItem;
 import com.livemart.order.domain.OrderStatus;
 import com.livemart.order.dto.*;
 import com.livemart.order.event.OrderEvent;
+import com.livemart.order.metrics.OrderPipelineProfiler;
+import com.livemart.order.metrics.SlowOrderSampler;
+import com.livemart.order.query.service.OrderSummaryProjector;
 import com.livemart.order.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -29,7 +34,6 @@ import static org.mockito.BDDMockito.*;
 @DisplayName("OrderService 단위 테스트")
 class OrderServiceTest {
 
-    @InjectMocks
     private OrderService orderService;
 
     @Mock
@@ -47,6 +51,21 @@ class OrderServiceTest {
     @Mock
     private ParallelProductValidationService parallelValidationService;
 
+    @Mock
+    private OrderSummaryProjector orderSummaryProjector;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final OrderPipelineProfiler pipelineProfiler =
+            new OrderPipelineProfiler(meterRegistry, Tracer.NOOP, new SlowOrderSampler(0, 16));
+
+    @BeforeEach
+    void setUp() {
+        // Optional 생성자 인자는 @InjectMocks가 채우지 못하므로 직접 생성 (EventPublisher 없음 → Kafka 직접 발행)
+        orderService = new OrderService(orderRepository, productFeignClient, paymentFeignClient, kafkaTemplate,
+                Optional.empty(), Optional.empty(), parallelValidationService, pipelineProfiler, orderSummaryProjector);
+    }
+
     @Nested
     @DisplayName("주문 생성")
     class CreateOrderTest {
@@ -68,7 +87,8 @@ class OrderServiceTest {
                     .paymentMethod("CARD")
                     .build();
 
-            ProductInfo product = new ProductInfo(10L, "테스트 상품", BigDecimal.valueOf(15000), 10);
+            ProductInfo product = new ProductInfo(10L, "테스트 상품", BigDecimal.valueOf(15000), 10,
+                    "https://cdn.livemart.com/p/10.jpg", "ACTIVE", 7L);
 
             given(parallelValidationService.validateInParallel(request.getItems()))
                     .willReturn(List.of(product));
@@ -95,6 +115,15 @@ class OrderServiceTest {
 
             then(orderRepository).should().save(any(Order.class));
             then(kafkaTemplate).should().send(eq("order-events"), anyString(), any(OrderEvent.class));
+            then(orderSummaryProjector).should().created(any(Order.class), eq("https://cdn.livemart.com/p/10.jpg"));
+
+            // 단계별 Timer 기록 검증
+            for (String stage : List.of("validation", "persistence", "stock_deduction", "payment", "summary_projection", "event_publish")) {
+                assertThat(meterRegistry.get("orders.stage.seconds")
+                        .tags("stage", stage, "outcome", "success").timer().count())
+                        .as("stage=%s", stage)
+                        .isEqualTo(1);
+            }
         }
 
         @Test
@@ -114,7 +143,7 @@ class OrderServiceTest {
                     .paymentMethod("CARD")
                     .build();
 
-            ProductInfo product = new ProductInfo(20L, "결제실패 상품", BigDecimal.valueOf(100000), 5);
+            ProductInfo product = new ProductInfo(20L, "결제실패 상품", BigDecimal.valueOf(100000), 5, null, "ACTIVE", 7L);
 
             given(parallelValidationService.validateInParallel(request.getItems()))
                     .willReturn(List.of(product));
@@ -131,6 +160,11 @@ class OrderServiceTest {
 
             // 결제 실패 시 주문 삭제(롤백) 호출 검증
             then(orderRepository).should().delete(any(Order.class));
+            then(orderSummaryProjector).should(never()).created(any(), any());
+
+            // 실패한 단계는 outcome=failure로 기록
+            assertThat(meterRegistry.get("orders.stage.seconds")
+                    .tags("stage", "payment", "outcome", "failure").timer().count()).isEqualTo(1);
         }
     }
 
@@ -270,4 +304,67 @@ class OrderServiceTest {
             assertThat(response.getOrderNumber()).isEqualTo("ORD-20240101-AAAA1111");
         }
     }
+
+    @Nested
+    @DisplayName("결제 이벤트 배치 반영")
+    class ApplyPaymentOutcomesTest {
+
+        private Order pendingOrder(long id, String orderNumber) {
+            return Order.builder()
+                    .id(id)
+                    .orderNumber(orderNumber)
+                    .userId(1L)
+                    .totalAmount(BigDecimal.valueOf(10000))
+                    .status(OrderStatus.PENDING)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("성공 - 단일 IN 조회 + 일괄 UPDATE, 주문별 이벤트 순서대로 최종 상태 결정")
+        void applyPaymentOutcomes_bulkTransitions() {
+            // given
+            Order a = pendingOrder(1L, "ORD-A");
+            Order b = pendingOrder(2L, "ORD-B");
+            given(orderRepository.findAllByOrderNumberInWithItems(anyCollection())).willReturn(List.of(a, b));
+            given(orderRepository.bulkConfirm(anyCollection(), any())).willReturn(1);
+            given(orderRepository.bulkCancel(anyCollection(), any())).willReturn(1);
+
+            List<PaymentOutcome> outcomes = List.of(
+                    new PaymentOutcome("ORD-A", PaymentOutcome.Type.COMPLETED, "TXN-1"),
+                    new PaymentOutcome("ORD-B", PaymentOutcome.Type.FAILED, "TXN-2"),
+                    new PaymentOutcome("ORD-A", PaymentOutcome.Type.COMPLETED, "TXN-1"),   // 중복 수신
+                    new PaymentOutcome("ORD-B", PaymentOutcome.Type.COMPLETED, "TXN-2"));  // 취소 후 도착 → 무시
+
+            // when
+            PaymentBatchResult result = orderService.applyPaymentOutcomes(outcomes);
+
+            // then
+            assertThat(result).isEqualTo(new PaymentBatchResult(1, 1, 2));
+            then(orderRepository).should(times(1)).findAllByOrderNumberInWithItems(anyCollection());
+            then(orderRepository).should().bulkConfirm(eq(List.of(1L)), any());
+            then(orderRepository).should().bulkCancel(eq(List.of(2L)), any());
+            then(orderRepository).should(never()).findById(anyLong());
+            then(kafkaTemplate).should(times(2)).send(eq("order-events"), anyString(), any(OrderEvent.class));
+            then(orderSummaryProjector).should().statusChanged(List.of(1L), OrderStatus.CONFIRMED);
+            then(orderSummaryProjector).should().statusChanged(List.of(2L), OrderStatus.CANCELLED);
+        }
+
+        @Test
+        @DisplayName("멱등 - 이미 확정된 주문의 재전달 이벤트는 UPDATE·이벤트 발행 없음")
+        void applyPaymentOutcomes_redeliveryIsNoop() {
+            // given
+            Order confirmed = pendingOrder(3L, "ORD-C");
+            confirmed.confirm();
+            given(orderRepository.findAllByOrderNumberInWithItems(anyCollection())).willReturn(List.of(confirmed));
+
+            // when
+            PaymentBatchResult result = orderService.applyPaymentOutcomes(List.of(
+                    new PaymentOutcome("ORD-C", PaymentOutcome.Type.COMPLETED, "TXN-3")));
+
+            // then
+            assertThat(result).isEqualTo(new PaymentBatchResult(0, 0, 1));
+            then(orderRepository).should(never()).bulkConfirm(anyCollection(), any());
+            then(kafkaTemplate).shouldHaveNoInteractions();
+        }
+    }
 }
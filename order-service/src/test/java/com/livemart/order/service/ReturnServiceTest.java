@@ -4,6 +4,7 @@ import com.livemart.order.domain.Order;
 import com.livemart.order.domain.OrderStatus;
 import com.livemart.order.domain.ReturnRequest;
 import com.livemart.order.dto.ReturnRequestDto;
+import com.livemart.order.query.service.OrderSummaryProjector;
 import com.livemart.order.repository.OrderRepository;
 import com.livemart.order.repository.ReturnRequestRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -33,6 +34,9 @@ class ReturnServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderSummaryProjector orderSummaryProjector;
+
     private Order createTestOrder(OrderStatus status) {
         return Order.builder()
                 .id(1L)
@@ -194,5 +198,6 @@ class ReturnServiceTest {
 
         assertThat(response.getStatus()).isEqualTo(ReturnRequest.ReturnStatus.COMPLETED);
         assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        then(orderSummaryProjector).should().statusChanged(order);
     }
 }
@@ -1,6 +1,13 @@
 package com.livemart.payment.config;
 
+import com.livemart.common.event.envelope.EnvelopeDeserializer;
+import com.livemart.common.event.envelope.EnvelopeSerializer;
+import com.livemart.common.event.envelope.EventEnvelope;
+import com.livemart.common.event.envelope.ProtoMaps;
+import com.livemart.common.event.envelope.ProtoValues;
+import com.livemart.common.event.proto.OrderEventPayload;
 import com.livemart.payment.event.PaymentEvent;
+import com.livemart.payment.event.PaymentEventCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -16,16 +23,16 @@ import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Kafka 설정
- * - Producer: payment-events (PaymentEvent) + Outbox용 String
- * - Consumer: order-events with DLQ (Dead Letter Queue)
+ * - Producer: payment-events (PaymentEvent, 엔벨로프 헤더 + livemart.events.encoding 인코딩) + Outbox용 String
+ * - Consumer: order-events (protobuf/JSON dual-read) with DLQ (Dead Letter Queue)
  *   실패 시 3회 지수 백오프(1s→2s→4s) 재시도 후 order-events.DLT로 이동
  */
 @Slf4j
@@ -36,6 +43,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${livemart.events.encoding:json}")
+    private String eventEncoding;
+
     // ── Producer: String (OutboxProcessor + DLT 발행용) ──────────────
 
     @Bean
@@ -54,18 +64,17 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
-    // ── Producer: PaymentEvent (JSON 직렬화) ─────────────────────────
+    // ── Producer: PaymentEvent (엔벨로프 직렬화) ─────────────────────
 
     @Bean
     public ProducerFactory<String, PaymentEvent> paymentProducerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         config.put(ProducerConfig.ACKS_CONFIG, "all");
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         config.put(ProducerConfig.RETRIES_CONFIG, 3);
-        return new DefaultKafkaProducerFactory<>(config);
+        return new DefaultKafkaProducerFactory<>(config, new StringSerializer(),
+                new EnvelopeSerializer<>(new PaymentEventCodec(), EventEnvelope.Encoding.from(eventEncoding)));
     }
 
     @Bean
@@ -111,12 +120,15 @@ public class KafkaConfig {
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-service-group");
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.util.LinkedHashMap");
-        return new DefaultKafkaConsumerFactory<>(config);
+
+        // Dual-read: protobuf 엔벨로프 → Map / 레거시 JSON → LinkedHashMap
+        // 리스너가 다루지 않는 타입은 헤더만 보고 본문 디코딩 생략 (null → RecordFilterStrategy로 폐기)
+        JsonDeserializer<Map> legacy = new JsonDeserializer<>(Map.class, false);
+        legacy.addTrustedPackages("*");
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new EnvelopeDeserializer<>(
+                        ProtoMaps.decoder(bytes -> ProtoValues.parse(OrderEventPayload.parser(), bytes)),
+                        legacy).acceptOnly(Set.of("ORDER_CANCELLED", "ORDER_CREATED")));
     }
 
     @Bean
@@ -126,6 +138,7 @@ public class KafkaConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(orderConsumerFactory());
         factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setRecordFilterStrategy(record -> record.value() == null);
         return factory;
     }
 }
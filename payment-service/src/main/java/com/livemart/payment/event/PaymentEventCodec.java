@@ -0,0 +1,54 @@
+package com.livemart.payment.event;
+
+import com.livemart.common.event.envelope.EventCodec;
+import com.livemart.common.event.proto.PaymentEventPayload;
+import com.livemart.payment.domain.PaymentStatus;
+
+import static com.livemart.common.event.envelope.ProtoValues.*;
+
+/**
+ * PaymentEvent ↔ PaymentEventPayload(protobuf) 코덱 — payment-events 프로듀서용
+ */
+public class PaymentEventCodec implements EventCodec<PaymentEvent> {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    @Override
+    public String eventType(PaymentEvent event) {
+        return text(event.getEventType());
+    }
+
+    @Override
+    public int schemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public byte[] encode(PaymentEvent event) {
+        PaymentEventPayload.Builder builder = PaymentEventPayload.newBuilder()
+                .setEventType(text(event.getEventType()))
+                .setTransactionId(text(event.getTransactionId()))
+                .setOrderNumber(text(event.getOrderNumber()))
+                .setAmount(decimal(event.getAmount()))
+                .setStatus(text(event.getStatus()))
+                .setOccurredAt(epochMillis(event.getOccurredAt()));
+        if (event.getUserId() != null) builder.setUserId(event.getUserId());
+        if (event.getApprovalNumber() != null) builder.setApprovalNumber(event.getApprovalNumber());
+        return builder.build().toByteArray();
+    }
+
+    @Override
+    public PaymentEvent decode(byte[] payload, int schemaVersion) {
+        PaymentEventPayload proto = parse(PaymentEventPayload.parser(), payload);
+        return PaymentEvent.builder()
+                .eventType(enumValue(PaymentEvent.EventType.class, proto.getEventType()))
+                .transactionId(nullIfEmpty(proto.getTransactionId()))
+                .orderNumber(proto.getOrderNumber())
+                .userId(proto.hasUserId() ? proto.getUserId() : null)
+                .amount(decimal(proto.getAmount()))
+                .status(enumValue(PaymentStatus.class, proto.getStatus()))
+                .approvalNumber(proto.hasApprovalNumber() ? proto.getApprovalNumber() : null)
+                .occurredAt(localDateTime(proto.getOccurredAt()))
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.livemart.product.catalog;
+
+import com.livemart.product.domain.Category;
+import com.livemart.product.domain.Product;
+import com.livemart.product.domain.ProductStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 카탈로그 인덱스(CatalogSnapshot) vs 엔티티 전체 스캔 — 상품 100만 개, 카테고리 500개
+ *
+ * - similarByPrice / entityScanSimilar : 같은 카테고리 ±30% 가격대 상위 10개 (RecommendationEngine 콘텐츠 기반)
+ * - mostStocked                        : 재고 많은 순 상위 20개 (인기 상품)
+ * - stockAtOrBelow / entityScanLowStock: 재고 20 이하 전체 (AutoReplenishmentService, 약 7%)
+ *
+ * entityScan*은 findAll() 이후 단계(메모리 필터/정렬)만 잰다 — 실제로는 여기에 100만 행 조회/매핑 비용이 더해진다.
+ * 스냅샷 추정 크기와 엔티티 목록의 GC 후 힙 증가량은 @Setup에서 한 번 출력한다.
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar CatalogIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogIndexBenchmark {
+
+    private static final int CATEGORIES = 500;
+    private static final int LOW_STOCK_THRESHOLD = 20;
+
+    @Param({"1000000"})
+    private int products;
+
+    private CatalogSnapshot snapshot;
+    private List<Product> entities;
+    private long[] targetIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (long c = 1; c <= CATEGORIES; c++) {
+            categories.add(Category.builder().id(c).name("카테고리" + c).build());
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeapAfterGc(memory);
+        entities = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            entities.add(Product.builder()
+                    .id(id)
+                    .name("상품 " + id)
+                    .description("벤치마크용 상품 설명 " + id)
+                    .price(BigDecimal.valueOf(1_000L + random.nextInt(500_000)))
+                    .stockQuantity(random.nextInt(300))
+                    .category(categories.get(random.nextInt(CATEGORIES)))
+                    .status(random.nextInt(20) == 0 ? ProductStatus.INACTIVE : ProductStatus.ACTIVE)
+                    .sellerId(1L + random.nextInt(1_000))
+                    .build());
+        }
+        long entityBytes = usedHeapAfterGc(memory) - before;
+
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder(products);
+        for (Product p : entities) {
+            builder.add(p.getId(), p.getCategory().getId(), p.getPrice(), p.getStockQuantity(), p.getStatus());
+        }
+        snapshot = builder.build();
+
+        targetIds = new long[1024];
+        for (int i = 0; i < targetIds.length; i++) {
+            targetIds[i] = 1L + random.nextInt(products);
+        }
+
+        System.out.printf("%n[catalog index] products=%d, snapshot=%.1f MB (estimated), entity list=%.1f MB (heap after GC)%n",
+                snapshot.size(), snapshot.estimatedBytes() / (1024.0 * 1024), entityBytes / (1024.0 * 1024));
+    }
+
+    @Benchmark
+    public int[] similarByPrice() {
+        int row = snapshot.rowOf(nextTarget());
+        long price = snapshot.price(row);
+        long id = snapshot.id(row);
+        return snapshot.nearestByPrice(snapshot.categoryId(row), price, (long) Math.ceil(price * 0.3), 10,
+                other -> other == id);
+    }
+
+    @Benchmark
+    public List<Product> entityScanSimilar() {
+        Product product = entities.get((int) nextTarget() - 1);
+        double price = product.getPrice().doubleValue();
+        return entities.stream()
+                .filter(p -> !p.getId().equals(product.getId()))
+                .filter(p -> p.getStatus() == ProductStatus.ACTIVE)
+                .filter(p -> p.getCategory().getId().equals(product.getCategory().getId()))
+                .filter(p -> Math.abs(p.getPrice().doubleValue() - price) < price * 0.3)
+                .sorted((p1, p2) -> Double.compare(
+                        Math.abs(p1.getPrice().doubleValue() - price),
+                        Math.abs(p2.getPrice().doubleValue() - price)))
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int[] mostStocked() {
+        return snapshot.mostStocked(20, id -> false);
+    }
+
+    @Benchmark
+    public int[] stockAtOrBelow() {
+        return snapshot.stockAtOrBelow(LOW_STOCK_THRESHOLD, id -> false);
+    }
+
+    @Benchmark
+    public List<Product> entityScanLowStock() {
+        return entities.stream()
+                .filter(p -> p.getStockQuantity() <= LOW_STOCK_THRESHOLD)
+                .collect(Collectors.toList());
+    }
+
+    private long nextTarget() {
+        long id = targetIds[next];
+        next = (next + 1) & (targetIds.length - 1);
+        return id;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
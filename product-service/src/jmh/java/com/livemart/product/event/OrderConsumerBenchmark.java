@@ -0,0 +1,190 @@
+package com.livemart.product.event;
+
+import com.livemart.common.event.envelope.EnvelopeSerializer;
+import com.livemart.common.event.envelope.EventEnvelope;
+import com.livemart.common.idempotency.IdempotentConsumer;
+import com.livemart.product.domain.ProcessedEvent;
+import com.livemart.product.repository.ProcessedEventRepository;
+import com.livemart.product.repository.ProductRepository;
+import com.livemart.product.search.LiveStockStore;
+import com.livemart.product.search.ProductIndexPipeline;
+import com.livemart.product.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * order-events 컨슈머 처리량 — 주문 1건(ORDER_CREATED) 재고 차감에 걸리는 시간
+ *
+ * - legacy: 기존 handleOrderCreated — 상품마다 getProduct 조회 + updateStock(비관적 락 조회 후 절대값 저장)을
+ *           각각 별도 트랜잭션으로, 상품마다 product-events / stock-events 발행
+ * - bulk  : ProductEventConsumer — 트랜잭션 1개에서 조건부 상대 차감(UPDATE ... WHERE stock >= qty) 후
+ *           재고 일괄 재조회, stock-events는 주문당 1건
+ *
+ * items: 주문당 상품 수 (1만 개 상품 중 무작위, 중복 없음). 재고는 충분히 커서 부족·알림 경로는 타지 않는다.
+ * Kafka는 MockProducer(실제 EnvelopeSerializer로 직렬화, 즉시 완료), Redis·Elasticsearch 반영은 빈 구현으로 제외.
+ * H2 메모리 DB라 왕복 비용이 거의 없으므로, 실제 DB에서는 상품당 왕복 수 차이(legacy 3회+커밋 vs bulk 1회)가 더 크게 드러난다.
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar OrderConsumerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderConsumerBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+
+    @Param({"1", "20"})
+    private int items;
+
+    private final AtomicLong orderSequence = new AtomicLong();
+    private final List<MockProducer<?, ?>> producers = new ArrayList<>();
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private TransactionTemplate transactionTemplate;
+    private ProductService productService;
+    private ProcessedEventRepository processedEventRepository;
+    private ProductEventConsumer consumer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:order-consumer;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.livemart.product.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.getJpaPropertyMap().putAll(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy"));
+        factoryBean.afterPropertiesSet();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject());
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factoryBean.getObject()));
+
+        new JdbcTemplate(dataSource).update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, status, seller_id, created_at, updated_at)
+                SELECT X, 'product-' || X, 'description ' || X, MOD(X, 100000) + 1000, 1000000000, 'ACTIVE',
+                       MOD(X, 1000), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, %d)""".formatted(PRODUCTS));
+
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        ProductRepository productRepository = repositories.getRepository(ProductRepository.class);
+        processedEventRepository = repositories.getRepository(ProcessedEventRepository.class);
+
+        EventEnvelope.Encoding encoding = EventEnvelope.Encoding.from("protobuf");
+        // 검색 인덱스(Elasticsearch)와 실시간 재고(Redis) 반영은 측정 대상이 아니다
+        ProductIndexPipeline indexPipeline = new ProductIndexPipeline(null, null, null, new SimpleMeterRegistry(),
+                500, 20_000, 5, Duration.ofMillis(250), Duration.ofSeconds(1)) {
+            @Override
+            public void upsert(Long productId) {
+            }
+
+            @Override
+            public void upsertAll(Collection<Long> productIds) {
+            }
+        };
+        LiveStockStore liveStockStore = new LiveStockStore(null, productRepository, Duration.ofSeconds(30)) {
+            @Override
+            public void putAll(Map<Long, Integer> stocks) {
+            }
+        };
+
+        productService = new ProductService(productRepository, null,
+                template(new EnvelopeSerializer<>(new ProductEventCodec(), encoding)),
+                template(new EnvelopeSerializer<>(new StockEventCodec(), encoding)),
+                template(new JsonSerializer<>()),
+                indexPipeline, liveStockStore,
+                new ConcurrentMapCacheManager("products", "product-detail"));
+        consumer = new ProductEventConsumer(productService, processedEventRepository, transactionTemplate,
+                new IdempotentConsumer("order-events", new SimpleMeterRegistry(), Duration.ofMinutes(10), 200_000, 0.01));
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearProducers() {
+        producers.forEach(MockProducer::clear);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factoryBean.destroy();
+    }
+
+    @Benchmark
+    public void legacy() {
+        OrderEvent event = nextOrder();
+        String eventId = event.getOrderNumber() + "_" + event.getEventType();
+        if (processedEventRepository.existsById(eventId)) {
+            return;
+        }
+        for (OrderEvent.OrderItemInfo item : event.getItems()) {
+            // 기존 코드는 자기 호출이라 @Transactional이 걸리지 않아 조회·갱신이 각자 트랜잭션
+            int currentStock = transactionTemplate.execute(status ->
+                    productService.getProduct(item.getProductId()).getStockQuantity());
+            int newStock = currentStock - item.getQuantity();
+            if (newStock < 0) {
+                throw new IllegalStateException("Insufficient stock: productId=" + item.getProductId());
+            }
+            transactionTemplate.executeWithoutResult(status -> productService.updateStock(item.getProductId(), newStock));
+        }
+        transactionTemplate.executeWithoutResult(status -> processedEventRepository.save(ProcessedEvent.builder()
+                .eventId(eventId)
+                .eventType("ORDER_CREATED")
+                .processedAt(LocalDateTime.now())
+                .build()));
+    }
+
+    @Benchmark
+    public void bulk() {
+        consumer.handleOrderEvent(nextOrder());
+    }
+
+    private OrderEvent nextOrder() {
+        List<OrderEvent.OrderItemInfo> orderItems = ThreadLocalRandom.current().ints(1, PRODUCTS + 1)
+                .distinct()
+                .limit(items)
+                .mapToObj(id -> OrderEvent.OrderItemInfo.builder()
+                        .productId((long) id)
+                        .quantity(1 + id % 3)
+                        .build())
+                .toList();
+        return OrderEvent.builder()
+                .eventType(OrderEvent.EventType.ORDER_CREATED)
+                .orderNumber("ORD-BENCH-" + orderSequence.incrementAndGet())
+                .items(orderItems)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private <V> KafkaTemplate<String, V> template(Serializer<V> valueSerializer) {
+        MockProducer<String, V> producer = new MockProducer<>(true, new StringSerializer(), valueSerializer);
+        producers.add(producer);
+        return new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+    }
+}
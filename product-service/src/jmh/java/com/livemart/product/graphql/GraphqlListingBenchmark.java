@@ -0,0 +1,243 @@
+package com.livemart.product.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.livemart.product.domain.Product;
+import com.livemart.product.repository.ProductProjectionRepository;
+import com.livemart.product.repository.ProductRepository;
+import graphql.ExecutionInput;
+import graphql.ParseAndValidate;
+import graphql.ParseAndValidateResult;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.schema.GraphQLSchema;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GraphQL 상품 목록 쿼리 — 문서 파싱·검증 비용 / 실행 시간 / 응답 크기
+ *
+ * 쿼리(query 파라미터, 모두 products(page: 0, size: 50)):
+ * - idPrice: content { id price }
+ * - card   : content { id name price imageUrl stockQuantity category { id name } } — 목록 카드
+ * - detail : content의 모든 컬럼 + category { id name description }
+ *
+ * - parseValidate / parseValidateCached : 매 요청 파싱·검증 vs PersistedQueryCache 적중
+ * - executeEntity   : 기존 방식 — 엔티티(+카테고리 전체) 조회, 문서 캐시 없음
+ * - executeProjected: ProductGraphqlController — 요청한 컬럼만 SELECT, 문서 캐시 사용
+ *
+ * 시작 시 쿼리별 응답 JSON 크기와 각 경로가 SELECT한 컬럼 수를 [payload] 줄로 출력한다.
+ * 상품 1만 건(설명 약 1KB), H2 메모리 DB — 네트워크 왕복은 포함하지 않으므로 실제 DB에서는 읽는 바이트 차이가 더 크게 드러난다.
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar GraphqlListingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphqlListingBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final Map<String, String> QUERIES = Map.of(
+            "idPrice", "{ products(page: 0, size: 50) { content { id price } totalElements hasNext } }",
+            "card", """
+                    { products(page: 0, size: 50) {
+                        content { id name price imageUrl stockQuantity category { id name } }
+                        totalElements hasNext } }""",
+            "detail", """
+                    { products(page: 0, size: 50) {
+                        content { id name description price stockQuantity status imageUrl sellerId createdAt updatedAt
+                                  category { id name description } }
+                        totalElements totalPages currentPage size hasNext hasPrevious } }""");
+
+    @Param({"idPrice", "card", "detail"})
+    private String query;
+
+    private static final AtomicReference<String> lastSelect = new AtomicReference<>();
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private final List<AnnotationConfigApplicationContext> contexts = new ArrayList<>();
+    private DefaultExecutionGraphQlService entityService;
+    private DefaultExecutionGraphQlService projectedService;
+    private GraphQLSchema schema;
+    private PersistedQueryCache persistedQueryCache;
+    private String document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:graphql-listing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.livemart.product.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.getJpaPropertyMap().putAll(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+                    if (sql.toLowerCase().startsWith("select") && !sql.toLowerCase().contains("count(")) {
+                        lastSelect.set(sql);
+                    }
+                    return sql;
+                }));
+        factoryBean.afterPropertiesSet();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject());
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO categories (id, name, description, level)
+                SELECT X, 'category-' || X, 'category description ' || X, 0 FROM SYSTEM_RANGE(1, 20)""");
+        jdbc.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, category_id, status, image_url,
+                                      seller_id, created_at, updated_at)
+                SELECT X, 'product-' || X, REPEAT('lorem ipsum dolor sit amet, ', 36) || X, MOD(X, 100000) + 1000,
+                       MOD(X, 500), MOD(X, 20) + 1, 'ACTIVE', 'https://cdn.livemart.com/products/' || X,
+                       MOD(X, 1000), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, %d)""".formatted(PRODUCTS));
+
+        ProductRepository productRepository = new JpaRepositoryFactory(entityManager).getRepository(ProductRepository.class);
+        ProductProjectionRepository projectionRepository = new ProductProjectionRepository(entityManager);
+
+        persistedQueryCache = new PersistedQueryCache(new SimpleMeterRegistry(), 1000);
+        entityService = service(new LegacyGraphqlController(productRepository), false);
+        // 카테고리 쿼리는 쓰지 않으므로 CategoryRepository 없음
+        projectedService = service(new ProductGraphqlController(productRepository, null, projectionRepository), true);
+        document = QUERIES.get(query);
+
+        ObjectMapper mapper = new ObjectMapper();
+        int responseBytes = mapper.writeValueAsBytes(execute(entityService)).length;
+        int entityColumns = selectedColumns();
+        int projectedBytes = mapper.writeValueAsBytes(execute(projectedService)).length;
+        int projectedColumns = selectedColumns();
+        if (responseBytes != projectedBytes) {
+            throw new IllegalStateException("Responses differ: entity " + responseBytes + " B, projected " + projectedBytes + " B");
+        }
+        System.out.printf("%n[payload] query=%s response=%d B/page, selected columns: entity=%d projected=%d%n",
+                query, responseBytes, entityColumns, projectedColumns);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexts.forEach(AnnotationConfigApplicationContext::close);
+        factoryBean.destroy();
+    }
+
+    @Benchmark
+    public PreparsedDocumentEntry parseValidate() {
+        return parseAndValidate(ExecutionInput.newExecutionInput().query(document).build());
+    }
+
+    @Benchmark
+    public PreparsedDocumentEntry parseValidateCached() {
+        return persistedQueryCache.getDocumentAsync(ExecutionInput.newExecutionInput().query(document).build(),
+                this::parseAndValidate).join();
+    }
+
+    @Benchmark
+    public Object executeEntity() {
+        return execute(entityService);
+    }
+
+    @Benchmark
+    public Object executeProjected() {
+        return execute(projectedService);
+    }
+
+    private Object execute(DefaultExecutionGraphQlService service) {
+        ExecutionGraphQlResponse response = service
+                .execute(new DefaultExecutionGraphQlRequest(document, null, null, null, "bench", null))
+                .block();
+        if (!response.getErrors().isEmpty()) {
+            throw new IllegalStateException(response.getErrors().toString());
+        }
+        return response.toMap();
+    }
+
+    private PreparsedDocumentEntry parseAndValidate(ExecutionInput input) {
+        ParseAndValidateResult result = ParseAndValidate.parseAndValidate(schema, input);
+        return result.isFailure() ? new PreparsedDocumentEntry(result.getErrors()) : new PreparsedDocumentEntry(result.getDocument());
+    }
+
+    private static int selectedColumns() {
+        String select = lastSelect.get().toLowerCase();
+        return select.substring(0, select.indexOf(" from ")).split(",").length;
+    }
+
+    private DefaultExecutionGraphQlService service(Object controller, boolean documentCache) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        register(context, controller);
+        context.refresh();
+        contexts.add(context);
+        AnnotatedControllerConfigurer configurer = new AnnotatedControllerConfigurer();
+        configurer.setApplicationContext(context);
+        configurer.afterPropertiesSet();
+
+        GraphQlSource source = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ClassPathResource("graphql/schema.graphqls"))
+                .configureRuntimeWiring(configurer)
+                .configureGraphQl(graphQl -> {
+                    if (documentCache) {
+                        graphQl.preparsedDocumentProvider(persistedQueryCache);
+                    }
+                })
+                .build();
+        schema = source.schema();
+        return new DefaultExecutionGraphQlService(source);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void register(AnnotationConfigApplicationContext context, T controller) {
+        context.registerBean((Class<T>) controller.getClass(), () -> controller);
+    }
+
+    /**
+     * 기존 ProductGraphqlController.products — 선택과 무관하게 엔티티 페이지 (EntityGraph로 카테고리 포함)
+     */
+    @Controller
+    static class LegacyGraphqlController {
+
+        private final ProductRepository productRepository;
+
+        LegacyGraphqlController(ProductRepository productRepository) {
+            this.productRepository = productRepository;
+        }
+
+        @QueryMapping
+        public Map<String, Object> products(@Argument int page, @Argument int size) {
+            Page<Product> productPage = productRepository.findAll(PageRequest.of(page, size));
+            return Map.of(
+                    "content", productPage.getContent(),
+                    "totalElements", (int) productPage.getTotalElements(),
+                    "totalPages", productPage.getTotalPages(),
+                    "currentPage", productPage.getNumber(),
+                    "size", productPage.getSize(),
+                    "hasNext", productPage.hasNext(),
+                    "hasPrevious", productPage.hasPrevious());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.livemart.product.graphql;
+
+import com.livemart.product.domain.Category;
+import com.livemart.product.domain.Product;
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.repository.CategoryRepository;
+import com.livemart.product.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.stereotype.Controller;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * GraphQL 중첩 조회 resolver 시간 — 깊이(depth) × 폭(breadth)
+ *
+ * - perParent : 기존 방식 — Category.products를 카테고리마다 findByCategoryId로 조회 (N+1)
+ * - dataLoader: ProductDataLoaders — 같은 깊이의 카테고리를 모아 2문장, 요청 내 캐시로 반복 카테고리는 재조회 없음
+ *
+ * depth 1 = categories { products }, depth 2 = … { products { category { products } } }, depth 3 = 한 단계 더.
+ * 저장소는 메모리 프록시이며 호출 1회당 roundTripMicros만큼 대기해 DB 왕복을 흉내 낸다.
+ * 반복마다 실행된 문장 수를 [statements] 줄로 출력한다.
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar NestedResolverBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NestedResolverBenchmark {
+
+    private static final int PRODUCTS_PER_CATEGORY = 20;
+
+    @Param({"10", "100"})
+    private int breadth;
+
+    @Param({"1", "2", "3"})
+    private int depth;
+
+    @Param({"100"})
+    private long roundTripMicros;
+
+    private final AtomicLong statements = new AtomicLong();
+    private final List<AnnotationConfigApplicationContext> contexts = new ArrayList<>();
+    private DefaultExecutionGraphQlService perParent;
+    private DefaultExecutionGraphQlService dataLoader;
+    private String document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Category> categories = new ArrayList<>();
+        Map<Long, List<Product>> byCategory = new HashMap<>();
+        Map<Long, Product> byId = new HashMap<>();
+        long productId = 1;
+        for (long c = 1; c <= breadth; c++) {
+            Category category = Category.builder().id(c).name("category-" + c).build();
+            categories.add(category);
+            List<Product> products = new ArrayList<>();
+            for (int p = 0; p < PRODUCTS_PER_CATEGORY; p++, productId++) {
+                Product product = Product.builder().id(productId).name("product-" + productId)
+                        .price(BigDecimal.valueOf(1000 + productId)).stockQuantity(10).category(category)
+                        .status(ProductStatus.ACTIVE).sellerId(1L).build();
+                products.add(product);
+                byId.put(productId, product);
+            }
+            byCategory.put(c, products);
+        }
+
+        CategoryRepository categoryRepository = repository(CategoryRepository.class, (method, args) -> switch (method) {
+            case "findAll" -> categories;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        ProductRepository productRepository = repository(ProductRepository.class, (method, args) -> switch (method) {
+            case "findByCategoryId" -> new PageImpl<>(byCategory.getOrDefault((Long) args[0], List.of()),
+                    (Pageable) args[1], PRODUCTS_PER_CATEGORY);
+            case "findTopIdsByCategoryIdIn" -> ((Collection<?>) args[0]).stream()
+                    .flatMap(id -> byCategory.getOrDefault((Long) id, List.of()).stream().limit((Integer) args[1]))
+                    .map(Product::getId)
+                    .toList();
+            case "findByIdIn" -> ((Collection<?>) args[0]).stream().map(byId::get).toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        perParent = service(new LegacyGraphqlController(productRepository, categoryRepository), null);
+        DefaultBatchLoaderRegistry registry = new DefaultBatchLoaderRegistry();
+        new ProductDataLoaders(registry, productRepository);
+        // 상품 목록 쿼리는 쓰지 않으므로 projection 저장소 없음
+        dataLoader = service(new ProductGraphqlController(productRepository, categoryRepository, null), registry);
+
+        String selection = "products { id name price }";
+        for (int d = 1; d < depth; d++) {
+            selection = "products { id name price category { id name " + selection + " } }";
+        }
+        document = "{ categories { id name " + selection + " } }";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexts.forEach(AnnotationConfigApplicationContext::close);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatements() {
+        statements.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements() {
+        System.out.printf("%n[statements] breadth=%d depth=%d total=%d%n", breadth, depth, statements.get());
+    }
+
+    @Benchmark
+    public Object perParent() {
+        return execute(perParent);
+    }
+
+    @Benchmark
+    public Object dataLoader() {
+        return execute(dataLoader);
+    }
+
+    private Object execute(DefaultExecutionGraphQlService service) {
+        ExecutionGraphQlResponse response = service
+                .execute(new DefaultExecutionGraphQlRequest(document, null, null, null, "bench", null))
+                .block();
+        if (!response.getErrors().isEmpty()) {
+            throw new IllegalStateException(response.getErrors().toString());
+        }
+        return response.getData();
+    }
+
+    private DefaultExecutionGraphQlService service(Object controller, DefaultBatchLoaderRegistry registry) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        register(context, controller);
+        context.refresh();
+        contexts.add(context);
+        AnnotatedControllerConfigurer configurer = new AnnotatedControllerConfigurer();
+        configurer.setApplicationContext(context);
+        configurer.afterPropertiesSet();
+
+        DefaultExecutionGraphQlService service = new DefaultExecutionGraphQlService(GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ClassPathResource("graphql/schema.graphqls"))
+                .configureRuntimeWiring(configurer)
+                .build());
+        if (registry != null) {
+            service.addDataLoaderRegistrar(registry);
+        }
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void register(AnnotationConfigApplicationContext context, T controller) {
+        context.registerBean((Class<T>) controller.getClass(), () -> controller);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    /**
+     * 호출 1회 = SQL 1문장으로 세고 왕복 시간만큼 대기
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T repository(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName();
+                };
+            }
+            statements.incrementAndGet();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+            return handler.handle(method.getName(), args);
+        });
+    }
+
+    /**
+     * 기존 ProductGraphqlController의 categories / Category.products — 카테고리마다 한 번씩 조회
+     */
+    @Controller
+    static class LegacyGraphqlController {
+
+        private final ProductRepository productRepository;
+        private final CategoryRepository categoryRepository;
+
+        LegacyGraphqlController(ProductRepository productRepository, CategoryRepository categoryRepository) {
+            this.productRepository = productRepository;
+            this.categoryRepository = categoryRepository;
+        }
+
+        @QueryMapping
+        public List<Category> categories() {
+            return categoryRepository.findAll();
+        }
+
+        @SchemaMapping(typeName = "Category", field = "products")
+        public List<Product> getCategoryProducts(Category category) {
+            return productRepository.findByCategoryId(category.getId(), Pageable.ofSize(PRODUCTS_PER_CATEGORY)).getContent();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.livemart.product.image;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 12MP(4000×3000) JPEG 업로드 1건 처리량 — images/sec
+ *
+ * - legacySerial       : 기존 방식 — 디코드 후 원본/“webp”(JPEG) 인코딩, 각 썸네일을 원본에서 BICUBIC 1회 축소, 모두 직렬
+ * - pipeline           : ImageOptimizationService — 디코드 1회, 단계적 축소, 변형별 병렬 인코딩 (WebP writer 없는 환경이면 webp 생략)
+ * - *Concurrent        : 업로드 4건 동시 — bounded 실행기 포화 시 처리량
+ *
+ * 입력은 그라데이션 + 노이즈 합성 이미지 (실사진보다 JPEG 디코드/인코드가 약간 가벼움).
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar ImagePipelineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ImagePipelineBenchmark {
+
+    private static final int WIDTH = 4000;
+    private static final int HEIGHT = 3000;
+    private static final int[] THUMBNAILS = {150, 400, 800, 20};
+    private static final float[] QUALITIES = {0.8f, 0.85f, 0.9f, 0.5f};
+
+    private byte[] upload;
+    private ImageOptimizationService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Random random = new Random(42);
+        for (int i = 0; i < pixels.length; i++) {
+            int x = i % WIDTH;
+            int y = i / WIDTH;
+            pixels[i] = (x * 255 / WIDTH) << 16 | (y * 255 / HEIGHT) << 8 | random.nextInt(96);
+        }
+        upload = encode(image, 0.92f);
+        service = new ImageOptimizationService(new SimpleMeterRegistry(), 0, 64);
+        System.out.printf("%n[image] input=%dx%d, %d KB JPEG, pipeline threads=%d%n",
+                WIDTH, HEIGHT, upload.length / 1024, Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.stop();
+    }
+
+    @Benchmark
+    public int legacySerial() throws IOException {
+        return legacy();
+    }
+
+    @Benchmark
+    public long pipeline() {
+        return service.optimizeImage(upload).join().getTotalSize();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int legacyConcurrent() throws IOException {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long pipelineConcurrent() {
+        return service.optimizeImage(upload).join().getTotalSize();
+    }
+
+    private int legacy() throws IOException {
+        BufferedImage original = ImageIO.read(new ByteArrayInputStream(upload));
+        int bytes = encode(original, 0.9f).length + encode(original, 0.85f).length;
+        for (int i = 0; i < THUMBNAILS.length; i++) {
+            double ratio = Math.min((double) THUMBNAILS[i] / original.getWidth(), (double) THUMBNAILS[i] / original.getHeight());
+            int width = (int) (original.getWidth() * ratio);
+            int height = (int) (original.getHeight() * ratio);
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = thumbnail.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(original, 0, 0, width, height, null);
+            graphics.dispose();
+            bytes += encode(thumbnail, QUALITIES[i]).length;
+        }
+        return bytes;
+    }
+
+    private static byte[] encode(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
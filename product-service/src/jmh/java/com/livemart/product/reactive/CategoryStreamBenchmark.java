@@ -0,0 +1,176 @@
+package com.livemart.product.reactive;
+
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.dto.ProductResponse;
+import io.r2dbc.spi.ConnectionFactories;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 카테고리 상품 100만 건 스트림 — 첫 요소까지 시간 / 전체 소비 시간 / 힙 최대 증가량
+ *
+ * - findAllFilter : 기존 방식 — 전체 상품(120만)을 객체 목록으로 읽은 뒤 카테고리로 걸러 Flux.fromIterable
+ * - r2dbc         : ReactiveProductRepository.streamByCategory — WHERE category_id + 커서(fetchSize 500) 스트림
+ *
+ * firstElement*는 첫 요소를 받고 취소, drain*은 100만 건을 모두 소비한다.
+ * drain* 동안 1만 건마다 힙 사용량을 재서 반복 시작 대비 최대 증가량을 [heap] 줄로 출력한다 (GC 시점에 따라 흔들리므로 규모 비교용).
+ * 할당량은 -prof gc로 확인.
+ *
+ * H2(PostgreSQL 모드, LAZY_QUERY_EXECUTION)와 r2dbc-h2로 재현 — 네트워크 왕복과 PostgreSQL 커서 동작은 포함하지 않는다.
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar CategoryStreamBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class CategoryStreamBenchmark {
+
+    private static final String DB = "category-stream";
+    private static final long CATEGORY_ID = 1L;
+    private static final int CATEGORY_ROWS = 1_000_000;
+    private static final int OTHER_ROWS = 200_000;
+    private static final String SELECT_ALL = """
+            SELECT p.id, p.name, p.description, p.price, p.stock_quantity, p.category_id, c.name AS category_name,
+                   p.status, p.image_url, p.seller_id, p.created_at, p.updated_at
+            FROM products p LEFT JOIN categories c ON c.id = p.category_id""";
+
+    private Connection jdbc;
+    private ReactiveProductRepository repository;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private long heapBaseline;
+    private long heapPeak;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jdbc = DriverManager.getConnection("jdbc:h2:mem:" + DB + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1");
+        try (Statement ddl = jdbc.createStatement()) {
+            ddl.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL)");
+            ddl.execute("""
+                    CREATE TABLE products (
+                        id BIGINT PRIMARY KEY, name VARCHAR(200) NOT NULL, description TEXT,
+                        price DECIMAL(10,2) NOT NULL, stock_quantity INT NOT NULL, category_id BIGINT,
+                        status VARCHAR(20) NOT NULL, image_url VARCHAR(500), seller_id BIGINT NOT NULL,
+                        created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6))""");
+            ddl.execute("CREATE INDEX idx_products_category ON products(category_id)");
+            ddl.execute("INSERT INTO categories VALUES (1, 'Fashion'), (2, 'Food')");
+            ddl.execute("""
+                    INSERT INTO products
+                    SELECT X, 'product-' || X, 'description of product ' || X, MOD(X, 100000) + 1000, MOD(X, 500),
+                           CASE WHEN X <= %d THEN 1 ELSE 2 END, 'ACTIVE', 'https://cdn.livemart.com/products/' || X,
+                           MOD(X, 1000), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(1, %d)""".formatted(CATEGORY_ROWS, CATEGORY_ROWS + OTHER_ROWS));
+        }
+        repository = new ReactiveProductRepository(DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + DB + "?options=DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1")), 500);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement statement = jdbc.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetHeap() {
+        System.gc();
+        heapBaseline = memory.getHeapMemoryUsage().getUsed();
+        heapPeak = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportHeap(BenchmarkParams params) {
+        if (params.getBenchmark().contains("drain")) {
+            System.out.printf("%n[heap] %s peak +%d MB%n",
+                    params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1), heapPeak >> 20);
+        }
+    }
+
+    @Benchmark
+    public ProductResponse firstElementFindAllFilter() {
+        return findAllFilter(CATEGORY_ID).blockFirst();
+    }
+
+    @Benchmark
+    public ProductResponse firstElementR2dbc() {
+        return repository.streamByCategory(CATEGORY_ID).blockFirst();
+    }
+
+    @Benchmark
+    public long drainFindAllFilter(Blackhole bh) {
+        return drain(findAllFilter(CATEGORY_ID), bh);
+    }
+
+    @Benchmark
+    public long drainR2dbc(Blackhole bh) {
+        return drain(repository.streamByCategory(CATEGORY_ID), bh);
+    }
+
+    private long drain(Flux<ProductResponse> products, Blackhole bh) {
+        long count = products
+                .doOnNext(bh::consume)
+                .index()
+                .doOnNext(indexed -> {
+                    if (indexed.getT1() % 10_000 == 0) {
+                        heapPeak = Math.max(heapPeak, memory.getHeapMemoryUsage().getUsed() - heapBaseline);
+                    }
+                })
+                .count()
+                .block();
+        if (count != CATEGORY_ROWS) {
+            throw new IllegalStateException("Expected " + CATEGORY_ROWS + " rows, got " + count);
+        }
+        return count;
+    }
+
+    /**
+     * 기존 ReactiveProductQueryService.getProductsByCategory — findAll() 후 메모리 필터 (엔티티 대신 응답 객체)
+     */
+    private Flux<ProductResponse> findAllFilter(Long categoryId) {
+        return Flux.defer(() -> {
+                    List<ProductResponse> all = new ArrayList<>();
+                    try (Statement statement = jdbc.createStatement();
+                         ResultSet rs = statement.executeQuery(SELECT_ALL)) {
+                        while (rs.next()) {
+                            all.add(ProductResponse.builder()
+                                    .id(rs.getLong("id"))
+                                    .name(rs.getString("name"))
+                                    .description(rs.getString("description"))
+                                    .price(rs.getObject("price", BigDecimal.class))
+                                    .stockQuantity(rs.getInt("stock_quantity"))
+                                    .categoryId(rs.getLong("category_id"))
+                                    .categoryName(rs.getString("category_name"))
+                                    .status(ProductStatus.valueOf(rs.getString("status")))
+                                    .imageUrl(rs.getString("image_url"))
+                                    .sellerId(rs.getLong("seller_id"))
+                                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                                    .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                                    .build());
+                        }
+                    } catch (Exception e) {
+                        return Flux.error(e);
+                    }
+                    heapPeak = Math.max(heapPeak, memory.getHeapMemoryUsage().getUsed() - heapBaseline);
+                    return Flux.fromIterable(all);
+                })
+                .filter(p -> categoryId.equals(p.getCategoryId()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,139 @@
+package com.livemart.product.recommendation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * co-view 유사도 — 조회 1,000만 건 (사용자 50만 명 × 평균 20개, 상품 10만 개, 인기 편중)
+ *
+ * - build          : CoViewMatrix 생성 + 전 상품 상위 50개 계산 (전체 빌드의 CPU 부분, Redis 읽기/쓰기 제외)
+ * - lookup         : 게시된 목록 디코드 + 상위 10개 (요청 경로의 GET 1회 이후 부분)
+ * - aggregate20    : 사용자 조회 상품 20개의 목록 합산 (사용자 기반 추천의 MGET 1회 이후 부분)
+ * - requestTimeItem: 기존 요청 시점 계산 — 상품 조회자들의 조회 기록 HashSet 합산 (Redis 왕복 제외)
+ *
+ * build는 SingleShotTime(1회 = 전체 빌드), 나머지는 AverageTime.
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar CoViewSimilarityBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CoViewSimilarityBenchmark {
+
+    private static final int USERS = 500_000;
+    private static final int PRODUCTS = 100_000;
+    private static final int VIEWS_PER_USER = 20;
+    private static final int NEIGHBOURS = 50;
+    private static final int MAX_USER_VIEWS = 500;
+
+    private List<long[]> userViews;
+    private Map<Long, Set<Long>> productViewers;
+    private Map<Long, String> published;
+    private long[] targetIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        userViews = new ArrayList<>(USERS);
+        productViewers = new HashMap<>();
+        long views = 0;
+        for (int user = 0; user < USERS; user++) {
+            int count = 1 + random.nextInt(2 * VIEWS_PER_USER - 1);
+            long[] viewed = new long[count];
+            for (int i = 0; i < count; i++) {
+                // 제곱 분포 — 앞쪽 상품일수록 많이 조회됨
+                double r = random.nextDouble();
+                viewed[i] = 1L + (long) (r * r * PRODUCTS);
+                productViewers.computeIfAbsent(viewed[i], id -> new HashSet<>()).add((long) user);
+            }
+            userViews.add(viewed);
+            views += count;
+        }
+
+        published = new HashMap<>();
+        long started = System.nanoTime();
+        buildMatrix().forEachNeighbours(NEIGHBOURS, MAX_USER_VIEWS,
+                n -> published.put(n.productId(), CoViewSimilarity.encode(n)));
+        System.out.printf("%n[coview] users=%d, views=%d, published=%d, build=%d ms%n",
+                USERS, views, published.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        targetIds = new long[1024];
+        for (int i = 0; i < targetIds.length; i++) {
+            targetIds[i] = 1L + random.nextInt(PRODUCTS);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int build() {
+        int[] published = new int[1];
+        buildMatrix().forEachNeighbours(NEIGHBOURS, MAX_USER_VIEWS, n -> published[0]++);
+        return published[0];
+    }
+
+    @Benchmark
+    public List<CoViewSimilarity.Neighbour> lookup() {
+        List<CoViewSimilarity.Neighbour> neighbours = CoViewSimilarity.decode(published.get(nextTarget()));
+        return neighbours.subList(0, Math.min(10, neighbours.size()));
+    }
+
+    @Benchmark
+    public Map<Long, Double> aggregate20() {
+        Set<Long> viewed = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            viewed.add(nextTarget());
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long productId : viewed) {
+            for (CoViewSimilarity.Neighbour n : CoViewSimilarity.decode(published.get(productId))) {
+                if (!viewed.contains(n.productId())) {
+                    scores.merge(n.productId(), (double) n.score(), Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    @Benchmark
+    public Map<Long, Integer> requestTimeItem() {
+        long productId = nextTarget();
+        Map<Long, Integer> coViewed = new HashMap<>();
+        for (Long user : productViewers.getOrDefault(productId, Set.of())) {
+            Set<Long> history = new HashSet<>();
+            for (long viewed : userViews.get(user.intValue())) {
+                history.add(viewed);
+            }
+            for (Long other : history) {
+                if (other != productId) {
+                    coViewed.merge(other, 1, Integer::sum);
+                }
+            }
+        }
+        return coViewed;
+    }
+
+    private CoViewMatrix buildMatrix() {
+        CoViewMatrix.Builder builder = CoViewMatrix.builder();
+        for (long[] viewed : userViews) {
+            builder.addUser(viewed);
+        }
+        return builder.build();
+    }
+
+    private long nextTarget() {
+        long id = targetIds[next];
+        next = (next + 1) & (targetIds.length - 1);
+        return id;
+    }
+}
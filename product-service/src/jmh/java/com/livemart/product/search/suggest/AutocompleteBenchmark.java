@@ -0,0 +1,73 @@
+package com.livemart.product.search.suggest;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메모리 자동완성(SuggestionIndex) 조회 지연시간 — 검색어 100만 개
+ *
+ * 상품명 형태의 합성 검색어(브랜드 + 수식어 + 품목 + 모델번호, 한글/영문 혼합)로 인덱스를 만들고
+ * 입력 형태별 상위 10개 조회 비용을 잰다.
+ * - latin    : 영문 접두어 ("gal")
+ * - syllable : 완성된 음절 ("무선")
+ * - jamo     : 조합 중인 음절 ("갓" — "가습기" 입력 중, 받침이 다음 음절 초성으로 넘어가는 경우)
+ * - initials : 초성만 ("ㅁㅅ")
+ *
+ * 검색어 수, 키 수, 인덱스 추정 크기(검색어 100만 개당 바이트)는 @Setup에서 한 번 출력한다.
+ * 실행: ./gradlew :product-service:jmhJar && java -jar product-service/build/libs/product-service-2.0.0-jmh.jar AutocompleteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AutocompleteBenchmark {
+
+    private static final String[] BRANDS = {"삼성", "LG", "애플", "Apple", "샤오미", "다이슨", "나이키", "Galaxy", "소니", "필립스"};
+    private static final String[] MODIFIERS = {"무선", "초경량", "프리미엄", "대용량", "미니", "스마트", "휴대용", "저소음", "Pro", "Ultra"};
+    private static final String[] ITEMS = {"이어폰", "청소기", "노트북", "운동화", "가습기", "선풍기", "백팩", "키보드", "모니터", "텀블러",
+            "에어프라이어", "공기청정기", "블루투스 스피커", "전동칫솔", "보조배터리", "headphones", "smartwatch", "tablet"};
+
+    @Param({"1000000"})
+    private int terms;
+
+    @Param({"latin", "syllable", "jamo", "initials"})
+    private String prefixKind;
+
+    private SuggestionIndex index;
+    private String prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        SuggestionIndex.Builder builder = SuggestionIndex.builder();
+        for (int i = 0; i < terms; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + MODIFIERS[random.nextInt(MODIFIERS.length)] + " "
+                    + ITEMS[random.nextInt(ITEMS.length)] + " "
+                    + Integer.toString(i, 36).toUpperCase();
+            // 인기 검색어처럼 소수 항목에 큰 가중치가 몰린 분포
+            int weight = (int) Math.min(Integer.MAX_VALUE, Math.round(Math.pow(random.nextDouble(), 8) * 10_000));
+            builder.add(name, weight, i + 1L);
+        }
+        index = builder.build();
+
+        prefix = HangulJamo.normalize(switch (prefixKind) {
+            case "latin" -> "gal";
+            case "syllable" -> "무선";
+            case "jamo" -> "갓";
+            case "initials" -> "ㅁㅅ";
+            default -> throw new IllegalArgumentException(prefixKind);
+        });
+
+        System.out.printf("%n[autocomplete index] terms=%d, keys=%d, estimatedBytes=%d (%.1f MB per 1M terms)%n",
+                index.termCount(), index.keyCount(), index.estimatedBytes(),
+                index.estimatedBytes() * (1_000_000.0 / index.termCount()) / (1024 * 1024));
+    }
+
+    @Benchmark
+    public List<SuggestionIndex.Suggestion> lookupTop10() {
+        return index.lookup(prefix, 10, productId -> false);
+    }
+}
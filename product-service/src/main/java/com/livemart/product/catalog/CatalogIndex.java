@@ -0,0 +1,311 @@
+package com.livemart.product.catalog;
+
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM 내 상품 카탈로그 인덱스 — 추천(같은 카테고리 비슷한 가격대, 재고 많은 순)과 자동 발주(재고 임계값 이하) 조회용
+ *
+ * productRepository.findAll()로 전체 엔티티를 힙에 올려 거르는 대신 CatalogSnapshot(원시 배열)에서
+ * 필요한 id만 찾고, 호출 측은 그 id의 엔티티만 읽는다.
+ *
+ * - 전체 빌드: 기동 직후 + rebuild-interval 주기. (id, 카테고리, 가격, 재고, 상태)만 id keyset으로 읽는다
+ *   (ProductService를 거치지 않은 재고 변경도 이때 반영)
+ * - 증분 반영: 상품 이벤트(CatalogIndexListener) → overlay. 변경된 상품은 스냅샷 행을 가리고 overlay 값으로 답한다
+ * - overlay가 overlay-limit을 넘으면 DB 없이 스냅샷 + overlay를 합쳐 새 스냅샷을 만든다 (재고 변경이 잦아도 overlay가 작게 유지됨)
+ * - 스냅샷 교체 후 overlay는 새 스냅샷에 이미 들어간 변경만 지운다 (빌드/병합 중 변경은 유지)
+ */
+@Slf4j
+@Component
+public class CatalogIndex {
+
+    private static final int PAGE_SIZE = 10_000;
+
+    /** 스냅샷 이후 변경된 상품 — status가 null이면 삭제 */
+    record Change(Long categoryId, long price, int stock, ProductStatus status, long sequence) {}
+
+    private record Candidate(long productId, long rank) {}
+
+    private final ProductRepository productRepository;
+    private final Duration rebuildInterval;
+    private final int overlayLimit;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.empty();
+    private volatile boolean ready;
+    private final ConcurrentHashMap<Long, Change> overlay = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean building = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    private final Timer rebuildTimer;
+    private final Timer compactTimer;
+
+    public CatalogIndex(ProductRepository productRepository,
+                        MeterRegistry registry,
+                        @Value("${product.catalog.index.rebuild-interval:30m}") Duration rebuildInterval,
+                        @Value("${product.catalog.index.overlay-limit:2000}") int overlayLimit) {
+        this.productRepository = productRepository;
+        this.rebuildInterval = rebuildInterval;
+        this.overlayLimit = overlayLimit;
+
+        this.rebuildTimer = Timer.builder("catalog.index.rebuild")
+                .description("Full catalog index rebuild from the database")
+                .register(registry);
+        this.compactTimer = Timer.builder("catalog.index.compact")
+                .description("In-memory merge of product changes into a new catalog snapshot")
+                .register(registry);
+        Gauge.builder("catalog.index.products", this, index -> index.snapshot.size())
+                .description("Products in the catalog index snapshot")
+                .register(registry);
+        Gauge.builder("catalog.index.bytes", this, index -> index.snapshot.estimatedBytes())
+                .description("Estimated heap used by the catalog index snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("catalog.index.overlay.size", overlay, Map::size)
+                .description("Product changes applied on top of the catalog snapshot")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "catalog-index-builder");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(1, rebuildInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 같은 카테고리 ACTIVE 상품 중 기준 상품 가격 ±ratio 안에서 가격이 가까운 순
+     */
+    public List<Long> similarByPrice(Long productId, double ratio, int limit) {
+        CatalogSnapshot current = snapshot;
+        Long categoryId;
+        long price;
+        Change change = overlay.get(productId);
+        if (change != null) {
+            if (change.status() == null) return List.of();
+            categoryId = change.categoryId();
+            price = change.price();
+        } else {
+            int row = current.rowOf(productId);
+            if (row < 0) return List.of();
+            categoryId = current.categoryId(row);
+            price = current.price(row);
+        }
+        if (categoryId == null || limit <= 0) {
+            return List.of();
+        }
+        long maxDistance = (long) Math.ceil(price * ratio);
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (int row : current.nearestByPrice(categoryId, price, maxDistance, limit,
+                id -> id == productId || overlay.containsKey(id))) {
+            candidates.add(new Candidate(current.id(row), Math.abs(current.price(row) - price)));
+        }
+        overlay.forEach((id, c) -> {
+            long distance = Math.abs(c.price() - price);
+            if (c.status() == ProductStatus.ACTIVE && categoryId.equals(c.categoryId())
+                    && distance < maxDistance && !id.equals(productId)) {
+                candidates.add(new Candidate(id, distance));
+            }
+        });
+        return top(candidates, Comparator.comparingLong(Candidate::rank), limit);
+    }
+
+    /**
+     * ACTIVE 상품 재고 많은 순 (인기 상품 목록의 기존 기준)
+     */
+    public List<Long> mostStocked(int limit) {
+        CatalogSnapshot current = snapshot;
+        List<Candidate> candidates = new ArrayList<>();
+        for (int row : current.mostStocked(limit, overlay::containsKey)) {
+            candidates.add(new Candidate(current.id(row), current.stock(row)));
+        }
+        overlay.forEach((id, c) -> {
+            if (c.status() == ProductStatus.ACTIVE) {
+                candidates.add(new Candidate(id, c.stock()));
+            }
+        });
+        return top(candidates, Comparator.comparingLong(Candidate::rank).reversed(), limit);
+    }
+
+    /**
+     * 재고가 threshold 이하인 상품 id (상태 무관)
+     */
+    public List<Long> stockAtOrBelow(int threshold) {
+        CatalogSnapshot current = snapshot;
+        int[] rows = current.stockAtOrBelow(threshold, overlay::containsKey);
+        List<Long> ids = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            ids.add(current.id(row));
+        }
+        overlay.forEach((id, c) -> {
+            if (c.status() != null && c.stock() <= threshold) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    public void onProductChanged(Long productId, Long categoryId, BigDecimal price, int stock, ProductStatus status) {
+        put(productId, new Change(categoryId, CatalogSnapshot.priceUnits(price), stock,
+                status != null ? status : ProductStatus.INACTIVE, sequence.incrementAndGet()));
+    }
+
+    /**
+     * 재고 변경 — 카테고리는 이벤트에 없으므로 인덱스에 있는 값을 쓴다
+     *
+     * @return 인덱스에 없는 상품이면 false (호출 측이 DB 값으로 onProductChanged)
+     */
+    public boolean onStockChanged(Long productId, BigDecimal price, int stock, ProductStatus status) {
+        Change known = overlay.get(productId);
+        Long categoryId;
+        if (known != null && known.status() != null) {
+            categoryId = known.categoryId();
+        } else {
+            CatalogSnapshot current = snapshot;
+            int row = current.rowOf(productId);
+            if (known != null || row < 0) {
+                return false;
+            }
+            categoryId = current.categoryId(row);
+        }
+        onProductChanged(productId, categoryId, price, stock, status);
+        return true;
+    }
+
+    public void onProductDeleted(Long productId) {
+        put(productId, new Change(null, 0L, 0, null, sequence.incrementAndGet()));
+    }
+
+    private void put(Long productId, Change change) {
+        overlay.put(productId, change);
+        if (overlay.size() > overlayLimit && scheduler != null && !building.get()) {
+            scheduler.execute(this::compactQuietly);
+        }
+    }
+
+    /**
+     * DB 전체 빌드 — 이미 빌드 중이면 건너뜀
+     */
+    void rebuild() {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long buildSequence = sequence.get();
+            long started = System.nanoTime();
+            CatalogSnapshot.Builder builder = CatalogSnapshot.builder(snapshot.size());
+            long afterId = 0L;
+            while (true) {
+                List<ProductRepository.CatalogView> page =
+                        productRepository.findCatalogAfter(afterId, Limit.of(PAGE_SIZE));
+                for (ProductRepository.CatalogView product : page) {
+                    builder.add(product.getId(), product.getCategoryId(), product.getPrice(),
+                            product.getStockQuantity() != null ? product.getStockQuantity() : 0, product.getStatus());
+                }
+                if (page.size() < PAGE_SIZE) break;
+                afterId = page.get(page.size() - 1).getId();
+            }
+            snapshot = builder.build();
+            ready = true;
+            overlay.entrySet().removeIf(e -> e.getValue().sequence() <= buildSequence);
+
+            long elapsed = System.nanoTime() - started;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("카탈로그 인덱스 빌드 완료: products={}, bytes={}, elapsed={}ms",
+                    snapshot.size(), snapshot.estimatedBytes(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } finally {
+            building.set(false);
+        }
+    }
+
+    /**
+     * 스냅샷 + overlay 병합 (DB 조회 없음)
+     */
+    void compact() {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            CatalogSnapshot current = snapshot;
+            Map<Long, Change> changes = Map.copyOf(overlay);
+            CatalogSnapshot.Builder builder = CatalogSnapshot.builder(current.size() + changes.size());
+            for (int row = 0; row < current.size(); row++) {
+                if (!changes.containsKey(current.id(row))) {
+                    builder.add(current.id(row), current.categoryId(row), current.price(row), current.stock(row), current.status(row));
+                }
+            }
+            changes.forEach((id, c) -> {
+                if (c.status() != null) {
+                    builder.add(id, c.categoryId(), c.price(), c.stock(), c.status());
+                }
+            });
+            snapshot = builder.build();
+            // 병합한 값 그대로인 항목만 제거 — 병합 중 다시 바뀐 상품은 overlay에 남는다
+            changes.forEach(overlay::remove);
+            compactTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } finally {
+            building.set(false);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // 실패 시 기존 스냅샷 + overlay로 계속 응답, 다음 주기에 재시도
+            log.warn("카탈로그 인덱스 빌드 실패: error={}", e.getMessage());
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.warn("카탈로그 인덱스 병합 실패: error={}", e.getMessage());
+        }
+    }
+
+    private static List<Long> top(List<Candidate> candidates, Comparator<Candidate> order, int limit) {
+        candidates.sort(order.thenComparingLong(Candidate::productId));
+        return candidates.stream().limit(limit).map(Candidate::productId).toList();
+    }
+}
@@ -0,0 +1,356 @@
+package com.livemart.product.catalog;
+
+import com.livemart.product.domain.ProductStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * 상품 카탈로그 컬럼형 스냅샷 (불변)
+ *
+ * 상품 엔티티 대신 추천/발주 조회에 필요한 값만 원시 타입 배열로 보관한다.
+ * 행 번호 = 상품 id 오름차순 위치.
+ *
+ * - 컬럼: id, 가격(원 × 100), 재고, 카테고리 순번, 상태
+ * - 카테고리별 ACTIVE 행을 가격 오름차순으로 이어 붙인 배열 (CSR — categoryStart로 구간 구분)
+ * - 전체 행을 재고 오름차순으로 정렬한 배열 — 앞쪽은 재고 임계값 이하, 뒤쪽은 재고 많은 순
+ *
+ * 조회는 이진 탐색으로 시작 위치를 찾고 필요한 k건만 읽는다: O(log n + k)
+ */
+public final class CatalogSnapshot {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final byte ACTIVE = (byte) ProductStatus.ACTIVE.ordinal();
+    private static final ProductStatus[] STATUSES = ProductStatus.values();
+    private static final int NO_CATEGORY = -1;
+
+    private final long[] ids;
+    private final long[] prices;
+    private final int[] stocks;
+    private final int[] categories;
+    private final byte[] statuses;
+
+    /** 카테고리 순번 → 카테고리 id (오름차순) */
+    private final long[] categoryIds;
+    /** 카테고리 c의 ACTIVE 행 = byCategoryPrice[categoryStart[c], categoryStart[c + 1]) */
+    private final int[] categoryStart;
+    private final int[] byCategoryPrice;
+    /** 재고 오름차순 (같은 재고는 id 내림차순 → 뒤에서부터 읽으면 재고 많은 순, id 오름차순) */
+    private final int[] byStock;
+
+    private CatalogSnapshot(long[] ids, long[] prices, int[] stocks, int[] categories, byte[] statuses,
+                            long[] categoryIds, int[] categoryStart, int[] byCategoryPrice, int[] byStock) {
+        this.ids = ids;
+        this.prices = prices;
+        this.stocks = stocks;
+        this.categories = categories;
+        this.statuses = statuses;
+        this.categoryIds = categoryIds;
+        this.categoryStart = categoryStart;
+        this.byCategoryPrice = byCategoryPrice;
+        this.byStock = byStock;
+    }
+
+    public static CatalogSnapshot empty() {
+        return builder(0).build();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /** 가격 → 내부 단위 (원 × 100) */
+    public static long priceUnits(BigDecimal price) {
+        if (price == null) {
+            return 0L;
+        }
+        BigDecimal units = price.movePointRight(2).setScale(0, RoundingMode.HALF_UP);
+        return units.unscaledValue().bitLength() < Long.SIZE ? units.longValue() : Long.MAX_VALUE;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** @return 행 번호, 없으면 음수 */
+    public int rowOf(long productId) {
+        return Arrays.binarySearch(ids, productId);
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public long price(int row) {
+        return prices[row];
+    }
+
+    public int stock(int row) {
+        return stocks[row];
+    }
+
+    public Long categoryId(int row) {
+        return categories[row] == NO_CATEGORY ? null : categoryIds[categories[row]];
+    }
+
+    public ProductStatus status(int row) {
+        return STATUSES[statuses[row]];
+    }
+
+    /**
+     * 같은 카테고리 ACTIVE 상품 중 가격이 가까운 순으로 최대 limit건
+     *
+     * @param maxDistance |가격 차| < maxDistance 인 상품만 (내부 단위)
+     * @param skipped     제외할 상품 id (조회 기준 상품, 스냅샷 이후 변경된 상품)
+     */
+    public int[] nearestByPrice(long categoryId, long price, long maxDistance, int limit, LongPredicate skipped) {
+        int category = Arrays.binarySearch(categoryIds, categoryId);
+        if (category < 0 || limit <= 0) {
+            return new int[0];
+        }
+        int start = categoryStart[category];
+        int end = categoryStart[category + 1];
+        int right = lowerBound(start, end, price);
+        int left = right - 1;
+
+        int[] result = new int[Math.min(limit, end - start)];
+        int count = 0;
+        while (count < result.length) {
+            long leftDistance = left >= start ? price - prices[byCategoryPrice[left]] : Long.MAX_VALUE;
+            long rightDistance = right < end ? prices[byCategoryPrice[right]] - price : Long.MAX_VALUE;
+            int row;
+            if (leftDistance <= rightDistance) {
+                if (leftDistance >= maxDistance) break;
+                row = byCategoryPrice[left--];
+            } else {
+                if (rightDistance >= maxDistance) break;
+                row = byCategoryPrice[right++];
+            }
+            if (!skipped.test(ids[row])) {
+                result[count++] = row;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * ACTIVE 상품 재고 많은 순 최대 limit건
+     */
+    public int[] mostStocked(int limit, LongPredicate skipped) {
+        int[] result = new int[Math.max(0, Math.min(limit, ids.length))];
+        int count = 0;
+        for (int i = byStock.length - 1; i >= 0 && count < result.length; i--) {
+            int row = byStock[i];
+            if (statuses[row] == ACTIVE && !skipped.test(ids[row])) {
+                result[count++] = row;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 재고가 threshold 이하인 상품 (상태 무관, 재고 오름차순)
+     */
+    public int[] stockAtOrBelow(int threshold, LongPredicate skipped) {
+        int lo = 0;
+        int hi = byStock.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (stocks[byStock[mid]] <= threshold) lo = mid + 1;
+            else hi = mid;
+        }
+        int[] result = new int[lo];
+        int count = 0;
+        for (int i = 0; i < lo; i++) {
+            if (!skipped.test(ids[byStock[i]])) {
+                result[count++] = byStock[i];
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /** 배열 크기 합 (객체 헤더 제외) */
+    public long estimatedBytes() {
+        return (long) ids.length * (Long.BYTES * 2 + Integer.BYTES * 2 + 1)
+                + (long) categoryIds.length * Long.BYTES
+                + (long) categoryStart.length * Integer.BYTES
+                + (long) byCategoryPrice.length * Integer.BYTES
+                + (long) byStock.length * Integer.BYTES;
+    }
+
+    private int lowerBound(int from, int to, long price) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (prices[byCategoryPrice[mid]] < price) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    public static final class Builder {
+
+        private long[] ids;
+        private long[] prices;
+        private int[] stocks;
+        private long[] categoryIds;
+        private byte[] statuses;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            ids = new long[capacity];
+            prices = new long[capacity];
+            stocks = new int[capacity];
+            categoryIds = new long[capacity];
+            statuses = new byte[capacity];
+        }
+
+        public Builder add(long productId, Long categoryId, BigDecimal price, int stock, ProductStatus status) {
+            return add(productId, categoryId, priceUnits(price), stock, status);
+        }
+
+        /** @param price 내부 단위 (원 × 100) */
+        public Builder add(long productId, Long categoryId, long price, int stock, ProductStatus status) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                stocks = Arrays.copyOf(stocks, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+            }
+            ids[size] = productId;
+            prices[size] = price;
+            stocks[size] = stock;
+            categoryIds[size] = categoryId != null ? categoryId : Long.MIN_VALUE;
+            statuses[size] = (byte) (status != null ? status : ProductStatus.INACTIVE).ordinal();
+            size++;
+            return this;
+        }
+
+        /**
+         * 같은 id가 여러 번 들어오면 마지막 값만 남긴다
+         */
+        public CatalogSnapshot build() {
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            sort(order, 0, size, (a, b) -> a == b ? 0 : ids[a] != ids[b] ? Long.compare(ids[a], ids[b]) : Integer.compare(a, b));
+
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (i + 1 < size && ids[order[i + 1]] == ids[order[i]]) continue;
+                order[n++] = order[i];
+            }
+
+            long[] rowIds = new long[n];
+            long[] rowPrices = new long[n];
+            int[] rowStocks = new int[n];
+            byte[] rowStatuses = new byte[n];
+            long[] rowCategoryIds = new long[n];
+            for (int row = 0; row < n; row++) {
+                int source = order[row];
+                rowIds[row] = ids[source];
+                rowPrices[row] = prices[source];
+                rowStocks[row] = stocks[source];
+                rowStatuses[row] = statuses[source];
+                rowCategoryIds[row] = categoryIds[source];
+            }
+
+            // 카테고리 id → 순번
+            long[] distinct = Arrays.stream(rowCategoryIds).filter(id -> id != Long.MIN_VALUE).sorted().distinct().toArray();
+            int[] rowCategories = new int[n];
+            int[] categoryStart = new int[distinct.length + 1];
+            for (int row = 0; row < n; row++) {
+                rowCategories[row] = rowCategoryIds[row] == Long.MIN_VALUE
+                        ? NO_CATEGORY
+                        : Arrays.binarySearch(distinct, rowCategoryIds[row]);
+                if (rowCategories[row] != NO_CATEGORY && rowStatuses[row] == ACTIVE) {
+                    categoryStart[rowCategories[row] + 1]++;
+                }
+            }
+            for (int c = 0; c < distinct.length; c++) {
+                categoryStart[c + 1] += categoryStart[c];
+            }
+
+            // 행이 id 순이므로 구간 안에서도 id 순으로 채운 뒤 가격으로 정렬 (같은 가격은 id 오름차순)
+            int[] byCategoryPrice = new int[categoryStart[distinct.length]];
+            int[] fill = Arrays.copyOf(categoryStart, distinct.length);
+            for (int row = 0; row < n; row++) {
+                if (rowCategories[row] != NO_CATEGORY && rowStatuses[row] == ACTIVE) {
+                    byCategoryPrice[fill[rowCategories[row]]++] = row;
+                }
+            }
+            for (int c = 0; c < distinct.length; c++) {
+                sort(byCategoryPrice, categoryStart[c], categoryStart[c + 1],
+                        (a, b) -> rowPrices[a] != rowPrices[b] ? Long.compare(rowPrices[a], rowPrices[b]) : Integer.compare(a, b));
+            }
+
+            // (재고, id 내림차순)을 long 하나로 묶어 원시 정렬
+            long[] stockKeys = new long[n];
+            for (int row = 0; row < n; row++) {
+                stockKeys[row] = ((long) rowStocks[row] << 32) | (Integer.MAX_VALUE - row);
+            }
+            Arrays.sort(stockKeys);
+            int[] byStock = new int[n];
+            for (int i = 0; i < n; i++) {
+                byStock[i] = Integer.MAX_VALUE - (int) stockKeys[i];
+            }
+
+            return new CatalogSnapshot(rowIds, rowPrices, rowStocks, rowCategories, rowStatuses,
+                    distinct, categoryStart, byCategoryPrice, byStock);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /** int[] 구간 정렬 — 박싱 없이 비교자로 정렬 (quicksort + 작은 구간 삽입 정렬) */
+    private static void sort(int[] a, int from, int to, RowComparator cmp) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            int mid = (from + to) >>> 1;
+            int pivot = medianOfThree(a[from], a[mid], a[to - 1], cmp);
+            int lt = from;
+            int i = from;
+            int gt = to - 1;
+            while (i <= gt) {
+                int c = cmp.compare(a[i], pivot);
+                if (c < 0) swap(a, lt++, i++);
+                else if (c > 0) swap(a, i, gt--);
+                else i++;
+            }
+            // 작은 쪽을 재귀, 큰 쪽은 반복 → 스택 깊이 O(log n)
+            if (lt - from < to - gt - 1) {
+                sort(a, from, lt, cmp);
+                from = gt + 1;
+            } else {
+                sort(a, gt + 1, to, cmp);
+                to = lt;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= from && cmp.compare(a[j], value) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static int medianOfThree(int a, int b, int c, RowComparator cmp) {
+        if (cmp.compare(a, b) > 0) { int t = a; a = b; b = t; }
+        if (cmp.compare(b, c) > 0) { b = c; }
+        return cmp.compare(a, b) > 0 ? a : b;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -1,7 +1,6 @@
 package com.livemart.product.config;
 
-import com.livemart.product.service.ProductService;
-import lombok.RequiredArgsConstructor;
+import com.livemart.product.search.ProductReindexer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import lombok.extern.slf4j.Slf4j;
@@ -11,24 +10,28 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
- * 서비스 시작 시 Elasticsearch 자동 reindex
+ * 서비스 시작 시 Elasticsearch 검색 alias 준비
  * - ApplicationReadyEvent: 모든 Bean 초기화 + DB 연결 완료 후 실행
  * - @Async: 메인 스레드 블로킹 없이 백그라운드 실행
+ * - alias(products)가 이미 있으면 건너뜀 — 인스턴스마다 기동할 때 전체 재구축하지 않도록
  */
 @Slf4j
 @Component
 public class ElasticsearchInitializer {
 
     @Autowired @Lazy
-    private ProductService productService;
+    private ProductReindexer productReindexer;
 
     @Async
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationReady() {
-        log.info("Elasticsearch 자동 reindex 시작...");
         try {
-            int count = productService.reindexAllProducts();
-            log.info("Elasticsearch 자동 reindex 완료: {}건", count);
+            ProductReindexer.Result result = productReindexer.reindexIfMissing();
+            if (result == null) {
+                log.info("Elasticsearch 검색 alias 존재 — 자동 reindex 생략");
+            } else {
+                log.info("Elasticsearch 자동 reindex 완료: index={}, {}건", result.index(), result.documents());
+            }
         } catch (Exception e) {
             log.warn("Elasticsearch 자동 reindex 실패 (서비스 동작에는 영향 없음): {}", e.getMessage());
         }
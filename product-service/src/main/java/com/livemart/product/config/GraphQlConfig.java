@@ -0,0 +1,21 @@
+package com.livemart.product.config;
+
+import com.livemart.product.graphql.PersistedQueryCache;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * GraphQL 실행 설정
+ */
+@Configuration
+public class GraphQlConfig {
+
+    /**
+     * 파싱·검증된 문서를 쿼리 해시로 재사용 (Automatic Persisted Queries 포함)
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryCustomizer(PersistedQueryCache persistedQueryCache) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(persistedQueryCache));
+    }
+}
@@ -3,6 +3,7 @@ package com.livemart.product.config;
 import org.hibernate.jpa.HibernatePersistenceProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -45,7 +46,11 @@ public class JpaConfig {
         return em;
     }
 
+    /**
+     * R2DBC의 ReactiveTransactionManager도 등록되므로 @Transactional 기본값은 JPA로
+     */
     @Bean
+    @Primary
     public PlatformTransactionManager transactionManager(DataSource dataSource) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
         transactionManager.setEntityManagerFactory(entityManagerFactory(dataSource).getObject());
@@ -1,9 +1,16 @@
 package com.livemart.product.config;
 
+import com.livemart.common.event.envelope.EnvelopeDeserializer;
+import com.livemart.common.event.envelope.EnvelopeSerializer;
+import com.livemart.common.event.envelope.EventEnvelope;
+import com.livemart.common.idempotency.IdempotentConsumer;
 import com.livemart.product.event.OrderEvent;
+import com.livemart.product.event.OrderEventCodec;
 import com.livemart.product.event.ProductEvent;
+import com.livemart.product.event.ProductEventCodec;
 import com.livemart.product.event.StockEvent;
-import lombok.extern.slf4j.Slf4j;
+import com.livemart.product.event.StockEventCodec;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -11,32 +18,38 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
-import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
-import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
-@Slf4j
 @Configuration
+@EnableKafkaRetryTopic
 public class KafkaConfig {
 
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
-    // ===== Producer =====
+    @Value("${livemart.events.encoding:json}")
+    private String eventEncoding;
+
+    // ===== Producer ===== (엔벨로프 헤더 + livemart.events.encoding 인코딩, ADR-007)
     @Bean
     public ProducerFactory<String, ProductEvent> productProducerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(config);
+        return new DefaultKafkaProducerFactory<>(config, new StringSerializer(),
+                new EnvelopeSerializer<>(new ProductEventCodec(), EventEnvelope.Encoding.from(eventEncoding)));
     }
 
     @Bean
@@ -48,9 +61,8 @@ public class KafkaConfig {
     public ProducerFactory<String, StockEvent> stockProducerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(config);
+        return new DefaultKafkaProducerFactory<>(config, new StringSerializer(),
+                new EnvelopeSerializer<>(new StockEventCodec(), EventEnvelope.Encoding.from(eventEncoding)));
     }
 
     @Bean
@@ -73,12 +85,48 @@ public class KafkaConfig {
         return new KafkaTemplate<>(dlqProducerFactory());
     }
 
+    /**
+     * order-events 재시도/DLT 토픽 발행용 — 원 레코드와 같은 엔벨로프 인코딩이라 재시도 컨테이너도 같은 역직렬화기로 읽는다
+     */
+    @Bean
+    public KafkaTemplate<String, OrderEvent> orderRetryKafkaTemplate() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config, new StringSerializer(),
+                new EnvelopeSerializer<>(new OrderEventCodec(), EventEnvelope.Encoding.from(eventEncoding))));
+    }
+
+    // retry 토픽 컨테이너의 지연 재개용 스케줄러 (@EnableScheduling이 없어 TaskScheduler 빈이 없다)
+    @Bean
+    public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("order-retry-");
+        scheduler.initialize();
+        return new RetryTopicSchedulerWrapper(scheduler);
+    }
+
     // ===== Consumer =====
+    /**
+     * order-events 중복 처리 방지 — 최근 주문 이벤트 id 필터로 processed_events 조회를 대부분 생략
+     */
+    @Bean
+    public IdempotentConsumer orderEventDedup(MeterRegistry registry,
+                                              @Value("${product.order-events.dedup.window:10m}") Duration window,
+                                              @Value("${product.order-events.dedup.expected-events:200000}") int expectedEvents,
+                                              @Value("${product.order-events.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        return new IdempotentConsumer("order-events", registry, window, expectedEvents, falsePositiveRate);
+    }
+
     @Bean
     public ConsumerFactory<String, OrderEvent> orderConsumerFactory() {
-        JsonDeserializer<OrderEvent> deserializer = new JsonDeserializer<>(OrderEvent.class, false);
-        deserializer.addTrustedPackages("*");
-        deserializer.setUseTypeHeaders(false);
+        JsonDeserializer<OrderEvent> legacy = new JsonDeserializer<>(OrderEvent.class, false);
+        legacy.addTrustedPackages("*");
+        legacy.setUseTypeHeaders(false);
+
+        // protobuf 레코드는 OrderEventCodec, 헤더 없는 기존 JSON 레코드는 legacy 경로로 dual-read
+        // 재고 차감/복구 대상이 아닌 타입은 본문 디코딩 생략 (null → RecordFilterStrategy로 폐기)
+        EnvelopeDeserializer<OrderEvent> deserializer = new EnvelopeDeserializer<>(new OrderEventCodec(), legacy)
+                .acceptOnly(Set.of(OrderEvent.EventType.ORDER_CREATED.name(), OrderEvent.EventType.ORDER_CANCELLED.name()));
 
         return new DefaultKafkaConsumerFactory<>(
                 consumerConfigs(),
@@ -101,17 +149,96 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(orderConsumerFactory());
+        factory.setRecordFilterStrategy(record -> record.value() == null);
 
-        // DLQ: 3회 재시도(1초 간격) 후 실패 시 order-events.DLT 토픽으로 전송
-        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
-                new DeadLetterPublishingRecoverer(dlqKafkaTemplate()),
-                new FixedBackOff(1000L, 3)
-        );
-        errorHandler.setRetryListeners((record, ex, deliveryAttempt) ->
-                log.warn("Kafka retry attempt {} for topic {}: {}",
-                        deliveryAttempt, record.topic(), ex.getMessage()));
+        // 재시도/DLT는 ProductEventConsumer의 @RetryableTopic이 컨테이너마다 구성 (블로킹 재시도 없음)
+        return factory;
+    }
+
+    /**
+     * 자동완성 증분 반영용 product-events 컨슈머 — 인스턴스마다 전체 이벤트 수신 (broadcast)
+     * 자동완성 인덱스는 기동 시 전체 빌드하므로 latest, 오프셋 커밋도 하지 않는다.
+     */
+    @Bean
+    public ConsumerFactory<String, ProductEvent> productSuggestConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "product-service-suggest-" + UUID.randomUUID());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        JsonDeserializer<ProductEvent> legacy = new JsonDeserializer<>(ProductEvent.class, false);
+        legacy.addTrustedPackages("*");
+        legacy.setUseTypeHeaders(false);
+        // 재고 변경(STOCK_CHANGED)은 상품명과 무관하므로 본문 디코딩 생략
+        EnvelopeDeserializer<ProductEvent> deserializer = new EnvelopeDeserializer<>(new ProductEventCodec(), legacy)
+                .acceptOnly(Set.of(ProductEvent.EventType.CREATED.name(), ProductEvent.EventType.UPDATED.name(),
+                        ProductEvent.EventType.DELETED.name()));
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), deserializer);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductEvent> productSuggestListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ProductEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(productSuggestConsumerFactory());
+        factory.setRecordFilterStrategy(record -> record.value() == null);
+        // ack하지 않음 → 인스턴스마다 생기는 일회성 group의 오프셋이 브로커에 쌓이지 않는다
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * 카탈로그 인덱스 증분 반영용 product-events 컨슈머 — 자동완성과 같은 broadcast 구성 (재고 변경 포함 전체 타입)
+     */
+    @Bean
+    public ConsumerFactory<String, ProductEvent> productCatalogConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "product-service-catalog-" + UUID.randomUUID());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        JsonDeserializer<ProductEvent> legacy = new JsonDeserializer<>(ProductEvent.class, false);
+        legacy.addTrustedPackages("*");
+        legacy.setUseTypeHeaders(false);
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new EnvelopeDeserializer<>(new ProductEventCodec(), legacy));
+    }
 
-        factory.setCommonErrorHandler(errorHandler);
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductEvent> productCatalogListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ProductEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(productCatalogConsumerFactory());
+        factory.setRecordFilterStrategy(record -> record.value() == null);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * 검색 결과 캐시 무효화용 product-events 컨슈머 — 캐시가 Redis 공용이므로 고정 group (인스턴스 중 하나만 처리)
+     */
+    @Bean
+    public ConsumerFactory<String, ProductEvent> searchCacheConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "product-service-search-cache");
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        JsonDeserializer<ProductEvent> legacy = new JsonDeserializer<>(ProductEvent.class, false);
+        legacy.addTrustedPackages("*");
+        legacy.setUseTypeHeaders(false);
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new EnvelopeDeserializer<>(new ProductEventCodec(), legacy));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductEvent> searchCacheListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ProductEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(searchCacheConsumerFactory());
+        factory.setRecordFilterStrategy(record -> record.value() == null);
         return factory;
     }
 }
@@ -52,8 +52,11 @@ public class ImageUploadController {
             return ResponseEntity.badRequest().body(Map.of("error", "유효하지 않은 이미지 파일입니다 (매직바이트 불일치)"));
         }
 
-        String imageUrl = s3ImageService.uploadImage(file, productId);
-        return ResponseEntity.ok(Map.of("imageUrl", imageUrl));
+        S3ImageService.UploadedImage uploaded = s3ImageService.uploadImage(file, productId);
+        return ResponseEntity.ok(Map.of(
+                "imageUrl", uploaded.url(),
+                "imageHash", uploaded.hash(),
+                "variantUrl", String.format("/api/products/%d/images/%s", productId, uploaded.hash())));
     }
 
     @Operation(summary = "상품 이미지 삭제")
@@ -0,0 +1,39 @@
+package com.livemart.product.controller;
+
+import com.livemart.product.image.ImageVariantService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@Tag(name = "Image API", description = "상품 이미지 변형 조회 (요청 시점 렌더링 + 디스크 캐시)")
+@RestController
+@RequestMapping("/api/products/{productId}/images")
+@RequiredArgsConstructor
+public class ImageVariantController {
+
+    private final ImageVariantService imageVariantService;
+
+    @Operation(summary = "상품 이미지 변형 조회",
+            description = "업로드 응답의 imageHash로 폭/형식별 이미지를 조회합니다. 폭은 허용 목록의 가까운 큰 값으로 맞춰집니다")
+    @GetMapping("/{hash}")
+    public CompletableFuture<ResponseEntity<byte[]>> getVariant(
+            @PathVariable Long productId,
+            @PathVariable String hash,
+            @RequestParam(defaultValue = "400") int width,
+            @RequestParam(defaultValue = "jpg") String format) {
+        return imageVariantService.getVariant(productId, hash, width, format)
+                .thenApply(variant -> ResponseEntity.ok()
+                        // 원본 내용 해시 + 폭 + 형식이 같으면 결과도 같음
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                        .eTag(variant.hash() + "-w" + variant.width() + "." + variant.format())
+                        .contentType(MediaType.parseMediaType(variant.contentType()))
+                        .body(variant.bytes()));
+    }
+}
@@ -4,7 +4,10 @@ import com.livemart.product.dto.ProductCreateRequest;
 import com.livemart.product.dto.ProductResponse;
 import com.livemart.product.dto.ProductUpdateRequest;
 import com.livemart.product.search.AdvancedSearchService;
+import com.livemart.product.search.ProductReindexer;
 import com.livemart.product.search.SearchCriteria;
+import com.livemart.product.search.SearchPage;
+import com.livemart.product.search.suggest.AutocompleteEngine;
 import com.livemart.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -27,8 +31,12 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ProductService productService;
     private final AdvancedSearchService advancedSearchService;
+    private final ProductReindexer productReindexer;
+    private final AutocompleteEngine autocompleteEngine;
 
     @Operation(summary = "상품 등록", description = "새로운 상품을 등록합니다")
     @PostMapping
@@ -75,7 +83,11 @@ public class ProductController {
     public ResponseEntity<Page<ProductResponse>> searchProducts(
             @Parameter(description = "검색 키워드") @RequestParam String keyword,
             Pageable pageable) {
-        return ResponseEntity.ok(productService.searchProducts(sanitizeSearchInput(keyword), pageable));
+        Page<ProductResponse> result = productService.searchProducts(sanitizeSearchInput(keyword), pageable);
+        if (pageable.getPageNumber() == 0 && result.hasContent()) {
+            autocompleteEngine.recordQuery(keyword);
+        }
+        return ResponseEntity.ok(result);
     }
 
     @Operation(summary = "상품 수정", description = "상품 정보를 수정합니다")
@@ -112,7 +124,8 @@ public class ProductController {
         return ResponseEntity.ok(advancedSearchService.fuzzySearch(sanitizeSearchInput(keyword), fuzziness));
     }
 
-    @Operation(summary = "고급 필터 검색", description = "가격 범위, 카테고리, 재고 여부로 필터링하는 Elasticsearch 검색")
+    @Operation(summary = "고급 필터 검색", description = "가격 범위, 카테고리, 재고 여부로 필터링하는 Elasticsearch 검색. "
+            + "앞쪽 페이지는 page, 그 이후는 응답 헤더 X-Next-Cursor 값을 cursor로 전달")
     @GetMapping("/search/advanced")
     public ResponseEntity<List<ProductResponse>> advancedSearch(
             @Parameter(description = "검색 키워드") @RequestParam(required = false) String keyword,
@@ -122,7 +135,8 @@ public class ProductController {
             @Parameter(description = "재고 있는 상품만") @RequestParam(defaultValue = "false") boolean inStockOnly,
             @Parameter(description = "정렬 기준 (price, stockQuantity)") @RequestParam(defaultValue = "_score") String sortBy,
             @Parameter(description = "페이지 번호") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "페이지 크기") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "페이지 크기") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "이전 응답의 X-Next-Cursor") @RequestParam(required = false) String cursor) {
         SearchCriteria criteria = SearchCriteria.builder()
                 .keyword(keyword)
                 .minPrice(minPrice)
@@ -132,15 +146,24 @@ public class ProductController {
                 .sortBy(sortBy)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
                 .build();
-        return ResponseEntity.ok(advancedSearchService.advancedSearch(criteria));
+        SearchPage result = advancedSearchService.advancedSearch(criteria);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, result.nextCursor());
+        }
+        return response.body(result.content());
     }
 
-    @Operation(summary = "검색어 자동완성", description = "prefix 기반 Elasticsearch 자동완성")
+    @Operation(summary = "검색어 자동완성", description = "상품명·인기 검색어 prefix 자동완성 (한글 자모/초성 입력 지원)")
     @GetMapping("/search/autocomplete")
     public ResponseEntity<List<String>> autocomplete(
             @Parameter(description = "검색어 prefix") @RequestParam String prefix) {
-        return ResponseEntity.ok(advancedSearchService.autocomplete(sanitizeSearchInput(prefix)));
+        // prefix 쿼리와 메모리 인덱스는 쿼리 문법을 해석하지 않으므로 이스케이프 없이 길이만 제한
+        String trimmed = prefix.strip();
+        return ResponseEntity.ok(advancedSearchService.autocomplete(
+                trimmed.length() > 100 ? trimmed.substring(0, 100) : trimmed));
     }
 
     // ── 보안 헬퍼 ───────────────────────────────────────────────────
@@ -176,10 +199,16 @@ public class ProductController {
         return ResponseEntity.ok(advancedSearchService.getAggregations());
     }
 
-    @Operation(summary = "ES 재인덱싱", description = "DB의 모든 상품을 Elasticsearch에 재인덱싱합니다 (관리자용)")
+    @Operation(summary = "ES 재인덱싱", description = "새 버전 인덱스를 구축한 뒤 검색 alias를 전환합니다 (관리자용, 무중단)")
     @PostMapping("/search/reindex")
-    public ResponseEntity<Map<String, Object>> reindex() {
-        int count = productService.reindexAllProducts();
-        return ResponseEntity.ok(Map.of("indexed", count, "message", "재인덱싱 완료"));
+    public ResponseEntity<Map<String, Object>> reindex() throws IOException {
+        ProductReindexer.Result result = productReindexer.reindex();
+        return ResponseEntity.ok(Map.of(
+                "indexed", result.documents(),
+                "index", result.index(),
+                "caughtUp", result.caughtUp(),
+                "elapsedMs", result.elapsed().toMillis(),
+                "docsPerSecond", Math.round(result.docsPerSecond()),
+                "message", "재인덱싱 완료"));
     }
 }
\ No newline at end of file
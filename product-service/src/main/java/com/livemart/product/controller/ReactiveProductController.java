@@ -16,7 +16,7 @@ import java.math.BigDecimal;
 
 /**
  * 반응형 상품 조회 API
- * WebFlux 기반 논블로킹 I/O
+ * R2DBC 스트림 — SSE / NDJSON 응답은 클라이언트가 받는 만큼만 DB에서 읽는다 (application/json은 전체를 모아 배열로)
  */
 @RestController
 @RequestMapping("/api/v2/products")
@@ -54,8 +54,10 @@ public class ReactiveProductController {
         return reactiveQueryService.searchByPriceRange(minPrice, maxPrice);
     }
 
-    @Operation(summary = "카테고리별 상품 조회 (반응형)", description = "특정 카테고리의 상품을 비동기로 조회합니다")
-    @GetMapping("/category/{categoryId}")
+    @Operation(summary = "카테고리별 상품 조회 (반응형)",
+            description = "특정 카테고리의 상품을 조회합니다. Accept: application/x-ndjson이면 한 줄에 1건씩 스트리밍합니다")
+    @GetMapping(value = "/category/{categoryId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
     @RateLimit(name = "category-products", limitForPeriod = 50, refreshPeriodSeconds = 60)
     public Flux<ProductResponse> getProductsByCategory(@PathVariable Long categoryId) {
         return reactiveQueryService.getProductsByCategory(categoryId);
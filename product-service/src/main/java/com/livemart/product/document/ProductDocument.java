@@ -1,6 +1,7 @@
 package com.livemart.product.document;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.livemart.product.domain.Product;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -12,7 +13,8 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 
 import java.math.BigDecimal;
 
-@Document(indexName = "products")
+// products는 버전 인덱스(products_v*)를 가리키는 alias — 인덱스 생성은 ProductReindexer가 담당
+@Document(indexName = "products", createIndex = false)
 @JsonIgnoreProperties(ignoreUnknown = true)
 @Getter
 @NoArgsConstructor
@@ -23,6 +25,10 @@ public class ProductDocument {
     @Id
     private String id;
 
+    // 커서 페이지네이션 정렬 tiebreaker — _id는 doc values가 없어 정렬에 쓰지 않는다
+    @Field(type = FieldType.Long)
+    private Long productId;
+
     @Field(type = FieldType.Text, analyzer = "standard")
     private String name;
 
@@ -32,8 +38,9 @@ public class ProductDocument {
     @Field(type = FieldType.Double)
     private BigDecimal price;
 
-    @Field(type = FieldType.Integer)
-    private Integer stockQuantity;
+    // 재고 수량은 변동이 잦아 LiveStockStore에 두고, 문서에는 품절 여부만 (0 ↔ 양수 전환 시에만 재색인)
+    @Field(type = FieldType.Boolean)
+    private Boolean inStock;
 
     @Field(type = FieldType.Keyword)
     private String categoryName;
@@ -46,4 +53,19 @@ public class ProductDocument {
 
     @Field(type = FieldType.Long)
     private Long sellerId;
-}
\ No newline at end of file
+
+    public static ProductDocument from(Product product) {
+        return ProductDocument.builder()
+                .id(String.valueOf(product.getId()))
+                .productId(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .inStock(product.getStockQuantity() > 0)
+                .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
+                .status(product.getStatus().name())
+                .imageUrl(product.getImageUrl())
+                .sellerId(product.getSellerId())
+                .build();
+    }
+}
@@ -1,10 +1,12 @@
 package com.livemart.product.domain;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +16,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class ProcessedEvent {
+public class ProcessedEvent implements Persistable<String> {
 
     @Id
     private String eventId;
@@ -24,4 +26,26 @@ public class ProcessedEvent {
 
     @Column(nullable = false)
     private LocalDateTime processedAt;
+
+    // 처리 기록은 항상 새 행 — save가 merge의 선행 SELECT 없이 INSERT하고, 이미 있으면 PK 위반으로 중복을 알린다
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private boolean fresh = true;
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        fresh = false;
+    }
 }
@@ -30,7 +30,10 @@ public class ProductResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    public static ProductResponse from(ProductDocument doc) {
+    /**
+     * @param stockQuantity 검색 문서에는 재고 수량이 없으므로 LiveStockStore에서 조회한 값
+     */
+    public static ProductResponse from(ProductDocument doc, Integer stockQuantity) {
         ProductStatus status = null;
         try {
             if (doc.getStatus() != null) {
@@ -43,7 +46,7 @@ public class ProductResponse {
                 .name(doc.getName())
                 .description(doc.getDescription())
                 .price(doc.getPrice())
-                .stockQuantity(doc.getStockQuantity())
+                .stockQuantity(stockQuantity)
                 .categoryName(doc.getCategoryName())
                 .status(status)
                 .imageUrl(doc.getImageUrl())
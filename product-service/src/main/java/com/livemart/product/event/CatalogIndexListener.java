@@ -0,0 +1,53 @@
+package com.livemart.product.event;
+
+import com.livemart.product.catalog.CatalogIndex;
+import com.livemart.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * product-events 수신 → 카탈로그 인덱스 증분 반영
+ *
+ * 인덱스는 인스턴스마다 메모리에 있으므로 broadcast (KafkaConfig.productCatalogConsumerFactory).
+ * 이벤트에 카테고리가 없어 생성/수정은 DB에서 다시 읽고, 재고 변경은 인덱스에 있는 카테고리를 그대로 쓴다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogIndexListener {
+
+    private final CatalogIndex catalogIndex;
+    private final ProductRepository productRepository;
+
+    @KafkaListener(
+        topics = "product-events",
+        containerFactory = "productCatalogListenerContainerFactory"
+    )
+    public void handleProductEvent(ProductEvent event) {
+        Long productId = event.getProductId();
+        if (productId == null || productId == 0L) {
+            log.warn("productId 없는 상품 이벤트 무시: eventType={}", event.getEventType());
+            return;
+        }
+        switch (event.getEventType()) {
+            case DELETED -> catalogIndex.onProductDeleted(productId);
+            case STOCK_CHANGED -> {
+                int stock = event.getStockQuantity() != null ? event.getStockQuantity() : 0;
+                if (!catalogIndex.onStockChanged(productId, event.getPrice(), stock, event.getStatus())) {
+                    reload(productId);
+                }
+            }
+            default -> reload(productId);
+        }
+    }
+
+    private void reload(Long productId) {
+        productRepository.findByIdWithCategory(productId).ifPresentOrElse(
+                product -> catalogIndex.onProductChanged(product.getId(),
+                        product.getCategory() != null ? product.getCategory().getId() : null,
+                        product.getPrice(), product.getStockQuantity(), product.getStatus()),
+                () -> catalogIndex.onProductDeleted(productId));
+    }
+}
@@ -0,0 +1,78 @@
+package com.livemart.product.event;
+
+import com.livemart.common.event.envelope.EventCodec;
+import com.livemart.common.event.proto.OrderEventPayload;
+import com.livemart.common.event.proto.OrderItemInfo;
+
+import java.util.List;
+
+import static com.livemart.common.event.envelope.ProtoValues.*;
+
+/**
+ * OrderEvent ↔ OrderEventPayload(protobuf) 코덱
+ *
+ * order-events는 order-service가 발행하지만, 처리 실패 레코드를 order-events-retry-N / order-events.DLT로
+ * 다시 보낼 때 product-service도 인코딩한다 (livemart.events.encoding을 따름).
+ */
+public class OrderEventCodec implements EventCodec<OrderEvent> {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    @Override
+    public String eventType(OrderEvent event) {
+        return text(event.getEventType());
+    }
+
+    @Override
+    public int schemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public byte[] encode(OrderEvent event) {
+        OrderEventPayload.Builder builder = OrderEventPayload.newBuilder()
+                .setEventType(text(event.getEventType()))
+                .setOrderNumber(text(event.getOrderNumber()))
+                .setTotalAmount(decimal(event.getTotalAmount()))
+                .setStatus(text(event.getStatus()))
+                .setOccurredAt(epochMillis(event.getOccurredAt()));
+        if (event.getOrderId() != null) builder.setOrderId(event.getOrderId());
+        if (event.getUserId() != null) builder.setUserId(event.getUserId());
+        if (event.getCancelReason() != null) builder.setCancelReason(event.getCancelReason());
+        if (event.getItems() != null) {
+            for (OrderEvent.OrderItemInfo item : event.getItems()) {
+                builder.addItems(OrderItemInfo.newBuilder()
+                        .setProductId(item.getProductId() != null ? item.getProductId() : 0L)
+                        .setProductName(text(item.getProductName()))
+                        .setQuantity(item.getQuantity() != null ? item.getQuantity() : 0)
+                        .setPrice(decimal(item.getPrice())));
+            }
+        }
+        return builder.build().toByteArray();
+    }
+
+    @Override
+    public OrderEvent decode(byte[] payload, int schemaVersion) {
+        OrderEventPayload proto = parse(OrderEventPayload.parser(), payload);
+        List<OrderEvent.OrderItemInfo> items = proto.getItemsList().stream()
+                .map(item -> OrderEvent.OrderItemInfo.builder()
+                        .productId(item.getProductId())
+                        .productName(item.getProductName())
+                        .quantity(item.getQuantity())
+                        .price(decimal(item.getPrice()))
+                        .build())
+                .toList();
+
+        return OrderEvent.builder()
+                .eventType(enumValue(OrderEvent.EventType.class, proto.getEventType()))
+                .orderId(proto.hasOrderId() ? proto.getOrderId() : null)
+                .orderNumber(proto.getOrderNumber())
+                .userId(proto.hasUserId() ? proto.getUserId() : null)
+                .items(items)
+                .totalAmount(decimal(proto.getTotalAmount()))
+                .status(nullIfEmpty(proto.getStatus()))
+                .occurredAt(localDateTime(proto.getOccurredAt()))
+                .cancelReason(proto.hasCancelReason() ? proto.getCancelReason() : null)
+                .build();
+    }
+}
@@ -20,6 +20,7 @@ public class ProductEvent {
     private String productName;
     private BigDecimal price;
     private Integer stockQuantity;
+    private Integer previousStockQuantity;  // STOCK_CHANGED만 — 품절/입고 전환 판정용
     private ProductStatus status;
     private Long sellerId;
     private LocalDateTime occurredAt;
@@ -0,0 +1,56 @@
+package com.livemart.product.event;
+
+import com.livemart.common.event.envelope.EventCodec;
+import com.livemart.common.event.proto.ProductEventPayload;
+import com.livemart.product.domain.ProductStatus;
+
+import static com.livemart.common.event.envelope.ProtoValues.*;
+
+/**
+ * ProductEvent ↔ ProductEventPayload(protobuf) 코덱 — product-events 프로듀서용
+ */
+public class ProductEventCodec implements EventCodec<ProductEvent> {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    @Override
+    public String eventType(ProductEvent event) {
+        return text(event.getEventType());
+    }
+
+    @Override
+    public int schemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public byte[] encode(ProductEvent event) {
+        ProductEventPayload.Builder builder = ProductEventPayload.newBuilder()
+                .setEventType(text(event.getEventType()))
+                .setProductId(event.getProductId() != null ? event.getProductId() : 0L)
+                .setProductName(text(event.getProductName()))
+                .setPrice(decimal(event.getPrice()))
+                .setStatus(text(event.getStatus()))
+                .setOccurredAt(epochMillis(event.getOccurredAt()));
+        if (event.getStockQuantity() != null) builder.setStockQuantity(event.getStockQuantity());
+        if (event.getSellerId() != null) builder.setSellerId(event.getSellerId());
+        if (event.getPreviousStockQuantity() != null) builder.setPreviousStockQuantity(event.getPreviousStockQuantity());
+        return builder.build().toByteArray();
+    }
+
+    @Override
+    public ProductEvent decode(byte[] payload, int schemaVersion) {
+        ProductEventPayload proto = parse(ProductEventPayload.parser(), payload);
+        return ProductEvent.builder()
+                .eventType(enumValue(ProductEvent.EventType.class, proto.getEventType()))
+                .productId(proto.getProductId())
+                .productName(proto.getProductName())
+                .price(decimal(proto.getPrice()))
+                .stockQuantity(proto.hasStockQuantity() ? proto.getStockQuantity() : null)
+                .previousStockQuantity(proto.hasPreviousStockQuantity() ? proto.getPreviousStockQuantity() : null)
+                .status(enumValue(ProductStatus.class, proto.getStatus()))
+                .sellerId(proto.hasSellerId() ? proto.getSellerId() : null)
+                .occurredAt(localDateTime(proto.getOccurredAt()))
+                .build();
+    }
+}
@@ -1,172 +1,131 @@
 package com.livemart.product.event;
 
+import com.livemart.common.exception.BusinessException;
+import com.livemart.common.idempotency.IdempotentConsumer;
 import com.livemart.product.domain.ProcessedEvent;
 import com.livemart.product.repository.ProcessedEventRepository;
 import com.livemart.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 주문 이벤트 → 재고 반영
+ *
+ * 주문 1건 = 트랜잭션 1개 (처리 기록 선점, 조건부 일괄 차감/복원).
+ * 중복 확인은 IdempotentConsumer — 최근 처리한 id가 아니면 processed_events 조회 없이 처리하고, 처리 기록 PK로 거른다.
+ * 처리 실패는 예외로 던져 order-events-retry-N 토픽에서 지연 재시도하고, 원 파티션은 다음 주문을 계속 소비한다.
+ * 재고 부족(BusinessException)은 재시도해도 같은 결과이므로 바로 order-events.DLT로 보낸다.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ProductEventConsumer {
     private final ProductService productService;
     private final ProcessedEventRepository processedEventRepository;
-
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotentConsumer orderEventDedup;
+
+    @RetryableTopic(
+            attempts = "${product.order-events.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${product.order-events.retry.delay-ms:1000}", multiplier = 2.0),
+            exclude = BusinessException.class,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltTopicSuffix = ".DLT",
+            kafkaTemplate = "orderRetryKafkaTemplate")
     @KafkaListener(topics = "order-events", groupId = "product-service-group")
     public void handleOrderEvent(OrderEvent event) {
-        String eventId = event.getOrderNumber() + "_" + event.getEventType();
+        String eventId = eventId(event.getOrderNumber(), event.getEventType());
 
         log.info("Received order event: eventType={}, orderNumber={}, eventId={}",
                 event.getEventType(), event.getOrderNumber(), eventId);
 
-        if (processedEventRepository.existsById(eventId)) {
+        boolean processed = orderEventDedup.process(eventId, processedEventRepository::existsById,
+                () -> transactionTemplate.executeWithoutResult(status -> {
+                    // 처리 기록을 먼저 flush — 같은 이벤트를 동시에 처리하는 쪽은 재고를 건드리기 전에 PK에서 막힌다
+                    processedEventRepository.saveAndFlush(processedEvent(eventId, event.getEventType().name()));
+                    switch (event.getEventType()) {
+                        case ORDER_CREATED -> handleOrderCreated(event);
+                        case ORDER_CANCELLED -> handleOrderCancelled(event);
+                        default -> log.debug("Unhandled event type: {}", event.getEventType());
+                    }
+                }));
+        if (!processed) {
             log.warn("Duplicate event skipped: eventId={}", eventId);
-            return;
         }
+    }
 
-        try {
-            switch (event.getEventType()) {
-                case ORDER_CREATED:
-                    handleOrderCreated(event, eventId);
-                    break;
-                case ORDER_CANCELLED:
-                    handleOrderCancelled(event, eventId);
-                    break;
-                default:
-                    log.debug("Unhandled event type: {}", event.getEventType());
-            }
-        } catch (Exception e) {
-            log.error("Failed to process order event: orderNumber={}, eventType={}",
-                    event.getOrderNumber(), event.getEventType(), e);
-        }
+    /**
+     * 재시도를 모두 소진했거나 재고가 부족한 주문 — 재고는 롤백되어 있으므로 주문 측 보상 대상
+     */
+    @DltHandler
+    public void handleDeadLetter(ConsumerRecord<String, OrderEvent> record) {
+        OrderEvent event = record.value();
+        Header cause = record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        log.error("[SAGA-ALERT] Order event moved to DLT: topic={}, orderNumber={}, eventType={}, cause={}",
+                record.topic(), event != null ? event.getOrderNumber() : null,
+                event != null ? event.getEventType() : null,
+                cause != null ? new String(cause.value(), StandardCharsets.UTF_8) : null);
     }
 
     /**
-     * ORDER_CREATED: 재고 차감
-     * 멀티 아이템 부분 실패 시 이미 차감된 재고 롤백 (보상 트랜잭션)
+     * ORDER_CREATED: 주문 상품 재고 일괄 차감 — 하나라도 부족하면 주문 전체가 롤백된다 (부분 차감 없음)
      */
-    @Transactional
-    protected void handleOrderCreated(OrderEvent event, String eventId) {
+    private void handleOrderCreated(OrderEvent event) {
         log.info("Processing ORDER_CREATED: orderNumber={}, items={}",
                 event.getOrderNumber(), event.getItems().size());
-
-        List<OrderEvent.OrderItemInfo> deducted = new ArrayList<>();
-
-        for (OrderEvent.OrderItemInfo item : event.getItems()) {
-            try {
-                int currentStock = productService.getProduct(item.getProductId()).getStockQuantity();
-                int newStock = currentStock - item.getQuantity();
-                if (newStock < 0) {
-                    throw new IllegalStateException(
-                        "Insufficient stock: productId=" + item.getProductId() +
-                        ", available=" + currentStock + ", required=" + item.getQuantity());
-                }
-                productService.updateStock(item.getProductId(), newStock);
-                deducted.add(item);
-                log.info("Stock deducted: productId={}, quantity={}, newStock={}",
-                        item.getProductId(), item.getQuantity(), newStock);
-            } catch (Exception e) {
-                log.error("Failed to deduct stock: productId={}, orderNumber={}. Rolling back {} items.",
-                        item.getProductId(), event.getOrderNumber(), deducted.size(), e);
-                // 이미 차감된 아이템 롤백 (보상 트랜잭션)
-                rollbackStockDeductions(deducted, event.getOrderNumber());
-                // processedEvent 저장하지 않음 → Kafka 재처리 허용
-                return;
-            }
-        }
-
-        saveProcessedEvent(eventId, "ORDER_CREATED");
-        log.info("Stock deduction complete: orderNumber={}, items={}",
-                event.getOrderNumber(), deducted.size());
+        productService.deductStocks(event.getOrderNumber(), quantities(event));
     }
 
     /**
      * ORDER_CANCELLED: 재고 복원
-     * 개별 아이템 복원 실패 시 최대 3회 재시도 (지수 백오프)
+     * 생성 이벤트가 아직 재시도 중이면(차감 전) 복원하지 않고 생성 이벤트를 처리된 것으로 기록해 이후 차감을 막는다.
      */
-    @Transactional
-    protected void handleOrderCancelled(OrderEvent event, String eventId) {
+    private void handleOrderCancelled(OrderEvent event) {
         log.info("Processing ORDER_CANCELLED: orderNumber={}, reason={}",
                 event.getOrderNumber(), event.getCancelReason());
 
-        List<Long> failedProducts = new ArrayList<>();
-
-        for (OrderEvent.OrderItemInfo item : event.getItems()) {
-            boolean restored = restoreStockWithRetry(item, event.getOrderNumber(), 3);
-            if (!restored) {
-                failedProducts.add(item.getProductId());
-            }
-        }
-
-        if (!failedProducts.isEmpty()) {
-            log.error("[SAGA-ALERT] Stock restoration FAILED after retries: orderNumber={}, failedProductIds={}. " +
-                      "Manual intervention required.",
-                      event.getOrderNumber(), failedProducts);
-            // 나머지 아이템은 성공했으므로 중복 방지를 위해 processed 기록
-            // (운영팀이 failedProducts를 수동으로 복원해야 함)
+        String createdId = eventId(event.getOrderNumber(), OrderEvent.EventType.ORDER_CREATED);
+        if (!processedEventRepository.existsById(createdId)) {
+            log.warn("Order cancelled before stock deduction, skipping restore: orderNumber={}", event.getOrderNumber());
+            processedEventRepository.save(processedEvent(createdId, "ORDER_CREATED_CANCELLED"));
+            return;
         }
-
-        saveProcessedEvent(eventId, "ORDER_CANCELLED");
-        log.info("Order cancellation processed: orderNumber={}, failed={}",
-                event.getOrderNumber(), failedProducts.size());
+        productService.restoreStocks(event.getOrderNumber(), quantities(event));
     }
 
-    /**
-     * 재고 복원 - 재시도 로직 (지수 백오프)
-     */
-    private boolean restoreStockWithRetry(OrderEvent.OrderItemInfo item, String orderNumber, int maxRetries) {
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                productService.restoreStock(item.getProductId(), item.getQuantity());
-                log.info("Stock restored: productId={}, quantity={}, attempt={}",
-                        item.getProductId(), item.getQuantity(), attempt);
-                return true;
-            } catch (Exception e) {
-                log.warn("Stock restore attempt {}/{} failed: productId={}, orderNumber={}",
-                        attempt, maxRetries, item.getProductId(), orderNumber, e);
-                if (attempt < maxRetries) {
-                    try {
-                        Thread.sleep((long) Math.pow(2, attempt) * 500L); // 1s, 2s, 4s
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        return false;
-                    }
-                }
-            }
+    // 같은 상품이 여러 줄로 들어와도 한 번에 반영
+    private static Map<Long, Integer> quantities(OrderEvent event) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderEvent.OrderItemInfo item : event.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
-        return false;
+        return quantities;
     }
 
-    /**
-     * 부분 차감 롤백 - ORDER_CREATED 실패 시 이미 차감된 재고 복원
-     */
-    private void rollbackStockDeductions(List<OrderEvent.OrderItemInfo> deducted, String orderNumber) {
-        for (OrderEvent.OrderItemInfo item : deducted) {
-            try {
-                productService.restoreStock(item.getProductId(), item.getQuantity());
-                log.info("Rollback stock restored: productId={}, quantity={}",
-                        item.getProductId(), item.getQuantity());
-            } catch (Exception rollbackEx) {
-                log.error("[SAGA-ALERT] Rollback FAILED: productId={}, orderNumber={}. " +
-                          "Stock inconsistency detected! Manual fix required.",
-                          item.getProductId(), orderNumber, rollbackEx);
-            }
-        }
+    private static String eventId(String orderNumber, OrderEvent.EventType eventType) {
+        return orderNumber + "_" + eventType;
     }
 
-    private void saveProcessedEvent(String eventId, String eventType) {
-        processedEventRepository.save(ProcessedEvent.builder()
+    private static ProcessedEvent processedEvent(String eventId, String eventType) {
+        return ProcessedEvent.builder()
                 .eventId(eventId)
                 .eventType(eventType)
                 .processedAt(LocalDateTime.now())
-                .build());
+                .build();
     }
 }
@@ -0,0 +1,38 @@
+package com.livemart.product.event;
+
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.search.suggest.AutocompleteEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * product-events 수신 → 자동완성 인덱스 증분 반영
+ *
+ * 자동완성 인덱스는 인스턴스마다 메모리에 있으므로 모든 인스턴스가 모든 이벤트를 받는다.
+ * → 인스턴스별 고유 group.id + latest 오프셋 (KafkaConfig.productSuggestConsumerFactory)
+ * 기동 이전 변경은 기동 직후 전체 빌드에 이미 포함된다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestionListener {
+
+    private final AutocompleteEngine autocompleteEngine;
+
+    @KafkaListener(
+        topics = "product-events",
+        containerFactory = "productSuggestListenerContainerFactory"
+    )
+    public void handleProductEvent(ProductEvent event) {
+        if (event.getProductId() == null || event.getProductId() == 0L) {
+            log.warn("productId 없는 상품 이벤트 무시: eventType={}", event.getEventType());
+            return;
+        }
+        ProductStatus status = event.getEventType() == ProductEvent.EventType.DELETED
+                ? ProductStatus.DELETED
+                : event.getStatus();
+        autocompleteEngine.onProductChanged(event.getProductId(), event.getProductName(), status);
+    }
+}
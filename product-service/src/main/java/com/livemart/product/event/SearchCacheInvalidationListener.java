@@ -0,0 +1,72 @@
+package com.livemart.product.event;
+
+import com.livemart.product.repository.ProductRepository;
+import com.livemart.product.search.SearchResultCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * product-events 수신 → 검색 결과 캐시 무효화
+ *
+ * 캐시는 Redis에 있어 인스턴스 중 하나만 처리하면 된다 → 고정 group.id (KafkaConfig.searchCacheConsumerFactory)
+ * 이벤트에는 카테고리가 없어 DB에서 현재 카테고리를 읽는다. 카테고리가 바뀐 경우 이전 카테고리 항목은
+ * 상품 태그로 지워진다 (해당 상품이 들어 있던 항목).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchCacheInvalidationListener {
+
+    private final SearchResultCache searchResultCache;
+    private final ProductRepository productRepository;
+
+    @KafkaListener(
+        topics = "product-events",
+        containerFactory = "searchCacheListenerContainerFactory"
+    )
+    public void handleProductEvent(ProductEvent event) {
+        Long productId = event.getProductId();
+        if (productId == null || productId == 0L) {
+            log.warn("productId 없는 상품 이벤트 무시: eventType={}", event.getEventType());
+            return;
+        }
+        if (event.getEventType() == ProductEvent.EventType.STOCK_CHANGED) {
+            handleStockChanged(productId, event);
+            return;
+        }
+        searchResultCache.invalidate(productId, categoryId(productId), true);
+    }
+
+    /**
+     * 재고 수량은 캐시하지 않음 — 품절/입고 전환만 "재고 있는 상품만" 결과에 영향
+     *
+     * - 품절: 상품이 들어 있던 항목만 (상품 태그)
+     * - 입고: 상품이 걸러져 있던 항목엔 상품 태그가 없으므로 카테고리 태그까지
+     * previousStockQuantity가 없는 이전 이벤트는 재고 0만 품절 전환으로 본다.
+     */
+    private void handleStockChanged(Long productId, ProductEvent event) {
+        Integer stock = event.getStockQuantity();
+        if (stock == null) {
+            return;
+        }
+        Integer previous = event.getPreviousStockQuantity();
+        boolean wasInStock = previous == null || previous > 0;
+        boolean inStock = stock > 0;
+        if (wasInStock == inStock) {
+            return;
+        }
+        if (inStock) {
+            searchResultCache.invalidate(productId, categoryId(productId), false);
+        } else {
+            searchResultCache.invalidateProduct(productId);
+        }
+    }
+
+    private Long categoryId(Long productId) {
+        return productRepository.findById(productId)
+                .map(product -> product.getCategory() != null ? product.getCategory().getId() : null)
+                .orElse(null);
+    }
+}
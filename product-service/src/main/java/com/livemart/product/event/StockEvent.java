@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -17,10 +18,24 @@ public class StockEvent {
     private Integer oldStock;
     private Integer newStock;
     private LocalDateTime occurredAt;
+    // STOCK_BATCH_UPDATED 전용 — 주문 하나의 상품별 변경
+    private String orderNumber;
+    private List<StockChange> changes;
 
     public enum EventType {
         STOCK_UPDATED,
         STOCK_INSUFFICIENT,
-        STOCK_RESTORED
+        STOCK_RESTORED,
+        STOCK_BATCH_UPDATED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StockChange {
+        private Long productId;
+        private int oldStock;
+        private int newStock;
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.livemart.product.event;
+
+import com.livemart.common.event.envelope.EventCodec;
+import com.livemart.common.event.proto.StockChange;
+import com.livemart.common.event.proto.StockEventPayload;
+
+import static com.livemart.common.event.envelope.ProtoValues.*;
+
+/**
+ * StockEvent ↔ StockEventPayload(protobuf) 코덱 — stock-events 프로듀서용
+ *
+ * publishStockEvent는 eventType 없이 발행하므로 헤더 타입은 STOCK_UPDATED로 간주한다.
+ */
+public class StockEventCodec implements EventCodec<StockEvent> {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    @Override
+    public String eventType(StockEvent event) {
+        return event.getEventType() != null ? event.getEventType().name() : StockEvent.EventType.STOCK_UPDATED.name();
+    }
+
+    @Override
+    public int schemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public byte[] encode(StockEvent event) {
+        StockEventPayload.Builder builder = StockEventPayload.newBuilder()
+                .setEventType(text(event.getEventType()))
+                .setProductId(event.getProductId() != null ? event.getProductId() : 0L)
+                .setOccurredAt(epochMillis(event.getOccurredAt()));
+        if (event.getOldStock() != null) builder.setOldStock(event.getOldStock());
+        if (event.getNewStock() != null) builder.setNewStock(event.getNewStock());
+        if (event.getOrderNumber() != null) builder.setOrderNumber(event.getOrderNumber());
+        if (event.getChanges() != null) {
+            for (StockEvent.StockChange change : event.getChanges()) {
+                builder.addChanges(StockChange.newBuilder()
+                        .setProductId(change.getProductId())
+                        .setOldStock(change.getOldStock())
+                        .setNewStock(change.getNewStock()));
+            }
+        }
+        return builder.build().toByteArray();
+    }
+
+    @Override
+    public StockEvent decode(byte[] payload, int schemaVersion) {
+        StockEventPayload proto = parse(StockEventPayload.parser(), payload);
+        return StockEvent.builder()
+                .eventType(enumValue(StockEvent.EventType.class, proto.getEventType()))
+                .productId(proto.getProductId())
+                .oldStock(proto.hasOldStock() ? proto.getOldStock() : null)
+                .newStock(proto.hasNewStock() ? proto.getNewStock() : null)
+                .occurredAt(localDateTime(proto.getOccurredAt()))
+                .orderNumber(proto.hasOrderNumber() ? proto.getOrderNumber() : null)
+                .changes(proto.getChangesCount() == 0 ? null : proto.getChangesList().stream()
+                        .map(change -> new StockEvent.StockChange(change.getProductId(), change.getOldStock(), change.getNewStock()))
+                        .toList())
+                .build();
+    }
+}
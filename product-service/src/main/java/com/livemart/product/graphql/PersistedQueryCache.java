@@ -0,0 +1,132 @@
+package com.livemart.product.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 파싱·검증을 마친 GraphQL 문서 캐시 — 쿼리 본문의 SHA-256 키 (Automatic Persisted Queries)
+ *
+ * - 본문이 있는 요청: 본문 해시로 찾고, 없으면 파싱·검증 후 저장. 같은 쿼리를 보내는 클라이언트는 두 번째부터 파싱하지 않는다
+ * - extensions.persistedQuery.sha256Hash만 있는 요청: 해시로 찾고, 없으면 PersistedQueryNotFound를 돌려준다
+ *   (클라이언트는 본문과 해시를 함께 다시 보내 등록) — 해시와 본문이 다르면 PersistedQueryIdInvalid
+ *
+ * 스키마는 실행 중 바뀌지 않으므로 검증 결과도 그대로 재사용한다. 오류가 난 문서는 저장하지 않는다.
+ * 접근 순서 LRU로 max-entries개까지 보관.
+ */
+@Component
+public class PersistedQueryCache implements PreparsedDocumentProvider {
+
+    private final int maxEntries;
+
+    /** 접근 순서 LRU — this로 동기화 */
+    private final LinkedHashMap<String, PreparsedDocumentEntry> documents;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notFound;
+
+    public PersistedQueryCache(MeterRegistry registry,
+                               @Value("${product.graphql.persisted-queries.max-entries:1000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.documents = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                return size() > PersistedQueryCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("graphql.document.cache.requests").tag("result", "hit")
+                .description("GraphQL requests by parsed document cache result")
+                .register(registry);
+        this.misses = Counter.builder("graphql.document.cache.requests").tag("result", "miss")
+                .description("GraphQL requests by parsed document cache result")
+                .register(registry);
+        this.notFound = Counter.builder("graphql.document.cache.requests").tag("result", "not_found")
+                .description("GraphQL requests by parsed document cache result")
+                .register(registry);
+        Gauge.builder("graphql.document.cache.entries", this, PersistedQueryCache::size)
+                .description("Parsed and validated GraphQL documents held in memory")
+                .register(registry);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        String requestedHash = requestedHash(input);
+        String query = input.getQuery();
+
+        if (query == null || query.isBlank()) {
+            if (requestedHash == null) {
+                return CompletableFuture.completedFuture(parseAndValidate.apply(input));
+            }
+            PreparsedDocumentEntry entry = lookup(requestedHash);
+            if (entry == null) {
+                notFound.increment();
+                return CompletableFuture.completedFuture(new PreparsedDocumentEntry(new PersistedQueryNotFound(requestedHash)));
+            }
+            hits.increment();
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        String hash = sha256(query);
+        if (requestedHash != null && !requestedHash.equalsIgnoreCase(hash)) {
+            return CompletableFuture.completedFuture(new PreparsedDocumentEntry(new PersistedQueryIdInvalid(requestedHash)));
+        }
+        PreparsedDocumentEntry entry = lookup(hash);
+        if (entry != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry);
+        }
+        misses.increment();
+        entry = parseAndValidate.apply(input);
+        if (!entry.hasErrors()) {
+            synchronized (this) {
+                documents.put(hash, entry);
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    private synchronized PreparsedDocumentEntry lookup(String hash) {
+        return documents.get(hash.toLowerCase());
+    }
+
+    private static String requestedHash(ExecutionInput input) {
+        if (input.getExtensions() != null
+                && input.getExtensions().get("persistedQuery") instanceof Map<?, ?> persistedQuery
+                && persistedQuery.get("sha256Hash") instanceof String hash) {
+            return hash;
+        }
+        return null;
+    }
+
+    static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
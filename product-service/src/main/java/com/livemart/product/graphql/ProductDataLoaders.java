@@ -0,0 +1,62 @@
+package com.livemart.product.graphql;
+
+import com.livemart.product.domain.Product;
+import com.livemart.product.repository.ProductRepository;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GraphQL 중첩 필드용 DataLoader 등록
+ *
+ * DataLoader는 요청마다 새로 만들어지고, 같은 깊이(level)에서 요청된 키를 모아 한 번에 읽는다.
+ * 같은 요청 안에서 이미 읽은 키는 다시 읽지 않는다 — categories { products { category { products } } }처럼
+ * 같은 카테고리가 더 깊은 곳에서 다시 나와도 추가 조회가 없다.
+ */
+@Component
+public class ProductDataLoaders {
+
+    /** 카테고리 id → 상품 목록 (카테고리당 최대 PRODUCTS_PER_CATEGORY개, id 순) */
+    public static final String PRODUCTS_BY_CATEGORY = "productsByCategory";
+
+    static final int PRODUCTS_PER_CATEGORY = 100;
+
+    private final ProductRepository productRepository;
+
+    public ProductDataLoaders(BatchLoaderRegistry registry, ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        registry.<Long, List<Product>>forName(PRODUCTS_BY_CATEGORY)
+                .registerMappedBatchLoader((categoryIds, env) -> Mono.fromCallable(() -> productsByCategory(categoryIds)));
+    }
+
+    /**
+     * 카테고리별 상위 id를 한 번에 고른 뒤 (window function) 그 id만 카테고리와 함께 읽는다 — 카테고리 수와 무관하게 2 쿼리
+     */
+    private Map<Long, List<Product>> productsByCategory(Set<Long> categoryIds) {
+        Map<Long, List<Product>> result = new HashMap<>();
+        for (Long categoryId : categoryIds) {
+            result.put(categoryId, new ArrayList<>());
+        }
+        List<Long> ids = productRepository.findTopIdsByCategoryIdIn(categoryIds, PRODUCTS_PER_CATEGORY);
+        if (ids.isEmpty()) {
+            return result;
+        }
+        List<Product> products = new ArrayList<>(productRepository.findByIdIn(ids));
+        products.sort(Comparator.comparing(Product::getId));
+        for (Product product : products) {
+            // 두 쿼리 사이에 카테고리가 바뀐 상품은 건너뜀
+            List<Product> categoryProducts = product.getCategory() != null ? result.get(product.getCategory().getId()) : null;
+            if (categoryProducts != null) {
+                categoryProducts.add(product);
+            }
+        }
+        return result;
+    }
+}
@@ -4,9 +4,13 @@ import com.livemart.product.domain.Category;
 import com.livemart.product.domain.Product;
 import com.livemart.product.domain.ProductStatus;
 import com.livemart.product.repository.CategoryRepository;
+import com.livemart.product.repository.ProductProjectionRepository;
 import com.livemart.product.repository.ProductRepository;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.graphql.data.method.annotation.*;
@@ -16,10 +20,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * GraphQL 컨트롤러 - 상품 및 카테고리 조회/변경
  * Spring for GraphQL을 사용한 유연한 데이터 조회 API
+ *
+ * 상품 목록 쿼리는 요청한 필드의 컬럼만 읽는다 (ProductSelections) — 엔티티가 필요한 중첩 필드가 있을 때만 엔티티 조회
  */
 @Slf4j
 @Controller
@@ -28,6 +35,7 @@ public class ProductGraphqlController {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductProjectionRepository productProjectionRepository;
 
     // ======================== Query ========================
 
@@ -39,34 +47,45 @@ public class ProductGraphqlController {
     }
 
     @QueryMapping
-    public Map<String, Object> products(@Argument int page, @Argument int size) {
+    public Map<String, Object> products(@Argument int page, @Argument int size, DataFetchingFieldSelectionSet selection) {
         log.info("GraphQL 상품 목록 조회: page={}, size={}", page, size);
-        Page<Product> productPage = productRepository.findAll(PageRequest.of(page, size));
-        return toPageMap(productPage);
+        PageRequest pageable = PageRequest.of(page, size);
+        return toPageMap(ProductSelections.ofPage(selection)
+                .<Page<?>>map(projection -> productProjectionRepository.findAll(projection, pageable))
+                .orElseGet(() -> productRepository.findAll(pageable)));
     }
 
     @QueryMapping
     public Map<String, Object> productsByCategory(@Argument Long categoryId,
-                                                   @Argument int page, @Argument int size) {
+                                                   @Argument int page, @Argument int size,
+                                                   DataFetchingFieldSelectionSet selection) {
         log.info("GraphQL 카테고리별 상품 조회: categoryId={}", categoryId);
-        Page<Product> productPage = productRepository.findByCategoryId(categoryId, PageRequest.of(page, size));
-        return toPageMap(productPage);
+        PageRequest pageable = PageRequest.of(page, size);
+        return toPageMap(ProductSelections.ofPage(selection)
+                .<Page<?>>map(projection -> productProjectionRepository.findByCategoryId(projection, categoryId, pageable))
+                .orElseGet(() -> productRepository.findByCategoryId(categoryId, pageable)));
     }
 
     @QueryMapping
     public Map<String, Object> productsBySeller(@Argument Long sellerId,
-                                                 @Argument int page, @Argument int size) {
+                                                 @Argument int page, @Argument int size,
+                                                 DataFetchingFieldSelectionSet selection) {
         log.info("GraphQL 판매자별 상품 조회: sellerId={}", sellerId);
-        Page<Product> productPage = productRepository.findBySellerId(sellerId, PageRequest.of(page, size));
-        return toPageMap(productPage);
+        PageRequest pageable = PageRequest.of(page, size);
+        return toPageMap(ProductSelections.ofPage(selection)
+                .<Page<?>>map(projection -> productProjectionRepository.findBySellerId(projection, sellerId, pageable))
+                .orElseGet(() -> productRepository.findBySellerId(sellerId, pageable)));
     }
 
     @QueryMapping
     public Map<String, Object> searchProducts(@Argument String keyword,
-                                               @Argument int page, @Argument int size) {
+                                               @Argument int page, @Argument int size,
+                                               DataFetchingFieldSelectionSet selection) {
         log.info("GraphQL 상품 검색: keyword={}", keyword);
-        Page<Product> productPage = productRepository.searchByKeyword(keyword, PageRequest.of(page, size));
-        return toPageMap(productPage);
+        PageRequest pageable = PageRequest.of(page, size);
+        return toPageMap(ProductSelections.ofPage(selection)
+                .<Page<?>>map(projection -> productProjectionRepository.searchByKeyword(projection, keyword, pageable))
+                .orElseGet(() -> productRepository.searchByKeyword(keyword, pageable)));
     }
 
     @QueryMapping
@@ -146,14 +165,19 @@ public class ProductGraphqlController {
 
     // ======================== Field Resolver ========================
 
+    /**
+     * 카테고리마다 조회하지 않고 DataLoader에 맡긴다 — 같은 깊이의 카테고리를 모아 한 번에 읽음
+     * (Product.category는 EAGER + EntityGraph로 상품과 함께 읽히므로 별도 resolver 없음)
+     */
     @SchemaMapping(typeName = "Category", field = "products")
-    public List<Product> getCategoryProducts(Category category) {
-        return productRepository.findByCategoryId(category.getId(), PageRequest.of(0, 100)).getContent();
+    public CompletableFuture<List<Product>> getCategoryProducts(Category category, DataFetchingEnvironment env) {
+        DataLoader<Long, List<Product>> loader = env.getDataLoader(ProductDataLoaders.PRODUCTS_BY_CATEGORY);
+        return loader.load(category.getId());
     }
 
     // ======================== Helper ========================
 
-    private Map<String, Object> toPageMap(Page<Product> page) {
+    private Map<String, Object> toPageMap(Page<?> page) {
         return Map.of(
                 "content", page.getContent(),
                 "totalElements", (int) page.getTotalElements(),
@@ -0,0 +1,64 @@
+package com.livemart.product.graphql;
+
+import com.livemart.product.repository.ProductProjection;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 선택 집합(selection set) → 읽을 컬럼
+ *
+ * 요청된 Product 필드가 모두 컬럼이고 category 아래도 컬럼(id, name, description)뿐이면 projection으로 읽는다.
+ * category { products } 처럼 resolver가 엔티티를 받아야 하는 필드가 하나라도 있으면 empty — 엔티티로 읽는다.
+ * 별칭(alias)과 fragment는 graphql-java가 펼쳐 준 필드 이름 기준이다.
+ */
+final class ProductSelections {
+
+    private ProductSelections() {
+    }
+
+    /**
+     * ProductPage의 content 아래 선택을 본다. content를 요청하지 않았으면 id만 읽는다 (페이지 정보용)
+     */
+    static Optional<ProductProjection> ofPage(DataFetchingFieldSelectionSet selectionSet) {
+        Set<String> fields = new HashSet<>();
+        Set<String> categoryFields = new HashSet<>();
+        for (SelectedField content : selectionSet.getImmediateFields()) {
+            if (content.getName().equals("content") && !collect(content.getSelectionSet(), fields, categoryFields)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new ProductProjection(fields, categoryFields));
+    }
+
+    private static boolean collect(DataFetchingFieldSelectionSet product, Set<String> fields, Set<String> categoryFields) {
+        for (SelectedField field : product.getImmediateFields()) {
+            String name = field.getName();
+            if (name.startsWith("__")) {
+                continue;
+            }
+            if (name.equals("category")) {
+                for (SelectedField categoryField : field.getSelectionSet().getImmediateFields()) {
+                    String categoryName = categoryField.getName();
+                    if (categoryName.startsWith("__")) {
+                        continue;
+                    }
+                    if (!ProductProjection.isCategoryColumn(categoryName)) {
+                        return false;
+                    }
+                    categoryFields.add(categoryName);
+                }
+                // category { __typename }만 요청해도 조인은 해야 null 여부를 안다
+                categoryFields.add("id");
+            } else if (ProductProjection.isColumn(name)) {
+                fields.add(name);
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+}
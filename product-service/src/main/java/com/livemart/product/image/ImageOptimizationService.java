@@ -1,7 +1,13 @@
 package com.livemart.product.image;
 
-import lombok.RequiredArgsConstructor;
+import com.livemart.common.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,21 +19,32 @@ import javax.imageio.stream.ImageOutputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 이미지 최적화 서비스
  *
  * 기능:
- * 1. WebP 변환 (용량 30% 감소)
+ * 1. WebP 변환 (ImageIO WebP writer가 등록된 경우에만 — 없으면 webp 변형을 만들지 않음)
  * 2. 썸네일 생성 (다양한 사이즈)
  * 3. 이미지 압축 (품질 조절)
  * 4. Lazy Loading용 LQIP (Low Quality Image Placeholder) 생성
- * 5. 비동기 처리
+ * 5. 비동기 처리 — 전용 bounded 실행기 (product.image.pipeline.*)
+ * 6. 요청 시점 단일 변형 렌더링 (renderVariant) — ImageVariantService가 디스크 캐시 미스 때 호출
+ *
+ * 파이프라인: 한 번 디코드 → 큰 크기부터 직전 결과를 단계적으로 축소 (ProgressiveScaler)
+ *           → 크기가 준비되는 대로 변형별 인코딩을 실행기에 제출해 병렬 인코딩.
+ * 실행기 큐가 가득 차면 503 (IMAGE_PIPELINE_BUSY)으로 즉시 거절한다 — 공용 ForkJoinPool을 쓰지 않음.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ImageOptimizationService {
 
@@ -36,52 +53,237 @@ public class ImageOptimizationService {
     private static final int THUMBNAIL_LARGE = 800;   // 상품 상세
     private static final int LQIP_SIZE = 20;          // Lazy Loading Placeholder
 
+    /** maxSize 0 = 원본 크기 */
+    private record VariantSpec(String name, int maxSize, String format, float quality) {}
+
+    private static final VariantSpec ORIGINAL = new VariantSpec("original", 0, "jpg", 0.9f);
+    private static final VariantSpec WEBP = new VariantSpec("webp", 0, "webp", 0.85f);
+    /** 큰 것부터 — 각 크기는 직전 크기에서 축소 */
+    private static final List<VariantSpec> THUMBNAILS = List.of(
+            new VariantSpec("large", THUMBNAIL_LARGE, "jpg", 0.9f),
+            new VariantSpec("medium", THUMBNAIL_MEDIUM, "jpg", 0.85f),
+            new VariantSpec("small", THUMBNAIL_SMALL, "jpg", 0.8f),
+            new VariantSpec("lqip", LQIP_SIZE, "jpg", 0.5f));
+    /** 요청 시점 렌더링 (ImageVariantService) — 폭은 허용 목록으로 제한되므로 timer 태그는 하나로 */
+    private static final String ON_DEMAND = "on-demand";
+    private static final float ON_DEMAND_QUALITY = 0.85f;
+
+    private final MeterRegistry registry;
+    private final ThreadPoolExecutor executor;
+    private final boolean webpSupported;
+    private final Counter rejected;
+
+    public ImageOptimizationService(MeterRegistry registry,
+                                    @Value("${product.image.pipeline.threads:0}") int threads,
+                                    @Value("${product.image.pipeline.queue-capacity:64}") int queueCapacity) {
+        this.registry = registry;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "image-pipeline-" + sequence.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.webpSupported = ImageIO.getImageWritersByFormatName("webp").hasNext();
+        if (!webpSupported) {
+            log.warn("No ImageIO WebP writer registered — webp variant disabled (OptimizedImages.webp() is null)");
+        }
+
+        this.rejected = Counter.builder("image.pipeline.rejected")
+                .description("Image jobs or encodes rejected because the pipeline queue was full")
+                .register(registry);
+        Gauge.builder("image.pipeline.queue", executor, e -> e.getQueue().size())
+                .description("Tasks waiting in the image pipeline queue")
+                .register(registry);
+        Gauge.builder("image.pipeline.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Image pipeline threads running a task")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
     /**
      * 이미지 최적화 (비동기)
      * - 원본 저장
-     * - WebP 변환
+     * - WebP 변환 (writer가 있을 때)
      * - 썸네일 생성 (3가지 사이즈)
      * - LQIP 생성
      */
     public CompletableFuture<OptimizedImages> optimizeImage(MultipartFile file) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                BufferedImage originalImage = ImageIO.read(file.getInputStream());
-
-                // 1. 원본 저장 (압축)
-                byte[] compressedOriginal = compressImage(originalImage, "jpg", 0.9f);
-
-                // 2. WebP 변환 (더 나은 압축률)
-                byte[] webpImage = convertToWebP(originalImage);
-
-                // 3. 썸네일 생성
-                byte[] thumbnailSmall = createThumbnail(originalImage, THUMBNAIL_SMALL, "jpg", 0.8f);
-                byte[] thumbnailMedium = createThumbnail(originalImage, THUMBNAIL_MEDIUM, "jpg", 0.85f);
-                byte[] thumbnailLarge = createThumbnail(originalImage, THUMBNAIL_LARGE, "jpg", 0.9f);
-
-                // 4. LQIP (Lazy Loading Placeholder)
-                byte[] lqip = createThumbnail(originalImage, LQIP_SIZE, "jpg", 0.5f);
-                String lqipBase64 = java.util.Base64.getEncoder().encodeToString(lqip);
-
-                log.info("Image optimized: original={}KB, webp={}KB, reduction={}%",
-                         compressedOriginal.length / 1024,
-                         webpImage.length / 1024,
-                         (1 - (double) webpImage.length / compressedOriginal.length) * 100);
-
-                return new OptimizedImages(
-                    compressedOriginal,
-                    webpImage,
-                    thumbnailSmall,
-                    thumbnailMedium,
-                    thumbnailLarge,
-                    lqipBase64
-                );
-
-            } catch (IOException e) {
-                log.error("Failed to optimize image", e);
-                throw new RuntimeException("Image optimization failed", e);
+        try {
+            return optimizeImage(file.getBytes());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException("Failed to read upload", e));
+        }
+    }
+
+    public CompletableFuture<OptimizedImages> optimizeImage(byte[] imageBytes) {
+        long started = System.nanoTime();
+        CompletableFuture<List<CompletableFuture<VariantResult>>> resized;
+        try {
+            resized = CompletableFuture.supplyAsync(() -> decodeAndResize(imageBytes), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(busy());
+        }
+
+        return resized.thenCompose(variants -> CompletableFuture
+                .allOf(variants.toArray(CompletableFuture[]::new))
+                .thenApply(done -> assemble(variants.stream().map(CompletableFuture::join).toList(), started)));
+    }
+
+    public boolean supportsFormat(String format) {
+        return "jpg".equals(format) || "png".equals(format) || ("webp".equals(format) && webpSupported);
+    }
+
+    /**
+     * 변형 1개를 요청 시점에 렌더링 — 폭이 width가 되도록 비율 유지 축소 (원본보다 크게는 만들지 않음)
+     */
+    public CompletableFuture<byte[]> renderVariant(byte[] imageBytes, int width, String format) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                BufferedImage original = decode(imageBytes);
+                long decoded = System.nanoTime();
+                record("decode", ON_DEMAND, decoded - started);
+
+                BufferedImage scaled = original;
+                if (width < original.getWidth()) {
+                    int height = Math.max(1, (int) Math.round((double) original.getHeight() * width / original.getWidth()));
+                    scaled = ProgressiveScaler.scaleDown(original, width, height);
+                }
+                long resized = System.nanoTime();
+                record("resize", ON_DEMAND, resized - decoded);
+
+                try {
+                    byte[] bytes = compressImage(scaled, format, "webp".equals(format) ? WEBP.quality() : ON_DEMAND_QUALITY);
+                    record("encode", ON_DEMAND, System.nanoTime() - resized);
+                    return bytes;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to encode " + format, e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(busy());
+        }
+    }
+
+    /**
+     * 디코드 1회 + 크기별 단계 축소 — 각 크기가 준비되면 바로 인코딩을 제출하고 다음 크기로 진행
+     */
+    private List<CompletableFuture<VariantResult>> decodeAndResize(byte[] imageBytes) {
+        long decodeStarted = System.nanoTime();
+        BufferedImage original = decode(imageBytes);
+        long decodeNanos = System.nanoTime() - decodeStarted;
+        record("decode", "original", decodeNanos);
+
+        List<CompletableFuture<VariantResult>> variants = new ArrayList<>();
+        variants.add(encodeAsync(ORIGINAL, original, decodeNanos));
+        if (webpSupported) {
+            variants.add(encodeAsync(WEBP, original, 0));
+        }
+
+        BufferedImage previous = original;
+        for (VariantSpec spec : THUMBNAILS) {
+            long resizeStarted = System.nanoTime();
+            Dimension size = ProgressiveScaler.fit(original.getWidth(), original.getHeight(), spec.maxSize());
+            BufferedImage scaled = ProgressiveScaler.scaleDown(previous, size.width, size.height);
+            long resizeNanos = System.nanoTime() - resizeStarted;
+            record("resize", spec.name(), resizeNanos);
+            variants.add(encodeAsync(spec, scaled, resizeNanos));
+            previous = scaled;
+        }
+        return variants;
+    }
+
+    private static BufferedImage decode(byte[] imageBytes) {
+        BufferedImage decoded;
+        try {
+            decoded = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode image", e);
+        }
+        if (decoded == null) {
+            throw new BusinessException("INVALID_IMAGE", "Unsupported image format", 400);
+        }
+        return ProgressiveScaler.toRgb(decoded);
+    }
+
+    private CompletableFuture<VariantResult> encodeAsync(VariantSpec spec, BufferedImage image, long resizeNanos) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                try {
+                    byte[] bytes = compressImage(image, spec.format(), spec.quality());
+                    long encodeNanos = System.nanoTime() - started;
+                    record("encode", spec.name(), encodeNanos);
+                    return new VariantResult(spec.name(), bytes,
+                            new VariantTiming(spec.name(), image.getWidth(), image.getHeight(),
+                                    TimeUnit.NANOSECONDS.toMicros(resizeNanos), TimeUnit.NANOSECONDS.toMicros(encodeNanos),
+                                    bytes.length));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to encode " + spec.name(), e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+    }
+
+    private OptimizedImages assemble(List<VariantResult> results, long started) {
+        byte[] original = null;
+        byte[] webp = null;
+        byte[] large = null;
+        byte[] medium = null;
+        byte[] small = null;
+        byte[] lqip = null;
+        List<VariantTiming> timings = new ArrayList<>(results.size());
+        for (VariantResult result : results) {
+            timings.add(result.timing());
+            switch (result.name()) {
+                case "original" -> original = result.bytes();
+                case "webp" -> webp = result.bytes();
+                case "large" -> large = result.bytes();
+                case "medium" -> medium = result.bytes();
+                case "small" -> small = result.bytes();
+                case "lqip" -> lqip = result.bytes();
+                default -> throw new IllegalStateException("Unknown variant: " + result.name());
             }
-        });
+        }
+
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Image optimized: original={}KB, variants={}, total={}ms, timings={}",
+                 original.length / 1024, results.size(), totalMillis, timings);
+
+        return new OptimizedImages(
+            original,
+            webp,
+            small,
+            medium,
+            large,
+            java.util.Base64.getEncoder().encodeToString(lqip),
+            timings
+        );
+    }
+
+    private void record(String stage, String variant, long nanos) {
+        Timer.builder("image.pipeline.duration")
+                .tag("stage", stage)
+                .tag("variant", variant)
+                .description("Image pipeline stage duration per variant")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static BusinessException busy() {
+        return new BusinessException("IMAGE_PIPELINE_BUSY", "Image pipeline is busy, retry later", 503);
     }
 
     /**
@@ -114,46 +316,24 @@ public class ImageOptimizationService {
     }
 
     /**
-     * WebP 변환
-     * WebP 네이티브 지원이 없으므로 고품질 JPEG로 fallback.
-     * 실제 WebP 지원 시: com.luciad.imageio:webp-imageio 또는 net.coobird:thumbnailator + ffmpeg 연동 필요.
+     * WebP 변환 — ImageIO WebP writer(예: webp-imageio)가 클래스패스에 있어야 한다
+     *
+     * @throws IllegalStateException writer가 없으면 (JPEG로 대신 저장하지 않음)
      */
     public byte[] convertToWebP(BufferedImage image) throws IOException {
-        log.debug("WebP conversion not natively supported — falling back to high-quality JPEG. " +
-                  "Add webp-imageio dependency and native WebP support for production use.");
-        return compressImage(image, "jpg", 0.85f);
+        if (!webpSupported) {
+            throw new IllegalStateException("No ImageIO writer registered for WebP");
+        }
+        return compressImage(ProgressiveScaler.toRgb(image), "webp", WEBP.quality());
     }
 
     /**
-     * 썸네일 생성 (비율 유지)
+     * 썸네일 생성 (비율 유지, 단계적 축소)
      */
     public byte[] createThumbnail(BufferedImage original, int targetSize,
                                    String format, float quality) throws IOException {
-
-        int originalWidth = original.getWidth();
-        int originalHeight = original.getHeight();
-
-        // 비율 계산
-        double ratio = Math.min(
-            (double) targetSize / originalWidth,
-            (double) targetSize / originalHeight
-        );
-
-        int newWidth = (int) (originalWidth * ratio);
-        int newHeight = (int) (originalHeight * ratio);
-
-        // 고품질 리사이징 (BICUBIC)
-        BufferedImage thumbnail = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D graphics = thumbnail.createGraphics();
-
-        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        graphics.drawImage(original, 0, 0, newWidth, newHeight, null);
-        graphics.dispose();
-
-        return compressImage(thumbnail, format, quality);
+        Dimension size = ProgressiveScaler.fit(original.getWidth(), original.getHeight(), targetSize);
+        return compressImage(ProgressiveScaler.scaleDown(original, size.width, size.height), format, quality);
     }
 
     /**
@@ -161,18 +341,7 @@ public class ImageOptimizationService {
      */
     public byte[] resizeImage(BufferedImage original, int width, int height,
                               String format, float quality) throws IOException {
-
-        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D graphics = resized.createGraphics();
-
-        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        graphics.drawImage(original, 0, 0, width, height, null);
-        graphics.dispose();
-
-        return compressImage(resized, format, quality);
+        return compressImage(ProgressiveScaler.scaleDown(original, width, height), format, quality);
     }
 
     /**
@@ -216,21 +385,36 @@ public class ImageOptimizationService {
 
     // DTOs
 
+    private record VariantResult(String name, byte[] bytes, VariantTiming timing) {}
+
+    /**
+     * 변형별 처리 시간 — original의 resizeMicros는 디코드 시간
+     */
+    public record VariantTiming(
+        String variant,
+        int width,
+        int height,
+        long resizeMicros,
+        long encodeMicros,
+        int bytes
+    ) {}
+
     public record OptimizedImages(
         byte[] original,
-        byte[] webp,
+        byte[] webp,       // WebP writer가 없으면 null
         byte[] thumbnailSmall,
         byte[] thumbnailMedium,
         byte[] thumbnailLarge,
-        String lqipBase64  // Lazy Loading Placeholder (Base64)
+        String lqipBase64,  // Lazy Loading Placeholder (Base64)
+        List<VariantTiming> timings
     ) {
         public long getTotalSize() {
-            return original.length + webp.length +
+            return original.length + (webp != null ? webp.length : 0) +
                    thumbnailSmall.length + thumbnailMedium.length + thumbnailLarge.length;
         }
 
         public double getCompressionRatio() {
-            return (double) webp.length / original.length;
+            return webp != null ? (double) webp.length / original.length : 1.0;
         }
     }
 }
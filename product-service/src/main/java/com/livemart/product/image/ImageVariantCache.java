@@ -0,0 +1,287 @@
+package com.livemart.product.image;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 이미지 변형 로컬 디스크 캐시 — (원본 SHA-256, 폭, 형식) 주소
+ *
+ * 같은 원본 내용이면 어느 상품에 올라갔든 같은 파일을 쓰고, 내용이 바뀌면 해시가 바뀌므로 무효화가 필요 없다.
+ * 파일 위치: {cache-dir}/{해시 앞 2자}/{해시}-w{폭}.{형식}
+ *
+ * - 조회: 메모리 색인(LinkedHashMap, 접근 순서)에서 찾아 파일을 읽는다 — 렌더링/원본 다운로드 없음
+ * - 미스: 같은 키를 동시에 요청하면 렌더링은 1번만 하고 나머지는 그 결과를 기다린다 (in-flight future 공유)
+ * - 저장: 임시 파일에 쓰고 rename (읽는 쪽이 반쯤 쓴 파일을 보지 않음), 총 크기가 max-size를 넘으면 가장 오래 안 쓴 것부터 삭제
+ * - 재기동: 디렉터리를 스캔해 색인을 다시 만든다. 접근 순서는 저장되지 않으므로 파일 수정 시각 순으로 시작
+ *
+ * 파일이 바깥에서 지워졌으면 미스로 보고 다시 렌더링한다.
+ */
+@Slf4j
+@Component
+public class ImageVariantCache {
+
+    public record VariantKey(String hash, int width, String format) {
+        String fileName() {
+            return hash + "-w" + width + "." + format;
+        }
+    }
+
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})-w(\\d+)\\.([a-z]+)");
+
+    private final Path root;
+    private final long maxBytes;
+
+    /** 접근 순서 LRU — 값은 파일 크기. this로 동기화 */
+    private final LinkedHashMap<VariantKey, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private final ConcurrentHashMap<VariantKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evictions;
+
+    public ImageVariantCache(MeterRegistry registry,
+                             @Value("${product.image.variants.cache-dir:${java.io.tmpdir}/livemart/image-variants}") Path root,
+                             @Value("${product.image.variants.cache-max-size:2GB}") DataSize maxSize) {
+        this.root = root;
+        this.maxBytes = maxSize.toBytes();
+
+        this.hits = Counter.builder("image.variants.cache.requests").tag("result", "hit")
+                .description("Image variant requests by cache result")
+                .register(registry);
+        this.misses = Counter.builder("image.variants.cache.requests").tag("result", "miss")
+                .description("Image variant requests by cache result")
+                .register(registry);
+        this.coalesced = Counter.builder("image.variants.cache.requests").tag("result", "coalesced")
+                .description("Image variant requests by cache result")
+                .register(registry);
+        this.evictions = Counter.builder("image.variants.cache.evictions")
+                .description("Image variant files deleted to stay under the cache size cap")
+                .register(registry);
+        Gauge.builder("image.variants.cache.bytes", this, ImageVariantCache::totalBytes)
+                .description("Bytes of image variants on local disk")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("image.variants.cache.entries", this, ImageVariantCache::size)
+                .description("Image variant files on local disk")
+                .register(registry);
+    }
+
+    /**
+     * 디렉터리 스캔으로 색인 복원 (남은 임시 파일은 삭제)
+     */
+    @PostConstruct
+    void load() {
+        List<Path> files;
+        try {
+            Files.createDirectories(root);
+            try (Stream<Path> walk = Files.walk(root, 2)) {
+                files = walk.filter(Files::isRegularFile).toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open image variant cache " + root, e);
+        }
+
+        record Found(VariantKey key, long size, FileTime modified) {}
+        List<Found> found = new ArrayList<>();
+        for (Path file : files) {
+            Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+            try {
+                if (!m.matches()) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                found.add(new Found(new VariantKey(m.group(1), Integer.parseInt(m.group(2)), m.group(3)),
+                        Files.size(file), Files.getLastModifiedTime(file)));
+            } catch (IOException e) {
+                log.debug("Skipping image variant cache file {}: {}", file, e.getMessage());
+            }
+        }
+        found.sort(Comparator.comparing(Found::modified));
+
+        List<VariantKey> evicted;
+        synchronized (this) {
+            entries.clear();
+            totalBytes = 0;
+            for (Found f : found) {
+                entries.put(f.key(), f.size());
+                totalBytes += f.size();
+            }
+            evicted = evictOverCap();
+        }
+        delete(evicted);
+        log.info("Image variant cache loaded: dir={}, entries={}, bytes={}, max={}", root, size(), totalBytes(), maxBytes);
+    }
+
+    /**
+     * 캐시에 있으면 파일 내용, 없으면 renderer로 만들어 저장 — 같은 키의 동시 미스는 렌더링 1번을 공유
+     *
+     * 렌더링이 실패하면 저장하지 않고 기다리던 요청 모두에 같은 예외로 실패한다 (다음 요청은 다시 시도).
+     */
+    public CompletableFuture<byte[]> get(VariantKey key, Function<VariantKey, CompletableFuture<byte[]>> renderer) {
+        byte[] cached = read(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        // 첫 조회와 putIfAbsent 사이에 다른 요청이 렌더링을 끝냈을 수 있음 (저장 후 inFlight에서 빠짐)
+        cached = read(key);
+        if (cached != null) {
+            hits.increment();
+            inFlight.remove(key, created);
+            created.complete(cached);
+            return created;
+        }
+
+        misses.increment();
+        CompletableFuture<byte[]> rendered;
+        try {
+            rendered = renderer.apply(key);
+        } catch (RuntimeException e) {
+            rendered = CompletableFuture.failedFuture(e);
+        }
+        rendered.whenComplete((bytes, error) -> {
+            if (error == null) {
+                store(key, bytes);
+            }
+            // 저장이 끝난 뒤에 빠져야 그 사이 요청이 렌더링을 다시 시작하지 않음
+            inFlight.remove(key, created);
+            if (error == null) {
+                created.complete(bytes);
+            } else {
+                created.completeExceptionally(error);
+            }
+        });
+        return created;
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized boolean contains(VariantKey key) {
+        return entries.containsKey(key);
+    }
+
+    Path pathOf(VariantKey key) {
+        return root.resolve(key.hash().substring(0, 2)).resolve(key.fileName());
+    }
+
+    private byte[] read(VariantKey key) {
+        synchronized (this) {
+            if (entries.get(key) == null) {   // get()이 LRU 순서를 갱신
+                return null;
+            }
+        }
+        try {
+            return Files.readAllBytes(pathOf(key));
+        } catch (NoSuchFileException e) {
+            forget(key);
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read cached image variant {}: {}", key, e.getMessage());
+            forget(key);
+            return null;
+        }
+    }
+
+    private void store(VariantKey key, byte[] bytes) {
+        if (bytes.length > maxBytes) {
+            return;
+        }
+        Path target = pathOf(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), key.fileName(), ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // 캐시 실패는 응답에 영향 없음 — 다음 요청에서 다시 렌더링
+            log.warn("Failed to store image variant {}: {}", key, e.getMessage());
+            return;
+        }
+
+        List<VariantKey> evicted;
+        synchronized (this) {
+            Long previous = entries.put(key, (long) bytes.length);
+            totalBytes += bytes.length - (previous != null ? previous : 0);
+            evicted = evictOverCap();
+        }
+        delete(evicted);
+    }
+
+    /**
+     * 총 크기가 상한 이하가 될 때까지 가장 오래 안 쓴 항목을 색인에서 뺀다 — 파일 삭제는 락 밖에서
+     */
+    private List<VariantKey> evictOverCap() {
+        List<VariantKey> evicted = new ArrayList<>();
+        Iterator<Map.Entry<VariantKey, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<VariantKey, Long> eldest = it.next();
+            totalBytes -= eldest.getValue();
+            it.remove();
+            evicted.add(eldest.getKey());
+        }
+        return evicted;
+    }
+
+    private synchronized void forget(VariantKey key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void delete(List<VariantKey> keys) {
+        for (VariantKey key : keys) {
+            evictions.increment();
+            try {
+                Files.deleteIfExists(pathOf(key));
+            } catch (IOException e) {
+                log.debug("Failed to delete evicted image variant {}: {}", key, e.getMessage());
+            }
+        }
+    }
+}
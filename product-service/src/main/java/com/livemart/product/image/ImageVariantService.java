@@ -0,0 +1,98 @@
+package com.livemart.product.image;
+
+import com.livemart.common.exception.BusinessException;
+import com.livemart.product.image.ImageVariantCache.VariantKey;
+import com.livemart.product.service.S3ImageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * 상품 이미지 변형 (폭, 형식)을 처음 요청될 때 만든다 — 업로드 시에는 원본만 저장
+ *
+ * 요청 폭은 허용 목록(product.image.variants.widths)에서 그 이상인 가장 작은 값으로 올려 캐시 키 수를 제한한다
+ * (임의 폭으로 캐시를 채우는 요청 방지). 미스면 S3 원본을 받아 ImageOptimizationService 실행기에서 렌더링하고
+ * ImageVariantCache에 저장한다. S3 다운로드는 가상 스레드에서 — 렌더링 스레드를 I/O로 묶지 않음.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private static final Pattern SHA_256 = Pattern.compile("[0-9a-f]{64}");
+
+    public record ImageVariant(String hash, int width, String format, byte[] bytes) {
+        public String contentType() {
+            return switch (format) {
+                case "png" -> "image/png";
+                case "webp" -> "image/webp";
+                default -> "image/jpeg";
+            };
+        }
+    }
+
+    private final ImageVariantCache cache;
+    private final ImageOptimizationService optimizer;
+    private final S3ImageService s3ImageService;
+    private final int[] widths;
+    private final ExecutorService sourceLoader =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("image-source-", 0).factory());
+
+    public ImageVariantService(ImageVariantCache cache,
+                               ImageOptimizationService optimizer,
+                               S3ImageService s3ImageService,
+                               @Value("${product.image.variants.widths:20,150,400,800,1200,1600}") List<Integer> widths) {
+        this.cache = cache;
+        this.optimizer = optimizer;
+        this.s3ImageService = s3ImageService;
+        this.widths = widths.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        if (this.widths.length == 0) {
+            throw new IllegalArgumentException("product.image.variants.widths must not be empty");
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        sourceLoader.shutdown();
+    }
+
+    public CompletableFuture<ImageVariant> getVariant(Long productId, String hash, int width, String format) {
+        if (!SHA_256.matcher(hash).matches()) {
+            throw new BusinessException("INVALID_IMAGE_HASH", "Image hash must be a lowercase SHA-256 hex", 400);
+        }
+        String normalized = normalizeFormat(format);
+        if (!optimizer.supportsFormat(normalized)) {
+            throw new BusinessException("UNSUPPORTED_IMAGE_FORMAT", "Unsupported image format: " + format, 400);
+        }
+        VariantKey key = new VariantKey(hash, snapWidth(width), normalized);
+
+        return cache.get(key, k -> CompletableFuture
+                        .supplyAsync(() -> s3ImageService.loadOriginal(productId, k.hash()), sourceLoader)
+                        .thenCompose(original -> optimizer.renderVariant(original, k.width(), k.format())))
+                .thenApply(bytes -> new ImageVariant(key.hash(), key.width(), key.format(), bytes));
+    }
+
+    /**
+     * 요청 폭 이상인 가장 작은 허용 폭 (요청이 최대보다 크면 최대)
+     */
+    int snapWidth(int width) {
+        for (int allowed : widths) {
+            if (allowed >= width) {
+                return allowed;
+            }
+        }
+        return widths[widths.length - 1];
+    }
+
+    private static String normalizeFormat(String format) {
+        String lower = format.toLowerCase(Locale.ROOT);
+        return "jpeg".equals(lower) ? "jpg" : lower;
+    }
+}
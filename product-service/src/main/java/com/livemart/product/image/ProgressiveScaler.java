@@ -0,0 +1,116 @@
+package com.livemart.product.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+
+/**
+ * 단계적 축소 (progressive downscale)
+ *
+ * Java2D의 BICUBIC/BILINEAR는 출력 픽셀마다 원본의 4×4/2×2 이웃만 보므로, 12MP 원본을 한 번에 150px로 줄이면
+ * 원본 픽셀 대부분을 건너뛰어 앨리어싱이 생긴다. 대신 목표의 2배가 될 때까지 2×2 평균(box filter)으로 절반씩 줄이고
+ * 마지막 한 번만 BILINEAR로 목표 크기에 맞춘다 — 모든 원본 픽셀이 결과에 반영되고, 단계마다 처리할 픽셀이 1/4로 줄어
+ * 전체 비용은 첫 단계가 대부분이다. 절반 축소는 int[] 픽셀 배열에서 직접 계산한다 (Graphics2D 경유보다 빠름).
+ * 여러 크기가 필요하면 큰 것부터 만들고 각 크기를 직전 결과에서 줄인다.
+ */
+final class ProgressiveScaler {
+
+    private ProgressiveScaler() {
+    }
+
+    /**
+     * 알파/팔레트/그레이 이미지를 TYPE_INT_RGB로 (흰 배경) — 절반 축소가 읽는 픽셀 배열 형식
+     */
+    static BufferedImage toRgb(BufferedImage image) {
+        // getSubimage() 결과(부모 래스터 공유)는 배열을 직접 읽을 수 없어 Graphics2D 경로로
+        boolean packed = image.getRaster().getParent() == null;
+        if (packed && image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        if (packed && image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            // JPEG 디코더 기본 출력 — 바이트 배열에서 바로 변환
+            byte[] bgr = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) rgb.getRaster().getDataBuffer()).getData();
+            for (int i = 0, b = 0; i < pixels.length; i++, b += 3) {
+                pixels[i] = (bgr[b + 2] & 0xff) << 16 | (bgr[b + 1] & 0xff) << 8 | (bgr[b] & 0xff);
+            }
+            return rgb;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * 비율을 유지해 긴 변이 maxSize 이하가 되는 크기 (확대하지 않음)
+     */
+    static Dimension fit(int width, int height, int maxSize) {
+        double ratio = Math.min(1.0, Math.min((double) maxSize / width, (double) maxSize / height));
+        return new Dimension(Math.max(1, (int) Math.round(width * ratio)), Math.max(1, (int) Math.round(height * ratio)));
+    }
+
+    /**
+     * source를 width × height로 축소 — 절반씩 줄이다가 마지막 한 번 목표 크기로
+     */
+    static BufferedImage scaleDown(BufferedImage source, int width, int height) {
+        BufferedImage current = toRgb(source);
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = halve(current);
+        }
+        if (current.getWidth() != width || current.getHeight() != height) {
+            current = draw(current, width, height);
+        }
+        return current;
+    }
+
+    /**
+     * 2×2 픽셀 평균으로 가로/세로 절반 (홀수면 마지막 행/열 버림)
+     */
+    private static BufferedImage halve(BufferedImage source) {
+        int sourceWidth = source.getWidth();
+        int width = sourceWidth / 2;
+        int height = source.getHeight() / 2;
+        int[] in = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < height; y++) {
+            int row0 = 2 * y * sourceWidth;
+            int row1 = row0 + sourceWidth;
+            int o = y * width;
+            for (int x = 0; x < width; x++) {
+                int a = in[row0 + 2 * x];
+                int b = in[row0 + 2 * x + 1];
+                int c = in[row1 + 2 * x];
+                int d = in[row1 + 2 * x + 1];
+                // 채널별 합 (+2 반올림) / 4
+                int r = (((a >> 16) & 0xff) + ((b >> 16) & 0xff) + ((c >> 16) & 0xff) + ((d >> 16) & 0xff) + 2) >> 2;
+                int g = (((a >> 8) & 0xff) + ((b >> 8) & 0xff) + ((c >> 8) & 0xff) + ((d >> 8) & 0xff) + 2) >> 2;
+                int bl = ((a & 0xff) + (b & 0xff) + (c & 0xff) + (d & 0xff) + 2) >> 2;
+                out[o + x] = r << 16 | g << 8 | bl;
+            }
+        }
+        return target;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
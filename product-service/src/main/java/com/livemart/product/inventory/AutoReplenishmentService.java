@@ -1,5 +1,6 @@
 package com.livemart.product.inventory;
 
+import com.livemart.product.catalog.CatalogIndex;
 import com.livemart.product.domain.Product;
 import com.livemart.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -9,8 +10,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 재고 자동 발주 시스템 (Min-Max 알고리즘)
@@ -23,12 +24,14 @@ public class AutoReplenishmentService {
 
     private final ProductRepository productRepository;
     private final ReplenishmentOrderService replenishmentOrderService;
+    private final CatalogIndex catalogIndex;
 
     // 기본값
     private static final int DEFAULT_MIN_STOCK = 10;
     private static final int DEFAULT_MAX_STOCK = 100;
     private static final int DEFAULT_REORDER_POINT = 20;
     private static final int DEFAULT_SAFETY_STOCK = 5;
+    private static final int LOAD_BATCH_SIZE = 1_000;
 
     /**
      * 자동 발주 체크 (매일 새벽 3시 실행)
@@ -140,10 +143,24 @@ public class AutoReplenishmentService {
 
     // Helper methods
 
+    /**
+     * 재발주점 이하 상품 — 카탈로그 인덱스로 후보 id를 찾고, 엔티티는 후보만 읽어 DB 값으로 다시 확인한다.
+     * 재발주점은 지금 모든 상품이 같은 기본값이라 그 값을 임계값으로 쓴다 (상품별로 달라지면 최댓값 사용).
+     */
     private List<Product> findLowStockProducts() {
-        return productRepository.findAll().stream()
-            .filter(p -> p.getStockQuantity() <= getReorderPoint(p))
-            .collect(Collectors.toList());
+        if (!catalogIndex.isReady()) {
+            // 기동 직후 첫 인덱스 빌드 전
+            return productRepository.findByStockQuantityLessThanEqual(DEFAULT_REORDER_POINT);
+        }
+        List<Long> candidates = catalogIndex.stockAtOrBelow(DEFAULT_REORDER_POINT);
+        List<Product> lowStock = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = candidates.subList(from, Math.min(from + LOAD_BATCH_SIZE, candidates.size()));
+            productRepository.findByIdIn(batch).stream()
+                .filter(p -> p.getStockQuantity() <= getReorderPoint(p))
+                .forEach(lowStock::add);
+        }
+        return lowStock;
     }
 
     private int calculateOrderQuantity(int currentStock, int minStock, int maxStock, int safetyStock) {
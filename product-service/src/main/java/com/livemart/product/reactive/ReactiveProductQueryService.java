@@ -1,112 +1,83 @@
 package com.livemart.product.reactive;
 
 import com.livemart.product.dto.ProductResponse;
-import com.livemart.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 
 /**
- * WebFlux 기반 반응형 상품 조회 서비스
- * 비동기 논블로킹 I/O로 성능 향상
+ * 반응형 상품 조회 서비스 — R2DBC (ReactiveProductRepository)
+ *
+ * 조건은 SQL WHERE로 내려 보내고, 스트림 조회는 DB 커서를 구독자의 요청량만큼만 읽는다.
+ * 블로킹 JPA 호출을 boundedElastic으로 감싸지 않으므로 요청 수만큼 스레드를 점유하지 않는다.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReactiveProductQueryService {
 
-    private final ProductRepository productRepository;
+    private static final int BATCH_SIZE = 100;
+
+    private final ReactiveProductRepository reactiveProductRepository;
 
     /**
      * 반응형 상품 조회 (단건)
      */
     @Cacheable(value = "products", key = "#productId")
     public Mono<ProductResponse> getProductReactive(Long productId) {
-        return Mono.fromCallable(() -> {
-            log.info("Fetching product reactively: productId={}", productId);
-            return productRepository.findById(productId)
-                    .map(ProductResponse::from)
-                    .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
-        })
-        .subscribeOn(Schedulers.boundedElastic())
-        .timeout(Duration.ofSeconds(3))
-        .doOnError(e -> log.error("Failed to fetch product: productId={}", productId, e))
-        .cache(Duration.ofMinutes(5));
+        return reactiveProductRepository.findById(productId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Product not found: " + productId)))
+                .timeout(Duration.ofSeconds(3))
+                .doOnError(e -> log.error("Failed to fetch product: productId={}", productId, e));
     }
 
     /**
      * 반응형 상품 목록 조회 (스트리밍)
      */
     public Flux<ProductResponse> getProductsReactive(int page, int size) {
-        return Flux.defer(() -> {
-            log.info("Fetching products reactively: page={}, size={}", page, size);
-            return Flux.fromIterable(productRepository.findAll(PageRequest.of(page, size)).getContent());
-        })
-        .map(ProductResponse::from)
-        .subscribeOn(Schedulers.boundedElastic())
-        .timeout(Duration.ofSeconds(5))
-        .doOnComplete(() -> log.info("Products streaming completed"));
+        return reactiveProductRepository.findPage(page, size)
+                .timeout(Duration.ofSeconds(5))
+                .doOnComplete(() -> log.info("Products streaming completed: page={}, size={}", page, size));
     }
 
     /**
-     * 가격 범위 기반 검색 (스트리밍)
+     * 가격 범위 기반 검색 (스트리밍, 가격 오름차순)
      */
     public Flux<ProductResponse> searchByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return Flux.defer(() -> {
-            log.info("Searching products by price range: {} - {}", minPrice, maxPrice);
-            return Flux.fromIterable(
-                productRepository.findAll().stream()
-                    .filter(p -> p.getPrice().compareTo(minPrice) >= 0 && p.getPrice().compareTo(maxPrice) <= 0)
-                    .toList()
-            );
-        })
-        .map(ProductResponse::from)
-        .subscribeOn(Schedulers.boundedElastic())
-        .delayElements(Duration.ofMillis(10))  // 백프레셔 시뮬레이션
-        .doOnNext(p -> log.debug("Streaming product: {}", p.getName()));
+        log.info("Searching products by price range: {} - {}", minPrice, maxPrice);
+        return reactiveProductRepository.streamByPriceBetween(minPrice, maxPrice)
+                .doOnNext(p -> log.debug("Streaming product: {}", p.getName()));
     }
 
     /**
-     * 카테고리별 상품 조회 (반응형 + 병렬 처리)
+     * 카테고리별 상품 조회 (스트리밍)
      */
     public Flux<ProductResponse> getProductsByCategory(Long categoryId) {
-        return Flux.defer(() -> {
-            log.info("Fetching products by category reactively: categoryId={}", categoryId);
-            return Flux.fromIterable(productRepository.findAll())
-                    .filter(p -> p.getCategory() != null && p.getCategory().getId().equals(categoryId));
-        })
-        .map(ProductResponse::from)
-        .subscribeOn(Schedulers.parallel())
-        .timeout(Duration.ofSeconds(5));
+        log.info("Fetching products by category reactively: categoryId={}", categoryId);
+        return reactiveProductRepository.streamByCategory(categoryId);
     }
 
     /**
-     * 재고 부족 상품 조회 (실시간 알림용)
+     * 재고 부족 상품 조회 (실시간 알림용, 재고 오름차순)
      */
     public Flux<ProductResponse> getLowStockProducts(Integer threshold) {
-        return Flux.defer(() ->
-            Flux.fromIterable(productRepository.findAll())
-                .filter(p -> p.getStockQuantity() < threshold)
-        )
-        .map(ProductResponse::from)
-        .subscribeOn(Schedulers.boundedElastic())
-        .doOnNext(p -> log.warn("Low stock product: {} (stock: {})", p.getName(), p.getStockQuantity()));
+        return reactiveProductRepository.streamByStockBelow(threshold)
+                .doOnNext(p -> log.warn("Low stock product: {} (stock: {})", p.getName(), p.getStockQuantity()));
     }
 
     /**
-     * 다중 상품 조회 (Batch) - 병렬 처리
+     * 다중 상품 조회 (Batch) — 100개씩 묶어 IN 조회 1번, 없는 id는 건너뜀
      */
     public Flux<ProductResponse> getProductsBatch(Flux<Long> productIds) {
         return productIds
-            .flatMap(this::getProductReactive, 10)  // 동시에 10개씩 병렬 처리
-            .onErrorContinue((e, id) -> log.error("Failed to fetch product: id={}", id, e));
+            .buffer(BATCH_SIZE)
+            .concatMap(reactiveProductRepository::findAllById)
+            .onErrorContinue((e, ids) -> log.error("Failed to fetch products: ids={}", ids, e));
     }
 }
@@ -0,0 +1,110 @@
+package com.livemart.product.reactive;
+
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.dto.ProductResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * R2DBC 상품 조회 — 조건은 SQL로, 결과는 행 단위 스트림
+ *
+ * JPA 엔티티를 거치지 않고 행을 바로 ProductResponse로 만든다. 스트림 조회는 fetchSize만큼씩 커서로 가져오며
+ * 구독자의 request(n)에 맞춰 다음 묶음을 읽는다 — 느린 클라이언트면 DB에서도 그만큼 천천히 읽고, 취소하면 커서를 닫는다.
+ *
+ * ORDER BY는 인덱스 순서로 읽을 수 있는 경우에만 붙인다 (price, stock_quantity). 카테고리 조회에 정렬을 붙이면
+ * 전체를 정렬한 뒤에야 첫 행이 나오므로 순서를 보장하지 않는다 — 기존 findAll() 필터와 같음.
+ */
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String SELECT = """
+            SELECT p.id, p.name, p.description, p.price, p.stock_quantity, p.category_id, c.name AS category_name,
+                   p.status, p.image_url, p.seller_id, p.created_at, p.updated_at
+            FROM products p LEFT JOIN categories c ON c.id = p.category_id
+            """;
+
+    private final DatabaseClient client;
+    private final int fetchSize;
+
+    public ReactiveProductRepository(DatabaseClient client,
+                                     @Value("${product.reactive.fetch-size:500}") int fetchSize) {
+        this.client = client;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<ProductResponse> findById(Long id) {
+        return client.sql(SELECT + "WHERE p.id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toResponse)
+                .one();
+    }
+
+    /**
+     * ids 중 존재하는 상품 (순서 무관)
+     */
+    public Flux<ProductResponse> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return client.sql(SELECT + "WHERE p.id = ANY(:ids)")
+                .bind("ids", ids.toArray(Long[]::new))
+                .map(ReactiveProductRepository::toResponse)
+                .all();
+    }
+
+    public Flux<ProductResponse> findPage(int page, int size) {
+        return client.sql(SELECT + "ORDER BY p.id LIMIT :limit OFFSET :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveProductRepository::toResponse)
+                .all();
+    }
+
+    public Flux<ProductResponse> streamByCategory(Long categoryId) {
+        return stream(client.sql(SELECT + "WHERE p.category_id = :categoryId")
+                .bind("categoryId", categoryId));
+    }
+
+    public Flux<ProductResponse> streamByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return stream(client.sql(SELECT + "WHERE p.price BETWEEN :minPrice AND :maxPrice ORDER BY p.price")
+                .bind("minPrice", minPrice)
+                .bind("maxPrice", maxPrice));
+    }
+
+    public Flux<ProductResponse> streamByStockBelow(int threshold) {
+        return stream(client.sql(SELECT + "WHERE p.stock_quantity < :threshold ORDER BY p.stock_quantity")
+                .bind("threshold", threshold));
+    }
+
+    private Flux<ProductResponse> stream(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveProductRepository::toResponse)
+                .all();
+    }
+
+    private static ProductResponse toResponse(Readable row) {
+        String status = row.get("status", String.class);
+        return ProductResponse.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .stockQuantity(row.get("stock_quantity", Integer.class))
+                .categoryId(row.get("category_id", Long.class))
+                .categoryName(row.get("category_name", String.class))
+                .status(status != null ? ProductStatus.valueOf(status) : null)
+                .imageUrl(row.get("image_url", String.class))
+                .sellerId(row.get("seller_id", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,339 @@
+package com.livemart.product.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 사용자-상품 조회 행렬 (희소, 원시 타입 배열)
+ *
+ * 상품 id를 0..n-1 순번으로 바꿔 사용자 → 상품, 상품 → 사용자 두 방향을 CSR(시작 위치 + 이어 붙인 값)로 보관하고,
+ * 상품마다 함께 조회된 상품과의 Jaccard 유사도 상위 K개를 계산한다.
+ *
+ *   similarity(i, j) = |U(i) ∩ U(j)| / |U(i) ∪ U(j)|   (U = 해당 상품을 본 사용자 집합)
+ *
+ * 교집합 크기는 HashSet 복사 대신 U(i)의 사용자들이 본 상품을 순번 배열(counts)에 누적해서 구한다.
+ * 조회 수가 maxUserViews를 넘는 사용자(봇, 크롤러)는 누적에서 제외한다 — 사용자당 비용이 조회 수의 제곱이므로.
+ */
+public final class CoViewMatrix {
+
+    /** 유사 상품 목록 하나 (점수 내림차순) */
+    public record Neighbours(long productId, long[] neighbourIds, float[] scores) {}
+
+    @FunctionalInterface
+    public interface NeighboursConsumer {
+        void accept(Neighbours neighbours);
+    }
+
+    private final long[] itemIds;
+    private final LongIntMap itemIndex;
+    private final int[] userStart;
+    private final int[] userItems;
+    private final int[] itemStart;
+    private final int[] itemUsers;
+    private final int[] viewerCounts;
+
+    private CoViewMatrix(long[] itemIds, LongIntMap itemIndex, int[] userStart, int[] userItems,
+                         int[] itemStart, int[] itemUsers, int[] viewerCounts) {
+        this.itemIds = itemIds;
+        this.itemIndex = itemIndex;
+        this.userStart = userStart;
+        this.userItems = userItems;
+        this.itemStart = itemStart;
+        this.itemUsers = itemUsers;
+        this.viewerCounts = viewerCounts;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public int userCount() {
+        return userStart.length - 1;
+    }
+
+    public long viewCount() {
+        return userItems.length;
+    }
+
+    /**
+     * 상품 하나의 유사 상품 상위 k개 — 행렬에 없는 상품이면 null
+     */
+    public Neighbours neighbours(long productId, int k, int maxUserViews) {
+        int item = itemIndex.get(productId);
+        return item < 0 ? null : neighbours(item, k, maxUserViews, new Scratch(itemIds.length));
+    }
+
+    /**
+     * 모든 상품의 유사 상품 상위 k개 (유사 상품이 없는 상품은 건너뜀)
+     */
+    public void forEachNeighbours(int k, int maxUserViews, NeighboursConsumer consumer) {
+        Scratch scratch = new Scratch(itemIds.length);
+        for (int item = 0; item < itemIds.length; item++) {
+            Neighbours neighbours = neighbours(item, k, maxUserViews, scratch);
+            if (neighbours.neighbourIds().length > 0) {
+                consumer.accept(neighbours);
+            }
+        }
+    }
+
+    private Neighbours neighbours(int item, int k, int maxUserViews, Scratch scratch) {
+        int[] counts = scratch.counts;
+        int touched = 0;
+        for (int u = itemStart[item]; u < itemStart[item + 1]; u++) {
+            int user = itemUsers[u];
+            int from = userStart[user];
+            int to = userStart[user + 1];
+            if (to - from > maxUserViews) continue;
+            for (int v = from; v < to; v++) {
+                int other = userItems[v];
+                if (other == item) continue;
+                if (counts[other]++ == 0) {
+                    scratch.touched[touched++] = other;
+                }
+            }
+        }
+
+        // 점수 기준 최소 힙 (크기 k) — 힙의 루트가 현재 k번째 점수
+        int capacity = Math.min(k, touched);
+        int[] heapItems = new int[capacity];
+        float[] heapScores = new float[capacity];
+        int size = 0;
+        int viewers = viewerCounts[item];
+        for (int t = 0; t < touched; t++) {
+            int other = scratch.touched[t];
+            int together = counts[other];
+            counts[other] = 0;
+            float score = (float) together / (viewers + viewerCounts[other] - together);
+            if (size < capacity) {
+                heapItems[size] = other;
+                heapScores[size] = score;
+                siftUp(heapItems, heapScores, size++);
+            } else if (capacity > 0 && lessThan(heapScores[0], heapItems[0], score, other)) {
+                heapItems[0] = other;
+                heapScores[0] = score;
+                siftDown(heapItems, heapScores, size);
+            }
+        }
+
+        // 힙을 비우면서 뒤에서부터 채움 → 점수 내림차순
+        long[] ids = new long[size];
+        float[] scores = new float[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ids[i] = itemIds[heapItems[0]];
+            scores[i] = heapScores[0];
+            heapItems[0] = heapItems[i];
+            heapScores[0] = heapScores[i];
+            siftDown(heapItems, heapScores, i);
+        }
+        return new Neighbours(itemIds[item], ids, scores);
+    }
+
+    /** (점수, 순번) 순서 — 같은 점수면 순번이 큰 쪽을 낮게 본다 (결과가 실행마다 같도록) */
+    private static boolean lessThan(float scoreA, int itemA, float scoreB, int itemB) {
+        return scoreA < scoreB || (scoreA == scoreB && itemA > itemB);
+    }
+
+    private static void siftUp(int[] items, float[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!lessThan(scores[i], items[i], scores[parent], items[parent])) break;
+            swap(items, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] items, float[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && lessThan(scores[right], items[right], scores[left], items[left])) smallest = right;
+            if (!lessThan(scores[smallest], items[smallest], scores[i], items[i])) break;
+            swap(items, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] items, float[] scores, int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+
+    /** 상품마다 재사용하는 누적 배열 — 한 상품 계산이 끝나면 건드린 칸만 0으로 되돌린다 */
+    private static final class Scratch {
+        final int[] counts;
+        final int[] touched;
+
+        Scratch(int items) {
+            counts = new int[items];
+            touched = new int[items];
+        }
+    }
+
+    public static final class Builder {
+
+        private final LongIntMap itemIndex = new LongIntMap(1 << 10);
+        private long[] itemIds = new long[1 << 10];
+        private int[] userStart = new int[1 << 10];
+        private int[] userItems = new int[1 << 12];
+        private int users;
+        private int views;
+        private LongIntMap viewerOverrides;
+
+        /**
+         * 사용자 한 명의 조회 상품 (중복은 한 번만)
+         */
+        public Builder addUser(long[] productIds) {
+            if (users + 2 > userStart.length) {
+                userStart = Arrays.copyOf(userStart, userStart.length * 2);
+            }
+            if (views + productIds.length > userItems.length) {
+                userItems = Arrays.copyOf(userItems, Math.max(userItems.length * 2, views + productIds.length));
+            }
+            int from = views;
+            for (long productId : productIds) {
+                int item = index(productId);
+                boolean duplicate = false;
+                for (int v = from; v < views; v++) {
+                    if (userItems[v] == item) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate) {
+                    userItems[views++] = item;
+                }
+            }
+            userStart[++users] = views;
+            return this;
+        }
+
+        /**
+         * 상품을 본 전체 사용자 수 지정 — 일부 사용자만으로 만든 행렬(증분 갱신)에서 Jaccard 분모를 맞추기 위해
+         */
+        public Builder viewerCount(long productId, int count) {
+            if (viewerOverrides == null) {
+                viewerOverrides = new LongIntMap(1 << 10);
+            }
+            viewerOverrides.put(productId, count);
+            return this;
+        }
+
+        public CoViewMatrix build() {
+            int items = itemIndex.size();
+            int[] itemStart = new int[items + 1];
+            for (int v = 0; v < views; v++) {
+                itemStart[userItems[v] + 1]++;
+            }
+            for (int i = 0; i < items; i++) {
+                itemStart[i + 1] += itemStart[i];
+            }
+            int[] itemUsers = new int[views];
+            int[] fill = Arrays.copyOf(itemStart, items);
+            for (int user = 0; user < users; user++) {
+                for (int v = userStart[user]; v < userStart[user + 1]; v++) {
+                    itemUsers[fill[userItems[v]]++] = user;
+                }
+            }
+
+            int[] viewerCounts = new int[items];
+            for (int i = 0; i < items; i++) {
+                int override = viewerOverrides != null ? viewerOverrides.get(itemIds[i]) : -1;
+                viewerCounts[i] = Math.max(override, itemStart[i + 1] - itemStart[i]);
+            }
+            return new CoViewMatrix(Arrays.copyOf(itemIds, items), itemIndex, Arrays.copyOf(userStart, users + 1),
+                    Arrays.copyOf(userItems, views), itemStart, itemUsers, viewerCounts);
+        }
+
+        private int index(long productId) {
+            int item = itemIndex.get(productId);
+            if (item < 0) {
+                item = itemIndex.size();
+                itemIndex.put(productId, item);
+                if (item == itemIds.length) {
+                    itemIds = Arrays.copyOf(itemIds, itemIds.length * 2);
+                }
+                itemIds[item] = productId;
+            }
+            return item;
+        }
+    }
+
+    /**
+     * long → int 해시 맵 (open addressing, 선형 탐사) — 값이 없으면 -1
+     */
+    static final class LongIntMap {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntMap(int capacity) {
+            int length = Integer.highestOneBit(Math.max(4, capacity) - 1) << 1;
+            keys = new long[length];
+            values = new int[length];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return values[slot];
+                if (keys[slot] == EMPTY) return -1;
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                if (keys[slot] == EMPTY) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
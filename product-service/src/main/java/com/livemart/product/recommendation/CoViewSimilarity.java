@@ -0,0 +1,387 @@
+package com.livemart.product.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 함께 본 상품(co-view) 유사도 — 미리 계산한 상품별 유사 상품 목록
+ *
+ * 요청마다 product:views / user:views를 N+1로 SMEMBERS 하던 계산을 배치로 옮기고,
+ * 요청 경로는 recommendations:coview:{productId} 조회 한 번으로 끝낸다.
+ * 값은 "상품id:점수,상품id:점수,..." (Jaccard 내림차순, 최대 neighbours개).
+ *
+ * - 전체 빌드: user:views:* 를 SCAN + 파이프라인 SMEMBERS로 읽어 CoViewMatrix를 만들고 전 상품 목록을 다시 쓴다.
+ *   인스턴스 중 하나만 (Redisson 락), built-at 키가 만료됐을 때만 실행 → 클러스터 전체에서 rebuild-interval마다 1회
+ * - 증분 갱신: 조회 기록 시 상품을 dirty 집합에 넣고, refresh-interval마다 SPOP한 상품만
+ *   그 상품을 본 사용자들의 조회 기록으로 다시 계산한다 (Jaccard 분모는 SCARD로 전체 조회자 수 사용).
+ *   갱신된 상품을 이웃으로 가진 다른 상품의 목록은 다음 전체 빌드에서 맞춰진다
+ * - 목록 TTL은 rebuild-interval의 2배 — 빌드가 한 번 실패해도 기존 목록으로 응답
+ */
+@Slf4j
+@Component
+public class CoViewSimilarity {
+
+    static final String NEIGHBOURS_KEY = "recommendations:coview:";
+    static final String DIRTY_KEY = "recommendations:coview:dirty";
+    private static final String BUILT_AT_KEY = "recommendations:coview:built-at";
+    private static final String BUILD_LOCK = "lock:recommendation:coview";
+    private static final int PIPELINE_BATCH = 1_000;
+
+    /** 유사 상품 하나 */
+    record Neighbour(long productId, float score) {}
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedissonClient redissonClient;
+    private final boolean enabled;
+    private final int neighbours;
+    private final int maxUserViews;
+    private final Duration rebuildInterval;
+    private final Duration refreshInterval;
+    private final int refreshBatch;
+
+    private final Timer fullBuildTimer;
+    private final Timer incrementalTimer;
+    private final AtomicInteger lastBuildItems = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    public CoViewSimilarity(RedisTemplate<String, Object> redisTemplate,
+                            StringRedisTemplate stringRedisTemplate,
+                            RedissonClient redissonClient,
+                            MeterRegistry registry,
+                            @Value("${product.recommendation.coview.enabled:true}") boolean enabled,
+                            @Value("${product.recommendation.coview.neighbours:50}") int neighbours,
+                            @Value("${product.recommendation.coview.max-user-views:500}") int maxUserViews,
+                            @Value("${product.recommendation.coview.rebuild-interval:6h}") Duration rebuildInterval,
+                            @Value("${product.recommendation.coview.refresh-interval:1m}") Duration refreshInterval,
+                            @Value("${product.recommendation.coview.refresh-batch:500}") int refreshBatch) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redissonClient = redissonClient;
+        this.enabled = enabled;
+        this.neighbours = neighbours;
+        this.maxUserViews = maxUserViews;
+        this.rebuildInterval = rebuildInterval;
+        this.refreshInterval = refreshInterval;
+        this.refreshBatch = refreshBatch;
+
+        this.fullBuildTimer = Timer.builder("recommendation.coview.build")
+                .description("Co-view similarity build")
+                .tag("mode", "full")
+                .register(registry);
+        this.incrementalTimer = Timer.builder("recommendation.coview.build")
+                .description("Co-view similarity build")
+                .tag("mode", "incremental")
+                .register(registry);
+        Gauge.builder("recommendation.coview.items", lastBuildItems, AtomicInteger::get)
+                .description("Products with a published co-view neighbour list after the last full build")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "coview-similarity-builder");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(1, refreshInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::tick, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 유사 상품 id (점수 내림차순) — 목록이 아직 없으면 빈 목록
+     */
+    public List<Long> similar(Long productId, int limit) {
+        String value = stringRedisTemplate.opsForValue().get(NEIGHBOURS_KEY + productId);
+        return decode(value).stream().limit(limit).map(Neighbour::productId).toList();
+    }
+
+    /**
+     * 여러 상품의 유사 상품 점수 합 (MGET 1회) — 입력 상품 자체는 제외
+     */
+    public Map<Long, Double> aggregate(Collection<Long> productIds) {
+        Map<Long, Double> scores = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return scores;
+        }
+        List<String> values = stringRedisTemplate.opsForValue()
+                .multiGet(productIds.stream().map(id -> NEIGHBOURS_KEY + id).toList());
+        if (values == null) {
+            return scores;
+        }
+        for (String value : values) {
+            for (Neighbour neighbour : decode(value)) {
+                if (!productIds.contains(neighbour.productId())) {
+                    scores.merge(neighbour.productId(), (double) neighbour.score(), Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * 조회 기록된 상품을 증분 갱신 대상에 추가 (SADD 1회)
+     */
+    public void markDirty(Collection<Long> productIds) {
+        if (enabled && !productIds.isEmpty()) {
+            stringRedisTemplate.opsForSet().add(DIRTY_KEY, productIds.stream().map(String::valueOf).toArray(String[]::new));
+        }
+    }
+
+    private void tick() {
+        try {
+            if (Boolean.FALSE.equals(stringRedisTemplate.hasKey(BUILT_AT_KEY))) {
+                rebuildIfDue();
+            } else {
+                refresh();
+            }
+        } catch (RuntimeException e) {
+            // 기존 목록(TTL 안)으로 계속 응답, 다음 주기에 재시도
+            log.warn("co-view 유사도 갱신 실패: error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 전체 빌드 — 다른 인스턴스가 빌드 중이거나 방금 끝냈으면 건너뜀
+     */
+    void rebuildIfDue() {
+        RLock lock = redissonClient.getLock(BUILD_LOCK);
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+            if (!locked || Boolean.TRUE.equals(stringRedisTemplate.hasKey(BUILT_AT_KEY))) {
+                return;
+            }
+            rebuild();
+            stringRedisTemplate.opsForValue().set(BUILT_AT_KEY, String.valueOf(System.currentTimeMillis()), rebuildInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (locked && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    void rebuild() {
+        long started = System.nanoTime();
+        // 전체 빌드 전에 쌓인 dirty는 이번 빌드에 포함되므로 비운다 (빌드 중 추가분은 다음 refresh에서)
+        stringRedisTemplate.delete(DIRTY_KEY);
+
+        CoViewMatrix.Builder builder = CoViewMatrix.builder();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RecommendationEngine.USER_VIEWS_KEY + "*")
+                .count(PIPELINE_BATCH)
+                .build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(PIPELINE_BATCH);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == PIPELINE_BATCH) {
+                    addUsers(builder, batch);
+                    batch.clear();
+                }
+            }
+            addUsers(builder, batch);
+        }
+        CoViewMatrix matrix = builder.build();
+
+        List<CoViewMatrix.Neighbours> pending = new ArrayList<>(PIPELINE_BATCH);
+        AtomicInteger published = new AtomicInteger();
+        matrix.forEachNeighbours(neighbours, maxUserViews, n -> {
+            pending.add(n);
+            if (pending.size() == PIPELINE_BATCH) {
+                published.addAndGet(publish(pending));
+                pending.clear();
+            }
+        });
+        published.addAndGet(publish(pending));
+        lastBuildItems.set(published.get());
+
+        long elapsed = System.nanoTime() - started;
+        fullBuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("co-view 유사도 전체 빌드 완료: users={}, views={}, items={}, published={}, elapsed={}ms",
+                matrix.userCount(), matrix.viewCount(), matrix.itemCount(), published.get(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * 증분 갱신 — dirty 상품만 그 상품을 본 사용자들의 조회 기록으로 다시 계산
+     */
+    void refresh() {
+        List<String> popped = stringRedisTemplate.opsForSet().pop(DIRTY_KEY, refreshBatch);
+        if (popped == null || popped.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            List<Long> dirty = popped.stream().map(Long::valueOf).toList();
+
+            Set<Long> viewers = new LinkedHashSet<>();
+            for (Object members : pipelined(dirty.stream().map(id -> RecommendationEngine.PRODUCT_VIEWS_KEY + id).toList(),
+                    (ops, key) -> ops.opsForSet().members(key))) {
+                viewers.addAll(toLongs(members));
+            }
+
+            CoViewMatrix.Builder builder = CoViewMatrix.builder();
+            Set<Long> items = new LinkedHashSet<>(dirty);
+            List<String> userKeys = viewers.stream().map(id -> RecommendationEngine.USER_VIEWS_KEY + id).toList();
+            for (int from = 0; from < userKeys.size(); from += PIPELINE_BATCH) {
+                for (Object members : pipelined(userKeys.subList(from, Math.min(from + PIPELINE_BATCH, userKeys.size())),
+                        (ops, key) -> ops.opsForSet().members(key))) {
+                    List<Long> viewed = toLongs(members);
+                    items.addAll(viewed);
+                    builder.addUser(viewed.stream().mapToLong(Long::longValue).toArray());
+                }
+            }
+
+            // 일부 사용자만 읽었으므로 Jaccard 분모(상품별 전체 조회자 수)는 SCARD로 채운다
+            List<Long> itemIds = List.copyOf(items);
+            for (int from = 0; from < itemIds.size(); from += PIPELINE_BATCH) {
+                List<Long> chunk = itemIds.subList(from, Math.min(from + PIPELINE_BATCH, itemIds.size()));
+                List<Object> sizes = pipelined(chunk.stream().map(id -> RecommendationEngine.PRODUCT_VIEWS_KEY + id).toList(),
+                        (ops, key) -> ops.opsForSet().size(key));
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (sizes.get(i) instanceof Number size) {
+                        builder.viewerCount(chunk.get(i), size.intValue());
+                    }
+                }
+            }
+
+            CoViewMatrix matrix = builder.build();
+            List<CoViewMatrix.Neighbours> updated = new ArrayList<>(dirty.size());
+            for (Long productId : dirty) {
+                CoViewMatrix.Neighbours n = matrix.neighbours(productId, neighbours, maxUserViews);
+                if (n != null && n.neighbourIds().length > 0) {
+                    updated.add(n);
+                }
+            }
+            publish(updated);
+            incrementalTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("co-view 유사도 증분 갱신: products={}, users={}, updated={}", dirty.size(), viewers.size(), updated.size());
+        } catch (RuntimeException e) {
+            // 꺼낸 상품을 돌려놓아 다음 주기에 다시 계산
+            stringRedisTemplate.opsForSet().add(DIRTY_KEY, popped.toArray(String[]::new));
+            throw e;
+        }
+    }
+
+    private void addUsers(CoViewMatrix.Builder builder, List<String> userKeys) {
+        if (userKeys.isEmpty()) {
+            return;
+        }
+        for (Object members : pipelined(userKeys, (ops, key) -> ops.opsForSet().members(key))) {
+            List<Long> viewed = toLongs(members);
+            if (!viewed.isEmpty()) {
+                builder.addUser(viewed.stream().mapToLong(Long::longValue).toArray());
+            }
+        }
+    }
+
+    private int publish(List<CoViewMatrix.Neighbours> lists) {
+        if (lists.isEmpty()) {
+            return 0;
+        }
+        long seconds = Math.max(1, rebuildInterval.multipliedBy(2).toSeconds());
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (CoViewMatrix.Neighbours n : lists) {
+                connection.stringCommands().setEx(
+                        (NEIGHBOURS_KEY + n.productId()).getBytes(StandardCharsets.UTF_8),
+                        seconds,
+                        encode(n).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        return lists.size();
+    }
+
+    private List<Object> pipelined(List<String> keys, BiConsumer<RedisOperations<String, Object>, String> command) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                keys.forEach(key -> command.accept(ops, key));
+                return null;
+            }
+        });
+    }
+
+    /** JSON 직렬화된 id는 크기에 따라 Integer/Long으로 돌아온다 */
+    private static List<Long> toLongs(Object members) {
+        if (!(members instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value instanceof Number number) {
+                ids.add(number.longValue());
+            }
+        }
+        return ids;
+    }
+
+    static String encode(CoViewMatrix.Neighbours n) {
+        StringBuilder sb = new StringBuilder(n.neighbourIds().length * 16);
+        for (int i = 0; i < n.neighbourIds().length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(n.neighbourIds()[i]).append(':').append(n.scores()[i]);
+        }
+        return sb.toString();
+    }
+
+    static List<Neighbour> decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return List.of();
+        }
+        String[] entries = value.split(",");
+        List<Neighbour> neighbours = new ArrayList<>(entries.length);
+        for (String entry : entries) {
+            int colon = entry.indexOf(':');
+            neighbours.add(new Neighbour(Long.parseLong(entry, 0, colon, 10),
+                    Float.parseFloat(entry.substring(colon + 1))));
+        }
+        return neighbours;
+    }
+}
@@ -1,12 +1,17 @@
 package com.livemart.product.recommendation;
 
+import com.livemart.product.catalog.CatalogIndex;
+import com.livemart.product.domain.Product;
+import com.livemart.product.domain.ProductStatus;
 import com.livemart.product.dto.ProductResponse;
 import com.livemart.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -22,14 +27,18 @@ public class RecommendationEngine {
 
     private final ProductRepository productRepository;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final CatalogIndex catalogIndex;
+    private final CoViewSimilarity coViewSimilarity;
+    private final ViewIngestionBuffer viewIngestionBuffer;
 
-    private static final String USER_VIEWS_KEY = "user:views:";
-    private static final String PRODUCT_VIEWS_KEY = "product:views:";
+    static final String USER_VIEWS_KEY = "user:views:";
+    static final String PRODUCT_VIEWS_KEY = "product:views:";
     private static final String RECOMMENDATIONS_KEY = "recommendations:";
+    private static final double SIMILAR_PRICE_RATIO = 0.3;
 
     /**
-     * 사용자 기반 협업 필터링 (User-Based Collaborative Filtering)
-     * 비슷한 사용자들이 구매한 상품 추천
+     * 사용자 기반 추천
+     * 내가 본 상품들의 co-view 유사 상품 점수를 합산 (미리 계산된 목록 MGET 1회, 본 상품은 제외)
      */
     public List<ProductResponse> getUserBasedRecommendations(Long userId, int limit) {
         try {
@@ -39,31 +48,16 @@ public class RecommendationEngine {
                 return getPopularProducts(limit);
             }
 
-            // 2. 유사 사용자 찾기 (같은 상품을 본 다른 사용자들)
-            Map<Long, Double> similarUsers = findSimilarUsers(userId, userViewedProducts);
+            // 2. 조회 상품별 유사 상품 점수 합산
+            Map<Long, Double> recommendationScores = coViewSimilarity.aggregate(userViewedProducts);
 
-            // 3. 유사 사용자들이 본 상품 중 내가 안 본 상품 추천
-            Map<Long, Double> recommendationScores = new HashMap<>();
-
-            for (Map.Entry<Long, Double> entry : similarUsers.entrySet()) {
-                Long similarUserId = entry.getKey();
-                Double similarity = entry.getValue();
-
-                Set<Long> similarUserProducts = getUserViewHistory(similarUserId);
-                for (Long productId : similarUserProducts) {
-                    if (!userViewedProducts.contains(productId)) {
-                        recommendationScores.merge(productId, similarity, Double::sum);
-                    }
-                }
-            }
-
-            // 4. 점수 순으로 정렬하여 반환
-            return recommendationScores.entrySet().stream()
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+            // 3. 점수 순으로 정렬하여 반환
+            return findProducts(recommendationScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()))
                 .limit(limit)
-                .map(e -> getProductById(e.getKey()))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList()));
 
         } catch (Exception e) {
             log.error("User-based recommendation failed for userId: {}", userId, e);
@@ -73,7 +67,7 @@ public class RecommendationEngine {
 
     /**
      * 아이템 기반 협업 필터링 (Item-Based Collaborative Filtering)
-     * 유사한 상품 추천
+     * 함께 조회된 상품 — CoViewSimilarity가 미리 계산한 Jaccard 상위 목록
      */
     public List<ProductResponse> getItemBasedRecommendations(Long productId, int limit) {
         try {
@@ -84,28 +78,7 @@ public class RecommendationEngine {
                 return cached.stream().limit(limit).collect(Collectors.toList());
             }
 
-            // 1. 이 상품을 본 사용자들 가져오기
-            Set<Long> usersWhoViewedProduct = getProductViewers(productId);
-
-            // 2. 그 사용자들이 본 다른 상품들
-            Map<Long, Integer> coViewedProducts = new HashMap<>();
-
-            for (Long userId : usersWhoViewedProduct) {
-                Set<Long> userProducts = getUserViewHistory(userId);
-                for (Long otherProductId : userProducts) {
-                    if (!otherProductId.equals(productId)) {
-                        coViewedProducts.merge(otherProductId, 1, Integer::sum);
-                    }
-                }
-            }
-
-            // 3. 공동 조회 수 기준 정렬
-            List<ProductResponse> recommendations = coViewedProducts.entrySet().stream()
-                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .map(e -> getProductById(e.getKey()))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+            List<ProductResponse> recommendations = findProducts(coViewSimilarity.similar(productId, limit));
 
             // 캐시 저장 (10분)
             redisTemplate.opsForValue().set(cacheKey, recommendations, 10, TimeUnit.MINUTES);
@@ -124,25 +97,13 @@ public class RecommendationEngine {
      */
     public List<ProductResponse> getContentBasedRecommendations(Long productId, int limit) {
         try {
-            var product = productRepository.findById(productId).orElse(null);
-            if (product == null) {
-                return Collections.emptyList();
+            if (!catalogIndex.isReady()) {
+                // 기동 직후 첫 인덱스 빌드 전(또는 빌드 실패) — 같은 조건을 DB에서 limit건만
+                return findSimilarByPrice(productId, limit);
             }
 
-            // 같은 카테고리, 비슷한 가격대 상품 추천
-            return productRepository.findAll().stream()
-                .filter(p -> !p.getId().equals(productId))
-                .filter(p -> p.getCategory() != null &&
-                            p.getCategory().getId().equals(product.getCategory().getId()))
-                .filter(p -> Math.abs(p.getPrice().doubleValue() - product.getPrice().doubleValue())
-                            < product.getPrice().doubleValue() * 0.3)  // ±30% 가격대
-                .sorted((p1, p2) -> Double.compare(
-                    Math.abs(p2.getPrice().doubleValue() - product.getPrice().doubleValue()),
-                    Math.abs(p1.getPrice().doubleValue() - product.getPrice().doubleValue())
-                ))
-                .limit(limit)
-                .map(ProductResponse::from)
-                .collect(Collectors.toList());
+            // 같은 카테고리, 비슷한 가격대(±30%) 상품을 가격이 가까운 순으로
+            return findProducts(catalogIndex.similarByPrice(productId, SIMILAR_PRICE_RATIO, limit));
 
         } catch (Exception e) {
             log.error("Content-based recommendation failed for productId: {}", productId, e);
@@ -175,68 +136,54 @@ public class RecommendationEngine {
     }
 
     /**
-     * 사용자 조회 기록 저장
+     * 사용자 조회 기록 저장 (ViewIngestionBuffer가 모아서 반영)
      */
     public void recordUserView(Long userId, Long productId) {
-        String userKey = USER_VIEWS_KEY + userId;
-        String productKey = PRODUCT_VIEWS_KEY + productId;
-
-        redisTemplate.opsForSet().add(userKey, productId);
-        redisTemplate.opsForSet().add(productKey, userId);
-
-        // 30일 TTL
-        redisTemplate.expire(userKey, 30, TimeUnit.DAYS);
-        redisTemplate.expire(productKey, 30, TimeUnit.DAYS);
+        viewIngestionBuffer.record(userId, productId);
     }
 
     // Helper methods
     private Set<Long> getUserViewHistory(Long userId) {
         Set<Object> views = redisTemplate.opsForSet().members(USER_VIEWS_KEY + userId);
-        return views != null ? views.stream().map(o -> (Long) o).collect(Collectors.toSet()) : Collections.emptySet();
-    }
-
-    private Set<Long> getProductViewers(Long productId) {
-        Set<Object> viewers = redisTemplate.opsForSet().members(PRODUCT_VIEWS_KEY + productId);
-        return viewers != null ? viewers.stream().map(o -> (Long) o).collect(Collectors.toSet()) : Collections.emptySet();
+        return views != null ? views.stream().map(o -> ((Number) o).longValue()).collect(Collectors.toSet()) : Collections.emptySet();
     }
 
-    private Map<Long, Double> findSimilarUsers(Long userId, Set<Long> userProducts) {
-        Map<Long, Double> similarities = new HashMap<>();
-
-        for (Long productId : userProducts) {
-            Set<Long> otherUsers = getProductViewers(productId);
-            for (Long otherUserId : otherUsers) {
-                if (!otherUserId.equals(userId)) {
-                    Set<Long> otherUserProducts = getUserViewHistory(otherUserId);
-                    double similarity = calculateJaccardSimilarity(userProducts, otherUserProducts);
-                    similarities.merge(otherUserId, similarity, Double::sum);
-                }
-            }
+    private List<ProductResponse> getPopularProducts(int limit) {
+        if (!catalogIndex.isReady()) {
+            return productRepository.findByStatusOrderByStockQuantityDescIdAsc(ProductStatus.ACTIVE, Limit.of(limit))
+                .stream()
+                .map(ProductResponse::from)
+                .collect(Collectors.toList());
         }
-
-        return similarities;
-    }
-
-    private double calculateJaccardSimilarity(Set<Long> set1, Set<Long> set2) {
-        Set<Long> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
-
-        Set<Long> union = new HashSet<>(set1);
-        union.addAll(set2);
-
-        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+        return findProducts(catalogIndex.mostStocked(limit));
     }
 
-    private ProductResponse getProductById(Long productId) {
-        return productRepository.findById(productId)
+    private List<ProductResponse> findSimilarByPrice(Long productId, int limit) {
+        Product product = productRepository.findByIdWithCategory(productId).orElse(null);
+        if (product == null || product.getCategory() == null || product.getPrice() == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        BigDecimal price = product.getPrice();
+        BigDecimal maxDistance = price.multiply(BigDecimal.valueOf(SIMILAR_PRICE_RATIO));
+        return productRepository.findNearestByPrice(productId, product.getCategory().getId(), ProductStatus.ACTIVE,
+                price, price.subtract(maxDistance), price.add(maxDistance), Limit.of(limit))
+            .stream()
             .map(ProductResponse::from)
-            .orElse(null);
+            .collect(Collectors.toList());
     }
 
-    private List<ProductResponse> getPopularProducts(int limit) {
-        return productRepository.findAll().stream()
-            .sorted((p1, p2) -> Integer.compare(p2.getStockQuantity(), p1.getStockQuantity()))
-            .limit(limit)
+    /**
+     * 인덱스 / 유사도 목록의 id 순서 그대로 엔티티 조회 (그 사이 삭제된 상품은 빠짐)
+     */
+    private List<ProductResponse> findProducts(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Product> products = productRepository.findByIdIn(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, p -> p));
+        return productIds.stream()
+            .map(products::get)
+            .filter(Objects::nonNull)
             .map(ProductResponse::from)
             .collect(Collectors.toList());
     }
@@ -0,0 +1,300 @@
+package com.livemart.product.recommendation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 상품 조회 기록 버퍼 — user:views / product:views 쓰기를 모아서 파이프라인으로 반영
+ *
+ * 조회 1건마다 SADD 2 + EXPIRE 2 + dirty SADD 1 = 5개 명령(왕복 5회)이 나가던 것을
+ * flush-interval 동안 메모리에 모아 (사용자, 상품) 쌍 중복을 없애고, 플러시 1회에
+ * 사용자/상품 키당 SADD 1 + EXPIRE 1 (파이프라인 왕복 1회) + dirty SADD 1로 줄인다.
+ *
+ * - batch-size에 도달하면 주기와 무관하게 플러시
+ * - 대기 조회가 max-pending에 도달하면 호출 스레드가 직접 비운다 (역압). 다른 스레드가 이미 비우는 중이거나
+ *   직전 플러시가 실패한 상태(Redis 장애)면 기다리지 않고 그 조회를 버리고 dropped로 집계 — 대기열은 max-pending을 넘지 않고
+ *   요청 스레드가 flushLock이나 Redis 타임아웃에 묶이지 않는다
+ * - 유실 상한: 비정상 종료 시 아직 플러시되지 않은 조회 — 최대 max-pending건, 보통 flush-interval 구간.
+ *   recommendation.views.pending / oldest.pending.age로 관찰 가능
+ * - 플러시 실패 시 다시 대기열에 넣는다 (SADD는 멱등), 대기열이 가득 차 있으면 버리고 dropped로 집계
+ */
+@Slf4j
+@Component
+public class ViewIngestionBuffer {
+
+    static final Duration VIEW_TTL = Duration.ofDays(30);
+
+    record View(long userId, long productId) {}
+
+    /** 플러시 한 번에 쓸 내용 — 키별로 묶은 SADD 인자 */
+    record Batch(Map<Long, Set<Long>> productsByUser, Map<Long, Set<Long>> usersByProduct) {
+
+        static Batch of(Iterable<View> views) {
+            Map<Long, Set<Long>> productsByUser = new LinkedHashMap<>();
+            Map<Long, Set<Long>> usersByProduct = new LinkedHashMap<>();
+            for (View view : views) {
+                productsByUser.computeIfAbsent(view.userId(), id -> new LinkedHashSet<>()).add(view.productId());
+                usersByProduct.computeIfAbsent(view.productId(), id -> new LinkedHashSet<>()).add(view.userId());
+            }
+            return new Batch(productsByUser, usersByProduct);
+        }
+
+        /** 키당 SADD + EXPIRE, dirty SADD 1회 */
+        int commands() {
+            return 2 * (productsByUser.size() + usersByProduct.size()) + 1;
+        }
+    }
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CoViewSimilarity coViewSimilarity;
+    private final int batchSize;
+    private final int maxPending;
+    private final Duration flushInterval;
+
+    /** 조회 → 처음 기록된 시각(nanoTime) */
+    private final ConcurrentHashMap<View, Long> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    /** 직전 플러시 실패 여부 — 다음 플러시가 성공할 때까지 호출 스레드는 직접 비우지 않는다 */
+    private volatile boolean flushFailing;
+    private ScheduledExecutorService scheduler;
+
+    private final Counter recorded;
+    private final Counter deduplicated;
+    private final Counter flushed;
+    private final Counter dropped;
+    private final Counter commands;
+
+    public ViewIngestionBuffer(RedisTemplate<String, Object> redisTemplate,
+                               CoViewSimilarity coViewSimilarity,
+                               MeterRegistry registry,
+                               @Value("${product.recommendation.views.batch-size:2000}") int batchSize,
+                               @Value("${product.recommendation.views.max-pending:50000}") int maxPending,
+                               @Value("${product.recommendation.views.flush-interval:500ms}") Duration flushInterval) {
+        if (batchSize <= 0 || maxPending < batchSize) {
+            throw new IllegalArgumentException(
+                    "view buffer batch-size must be positive and <= max-pending: " + batchSize + "/" + maxPending);
+        }
+        this.redisTemplate = redisTemplate;
+        this.coViewSimilarity = coViewSimilarity;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.flushInterval = flushInterval;
+
+        this.recorded = Counter.builder("recommendation.views.recorded.total")
+                .description("Product views submitted to the ingestion buffer")
+                .register(registry);
+        this.deduplicated = Counter.builder("recommendation.views.deduplicated.total")
+                .description("Views merged into an already pending (user, product) pair")
+                .register(registry);
+        this.flushed = Counter.builder("recommendation.views.flushed.total")
+                .description("Distinct (user, product) views written to Redis")
+                .register(registry);
+        this.dropped = Counter.builder("recommendation.views.dropped.total")
+                .description("Views discarded because the buffer was full and could not be flushed")
+                .register(registry);
+        this.commands = Counter.builder("recommendation.views.redis.commands.total")
+                .description("Redis commands issued by view buffer flushes")
+                .register(registry);
+        Gauge.builder("recommendation.views.pending", pending, Map::size)
+                .description("Views waiting to be written to Redis")
+                .register(registry);
+        Gauge.builder("recommendation.views.oldest.pending.age", this, ViewIngestionBuffer::oldestPendingSeconds)
+                .description("Age in seconds of the oldest view not yet written")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "view-ingestion-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(1, flushInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        flushQuietly();
+        if (!pending.isEmpty()) {
+            log.warn("종료 시 조회 기록 미반영: {}건", pending.size());
+        }
+    }
+
+    public void record(Long userId, Long productId) {
+        recorded.increment();
+        View view = new View(userId, productId);
+        if (pending.containsKey(view)) {
+            deduplicated.increment();
+            return;
+        }
+        // 넣기 전에 자리 확인 — 동시 호출 몇 건만큼만 넘칠 수 있다
+        if (pending.size() >= maxPending && !flushForRoom()) {
+            dropped.increment();
+            return;
+        }
+        if (pending.putIfAbsent(view, System.nanoTime()) != null) {
+            deduplicated.increment();
+            return;
+        }
+
+        if (pending.size() >= batchSize && scheduler != null && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * 역압: 플러셔가 따라오지 못하면 호출 스레드가 직접 비운다
+     *
+     * @return 자리가 났으면 true — 플러시 중인 스레드가 있거나 Redis 장애로 실패 중이면 기다리지 않고 false
+     */
+    private boolean flushForRoom() {
+        if (flushFailing || !flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            flushQuietly();
+        } finally {
+            flushLock.unlock();
+        }
+        return pending.size() < maxPending;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("조회 기록 플러시 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 대기 중인 조회를 batch-size 단위로 모두 반영
+     *
+     * @return 반영을 시도한 (사용자, 상품) 쌍 수
+     */
+    int flush() {
+        flushLock.lock();
+        try {
+            int total = 0;
+            int size;
+            do {
+                size = flushBatch();
+                total += size;
+            } while (size == batchSize);
+            flushFailing = false;
+            return total;
+        } catch (RuntimeException e) {
+            flushFailing = true;
+            throw e;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushBatch() {
+        Map<View, Long> taken = new LinkedHashMap<>();
+        Iterator<Map.Entry<View, Long>> it = pending.entrySet().iterator();
+        while (it.hasNext() && taken.size() < batchSize) {
+            Map.Entry<View, Long> entry = it.next();
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                taken.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (taken.isEmpty()) {
+            return 0;
+        }
+
+        Batch batch = Batch.of(taken.keySet());
+        try {
+            write(batch);
+            flushed.increment(taken.size());
+            commands.increment(batch.commands());
+        } catch (RuntimeException e) {
+            log.warn("조회 기록 반영 실패, 재시도 대기: size={}, error={}", taken.size(), e.getMessage());
+            requeue(taken);
+            throw e;
+        }
+        return taken.size();
+    }
+
+    private void write(Batch batch) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                batch.productsByUser().forEach((userId, productIds) ->
+                        add(ops, RecommendationEngine.USER_VIEWS_KEY + userId, productIds));
+                batch.usersByProduct().forEach((productId, userIds) ->
+                        add(ops, RecommendationEngine.PRODUCT_VIEWS_KEY + productId, userIds));
+                return null;
+            }
+        });
+        coViewSimilarity.markDirty(batch.usersByProduct().keySet());
+    }
+
+    private static void add(RedisOperations<String, Object> ops, String key, Set<Long> members) {
+        ops.opsForSet().add(key, members.toArray());
+        ops.expire(key, VIEW_TTL);
+    }
+
+    private void requeue(Map<View, Long> taken) {
+        int lost = 0;
+        for (Map.Entry<View, Long> entry : taken.entrySet()) {
+            if (pending.size() >= maxPending) {
+                lost++;
+            } else {
+                // 그 사이 같은 조회가 다시 들어왔다면 그 항목이 대신 반영된다
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        if (lost > 0) {
+            dropped.increment(lost);
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private double oldestPendingSeconds() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (Long recordedAt : pending.values()) {
+            oldest = Math.min(oldest, recordedAt);
+        }
+        return (now - oldest) / 1e9;
+    }
+}
@@ -0,0 +1,41 @@
+package com.livemart.product.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 목록 조회 시 읽을 컬럼 — 이름은 Product / Category 엔티티 속성 이름
+ *
+ * id는 항상 포함한다. categoryFields가 비어 있으면 categories를 조인하지 않는다.
+ */
+public record ProductProjection(Set<String> fields, Set<String> categoryFields) {
+
+    static final Set<String> PRODUCT_COLUMNS = Set.of(
+            "id", "name", "description", "price", "stockQuantity", "status", "imageUrl", "sellerId", "createdAt", "updatedAt");
+    static final Set<String> CATEGORY_COLUMNS = Set.of("id", "name", "description");
+
+    public ProductProjection {
+        if (!PRODUCT_COLUMNS.containsAll(fields) || !CATEGORY_COLUMNS.containsAll(categoryFields)) {
+            throw new IllegalArgumentException("Not a projectable column: " + fields + " / category " + categoryFields);
+        }
+        fields = withId(fields);
+        // 조인했는데 카테고리가 없는 행(null)을 구분하려고 카테고리 id도 함께 읽는다
+        categoryFields = categoryFields.isEmpty() ? Set.of() : withId(categoryFields);
+    }
+
+    public static boolean isColumn(String field) {
+        return PRODUCT_COLUMNS.contains(field);
+    }
+
+    public static boolean isCategoryColumn(String field) {
+        return CATEGORY_COLUMNS.contains(field);
+    }
+
+    private static Set<String> withId(Set<String> columns) {
+        Set<String> result = new LinkedHashSet<>();
+        result.add("id");
+        result.addAll(columns);
+        return Collections.unmodifiableSet(result);
+    }
+}
@@ -0,0 +1,125 @@
+package com.livemart.product.repository;
+
+import com.livemart.product.domain.Category;
+import com.livemart.product.domain.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductRepository 목록 조회의 컬럼 projection 버전 — 요청한 컬럼만 SELECT
+ *
+ * 엔티티 대신 필드 이름 → 값 Map을 돌려준다 (category는 중첩 Map, 카테고리가 없으면 null).
+ * description(TEXT)과 categories 조인은 요청했을 때만 읽는다.
+ * 조건은 ProductRepository의 같은 이름 메서드와 같다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductProjectionRepository {
+
+    private static final String CATEGORY_ALIAS_PREFIX = "category_";
+
+    private final EntityManager entityManager;
+
+    public Page<Map<String, Object>> findAll(ProductProjection projection, Pageable pageable) {
+        return findPage(projection, (product, query, cb) -> null, pageable);
+    }
+
+    public Page<Map<String, Object>> findByCategoryId(ProductProjection projection, Long categoryId, Pageable pageable) {
+        return findPage(projection, (product, query, cb) -> cb.equal(product.get("category").get("id"), categoryId), pageable);
+    }
+
+    public Page<Map<String, Object>> findBySellerId(ProductProjection projection, Long sellerId, Pageable pageable) {
+        return findPage(projection, (product, query, cb) -> cb.equal(product.get("sellerId"), sellerId), pageable);
+    }
+
+    public Page<Map<String, Object>> searchByKeyword(ProductProjection projection, String keyword, Pageable pageable) {
+        String pattern = "%" + keyword.toLowerCase() + "%";
+        return findPage(projection, (product, query, cb) -> cb.or(
+                cb.like(cb.lower(product.<String>get("name")), pattern),
+                cb.like(cb.lower(product.<String>get("description")), pattern)), pageable);
+    }
+
+    private Page<Map<String, Object>> findPage(ProductProjection projection, Specification<Product> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+
+        List<Selection<?>> columns = new ArrayList<>();
+        for (String field : projection.fields()) {
+            columns.add(product.get(field).alias(field));
+        }
+        if (!projection.categoryFields().isEmpty()) {
+            Join<Product, Category> category = product.join("category", JoinType.LEFT);
+            for (String field : projection.categoryFields()) {
+                columns.add(category.get(field).alias(CATEGORY_ALIAS_PREFIX + field));
+            }
+        }
+        query.multiselect(columns);
+        Predicate where = spec.toPredicate(product, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = typed.getResultList().stream()
+                .map(row -> toMap(projection, row))
+                .toList();
+        // 첫 페이지가 덜 찼거나 마지막 페이지면 count 쿼리 생략
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.count(product));
+        Predicate where = spec.toPredicate(product, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Map<String, Object> toMap(ProductProjection projection, Tuple row) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        for (String field : projection.fields()) {
+            product.put(field, row.get(field));
+        }
+        if (!projection.categoryFields().isEmpty()) {
+            Map<String, Object> category = null;
+            if (row.get(CATEGORY_ALIAS_PREFIX + "id") != null) {
+                category = new LinkedHashMap<>();
+                for (String field : projection.categoryFields()) {
+                    category.put(field, row.get(CATEGORY_ALIAS_PREFIX + field));
+                }
+            }
+            product.put("category", category);
+        }
+        return product;
+    }
+}
@@ -1,19 +1,51 @@
 package com.livemart.product.repository;
 
 import com.livemart.product.domain.Product;
+import com.livemart.product.domain.ProductStatus;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    /** 자동완성 인덱스 빌드용 projection — 엔티티 대신 (id, name)만 읽는다 */
+    interface NameView {
+        Long getId();
+        String getName();
+    }
+
+    /** 카탈로그 인덱스 빌드용 projection — 추천/발주 조회에 필요한 컬럼만 */
+    interface CatalogView {
+        Long getId();
+        Long getCategoryId();
+        BigDecimal getPrice();
+        Integer getStockQuantity();
+        ProductStatus getStatus();
+    }
+
+    /** 주문 재고 일괄 반영 후 이벤트 발행용 projection — 재고와 이벤트에 싣는 컬럼만 */
+    interface StockView {
+        Long getId();
+        String getName();
+        BigDecimal getPrice();
+        Integer getStockQuantity();
+        ProductStatus getStatus();
+        Long getSellerId();
+    }
+
     @Override
     @EntityGraph(attributePaths = {"category"})
     Page<Product> findAll(Pageable pageable);
@@ -35,4 +67,69 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id = :id")
     Optional<Product> findByIdWithCategory(@Param("id") Long id);
+
+    // 검색 재인덱싱용 keyset 스캔 — OFFSET 없이 (afterId, upperId] 구간을 id 순으로 읽는다
+    @EntityGraph(attributePaths = {"category"})
+    List<Product> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long afterId, Long upperId, Limit limit);
+
+    @Query("SELECT MIN(p.id) FROM Product p")
+    Long findMinId();
+
+    @Query("SELECT MAX(p.id) FROM Product p")
+    Long findMaxId();
+
+    // 자동완성 인덱스 빌드용 keyset 스캔
+    List<NameView> findByStatusAndIdGreaterThanOrderByIdAsc(ProductStatus status, Long afterId, Limit limit);
+
+    // 카탈로그 인덱스 빌드용 keyset 스캔
+    @Query("SELECT p.id AS id, c.id AS categoryId, p.price AS price, p.stockQuantity AS stockQuantity, p.status AS status " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.id > :afterId ORDER BY p.id")
+    List<CatalogView> findCatalogAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // 카탈로그 인덱스가 찾은 id만 엔티티로 읽는다
+    @EntityGraph(attributePaths = {"category"})
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    // GraphQL Category.products DataLoader — 카테고리별 상위 limit개 id를 한 번에 (이후 findByIdIn)
+    @Query(value = """
+            SELECT ranked.id FROM (
+                SELECT p.id, ROW_NUMBER() OVER (PARTITION BY p.category_id ORDER BY p.id) AS category_rank
+                FROM products p WHERE p.category_id IN (:categoryIds)
+            ) ranked
+            WHERE ranked.category_rank <= :limit""", nativeQuery = true)
+    List<Long> findTopIdsByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds, @Param("limit") int limit);
+
+    // 주문 재고 차감 — 재고가 수량 이상일 때만 상대값으로 차감 (0건이면 재고 부족 또는 없는 상품)
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int deductStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // 주문 취소 재고 복원 — 상대값으로 증가
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = :now WHERE p.id = :id")
+    int addStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.stockQuantity AS stockQuantity, " +
+            "p.status AS status, p.sellerId AS sellerId FROM Product p WHERE p.id IN :ids")
+    List<StockView> findStockViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 카탈로그 인덱스 빌드 전 자동 발주 대상 조회
+    List<Product> findByStockQuantityLessThanEqual(Integer stockQuantity);
+
+    // 카탈로그 인덱스 빌드 전 콘텐츠 기반 추천 — 같은 카테고리, (minPrice, maxPrice) 가격대에서 가격이 가까운 순
+    @EntityGraph(attributePaths = {"category"})
+    @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.status = :status AND p.id <> :productId " +
+            "AND p.price > :minPrice AND p.price < :maxPrice ORDER BY ABS(p.price - :price), p.id")
+    List<Product> findNearestByPrice(@Param("productId") Long productId,
+                                     @Param("categoryId") Long categoryId,
+                                     @Param("status") ProductStatus status,
+                                     @Param("price") BigDecimal price,
+                                     @Param("minPrice") BigDecimal minPrice,
+                                     @Param("maxPrice") BigDecimal maxPrice,
+                                     Limit limit);
+
+    // 카탈로그 인덱스 빌드 전 인기 상품(재고 많은 순) 추천
+    @EntityGraph(attributePaths = {"category"})
+    List<Product> findByStatusOrderByStockQuantityDescIdAsc(ProductStatus status, Limit limit);
 }
@@ -1,8 +1,15 @@
 package com.livemart.product.search;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.StatsAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.mapping.FieldType;
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
@@ -10,10 +17,12 @@ import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.json.JsonData;
 import com.livemart.product.document.ProductDocument;
 import com.livemart.product.dto.ProductResponse;
+import com.livemart.product.search.suggest.AutocompleteEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,7 +36,15 @@ import java.util.stream.Collectors;
 public class AdvancedSearchService {
 
     private final ElasticsearchClient elasticsearchClient;
+    private final LiveStockStore liveStockStore;
+    private final AutocompleteEngine autocompleteEngine;
+    private final SearchCursorManager searchCursorManager;
+    private final SearchResultCache searchResultCache;
     private static final String INDEX_NAME = "products";
+    private static final String STOCK_FIELD = "stockQuantity";
+    private static final String TIEBREAKER_FIELD = "productId";
+    private static final int STOCK_SORT_WINDOW = 500;
+    private static final int AUTOCOMPLETE_SIZE = 10;
 
     /**
      * Fuzzy Search - 오타 허용 검색
@@ -51,11 +68,7 @@ public class AdvancedSearchService {
 
             SearchResponse<ProductDocument> response = elasticsearchClient.search(request, ProductDocument.class);
 
-            return response.hits().hits().stream()
-                .map(Hit::source)
-                .filter(Objects::nonNull)
-                .map(ProductResponse::from)
-                .collect(Collectors.toList());
+            return liveStockStore.withLiveStock(sources(response));
 
         } catch (Exception e) {
             log.error("Fuzzy search 실패: keyword={}", keyword, e);
@@ -65,164 +78,366 @@ public class AdvancedSearchService {
 
     /**
      * 고급 필터 검색 - 가격, 카테고리, 재고 여부 등
+     *
+     * 앞쪽 offset-pages 페이지는 from/size, 그 이후는 이전 응답의 커서(search_after + PIT)로만 조회한다.
+     * 모든 정렬에 productId 오름차순 tiebreaker를 붙여 같은 값의 문서가 페이지 경계에서 흔들리지 않게 한다.
+     * offset 페이지는 SearchResultCache의 정렬 상위 window에서 잘라 응답한다 (window 밖이면 ES 직접 조회).
+     *
+     * @throws IllegalArgumentException 커서 없이 offset 허용 범위를 넘는 페이지를 요청했거나 커서가 잘못된 경우
      */
-    public List<ProductResponse> advancedSearch(SearchCriteria criteria) {
+    public SearchPage advancedSearch(SearchCriteria criteria) {
+        String sortField = criteria.getSortBy() != null ? criteria.getSortBy() : "_score";
+        SortOrder sortOrder = criteria.getSortOrder() != null ? criteria.getSortOrder() : SortOrder.Desc;
+        int size = criteria.getSize();
+        int fingerprint = SearchCursorManager.fingerprint(criteria, sortField, sortOrder.jsonValue());
+
+        SearchCursorManager.Cursor cursor = criteria.getCursor() != null
+            ? searchCursorManager.decode(criteria.getCursor(), fingerprint)
+            : null;
+        if (cursor == null && !STOCK_FIELD.equals(sortField) && criteria.getPage() >= searchCursorManager.offsetPages()) {
+            throw new IllegalArgumentException(
+                "page " + searchCursorManager.offsetPages() + " 이후는 이전 응답의 cursor로 조회하세요");
+        }
+
         try {
-            List<Query> mustQueries = new ArrayList<>();
-
-            // 키워드 검색 (MultiMatch + Fuzzy)
-            if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank()) {
-                mustQueries.add(Query.of(q -> q
-                    .multiMatch(m -> m
-                        .query(criteria.getKeyword())
-                        .fields("name^3", "description^2")
-                        .type(TextQueryType.BestFields)
-                        .fuzziness("AUTO")
-                    )
-                ));
+            if (STOCK_FIELD.equals(sortField)) {
+                return new SearchPage(
+                    sortByLiveStock(filterQuery(criteria), sortOrder, criteria.getPage() * size, size), null);
             }
 
-            // 가격 범위 필터 (untyped range 사용)
-            if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null) {
-                final double min = criteria.getMinPrice().doubleValue();
-                final double max = criteria.getMaxPrice().doubleValue();
-                mustQueries.add(Query.of(q -> q
-                    .range(r -> r
-                        .untyped(u -> u
-                            .field("price")
-                            .gte(JsonData.of(min))
-                            .lte(JsonData.of(max))
-                        )
-                    )
-                ));
-            } else if (criteria.getMinPrice() != null) {
-                final double min = criteria.getMinPrice().doubleValue();
-                mustQueries.add(Query.of(q -> q
-                    .range(r -> r
-                        .untyped(u -> u
-                            .field("price")
-                            .gte(JsonData.of(min))
-                        )
-                    )
-                ));
-            } else if (criteria.getMaxPrice() != null) {
-                final double max = criteria.getMaxPrice().doubleValue();
-                mustQueries.add(Query.of(q -> q
-                    .range(r -> r
-                        .untyped(u -> u
-                            .field("price")
-                            .lte(JsonData.of(max))
-                        )
-                    )
-                ));
-            }
+            List<SortOptions> sort = sortOptions(sortField, sortOrder);
+            SearchPage page = cursor != null
+                ? searchAfter(filterQuery(criteria), sort, size, cursor, fingerprint)
+                : searchCached(criteria, sortField, sortOrder, sort, fingerprint);
 
-            // 카테고리 필터
-            if (criteria.getCategoryId() != null) {
-                final long catId = criteria.getCategoryId();
-                mustQueries.add(Query.of(q -> q
-                    .term(t -> t
-                        .field("categoryId")
-                        .value(catId)
-                    )
-                ));
+            if (cursor == null && criteria.getPage() == 0 && !page.content().isEmpty()) {
+                autocompleteEngine.recordQuery(criteria.getKeyword());
             }
+            return page;
 
-            // 재고 있는 상품만
-            if (criteria.isInStockOnly()) {
-                mustQueries.add(Query.of(q -> q
-                    .range(r -> r
-                        .untyped(u -> u
-                            .field("stockQuantity")
-                            .gt(JsonData.of(0))
-                        )
-                    )
-                ));
-            }
+        } catch (Exception e) {
+            log.error("고급 검색 실패: criteria={}", criteria, e);
+            return SearchPage.empty();
+        }
+    }
 
-            // ACTIVE 상품만
+    /**
+     * 점수는 키워드(must)로만 매기고 나머지 조건은 filter 문맥에 둔다.
+     * 캐시 window는 가격 구간을 넓혀 조회하므로, 범위 절이 점수에 들어가면 window의 _score와
+     * 정확한 조건의 _score가 달라져 window에서 발급한 커서로 이어 조회할 때 행이 건너뛰거나 겹친다.
+     */
+    private BoolQuery filterQuery(SearchCriteria criteria) {
+        List<Query> mustQueries = new ArrayList<>();
+        List<Query> filterQueries = new ArrayList<>();
+
+        // 키워드 검색 (MultiMatch + Fuzzy)
+        if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank()) {
             mustQueries.add(Query.of(q -> q
+                .multiMatch(m -> m
+                    .query(criteria.getKeyword())
+                    .fields("name^3", "description^2")
+                    .type(TextQueryType.BestFields)
+                    .fuzziness("AUTO")
+                )
+            ));
+        }
+
+        // 가격 범위 필터 (untyped range 사용)
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null) {
+            final double min = criteria.getMinPrice().doubleValue();
+            final double max = criteria.getMaxPrice().doubleValue();
+            filterQueries.add(Query.of(q -> q
+                .range(r -> r
+                    .untyped(u -> u
+                        .field("price")
+                        .gte(JsonData.of(min))
+                        .lte(JsonData.of(max))
+                    )
+                )
+            ));
+        } else if (criteria.getMinPrice() != null) {
+            final double min = criteria.getMinPrice().doubleValue();
+            filterQueries.add(Query.of(q -> q
+                .range(r -> r
+                    .untyped(u -> u
+                        .field("price")
+                        .gte(JsonData.of(min))
+                    )
+                )
+            ));
+        } else if (criteria.getMaxPrice() != null) {
+            final double max = criteria.getMaxPrice().doubleValue();
+            filterQueries.add(Query.of(q -> q
+                .range(r -> r
+                    .untyped(u -> u
+                        .field("price")
+                        .lte(JsonData.of(max))
+                    )
+                )
+            ));
+        }
+
+        // 카테고리 필터
+        if (criteria.getCategoryId() != null) {
+            final long catId = criteria.getCategoryId();
+            filterQueries.add(Query.of(q -> q
                 .term(t -> t
-                    .field("status")
-                    .value("ACTIVE")
+                    .field("categoryId")
+                    .value(catId)
                 )
             ));
+        }
 
-            BoolQuery boolQuery = BoolQuery.of(b -> b.must(mustQueries));
-
-            String sortField = criteria.getSortBy() != null ? criteria.getSortBy() : "_score";
-            SortOrder sortOrder = criteria.getSortOrder() != null ? criteria.getSortOrder() : SortOrder.Desc;
-
-            int from = criteria.getPage() * criteria.getSize();
-            int size = criteria.getSize();
-
-            SearchRequest request;
-            if ("_score".equals(sortField)) {
-                // _score 정렬은 score sort 사용
-                request = SearchRequest.of(s -> s
-                    .index(INDEX_NAME)
-                    .query(q -> q.bool(boolQuery))
-                    .from(from)
-                    .size(size)
-                    .sort(so -> so.score(sc -> sc.order(sortOrder)))
-                );
-            } else {
-                request = SearchRequest.of(s -> s
-                    .index(INDEX_NAME)
-                    .query(q -> q.bool(boolQuery))
-                    .from(from)
-                    .size(size)
-                    .sort(so -> so.field(f -> f.field(sortField).order(sortOrder)))
-                );
-            }
+        // 재고 있는 상품만 (문서의 inStock은 품절 ↔ 입고 전환 시에만 갱신됨)
+        if (criteria.isInStockOnly()) {
+            filterQueries.add(Query.of(q -> q
+                .term(t -> t
+                    .field("inStock")
+                    .value(true)
+                )
+            ));
+        }
 
-            SearchResponse<ProductDocument> response = elasticsearchClient.search(request, ProductDocument.class);
+        // ACTIVE 상품만
+        filterQueries.add(Query.of(q -> q
+            .term(t -> t
+                .field("status")
+                .value("ACTIVE")
+            )
+        ));
 
-            return response.hits().hits().stream()
-                .map(Hit::source)
-                .filter(Objects::nonNull)
-                .map(ProductResponse::from)
-                .collect(Collectors.toList());
+        return BoolQuery.of(b -> b.must(mustQueries).filter(filterQueries));
+    }
 
-        } catch (Exception e) {
-            log.error("고급 검색 실패: criteria={}", criteria, e);
-            return Collections.emptyList();
+    private static List<SortOptions> sortOptions(String sortField, SortOrder sortOrder) {
+        SortOptions primary = "_score".equals(sortField)
+            ? SortOptions.of(so -> so.score(sc -> sc.order(sortOrder)))
+            : SortOptions.of(so -> so.field(f -> f.field(sortField).order(sortOrder)));
+        // productId가 없는 이전 매핑 인덱스에서도 실패하지 않도록 unmappedType 지정
+        SortOptions tiebreaker = SortOptions.of(so -> so.field(f -> f
+            .field(TIEBREAKER_FIELD)
+            .order(SortOrder.Asc)
+            .unmappedType(FieldType.Long)));
+        return List.of(primary, tiebreaker);
+    }
+
+    private SearchPage searchOffset(BoolQuery boolQuery, List<SortOptions> sort, int page, int size, int fingerprint)
+            throws IOException {
+        SearchRequest request = SearchRequest.of(s -> s
+            .index(INDEX_NAME)
+            .query(q -> q.bool(boolQuery))
+            .from(page * size)
+            .size(size)
+            .sort(sort)
+        );
+        SearchResponse<ProductDocument> response = elasticsearchClient.search(request, ProductDocument.class);
+        return toPage(response, size, null, page + 1, fingerprint);
+    }
+
+    /**
+     * offset 페이지 — 캐시된 정렬 상위 window에서 요청한 가격 범위로 걸러 자른다.
+     * window보다 깊은 페이지이거나 정확한 가격 범위로 거른 결과가 window 안에서 모자라면 ES로 직접 조회
+     */
+    private SearchPage searchCached(SearchCriteria criteria, String sortField, SortOrder sortOrder,
+                                    List<SortOptions> sort, int fingerprint) throws IOException {
+        int page = criteria.getPage();
+        int size = criteria.getSize();
+        int windowSize = searchResultCache.windowSize();
+        if ((page + 1) * size > windowSize) {
+            return searchOffset(filterQuery(criteria), sort, page, size, fingerprint);
+        }
+
+        SearchResultCache.Query query = searchResultCache.query(criteria, sortField, sortOrder.jsonValue());
+        SearchResultCache.Window window = searchResultCache.hits(query, () -> loadWindow(query, sort, windowSize));
+        SearchResultCache.Slice slice = window.slice(criteria.getMinPrice(), criteria.getMaxPrice(), page, size);
+        if (slice == null) {
+            return searchOffset(filterQuery(criteria), sort, page, size, fingerprint);
+        }
+
+        List<ProductResponse> content = liveStockStore.withLiveStock(slice.documents());
+        String nextCursor = slice.lastSortValues() != null
+            ? searchCursorManager.encode(new SearchCursorManager.Cursor(null, slice.lastSortValues(), page + 1, fingerprint))
+            : null;
+        return new SearchPage(content, nextCursor);
+    }
+
+    private SearchResultCache.Window loadWindow(SearchResultCache.Query query, List<SortOptions> sort, int windowSize)
+            throws IOException {
+        BoolQuery boolQuery = filterQuery(query.toCriteria());
+        SearchRequest request = SearchRequest.of(s -> s
+            .index(INDEX_NAME)
+            .query(q -> q.bool(boolQuery))
+            .size(windowSize)
+            .sort(sort)
+            .trackTotalHits(t -> t.enabled(false))
+        );
+        SearchResponse<ProductDocument> response = elasticsearchClient.search(request, ProductDocument.class);
+
+        List<Hit<ProductDocument>> hits = response.hits().hits();
+        List<ProductDocument> documents = new ArrayList<>(hits.size());
+        List<List<Object>> sortValues = new ArrayList<>(hits.size());
+        for (Hit<ProductDocument> hit : hits) {
+            if (hit.source() != null) {
+                documents.add(hit.source());
+                sortValues.add(SearchCursorManager.toRaw(hit.sort()));
+            }
         }
+        return new SearchResultCache.Window(documents, sortValues, hits.size() < windowSize);
     }
 
     /**
-     * Aggregation - 카테고리별 상품 수, 가격 통계
+     * 커서 이후 페이지 — PIT가 없는 커서(offset 페이지에서 발급)면 여기서 PIT를 연다
      */
-    public Map<String, Object> getAggregations() {
+    private SearchPage searchAfter(BoolQuery boolQuery, List<SortOptions> sort, int size,
+                                   SearchCursorManager.Cursor cursor, int fingerprint) throws IOException {
+        List<FieldValue> after = SearchCursorManager.toFieldValues(cursor.sortValues());
+        String pitId = cursor.pitId() != null ? cursor.pitId() : searchCursorManager.open(INDEX_NAME);
+
+        SearchResponse<ProductDocument> response;
         try {
-            SearchRequest request = SearchRequest.of(s -> s
-                .index(INDEX_NAME)
-                .size(0)
-                .aggregations("categories", Aggregation.of(a -> a
-                    .terms(t -> t.field("categoryName"))
-                ))
-                .aggregations("price_stats", Aggregation.of(a -> a
-                    .stats(st -> st.field("price"))
-                ))
-            );
+            response = elasticsearchClient.search(searchAfterRequest(boolQuery, sort, size, after, pitId),
+                ProductDocument.class);
+        } catch (ElasticsearchException e) {
+            if (pitId == null || e.status() != 404) {
+                throw e;
+            }
+            // keep-alive 만료 또는 재인덱싱 후 이전 인덱스 삭제 → 새 PIT로 같은 정렬 위치부터 이어서 조회
+            log.info("검색 PIT 만료, 재생성: error={}", e.getMessage());
+            searchCursorManager.expired(pitId);
+            pitId = searchCursorManager.open(INDEX_NAME);
+            response = elasticsearchClient.search(searchAfterRequest(boolQuery, sort, size, after, pitId),
+                ProductDocument.class);
+        }
+
+        String currentPitId = pitId != null && response.pitId() != null ? response.pitId() : pitId;
+        if (pitId != null) {
+            searchCursorManager.extended(pitId, currentPitId);
+        }
+        return toPage(response, size, currentPitId, cursor.page() + 1, fingerprint);
+    }
+
+    private SearchRequest searchAfterRequest(BoolQuery boolQuery, List<SortOptions> sort, int size,
+                                             List<FieldValue> after, String pitId) {
+        return SearchRequest.of(s -> {
+            s.query(q -> q.bool(boolQuery))
+                .size(size)
+                .sort(sort)
+                .searchAfter(after)
+                .trackTotalHits(t -> t.enabled(false));
+            // PIT 검색은 인덱스를 지정하지 않는다 (PIT가 연 시점의 인덱스 스냅샷을 사용)
+            return pitId != null
+                ? s.pit(p -> p.id(pitId).keepAlive(searchCursorManager.keepAliveTime()))
+                : s.index(INDEX_NAME);
+        });
+    }
 
-            SearchResponse<Void> response = elasticsearchClient.search(request, Void.class);
+    /**
+     * 응답 → 페이지. 결과가 size보다 적으면 마지막 페이지이므로 커서 없이 PIT를 닫는다
+     */
+    private SearchPage toPage(SearchResponse<ProductDocument> response, int size, String pitId,
+                              int nextPage, int fingerprint) {
+        List<Hit<ProductDocument>> hits = response.hits().hits();
+        List<ProductResponse> content = liveStockStore.withLiveStock(sources(response));
+        if (hits.size() < size || hits.isEmpty()) {
+            searchCursorManager.close(pitId);
+            return new SearchPage(content, null);
+        }
+        List<Object> lastSort = SearchCursorManager.toRaw(hits.get(hits.size() - 1).sort());
+        return new SearchPage(content,
+            searchCursorManager.encode(new SearchCursorManager.Cursor(pitId, lastSort, nextPage, fingerprint)));
+    }
 
-            Map<String, Object> result = new HashMap<>();
-            response.aggregations().forEach((key, value) -> result.put(key, value._get()));
+    /**
+     * 재고 수량 정렬 — 수량은 ES에 없으므로 관련도 상위 STOCK_SORT_WINDOW건을 가져와 실시간 재고로 정렬 후 페이지를 자른다.
+     * 윈도우 밖 상품은 정렬 대상에서 빠지므로 깊은 페이지는 빈 결과가 될 수 있다.
+     */
+    private List<ProductResponse> sortByLiveStock(BoolQuery boolQuery, SortOrder sortOrder, int from, int size)
+            throws IOException {
+        if (from >= STOCK_SORT_WINDOW) {
+            return Collections.emptyList();
+        }
+        SearchRequest request = SearchRequest.of(s -> s
+            .index(INDEX_NAME)
+            .query(q -> q.bool(boolQuery))
+            .size(STOCK_SORT_WINDOW)
+        );
+        SearchResponse<ProductDocument> response = elasticsearchClient.search(request, ProductDocument.class);
+
+        Comparator<ProductResponse> byStock = Comparator.comparing(
+            ProductResponse::getStockQuantity, Comparator.nullsFirst(Comparator.naturalOrder()));
+        return liveStockStore.withLiveStock(sources(response)).stream()
+            .sorted(sortOrder == SortOrder.Asc ? byStock : byStock.reversed())
+            .skip(from)
+            .limit(size)
+            .collect(Collectors.toList());
+    }
 
-            return result;
+    private static List<ProductDocument> sources(SearchResponse<ProductDocument> response) {
+        return response.hits().hits().stream()
+            .map(Hit::source)
+            .filter(Objects::nonNull)
+            .toList();
+    }
 
+    /**
+     * Aggregation - 카테고리별 상품 수, 가격 통계
+     * 캐시(facets-ttl)에 둘 수 있도록 집계 결과를 일반 Map/List로 바꿔 돌려준다
+     */
+    public Map<String, Object> getAggregations() {
+        try {
+            return searchResultCache.facets(this::loadAggregations);
         } catch (Exception e) {
             log.error("Aggregation 실패", e);
             return Collections.emptyMap();
         }
     }
 
+    private Map<String, Object> loadAggregations() throws IOException {
+        SearchRequest request = SearchRequest.of(s -> s
+            .index(INDEX_NAME)
+            .size(0)
+            .aggregations("categories", Aggregation.of(a -> a
+                .terms(t -> t.field("categoryName"))
+            ))
+            .aggregations("price_stats", Aggregation.of(a -> a
+                .stats(st -> st.field("price"))
+            ))
+        );
+
+        SearchResponse<Void> response = elasticsearchClient.search(request, Void.class);
+
+        Map<String, Object> result = new HashMap<>();
+        Aggregate categories = response.aggregations().get("categories");
+        if (categories != null && categories.isSterms()) {
+            List<Map<String, Object>> buckets = new ArrayList<>();
+            for (StringTermsBucket bucket : categories.sterms().buckets().array()) {
+                buckets.add(Map.of("key", bucket.key().stringValue(), "count", bucket.docCount()));
+            }
+            result.put("categories", buckets);
+        }
+        Aggregate priceStats = response.aggregations().get("price_stats");
+        if (priceStats != null && priceStats.isStats()) {
+            StatsAggregate stats = priceStats.stats();
+            Map<String, Object> values = new HashMap<>();
+            values.put("count", stats.count());
+            values.put("min", stats.min());
+            values.put("max", stats.max());
+            values.put("avg", stats.avg());
+            values.put("sum", stats.sum());
+            result.put("price_stats", values);
+        }
+        return result;
+    }
+
     /**
      * Autocomplete - 검색어 자동완성 (prefix 기반)
+     * 메모리 인덱스(AutocompleteEngine) 우선 — 상품명 + 인기 검색어, 한글 자모/초성 접두어 지원
      */
     public List<String> autocomplete(String prefix) {
+        if (autocompleteEngine.isReady()) {
+            return autocompleteEngine.suggest(prefix, AUTOCOMPLETE_SIZE);
+        }
+        // 기동 직후 첫 메모리 인덱스 빌드 전에만 ES prefix 쿼리
         try {
             Query prefixQuery = Query.of(q -> q
                 .prefix(p -> p
@@ -234,7 +449,7 @@ public class AdvancedSearchService {
             SearchRequest request = SearchRequest.of(s -> s
                 .index(INDEX_NAME)
                 .query(prefixQuery)
-                .size(10)
+                .size(AUTOCOMPLETE_SIZE)
                 .source(so -> so
                     .filter(f -> f
                         .includes("name")
@@ -283,11 +498,7 @@ public class AdvancedSearchService {
 
             SearchResponse<ProductDocument> response = elasticsearchClient.search(request, ProductDocument.class);
 
-            return response.hits().hits().stream()
-                .map(Hit::source)
-                .filter(Objects::nonNull)
-                .map(ProductResponse::from)
-                .collect(Collectors.toList());
+            return liveStockStore.withLiveStock(sources(response));
 
         } catch (Exception e) {
             log.error("유사 상품 검색 실패: productId={}", productId, e);
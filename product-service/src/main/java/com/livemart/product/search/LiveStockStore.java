@@ -0,0 +1,144 @@
+package com.livemart.product.search;
+
+import com.livemart.product.document.ProductDocument;
+import com.livemart.product.domain.Product;
+import com.livemart.product.dto.ProductResponse;
+import com.livemart.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 결과용 실시간 재고 저장소 (Redis)
+ *
+ * 플래시 세일 중 재고는 상품당 초당 수백 번 바뀌는데, 그때마다 ES 문서를 다시 쓰면
+ * 세그먼트 churn과 refresh 부하가 커진다. 그래서 ES 문서에는 재고 유무(inStock)만 두고
+ * 수량은 product:stock:{id} 키에 보관했다가 검색 결과를 돌려줄 때 MGET 1회로 합친다.
+ *
+ * - 쓰기: ProductService 재고 변경 커밋 후 SET (TTL 부여)
+ * - 읽기: MGET → 없는 키는 DB에서 읽어 다시 채움
+ * - TTL: ProductService를 거치지 않는 재고 변경 경로(gRPC, 보충 발주 등)의 최대 지연 상한
+ * - Redis 장애 시 DB 조회로 대체 — 검색 자체는 실패시키지 않는다
+ */
+@Slf4j
+@Component
+public class LiveStockStore {
+
+    static final String KEY_PREFIX = "product:stock:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepository productRepository;
+    private final Duration ttl;
+
+    public LiveStockStore(StringRedisTemplate redisTemplate,
+                          ProductRepository productRepository,
+                          @Value("${product.search.live-stock.ttl:30s}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.productRepository = productRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * 재고 반영 (트랜잭션 중이면 커밋 후)
+     */
+    public void put(Long productId, int stockQuantity) {
+        putAll(Map.of(productId, stockQuantity));
+    }
+
+    /**
+     * 여러 상품 재고를 파이프라인 1회로 반영 (트랜잭션 중이면 커밋 후)
+     */
+    public void putAll(Map<Long, Integer> stocks) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(stocks);
+                }
+            });
+        } else {
+            write(stocks);
+        }
+    }
+
+    /**
+     * 상품별 현재 재고 — Redis에 없거나 Redis 장애 시 DB 값 (DB에도 없는 상품은 결과에서 빠짐)
+     */
+    public Map<Long, Integer> get(Collection<Long> productIds) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stocks;
+        }
+        List<Long> ids = List.copyOf(productIds);
+        List<Long> misses = new ArrayList<>();
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(ids.stream().map(LiveStockStore::key).toList());
+            for (int i = 0; i < ids.size(); i++) {
+                String value = values != null ? values.get(i) : null;
+                if (value != null) {
+                    stocks.put(ids.get(i), Integer.parseInt(value));
+                } else {
+                    misses.add(ids.get(i));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("실시간 재고 조회 실패, DB 사용: size={}, error={}", ids.size(), e.getMessage());
+            misses = ids;
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, Integer> loaded = new HashMap<>();
+            for (Product product : productRepository.findAllById(misses)) {
+                loaded.put(product.getId(), product.getStockQuantity());
+            }
+            stocks.putAll(loaded);
+            write(loaded);
+        }
+        return stocks;
+    }
+
+    /**
+     * ES 문서 목록에 실시간 재고를 합쳐 응답으로 변환
+     */
+    public List<ProductResponse> withLiveStock(List<ProductDocument> documents) {
+        Map<Long, Integer> stocks = get(documents.stream().map(doc -> Long.valueOf(doc.getId())).toList());
+        return documents.stream()
+                .map(doc -> ProductResponse.from(doc, stocks.get(Long.valueOf(doc.getId()))))
+                .toList();
+    }
+
+    private void write(Map<Long, Integer> stocks) {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        try {
+            long seconds = Math.max(1, ttl.toSeconds());
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                stocks.forEach((id, stock) -> connection.stringCommands().setEx(
+                        key(id).getBytes(StandardCharsets.UTF_8),
+                        seconds,
+                        String.valueOf(stock).getBytes(StandardCharsets.UTF_8)));
+                return null;
+            });
+        } catch (Exception e) {
+            // 다음 조회 시 DB에서 다시 채워지므로 실패해도 진행
+            log.warn("실시간 재고 저장 실패: size={}, error={}", stocks.size(), e.getMessage());
+        }
+    }
+
+    private static String key(Long productId) {
+        return KEY_PREFIX + productId;
+    }
+}
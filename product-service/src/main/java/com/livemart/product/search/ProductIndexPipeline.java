@@ -0,0 +1,464 @@
+package com.livemart.product.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.livemart.product.document.ProductDocument;
+import com.livemart.product.domain.Product;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 상품 검색 인덱스 비동기 반영 파이프라인
+ *
+ * 트랜잭션 안에서 ES에 바로 쓰면 ES 지연이 그대로 쓰기 API 지연이 되고,
+ * 플래시 세일 중에는 재고 1틱마다 인덱스 요청이 1건씩 나간다. 대신
+ *
+ * 1. 커밋 이후(afterCommit) 상품 ID만 대기열에 넣는다 — 롤백된 변경은 인덱싱되지 않음
+ * 2. 대기열은 상품 ID 단위 맵 → 플러시 전까지 같은 상품의 변경은 1건으로 합쳐진다
+ * 3. flush-interval 주기 또는 batch-size 도달 시 DB의 최신 상태를 읽어 Bulk API 1회로 반영
+ * 4. 대기 상품 수가 max-pending에 도달하면 호출 스레드가 직접 플러시 (caller-runs 역압)
+ * 5. 실패 항목은 지수 백오프로 재시도, max-attempts 초과 또는 재시도 불가(4xx) 시 product-index.DLT로 발행
+ * 6. 재인덱싱 중에는 빌드 중인 새 인덱스에도 같은 변경을 기록 (ProductReindexer 참고)
+ *
+ * 메트릭:
+ *   products.index.lag                 : 커밋 → ES 반영까지 지연 (합쳐진 경우 첫 변경 기준)
+ *   products.index.oldest.pending.age  : 아직 반영되지 않은 가장 오래된 변경의 경과 시간(초)
+ *   products.index.pending             : 대기 상품 수
+ *   products.index.bulk.size           : Bulk 요청당 문서 수
+ *   products.index.coalesced.total / retries.total / dead.letter.total
+ */
+@Slf4j
+@Component
+public class ProductIndexPipeline {
+
+    static final String INDEX_NAME = "products";
+    static final String DEAD_LETTER_TOPIC = "product-index.DLT";
+
+    enum Operation { UPSERT, DELETE }
+
+    /**
+     * @param firstChangedNanos 아직 반영되지 않은 첫 변경 시각 — 합쳐져도 유지하여 지연을 과소 집계하지 않음
+     * @param notBeforeNanos    재시도 대기 중이면 이 시각 이전에는 플러시 대상에서 제외
+     */
+    record Pending(Operation operation, long firstChangedNanos, int attempts, long notBeforeNanos) {}
+
+    private final ProductRepository productRepository;
+    private final ElasticsearchClient elasticsearchClient;
+    private final KafkaTemplate<String, Object> dlqKafkaTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    private final int maxAttempts;
+    private final Duration flushInterval;
+    private final Duration retryBackoff;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+    private volatile String shadowIndex;
+    private final Set<Long> shadowTouched = ConcurrentHashMap.newKeySet();
+
+    private final Timer lagTimer;
+    private final DistributionSummary bulkSize;
+    private final Counter coalesced;
+    private final Counter retries;
+    private final Counter deadLettered;
+
+    @Autowired
+    public ProductIndexPipeline(ProductRepository productRepository,
+                                ElasticsearchClient elasticsearchClient,
+                                @Qualifier("dlqKafkaTemplate") KafkaTemplate<String, Object> dlqKafkaTemplate,
+                                MeterRegistry registry,
+                                @Value("${product.search.indexing.batch-size:500}") int batchSize,
+                                @Value("${product.search.indexing.max-pending:20000}") int maxPending,
+                                @Value("${product.search.indexing.max-attempts:5}") int maxAttempts,
+                                @Value("${product.search.indexing.flush-interval:250ms}") Duration flushInterval,
+                                @Value("${product.search.indexing.retry-backoff:1s}") Duration retryBackoff) {
+        this(productRepository, elasticsearchClient, dlqKafkaTemplate, registry,
+                batchSize, maxPending, maxAttempts, flushInterval, retryBackoff, System::nanoTime);
+    }
+
+    ProductIndexPipeline(ProductRepository productRepository,
+                         ElasticsearchClient elasticsearchClient,
+                         KafkaTemplate<String, Object> dlqKafkaTemplate,
+                         MeterRegistry registry,
+                         int batchSize, int maxPending, int maxAttempts,
+                         Duration flushInterval, Duration retryBackoff,
+                         LongSupplier nanoClock) {
+        if (batchSize <= 0 || maxPending < batchSize) {
+            throw new IllegalArgumentException(
+                    "indexing batch-size must be positive and <= max-pending: " + batchSize + "/" + maxPending);
+        }
+        this.productRepository = productRepository;
+        this.elasticsearchClient = elasticsearchClient;
+        this.dlqKafkaTemplate = dlqKafkaTemplate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+        this.flushInterval = flushInterval;
+        this.retryBackoff = retryBackoff;
+        this.nanoClock = nanoClock;
+
+        this.lagTimer = Timer.builder("products.index.lag")
+                .description("Time from product commit to the change being accepted by Elasticsearch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.bulkSize = DistributionSummary.builder("products.index.bulk.size")
+                .description("Documents per Elasticsearch bulk request")
+                .register(registry);
+        this.coalesced = Counter.builder("products.index.coalesced.total")
+                .description("Product changes merged into an already pending index operation")
+                .register(registry);
+        this.retries = Counter.builder("products.index.retries.total")
+                .description("Index operations scheduled for retry")
+                .register(registry);
+        this.deadLettered = Counter.builder("products.index.dead.letter.total")
+                .description("Index operations given up on and published to the dead-letter topic")
+                .register(registry);
+        Gauge.builder("products.index.pending", pending, Map::size)
+                .description("Products waiting to be indexed")
+                .register(registry);
+        Gauge.builder("products.index.oldest.pending.age", this, ProductIndexPipeline::oldestPendingSeconds)
+                .description("Age in seconds of the oldest change not yet indexed")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "product-index-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(1, flushInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 종료 시 재시도 대기 중인 항목까지 한 번씩만 반영 시도
+     * (남은 항목은 관리자 재인덱싱 POST /api/products/search/reindex 로 복구)
+     */
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        flushLock.lock();
+        try {
+            int rounds = pending.size() / batchSize + 1;
+            for (int i = 0; i < rounds && flushBatch(true) > 0; i++) {
+                // 재시도로 다시 들어온 항목은 rounds 제한으로 반복하지 않는다
+            }
+        } catch (RuntimeException e) {
+            log.warn("종료 시 검색 인덱스 반영 실패: error={}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+        if (!pending.isEmpty()) {
+            log.warn("종료 시 검색 인덱스 미반영 상품: {}건", pending.size());
+        }
+    }
+
+    /**
+     * 상품 생성/수정 반영 요청 (트랜잭션 중이면 커밋 후 대기열 등록)
+     */
+    public void upsert(Long productId) {
+        submit(productId, Operation.UPSERT);
+    }
+
+    /**
+     * 여러 상품 반영 요청 — 커밋 후 한 번에 대기열 등록 (트랜잭션 중이 아니면 즉시)
+     */
+    public void upsertAll(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(id -> enqueue(id, Operation.UPSERT));
+                }
+            });
+        } else {
+            ids.forEach(id -> enqueue(id, Operation.UPSERT));
+        }
+    }
+
+    /**
+     * 상품 삭제 반영 요청 (트랜잭션 중이면 커밋 후 대기열 등록)
+     */
+    public void delete(Long productId) {
+        submit(productId, Operation.DELETE);
+    }
+
+    private void submit(Long productId, Operation operation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(productId, operation);
+                }
+            });
+        } else {
+            enqueue(productId, operation);
+        }
+    }
+
+    void enqueue(Long productId, Operation operation) {
+        boolean[] merged = {false};
+        pending.merge(productId, new Pending(operation, nanoClock.getAsLong(), 0, 0), (current, next) -> {
+            merged[0] = true;
+            return new Pending(next.operation(), current.firstChangedNanos(), 0, 0);
+        });
+        if (merged[0]) {
+            coalesced.increment();
+        }
+
+        int size = pending.size();
+        if (size >= maxPending) {
+            // 역압: 플러셔가 따라오지 못하면 호출 스레드가 직접 한 배치를 비운다
+            flushQuietly();
+        } else if (size >= batchSize && scheduler != null && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("검색 인덱스 플러시 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 재시도 대기 중이 아닌 항목을 batch-size 단위로 모두 반영
+     *
+     * @return 반영을 시도한 항목 수
+     */
+    int drain() {
+        flushLock.lock();
+        try {
+            int total = 0;
+            int flushed;
+            do {
+                flushed = flushBatch(false);
+                total += flushed;
+            } while (flushed == batchSize);
+            return total;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @param ignoreBackoff true면 재시도 대기 중인 항목도 포함 (종료 시)
+     */
+    private int flushBatch(boolean ignoreBackoff) {
+        long now = nanoClock.getAsLong();
+        Map<Long, Pending> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<Long, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext() && batch.size() < batchSize) {
+            Map.Entry<Long, Pending> entry = it.next();
+            Pending value = entry.getValue();
+            if (!ignoreBackoff && value.notBeforeNanos() > now) {
+                continue;
+            }
+            // 조회 이후 새 변경이 들어왔다면 제거하지 않고 다음 플러시에서 최신 값으로 처리
+            if (pending.remove(entry.getKey(), value)) {
+                batch.put(entry.getKey(), value);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<BulkOperation> operations = toOperations(batch);
+        try {
+            BulkResponse response = elasticsearchClient.bulk(BulkRequest.of(b -> b.operations(operations)));
+            handleResponse(batch, response);
+        } catch (Exception e) {
+            log.warn("검색 인덱스 Bulk 요청 실패: size={}, error={}", batch.size(), e.getMessage());
+            batch.forEach((id, value) -> retryOrDeadLetter(id, value, e.getMessage()));
+        }
+        bulkSize.record(batch.size());
+        return batch.size();
+    }
+
+    /**
+     * 대기열에는 ID만 있으므로 플러시 시점의 DB 상태로 문서를 만든다 — 합쳐진 변경 중 마지막 커밋이 반영됨
+     */
+    private List<BulkOperation> toOperations(Map<Long, Pending> batch) {
+        List<Long> upsertIds = batch.entrySet().stream()
+                .filter(e -> e.getValue().operation() == Operation.UPSERT)
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<Long, Product> products = new HashMap<>();
+        if (!upsertIds.isEmpty()) {
+            productRepository.findAllById(upsertIds).forEach(p -> products.put(p.getId(), p));
+        }
+
+        String shadow = shadowIndex;
+        List<String> targets = shadow != null ? List.of(INDEX_NAME, shadow) : List.of(INDEX_NAME);
+        List<BulkOperation> operations = new ArrayList<>(batch.size() * targets.size());
+        batch.forEach((id, value) -> {
+            Product product = products.get(id);
+            ProductDocument document = value.operation() == Operation.UPSERT && product != null
+                    ? ProductDocument.from(product)
+                    : null;
+            for (String index : targets) {
+                if (document != null) {
+                    operations.add(BulkOperation.of(op -> op.index(i -> i
+                            .index(index)
+                            .id(document.getId())
+                            .document(document))));
+                } else {
+                    // 삭제 요청이거나 커밋 이후 이미 삭제된 상품
+                    operations.add(BulkOperation.of(op -> op.delete(d -> d
+                            .index(index)
+                            .id(String.valueOf(id)))));
+                }
+            }
+            if (shadow != null) {
+                shadowTouched.add(id);
+            }
+        });
+        return operations;
+    }
+
+    /**
+     * 재인덱싱 중 새 인덱스에도 같은 변경을 기록하고, 건드린 상품 ID를 모아 둔다 (ProductReindexer 전용)
+     */
+    void startShadow(String index) {
+        shadowTouched.clear();
+        shadowIndex = index;
+    }
+
+    /**
+     * startShadow 이후 반영된 상품 ID — 재인덱싱 워커가 이보다 오래된 스냅샷을 덮어썼을 수 있는 대상
+     */
+    Set<Long> shadowTouched() {
+        return Set.copyOf(shadowTouched);
+    }
+
+    void stopShadow() {
+        shadowIndex = null;
+        shadowTouched.clear();
+    }
+
+    private void handleResponse(Map<Long, Pending> batch, BulkResponse response) {
+        long now = nanoClock.getAsLong();
+        Map<String, BulkResponseItem> failures = new HashMap<>();
+        if (response.errors()) {
+            for (BulkResponseItem item : response.items()) {
+                // 이미 없는 문서 삭제(404)는 목표 상태와 같으므로 성공으로 본다
+                if (item.error() != null && item.status() != 404) {
+                    failures.put(item.id(), item);
+                }
+            }
+        }
+
+        batch.forEach((id, value) -> {
+            BulkResponseItem failure = failures.get(String.valueOf(id));
+            if (failure == null) {
+                lagTimer.record(now - value.firstChangedNanos(), TimeUnit.NANOSECONDS);
+            } else if (isRetryable(failure.status())) {
+                retryOrDeadLetter(id, value, failure.error().reason());
+            } else {
+                deadLetter(id, value, failure.error().reason());
+            }
+        });
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    private void retryOrDeadLetter(Long productId, Pending value, String reason) {
+        int attempts = value.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            deadLetter(productId, value, reason);
+            return;
+        }
+        long backoff = retryBackoff.toNanos() << Math.min(attempts - 1, 10);
+        Pending retry = new Pending(value.operation(), value.firstChangedNanos(), attempts,
+                nanoClock.getAsLong() + backoff);
+        // 실패한 사이 새 변경이 들어왔다면 그쪽이 최신이므로 재시도 항목을 덮어쓰지 않는다
+        if (pending.putIfAbsent(productId, retry) == null) {
+            retries.increment();
+        }
+    }
+
+    private void deadLetter(Long productId, Pending value, String reason) {
+        deadLettered.increment();
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("productId", productId);
+        record.put("operation", value.operation().name());
+        record.put("attempts", value.attempts() + 1);
+        record.put("reason", reason);
+        record.put("failedAt", Instant.now().toString());
+        try {
+            dlqKafkaTemplate.send(DEAD_LETTER_TOPIC, String.valueOf(productId), record);
+        } catch (Exception e) {
+            log.error("검색 인덱스 DLT 발행 실패: productId={}, error={}", productId, e.getMessage());
+        }
+        log.error("검색 인덱스 반영 포기: productId={}, operation={}, reason={}",
+                productId, value.operation(), reason);
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private double oldestPendingSeconds() {
+        long now = nanoClock.getAsLong();
+        long oldest = pending.values().stream()
+                .mapToLong(Pending::firstChangedNanos)
+                .min()
+                .orElse(now);
+        return (now - oldest) / 1e9;
+    }
+}
@@ -0,0 +1,318 @@
+package com.livemart.product.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.livemart.product.document.ProductDocument;
+import com.livemart.product.domain.Product;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 무중단 상품 검색 인덱스 재구축
+ *
+ * 읽기/쓰기는 모두 alias(products)로 하고, 재구축은 새 버전 인덱스(products_vyyyyMMddHHmmss)에서 진행한다.
+ *
+ * 1. 새 인덱스 생성 — refresh 비활성(-1), replica 0 (대량 적재 중 세그먼트 refresh·복제 비용 제거)
+ * 2. ProductIndexPipeline에 새 인덱스를 shadow로 등록 — 빌드 중 커밋된 변경은 양쪽에 기록
+ * 3. [minId, maxId]를 구간으로 나눠 parallelism개 워커가 keyset 스캔(id > ? AND id <= ? LIMIT n) + Bulk 적재
+ * 4. catch-up: shadow 기간에 변경된 상품을 파이프라인으로 한 번 더 반영
+ *    (워커가 읽은 스냅샷이 그 사이 변경보다 오래됐을 수 있으므로 DB 최신 상태로 덮어씀)
+ * 5. refresh/replica 설정 복원 후 refresh
+ * 6. _aliases 단일 요청으로 alias 전환 (이전 버전 인덱스 또는 레거시 단일 인덱스 제거 포함) → 원자적
+ *
+ * 실패 시 새 인덱스만 삭제하고 alias는 그대로 둔다 — 검색은 이전 인덱스로 계속 동작.
+ */
+@Slf4j
+@Component
+public class ProductReindexer {
+
+    static final String ALIAS = ProductIndexPipeline.INDEX_NAME;
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final int MAX_BULK_ATTEMPTS = 3;
+
+    private final ProductRepository productRepository;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductIndexPipeline indexPipeline;
+    private final Timer reindexTimer;
+    private final int parallelism;
+    private final int batchSize;
+    private final String refreshInterval;
+    private final int replicas;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ProductReindexer(ProductRepository productRepository,
+                            ElasticsearchClient elasticsearchClient,
+                            ElasticsearchOperations elasticsearchOperations,
+                            ProductIndexPipeline indexPipeline,
+                            MeterRegistry registry,
+                            @Value("${product.search.reindex.parallelism:4}") int parallelism,
+                            @Value("${product.search.reindex.batch-size:1000}") int batchSize,
+                            @Value("${product.search.reindex.refresh-interval:1s}") String refreshInterval,
+                            @Value("${product.search.reindex.replicas:1}") int replicas) {
+        this.productRepository = productRepository;
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.indexPipeline = indexPipeline;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.refreshInterval = refreshInterval;
+        this.replicas = replicas;
+        this.reindexTimer = Timer.builder("products.reindex.duration")
+                .description("Full product index rebuild time including catch-up and alias swap")
+                .register(registry);
+    }
+
+    /**
+     * 재인덱싱 결과
+     *
+     * @param caughtUp 빌드 중 변경되어 catch-up 단계에서 다시 반영한 상품 수
+     */
+    public record Result(String index, long documents, int caughtUp, Duration elapsed, double docsPerSecond) {}
+
+    /**
+     * alias가 없을 때만(최초 기동, 레거시 단일 인덱스) 재구축
+     *
+     * @return 재구축했으면 결과, 이미 alias가 있으면 null
+     */
+    public Result reindexIfMissing() throws IOException {
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(ALIAS)).value()) {
+            return null;
+        }
+        return reindex();
+    }
+
+    public Result reindex() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("재인덱싱이 이미 진행 중입니다");
+        }
+        long start = System.nanoTime();
+        String index = ALIAS + "_v" + LocalDateTime.now().format(VERSION_FORMAT);
+        boolean created = false;
+        try {
+            createIndex(index);
+            created = true;
+            indexPipeline.startShadow(index);
+
+            long documents = bulkLoad(index);
+            int caughtUp = catchUp();
+
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(index)
+                    .settings(s -> s
+                            .refreshInterval(t -> t.time(refreshInterval))
+                            .numberOfReplicas(String.valueOf(replicas))));
+            elasticsearchClient.indices().refresh(r -> r.index(index));
+
+            List<String> previous = swapAlias(index);
+            indexPipeline.stopShadow();
+            deleteIndices(previous);
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            reindexTimer.record(elapsed);
+            double docsPerSecond = documents / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+            log.info("상품 재인덱싱 완료: index={}, documents={}, caughtUp={}, elapsed={}ms, docs/sec={}",
+                    index, documents, caughtUp, elapsed.toMillis(), Math.round(docsPerSecond));
+            return new Result(index, documents, caughtUp, elapsed, docsPerSecond);
+        } catch (Exception e) {
+            indexPipeline.stopShadow();
+            log.error("상품 재인덱싱 실패: index={}, error={}", index, e.getMessage());
+            if (created) {
+                deleteIndices(List.of(index));
+            }
+            if (e instanceof IOException io) throw io;
+            if (e instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("상품 재인덱싱 실패", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void createIndex(String index) throws IOException {
+        String mapping = elasticsearchOperations.indexOps(ProductDocument.class).createMapping().toJson();
+        elasticsearchClient.indices().create(c -> c
+                .index(index)
+                .settings(s -> s
+                        .refreshInterval(t -> t.time("-1"))
+                        .numberOfReplicas("0"))
+                .mappings(m -> m.withJson(new StringReader(mapping))));
+    }
+
+    private long bulkLoad(String index) throws Exception {
+        Long minId = productRepository.findMinId();
+        Long maxId = productRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        // 워커 수보다 잘게 나눠 id 분포가 고르지 않아도 먼저 끝난 워커가 다음 구간을 가져가도록 함
+        int ranges = parallelism * 4;
+        long span = Math.max(1, (maxId - minId + 1 + ranges - 1) / ranges);
+        AtomicLong indexed = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "product-reindex-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long lower = minId - 1; lower < maxId; lower += span) {
+                long after = lower;
+                long upper = Math.min(maxId, lower + span);
+                futures.add(workers.submit(() -> {
+                    indexed.addAndGet(loadRange(index, after, upper));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    futures.forEach(f -> f.cancel(true));
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return indexed.get();
+    }
+
+    /**
+     * (afterId, upperId] 구간을 keyset 페이지 단위로 적재
+     */
+    private long loadRange(String index, long afterId, long upperId) throws IOException, InterruptedException {
+        long count = 0;
+        long cursor = afterId;
+        while (true) {
+            List<Product> page = productRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                    cursor, upperId, Limit.of(batchSize));
+            if (page.isEmpty()) {
+                return count;
+            }
+            List<BulkOperation> operations = page.stream()
+                    .map(ProductDocument::from)
+                    .map(doc -> BulkOperation.of(op -> op.index(i -> i
+                            .index(index)
+                            .id(doc.getId())
+                            .document(doc))))
+                    .toList();
+            bulk(operations);
+            count += page.size();
+            cursor = page.get(page.size() - 1).getId();
+            if (page.size() < batchSize) {
+                return count;
+            }
+        }
+    }
+
+    /**
+     * 429(큐 포화)와 I/O 오류만 짧게 재시도하고, 그 외 문서 오류는 재인덱싱 전체를 중단
+     */
+    private void bulk(List<BulkOperation> operations) throws IOException, InterruptedException {
+        List<BulkOperation> remaining = operations;
+        for (int attempt = 1; ; attempt++) {
+            BulkResponse response;
+            try {
+                List<BulkOperation> request = remaining;
+                response = elasticsearchClient.bulk(b -> b.operations(request));
+            } catch (IOException e) {
+                if (attempt >= MAX_BULK_ATTEMPTS) throw e;
+                Thread.sleep(200L * attempt);
+                continue;
+            }
+            if (!response.errors()) {
+                return;
+            }
+
+            List<BulkOperation> retry = new ArrayList<>();
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                if (item.error() == null) continue;
+                if (item.status() != 429) {
+                    throw new IllegalStateException("재인덱싱 문서 오류: id=" + item.id()
+                            + ", reason=" + item.error().reason());
+                }
+                retry.add(remaining.get(i));
+            }
+            if (retry.isEmpty()) return;
+            if (attempt >= MAX_BULK_ATTEMPTS) {
+                throw new IllegalStateException("재인덱싱 Bulk 재시도 초과: " + retry.size() + "건");
+            }
+            remaining = retry;
+            Thread.sleep(200L * attempt);
+        }
+    }
+
+    /**
+     * shadow 기간에 변경된 상품을 파이프라인 대기열에 다시 넣고 동기 플러시
+     * — 파이프라인 플러시는 직렬화되어 있으므로 이후 변경보다 앞서 반영된다
+     */
+    private int catchUp() {
+        Set<Long> touched = indexPipeline.shadowTouched();
+        touched.forEach(id -> indexPipeline.enqueue(id, ProductIndexPipeline.Operation.UPSERT));
+        indexPipeline.drain();
+        return touched.size();
+    }
+
+    /**
+     * @return alias에서 분리된 이전 인덱스 목록
+     */
+    private List<String> swapAlias(String index) throws IOException {
+        List<String> previous = new ArrayList<>();
+        boolean legacyIndex = false;
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(ALIAS)).value()) {
+            previous.addAll(elasticsearchClient.indices().getAlias(g -> g.name(ALIAS)).result().keySet());
+        } else {
+            // alias 도입 이전의 단일 인덱스 products — alias와 이름이 같으므로 같은 요청에서 제거해야 함
+            legacyIndex = elasticsearchClient.indices().exists(e -> e.index(ALIAS)).value();
+        }
+
+        List<Action> actions = new ArrayList<>();
+        actions.add(Action.of(a -> a.add(add -> add.index(index).alias(ALIAS))));
+        for (String old : previous) {
+            actions.add(Action.of(a -> a.remove(r -> r.index(old).alias(ALIAS))));
+        }
+        if (legacyIndex) {
+            actions.add(Action.of(a -> a.removeIndex(r -> r.index(ALIAS))));
+        }
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+
+        log.info("검색 alias 전환: {} -> {} (이전: {}{})", ALIAS, index, previous, legacyIndex ? ", 레거시 인덱스 제거" : "");
+        return previous;
+    }
+
+    private void deleteIndices(List<String> indices) {
+        if (indices.isEmpty()) return;
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(indices));
+        } catch (Exception e) {
+            log.warn("이전 검색 인덱스 삭제 실패 (수동 정리 필요): indices={}, error={}", indices, e.getMessage());
+        }
+    }
+}
@@ -33,4 +33,7 @@ public class SearchCriteria {
 
     @Builder.Default
     private Integer size = 20;
+
+    // 이전 응답의 nextCursor — 있으면 page 대신 커서 위치부터 조회
+    private String cursor;
 }
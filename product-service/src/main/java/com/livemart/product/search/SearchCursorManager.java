@@ -0,0 +1,221 @@
+package com.livemart.product.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Time;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 고급 검색 커서 페이지네이션 (search_after + point-in-time)
+ *
+ * from/size는 깊은 페이지일수록 샤드마다 from+size건을 정렬해야 해서 비용이 선형으로 늘고,
+ * 페이지 사이에 색인/재인덱싱이 일어나면 결과가 밀리거나 겹친다. 그래서
+ *
+ * - 앞쪽 offset-pages 페이지까지는 기존 offset 방식 유지 (대부분의 트래픽, PIT 비용 없음)
+ * - 모든 응답에 다음 페이지 커서를 준다: 마지막 문서의 정렬 값 + PIT ID + 검색 조건 지문
+ * - offset 페이지에서 받은 커서에는 PIT가 없고, 그 커서로 처음 넘어올 때 PIT를 연다
+ * - 요청마다 keep-alive를 연장하고, 마지막 페이지에 도달하면 닫는다 (버려진 PIT는 keep-alive 만료로 정리)
+ * - 인스턴스당 열린 PIT가 max-open-pits 이상이면 PIT 없이 search_after만 사용 (ES 노드당 PIT 수 제한 보호)
+ *
+ * 커서는 base64url(JSON) — 클라이언트는 내용을 해석하지 않고 그대로 돌려준다.
+ */
+@Slf4j
+@Component
+public class SearchCursorManager {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * @param pitId       null이면 아직 PIT를 열지 않은 커서 (offset 페이지에서 발급)
+     * @param sortValues  이전 페이지 마지막 문서의 정렬 값 (search_after)
+     * @param page        다음 페이지 번호
+     * @param fingerprint 검색 조건 지문 — 조건이 바뀐 커서 재사용 거부
+     */
+    record Cursor(String pitId, List<Object> sortValues, int page, int fingerprint) {}
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final Duration keepAlive;
+    private final int offsetPages;
+    private final int maxOpenPits;
+    private final LongSupplier nanoClock;
+
+    /** 이 인스턴스가 연 PIT → keep-alive 만료 시각 */
+    private final Map<String, Long> openPits = new ConcurrentHashMap<>();
+    private final Counter opened;
+    private final Counter expired;
+
+    public SearchCursorManager(ElasticsearchClient elasticsearchClient,
+                               MeterRegistry registry,
+                               @Value("${product.search.cursor.keep-alive:1m}") Duration keepAlive,
+                               @Value("${product.search.cursor.offset-pages:5}") int offsetPages,
+                               @Value("${product.search.cursor.max-open-pits:100}") int maxOpenPits) {
+        this(elasticsearchClient, registry, keepAlive, offsetPages, maxOpenPits, System::nanoTime);
+    }
+
+    SearchCursorManager(ElasticsearchClient elasticsearchClient, MeterRegistry registry,
+                        Duration keepAlive, int offsetPages, int maxOpenPits, LongSupplier nanoClock) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.keepAlive = keepAlive;
+        this.offsetPages = offsetPages;
+        this.maxOpenPits = maxOpenPits;
+        this.nanoClock = nanoClock;
+
+        this.opened = Counter.builder("search.cursor.pit.opened.total")
+                .description("Point-in-time contexts opened for deep pagination")
+                .register(registry);
+        this.expired = Counter.builder("search.cursor.pit.expired.total")
+                .description("Cursor requests whose point-in-time was gone and had to be reopened")
+                .register(registry);
+        Gauge.builder("search.cursor.pit.open", openPits, Map::size)
+                .description("Point-in-time contexts currently kept alive by this instance")
+                .register(registry);
+    }
+
+    /** offset 방식으로 응답하는 최대 페이지 수 (page < offsetPages) */
+    int offsetPages() {
+        return offsetPages;
+    }
+
+    Time keepAliveTime() {
+        return Time.of(t -> t.time(Math.max(1, keepAlive.toSeconds()) + "s"));
+    }
+
+    String encode(Cursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new IllegalStateException("검색 커서 인코딩 실패", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException 손상되었거나 다른 검색 조건에서 발급된 커서
+     */
+    Cursor decode(String token, int fingerprint) {
+        Cursor cursor;
+        try {
+            cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), Cursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 검색 커서입니다");
+        }
+        if (cursor.sortValues() == null || cursor.sortValues().isEmpty()) {
+            throw new IllegalArgumentException("잘못된 검색 커서입니다");
+        }
+        if (cursor.fingerprint() != fingerprint) {
+            throw new IllegalArgumentException("검색 조건이 바뀌었습니다. 첫 페이지부터 다시 조회하세요");
+        }
+        return cursor;
+    }
+
+    /**
+     * 검색 조건 지문 — 인스턴스와 무관하게 같은 값이 나오도록 enum은 이름으로 넣는다
+     */
+    static int fingerprint(SearchCriteria criteria, String sortField, String sortOrder) {
+        return Objects.hash(criteria.getKeyword(), criteria.getCategoryId(), criteria.getMinPrice(),
+                criteria.getMaxPrice(), criteria.isInStockOnly(), sortField, sortOrder);
+    }
+
+    /**
+     * PIT 열기 — 인스턴스 상한에 도달했거나 실패하면 null (PIT 없이 search_after로 진행)
+     */
+    String open(String index) {
+        pruneExpired();
+        if (openPits.size() >= maxOpenPits) {
+            log.debug("열린 PIT 상한 도달, PIT 없이 커서 진행: open={}", openPits.size());
+            return null;
+        }
+        try {
+            String pitId = elasticsearchClient.openPointInTime(o -> o.index(index).keepAlive(keepAliveTime())).id();
+            opened.increment();
+            extended(null, pitId);
+            return pitId;
+        } catch (Exception e) {
+            log.warn("PIT 열기 실패, PIT 없이 커서 진행: error={}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 검색 요청으로 keep-alive가 연장됨 — ES가 새 PIT ID를 돌려줬으면 교체
+     */
+    void extended(String previousId, String currentId) {
+        if (previousId != null && !previousId.equals(currentId)) {
+            openPits.remove(previousId);
+        }
+        if (currentId != null) {
+            openPits.put(currentId, nanoClock.getAsLong() + keepAlive.toNanos());
+        }
+    }
+
+    void expired(String pitId) {
+        openPits.remove(pitId);
+        expired.increment();
+    }
+
+    /**
+     * 마지막 페이지 도달 — 실패해도 keep-alive 만료로 정리되므로 무시
+     */
+    void close(String pitId) {
+        if (pitId == null) {
+            return;
+        }
+        openPits.remove(pitId);
+        try {
+            elasticsearchClient.closePointInTime(c -> c.id(pitId));
+        } catch (Exception e) {
+            log.debug("PIT 닫기 실패 (keep-alive 만료로 정리됨): error={}", e.getMessage());
+        }
+    }
+
+    int openCount() {
+        pruneExpired();
+        return openPits.size();
+    }
+
+    private void pruneExpired() {
+        long now = nanoClock.getAsLong();
+        openPits.entrySet().removeIf(e -> e.getValue() - now <= 0);
+    }
+
+    static List<Object> toRaw(List<FieldValue> values) {
+        List<Object> raw = new ArrayList<>(values.size());
+        for (FieldValue value : values) {
+            raw.add(value.isNull() ? null : value._get());
+        }
+        return raw;
+    }
+
+    static List<FieldValue> toFieldValues(List<Object> raw) {
+        List<FieldValue> values = new ArrayList<>(raw.size());
+        for (Object value : raw) {
+            if (value == null) {
+                values.add(FieldValue.NULL);
+            } else if (value instanceof Integer || value instanceof Long) {
+                values.add(FieldValue.of(((Number) value).longValue()));
+            } else if (value instanceof Number number) {
+                values.add(FieldValue.of(number.doubleValue()));
+            } else if (value instanceof Boolean bool) {
+                values.add(FieldValue.of(bool));
+            } else {
+                values.add(FieldValue.of(String.valueOf(value)));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,18 @@
+package com.livemart.product.search;
+
+import com.livemart.product.dto.ProductResponse;
+
+import java.util.List;
+
+/**
+ * 고급 검색 결과 페이지
+ *
+ * @param content    상품 목록
+ * @param nextCursor 다음 페이지 커서 (마지막 페이지면 null) — 다음 요청의 cursor 파라미터로 그대로 전달
+ */
+public record SearchPage(List<ProductResponse> content, String nextCursor) {
+
+    public static SearchPage empty() {
+        return new SearchPage(List.of(), null);
+    }
+}
@@ -0,0 +1,428 @@
+package com.livemart.product.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.livemart.product.document.ProductDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 고급 검색 결과 / 집계(facet) 캐시 (Redis)
+ *
+ * 카테고리 랜딩, 상위 검색어처럼 같은 조건이 계속 반복되는 검색을 ES까지 보내지 않는다.
+ *
+ * - 키: 정규화한 조건 — 키워드(소문자, 토큰 정렬), 카테고리, 가격 구간(price-bucket 단위로 내림/올림), 재고 필터, 정렬
+ * - 값: 페이지가 아니라 정렬 상위 window건(문서 + 정렬 값). offset 페이지와 page size가 달라도 같은 항목을 쓰고,
+ *   가격 구간을 넓혀 둔 만큼은 요청한 정확한 가격으로 다시 걸러서 잘라낸다 → 결과는 캐시 없이 조회한 것과 같다
+ * - TTL: 결과(hits-ttl)와 집계(facets-ttl) 따로
+ * - 무효화: 항목마다 카테고리 태그(필터 없으면 all)와 포함된 상품 태그를 Redis SET으로 달아 두고,
+ *   상품 이벤트(SearchCacheInvalidationListener)가 오면 태그에 걸린 항목을 지운다.
+ *   ES 반영은 비동기 색인 + refresh 이후이므로 invalidation-delay 뒤에 한 번 더 지운다
+ *   (그 사이 이전 문서로 다시 채워진 항목 제거)
+ * - Redis 장애 시 ES로 바로 조회 — 검색 자체는 실패시키지 않는다
+ *
+ * 재고 수량은 캐시하지 않는다 (응답 직전 LiveStockStore에서 합침).
+ */
+@Slf4j
+@Component
+public class SearchResultCache {
+
+    static final String HITS_PREFIX = "search:cache:hits:";
+    static final String FACETS_KEY = "search:cache:facets";
+    static final String CATEGORY_TAG_PREFIX = "search:cache:tag:category:";
+    static final String PRODUCT_TAG_PREFIX = "search:cache:tag:product:";
+    static final String ALL_CATEGORIES = "all";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * 캐시 항목의 검색 조건 — 가격은 구간 경계로 넓힌 값
+     *
+     * @param keyword           ES에 보낼 사용자 입력 그대로의 키워드
+     * @param normalizedKeyword 키에만 쓰는 정규화 키워드
+     */
+    record Query(String keyword, String normalizedKeyword, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                 boolean inStockOnly, String sortField, String sortOrder) {
+
+        String key() {
+            String canonical = String.join("|", String.valueOf(normalizedKeyword), String.valueOf(categoryId),
+                    plain(minPrice), plain(maxPrice), String.valueOf(inStockOnly), sortField, sortOrder);
+            return HITS_PREFIX + DigestUtils.md5DigestAsHex(canonical.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** 캐시 항목을 채울 때 ES에 보낼 조건 (넓힌 가격 구간 — 검색 쿼리에서 filter 문맥이라 점수에는 영향 없음) */
+        SearchCriteria toCriteria() {
+            return SearchCriteria.builder()
+                    .keyword(keyword)
+                    .categoryId(categoryId)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .inStockOnly(inStockOnly)
+                    .build();
+        }
+
+        private static String plain(BigDecimal value) {
+            return value != null ? value.stripTrailingZeros().toPlainString() : "null";
+        }
+    }
+
+    /**
+     * 정렬 상위 window건
+     *
+     * @param complete 조건에 맞는 문서가 window보다 적었음 (= 전체 결과)
+     */
+    record Window(List<ProductDocument> documents, List<List<Object>> sortValues, boolean complete) {
+
+        /**
+         * 요청한 정확한 가격 범위로 걸러 page를 잘라냄 — window만으로 답할 수 없으면 null
+         */
+        Slice slice(BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+            int from = page * size;
+            int to = from + size;
+            List<Integer> matched = new ArrayList<>(to + 1);
+            for (int i = 0; i < documents.size() && matched.size() <= to; i++) {
+                if (inRange(documents.get(i).getPrice(), minPrice, maxPrice)) {
+                    matched.add(i);
+                }
+            }
+            if (matched.size() < to && !complete) {
+                return null;
+            }
+            List<ProductDocument> content = new ArrayList<>(size);
+            for (int i = from; i < Math.min(to, matched.size()); i++) {
+                content.add(documents.get(matched.get(i)));
+            }
+            boolean hasMore = matched.size() > to || (matched.size() == to && !complete);
+            return new Slice(content, hasMore ? sortValues.get(matched.get(to - 1)) : null);
+        }
+
+        private static boolean inRange(BigDecimal price, BigDecimal min, BigDecimal max) {
+            if (price == null) {
+                return min == null && max == null;
+            }
+            return (min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0);
+        }
+    }
+
+    /** @param lastSortValues 다음 페이지가 있으면 마지막 문서의 정렬 값, 없으면 null */
+    record Slice(List<ProductDocument> documents, List<Object> lastSortValues) {}
+
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    /** 저장 형식 — 적중 시 아낀 ES 시간을 알 수 있도록 채울 때 걸린 시간을 같이 둔다 */
+    record Stored(long loadNanos, JsonNode value) {}
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final Duration hitsTtl;
+    private final Duration facetsTtl;
+    private final int windowSize;
+    private final BigDecimal priceBucket;
+    private final Duration invalidationDelay;
+    private ScheduledExecutorService scheduler;
+
+    private final Counter hitsHit;
+    private final Counter hitsMiss;
+    private final Counter facetsHit;
+    private final Counter facetsMiss;
+    private final Counter savedTime;
+    private final Counter invalidations;
+    private final Timer lookupTimer;
+
+    public SearchResultCache(StringRedisTemplate redisTemplate,
+                             MeterRegistry registry,
+                             @Value("${product.search.cache.enabled:true}") boolean enabled,
+                             @Value("${product.search.cache.hits-ttl:30s}") Duration hitsTtl,
+                             @Value("${product.search.cache.facets-ttl:5m}") Duration facetsTtl,
+                             @Value("${product.search.cache.window:100}") int windowSize,
+                             @Value("${product.search.cache.price-bucket:1000}") BigDecimal priceBucket,
+                             @Value("${product.search.cache.invalidation-delay:2s}") Duration invalidationDelay) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.hitsTtl = hitsTtl;
+        this.facetsTtl = facetsTtl;
+        this.windowSize = windowSize;
+        this.priceBucket = priceBucket;
+        this.invalidationDelay = invalidationDelay;
+
+        this.hitsHit = requests(registry, "hits", "hit");
+        this.hitsMiss = requests(registry, "hits", "miss");
+        this.facetsHit = requests(registry, "facets", "hit");
+        this.facetsMiss = requests(registry, "facets", "miss");
+        Gauge.builder("search.cache.hit.ratio", this, cache -> ratio(cache.hitsHit, cache.hitsMiss))
+                .description("Share of advanced-search requests answered from the result cache")
+                .tag("cache", "hits")
+                .register(registry);
+        Gauge.builder("search.cache.hit.ratio", this, cache -> ratio(cache.facetsHit, cache.facetsMiss))
+                .description("Share of facet requests answered from the result cache")
+                .tag("cache", "facets")
+                .register(registry);
+        this.savedTime = Counter.builder("search.cache.saved.time")
+                .description("Elasticsearch time avoided by cache hits (load time of the entry minus lookup time)")
+                .baseUnit("seconds")
+                .register(registry);
+        this.invalidations = Counter.builder("search.cache.invalidations.total")
+                .description("Cache entries removed by product events")
+                .register(registry);
+        this.lookupTimer = Timer.builder("search.cache.lookup")
+                .description("Redis lookup latency of the search result cache")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "search-cache-invalidator");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /** 캐시하는 정렬 상위 문서 수 — 이보다 깊은 offset 페이지는 ES로 직접 조회 */
+    int windowSize() {
+        return enabled ? windowSize : 0;
+    }
+
+    /**
+     * 검색 조건 정규화 — 같은 결과를 내는 조건은 같은 키가 되도록
+     *
+     * 키워드는 multi_match(best_fields)라 토큰 순서가 점수에 영향이 없어 정렬한다 (중복 토큰은 점수가 달라져 유지).
+     * 대소문자 외에는 바꾸지 않는다 — standard 분석기가 접지 않는 차이(전각 문자 등)까지 묶으면
+     * 먼저 채운 입력의 점수로 다른 입력의 커서를 만들게 된다. ES에는 사용자가 입력한 키워드를 그대로 보낸다.
+     * 가격은 구간 경계로 넓히고, 정확한 범위는 Window.slice에서 다시 거른다.
+     */
+    Query query(SearchCriteria criteria, String sortField, String sortOrder) {
+        return new Query(
+                criteria.getKeyword(),
+                normalizeKeyword(criteria.getKeyword()),
+                criteria.getCategoryId(),
+                bucket(criteria.getMinPrice(), RoundingMode.FLOOR),
+                bucket(criteria.getMaxPrice(), RoundingMode.CEILING),
+                criteria.isInStockOnly(),
+                sortField,
+                sortOrder);
+    }
+
+    Window hits(Query query, Loader<Window> loader) throws IOException {
+        String categoryTag = CATEGORY_TAG_PREFIX + (query.categoryId() != null ? query.categoryId() : ALL_CATEGORIES);
+        return getOrLoad(query.key(), Window.class, hitsTtl, hitsHit, hitsMiss, loader, window -> {
+            List<String> tags = new ArrayList<>(window.documents().size() + 1);
+            tags.add(categoryTag);
+            window.documents().forEach(doc -> tags.add(PRODUCT_TAG_PREFIX + doc.getId()));
+            return tags;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> facets(Loader<Map<String, Object>> loader) throws IOException {
+        Class<Map<String, Object>> type = (Class<Map<String, Object>>) (Class<?>) Map.class;
+        return getOrLoad(FACETS_KEY, type, facetsTtl, facetsHit, facetsMiss, loader, value -> List.of());
+    }
+
+    /**
+     * 상품 변경 반영 — 상품 태그 + 카테고리 태그(+ 카테고리 필터 없는 항목) 무효화, invalidation-delay 뒤 한 번 더
+     *
+     * @param categoryId null이면 상품 태그와 카테고리 필터 없는 항목만
+     * @param facets     집계(카테고리별 수, 가격 통계)도 지울지
+     */
+    public void invalidate(Long productId, Long categoryId, boolean facets) {
+        if (!enabled) {
+            return;
+        }
+        List<String> tags = new ArrayList<>(3);
+        tags.add(PRODUCT_TAG_PREFIX + productId);
+        tags.add(CATEGORY_TAG_PREFIX + ALL_CATEGORIES);
+        if (categoryId != null) {
+            tags.add(CATEGORY_TAG_PREFIX + categoryId);
+        }
+        evictTwice(tags, facets);
+    }
+
+    /**
+     * 품절 전환 — 해당 상품이 들어 있는 항목만 (재고 있는 상품만 필터 결과에서 빠져야 함), invalidation-delay 뒤 한 번 더
+     *
+     * 입고 전환은 상품이 빠져 있던 항목에 상품 태그가 없으므로 invalidate(productId, categoryId, false)로 지운다.
+     */
+    public void invalidateProduct(Long productId) {
+        if (enabled) {
+            evictTwice(List.of(PRODUCT_TAG_PREFIX + productId), false);
+        }
+    }
+
+    // ES 문서의 inStock 등은 색인 + refresh 뒤에 바뀌므로, 그 사이 이전 문서로 다시 채워진 항목까지 지운다
+    private void evictTwice(List<String> tags, boolean facets) {
+        evict(tags, facets);
+        if (scheduler != null && !scheduler.isShutdown()) {
+            scheduler.schedule(() -> evict(tags, facets), invalidationDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private <T> T getOrLoad(String key, Class<T> type, Duration ttl, Counter hit, Counter miss,
+                            Loader<T> loader, Function<T, Collection<String>> tags) throws IOException {
+        if (!enabled) {
+            return loader.load();
+        }
+        long lookupStart = System.nanoTime();
+        Stored stored = read(key);
+        long lookupNanos = System.nanoTime() - lookupStart;
+        lookupTimer.record(lookupNanos, TimeUnit.NANOSECONDS);
+        if (stored != null) {
+            try {
+                T value = MAPPER.treeToValue(stored.value(), type);
+                hit.increment();
+                savedTime.increment(Math.max(0, stored.loadNanos() - lookupNanos) / 1e9);
+                return value;
+            } catch (IOException e) {
+                log.debug("검색 캐시 항목 해석 실패, 다시 조회: key={}, error={}", key, e.getMessage());
+            }
+        }
+
+        miss.increment();
+        long loadStart = System.nanoTime();
+        T value = loader.load();
+        write(key, encode(value, System.nanoTime() - loadStart), ttl, tags.apply(value));
+        return value;
+    }
+
+    private Stored read(String key) {
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            return json != null ? MAPPER.readValue(json, Stored.class) : null;
+        } catch (Exception e) {
+            log.debug("검색 캐시 조회 실패, ES 조회: key={}, error={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 태그를 먼저 달고 값을 쓴다 — 반대 순서면 그 사이 무효화가 태그 없는 항목을 놓친다.
+     * 태그 SET의 TTL은 항목을 달 때마다 항목 TTL로 다시 잡아, 살아 있는 항목보다 먼저 만료되지 않는다.
+     */
+    private void write(String key, String json, Duration ttl, Collection<String> tags) {
+        if (json == null) {
+            return;
+        }
+        try {
+            long seconds = Math.max(1, ttl.toSeconds());
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String tag : tags) {
+                    byte[] tagBytes = tag.getBytes(StandardCharsets.UTF_8);
+                    connection.setCommands().sAdd(tagBytes, keyBytes);
+                    connection.keyCommands().expire(tagBytes, seconds);
+                }
+                connection.stringCommands().setEx(keyBytes, seconds, json.getBytes(StandardCharsets.UTF_8));
+                return null;
+            });
+        } catch (Exception e) {
+            log.debug("검색 캐시 저장 실패: key={}, error={}", key, e.getMessage());
+        }
+    }
+
+    private void evict(Collection<String> tags, boolean facets) {
+        try {
+            Set<String> entries = new HashSet<>();
+            for (String tag : tags) {
+                Set<String> members = redisTemplate.opsForSet().members(tag);
+                if (members != null) {
+                    entries.addAll(members);
+                }
+            }
+            if (facets) {
+                entries.add(FACETS_KEY);
+            }
+            Long removed = entries.isEmpty() ? null : redisTemplate.delete(entries);
+            redisTemplate.delete(tags);
+            if (removed != null) {
+                invalidations.increment(removed);
+            }
+        } catch (Exception e) {
+            // 무효화 실패 시 항목은 TTL 만료까지 남는다
+            log.warn("검색 캐시 무효화 실패: tags={}, error={}", tags, e.getMessage());
+        }
+    }
+
+    static String encode(Object value, long loadNanos) {
+        try {
+            return MAPPER.writeValueAsString(new Stored(loadNanos, MAPPER.valueToTree(value)));
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("검색 캐시 직렬화 실패: error={}", e.getMessage());
+            return null;
+        }
+    }
+
+    static String normalizeKeyword(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        String[] tokens = keyword
+                .toLowerCase(Locale.ROOT)
+                .strip()
+                .split("\\s+");
+        Arrays.sort(tokens);
+        return String.join(" ", tokens);
+    }
+
+    private BigDecimal bucket(BigDecimal price, RoundingMode rounding) {
+        if (price == null) {
+            return null;
+        }
+        if (priceBucket == null || priceBucket.signum() <= 0) {
+            return price.stripTrailingZeros();
+        }
+        BigDecimal bucketed = price.divide(priceBucket, 0, rounding).multiply(priceBucket);
+        // 하한 0 이하는 필터 없음과 같은 결과
+        return rounding == RoundingMode.FLOOR && bucketed.signum() <= 0 ? null : bucketed.stripTrailingZeros();
+    }
+
+    private static Counter requests(MeterRegistry registry, String cache, String result) {
+        return Counter.builder("search.cache.requests")
+                .description("Search result cache lookups")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static double ratio(Counter hit, Counter miss) {
+        double total = hit.count() + miss.count();
+        return total == 0 ? 0 : hit.count() / total;
+    }
+}
@@ -0,0 +1,336 @@
+package com.livemart.product.search.suggest;
+
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * JVM 내 자동완성 엔진
+ *
+ * 키 입력마다 ES prefix 쿼리를 보내는 대신 상품명 + 인기 검색어를 SuggestionIndex로 메모리에 올려 두고
+ * 마이크로초 단위로 응답한다.
+ *
+ * - 전체 빌드: 기동 직후 + rebuild-interval 주기. ACTIVE 상품명을 id keyset으로 읽고,
+ *   Redis ZSET(search:popular-queries)에서 popular-query-min-count회 이상 검색된 상위 검색어를
+ *   검색 횟수 가중치로 함께 넣는다 (한 사람의 오타·임의 문자열이 모두의 추천어가 되지 않도록)
+ * - 검색어 집계: 요청 스레드는 메모리에서만 세고, query-flush-interval마다 파이프라인 ZINCRBY로 합산한 뒤
+ *   ZSET을 상위 popular-query-limit개로 잘라 낸다
+ * - 증분 반영: 상품 이벤트(ProductSuggestionListener) → overlay. 빌드 이후 변경된 상품은
+ *   인덱스 항목을 가리고 overlay 항목으로 대신 답한다. overlay가 overlay-limit을 넘으면 즉시 재빌드
+ * - 빌드가 끝나면 빌드 시작 이전에 들어온 overlay 항목만 지운다 (빌드 중 변경은 유지)
+ * - 첫 빌드 전에는 isReady() == false → 호출 측(AdvancedSearchService)이 ES로 대체
+ */
+@Slf4j
+@Component
+public class AutocompleteEngine {
+
+    static final String POPULAR_QUERIES_KEY = "search:popular-queries";
+    static final int PRODUCT_WEIGHT = 1;
+    private static final int PAGE_SIZE = 5_000;
+    private static final int MAX_QUERY_LENGTH = 50;
+    // 글자, 숫자, 공백과 상품명에 흔한 기호만 — 그 외 문자가 섞인 검색어는 집계하지 않는다
+    private static final Pattern QUERY_CHARACTERS = Pattern.compile("[\\p{L}\\p{N} .+\\-&#/]+");
+
+    /** @param name null이면 삭제/비활성 상품 */
+    record OverlayEntry(String name, String normalized, String initials, long sequence) {}
+
+    private final ProductRepository productRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration rebuildInterval;
+    private final int popularQueryLimit;
+    private final int popularQueryMinCount;
+    private final int overlayLimit;
+    private final Duration queryFlushInterval;
+    private final int maxPendingQueries;
+
+    private volatile SuggestionIndex index = SuggestionIndex.empty();
+    private volatile boolean ready;
+    private final ConcurrentHashMap<Long, OverlayEntry> overlay = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ConcurrentHashMap<String, LongAdder> pendingQueries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final Timer lookupTimer;
+    private final Timer rebuildTimer;
+
+    public AutocompleteEngine(ProductRepository productRepository,
+                              StringRedisTemplate redisTemplate,
+                              MeterRegistry registry,
+                              @Value("${product.search.autocomplete.rebuild-interval:10m}") Duration rebuildInterval,
+                              @Value("${product.search.autocomplete.popular-query-limit:50000}") int popularQueryLimit,
+                              @Value("${product.search.autocomplete.popular-query-min-count:5}") int popularQueryMinCount,
+                              @Value("${product.search.autocomplete.overlay-limit:10000}") int overlayLimit,
+                              @Value("${product.search.autocomplete.query-flush-interval:10s}") Duration queryFlushInterval,
+                              @Value("${product.search.autocomplete.max-pending-queries:10000}") int maxPendingQueries) {
+        this.productRepository = productRepository;
+        this.redisTemplate = redisTemplate;
+        this.rebuildInterval = rebuildInterval;
+        this.popularQueryLimit = popularQueryLimit;
+        this.popularQueryMinCount = popularQueryMinCount;
+        this.overlayLimit = overlayLimit;
+        this.queryFlushInterval = queryFlushInterval;
+        this.maxPendingQueries = maxPendingQueries;
+
+        this.lookupTimer = Timer.builder("search.autocomplete.lookup")
+                .description("In-memory autocomplete lookup latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rebuildTimer = Timer.builder("search.autocomplete.rebuild")
+                .description("Full autocomplete index rebuild duration")
+                .register(registry);
+        Gauge.builder("search.autocomplete.terms", this, engine -> engine.index.termCount())
+                .description("Terms in the autocomplete index")
+                .register(registry);
+        Gauge.builder("search.autocomplete.index.bytes", this, engine -> engine.index.estimatedBytes())
+                .description("Estimated heap used by the autocomplete index")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("search.autocomplete.overlay.size", overlay, Map::size)
+                .description("Product changes applied on top of the last full build")
+                .register(registry);
+        Gauge.builder("search.autocomplete.pending.queries", pendingQueries, Map::size)
+                .description("Distinct search queries counted locally and not yet flushed to Redis")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "autocomplete-rebuilder");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(1, rebuildInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, periodMs, TimeUnit.MILLISECONDS);
+        long flushMs = Math.max(1, queryFlushInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushQueries, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flushQueries();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 접두어 자동완성 (가중치 내림차순, 중복 문구 제거)
+     */
+    public List<String> suggest(String prefix, int limit) {
+        long start = System.nanoTime();
+        try {
+            String normalized = HangulJamo.normalize(prefix);
+            if (normalized.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            // 인기 검색어와 상품명이 같은 문구일 수 있어 여유분을 더 뽑은 뒤 문구 단위로 합친다
+            List<SuggestionIndex.Suggestion> candidates =
+                    new ArrayList<>(index.lookup(normalized, limit * 2, overlay::containsKey));
+            if (!overlay.isEmpty()) {
+                boolean initialsQuery = HangulJamo.isInitialsQuery(normalized);
+                overlay.forEach((productId, entry) -> {
+                    if (entry.name() != null && (startsAtWord(entry.normalized(), normalized)
+                            || (initialsQuery && entry.initials() != null && startsAtWord(entry.initials(), normalized)))) {
+                        candidates.add(new SuggestionIndex.Suggestion(entry.name(), PRODUCT_WEIGHT, productId));
+                    }
+                });
+                candidates.sort(Comparator.comparingInt(SuggestionIndex.Suggestion::weight).reversed());
+            }
+
+            Set<String> texts = new LinkedHashSet<>();
+            for (SuggestionIndex.Suggestion candidate : candidates) {
+                texts.add(candidate.text());
+                if (texts.size() == limit) break;
+            }
+            return List.copyOf(texts);
+        } finally {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 상품 생성/수정/삭제 반영 — 다음 전체 빌드 전까지 overlay로 응답
+     */
+    public void onProductChanged(Long productId, String name, ProductStatus status) {
+        OverlayEntry entry = status == ProductStatus.ACTIVE && name != null && !name.isBlank()
+                ? new OverlayEntry(name.strip(), HangulJamo.normalize(name), HangulJamo.initials(name), sequence.incrementAndGet())
+                : new OverlayEntry(null, null, null, sequence.incrementAndGet());
+        overlay.put(productId, entry);
+        if (overlay.size() > overlayLimit && scheduler != null && !rebuilding.get()) {
+            scheduler.execute(this::rebuildQuietly);
+        }
+    }
+
+    /**
+     * 결과가 있었던 검색어를 인기 검색어로 집계 — 메모리에서만 세고 Redis 반영은 flushQueries
+     * 아직 반영하지 않은 검색어가 max-pending-queries종을 넘으면 새 검색어는 세지 않는다
+     */
+    public void recordQuery(String keyword) {
+        if (keyword == null) {
+            return;
+        }
+        String query = keyword.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (query.length() < 2 || query.length() > MAX_QUERY_LENGTH || !QUERY_CHARACTERS.matcher(query).matches()) {
+            return;
+        }
+        LongAdder count = pendingQueries.get(query);
+        if (count == null) {
+            if (pendingQueries.size() >= maxPendingQueries) {
+                return;
+            }
+            count = pendingQueries.computeIfAbsent(query, q -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * 메모리에 모은 검색 횟수를 파이프라인 ZINCRBY로 합산하고 ZSET을 상위 popular-query-limit개로 자른다
+     * (실패하면 그 구간의 집계는 버린다 — 검색과 자동완성 응답에는 영향 없음).
+     * 꺼내는 순간과 겹친 증가 몇 건은 빠질 수 있는 근사 집계다.
+     */
+    void flushQueries() {
+        if (pendingQueries.isEmpty()) {
+            return;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (String query : pendingQueries.keySet()) {
+            LongAdder count = pendingQueries.remove(query);
+            if (count != null) {
+                counts.put(query, count.sum());
+            }
+        }
+        try {
+            byte[] key = POPULAR_QUERIES_KEY.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                counts.forEach((query, count) ->
+                        connection.zSetCommands().zIncrBy(key, count, query.getBytes(StandardCharsets.UTF_8)));
+                connection.zSetCommands().zRemRange(key, 0, -(popularQueryLimit + 1L));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("인기 검색어 반영 실패, 이번 구간 집계 버림: queries={}, error={}", counts.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 전체 빌드 — 이미 빌드 중이면 건너뜀
+     */
+    void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long buildSequence = sequence.get();
+            long started = System.nanoTime();
+            SuggestionIndex.Builder builder = SuggestionIndex.builder();
+            int products = addProducts(builder);
+            int queries = addPopularQueries(builder);
+
+            SuggestionIndex built = builder.build();
+            index = built;
+            ready = true;
+            overlay.entrySet().removeIf(e -> e.getValue().sequence() <= buildSequence);
+
+            long elapsed = System.nanoTime() - started;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("자동완성 인덱스 빌드 완료: products={}, queries={}, keys={}, bytes={}, elapsed={}ms",
+                    products, queries, built.keyCount(), built.estimatedBytes(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // 실패 시 기존 인덱스로 계속 응답, 다음 주기에 재시도
+            log.warn("자동완성 인덱스 빌드 실패: error={}", e.getMessage());
+        }
+    }
+
+    private int addProducts(SuggestionIndex.Builder builder) {
+        int count = 0;
+        long afterId = 0L;
+        while (true) {
+            List<ProductRepository.NameView> page = productRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                    ProductStatus.ACTIVE, afterId, Limit.of(PAGE_SIZE));
+            for (ProductRepository.NameView product : page) {
+                if (product.getName() != null) {
+                    builder.add(product.getName(), PRODUCT_WEIGHT, product.getId());
+                    count++;
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                return count;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private int addPopularQueries(SuggestionIndex.Builder builder) {
+        try {
+            ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+            Set<ZSetOperations.TypedTuple<String>> top = zset.reverseRangeByScoreWithScores(
+                    POPULAR_QUERIES_KEY, popularQueryMinCount, Double.POSITIVE_INFINITY, 0, popularQueryLimit);
+            if (top == null) {
+                return 0;
+            }
+            for (ZSetOperations.TypedTuple<String> query : top) {
+                if (query.getValue() != null && query.getScore() != null) {
+                    builder.add(query.getValue(), (int) Math.min(Integer.MAX_VALUE, query.getScore()), 0L);
+                }
+            }
+            return top.size();
+        } catch (Exception e) {
+            log.warn("인기 검색어 조회 실패, 상품명만으로 빌드: error={}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /** 단어 시작 위치 접두어 일치 (SuggestionIndex 키와 같은 규칙) */
+    private static boolean startsAtWord(String text, String prefix) {
+        for (int i = 0; i <= text.length() - prefix.length(); i++) {
+            if ((i == 0 || text.charAt(i - 1) == ' ') && text.startsWith(prefix, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
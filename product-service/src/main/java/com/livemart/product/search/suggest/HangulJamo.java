@@ -0,0 +1,148 @@
+package com.livemart.product.search.suggest;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * 자동완성 키 정규화 — 한글 음절을 호환 자모로 분해
+ *
+ * 입력 중인 한글은 음절 단위로 비교하면 접두어가 맞지 않는다.
+ *   "달" → "닭"  (받침이 겹받침으로 바뀜)
+ *   "고" → "과"  (모음이 이중모음으로 바뀜)
+ *   "갑" → "가방" (받침이 다음 음절의 초성으로 넘어감)
+ * 음절을 초성/중성/종성으로 나누고 겹받침·이중모음을 두벌식 입력 순서대로 풀어 두면
+ * 위 경우가 모두 단순 문자열 접두어 비교가 된다. 초성과 종성은 같은 호환 자모(U+3131~)를 쓴다.
+ */
+public final class HangulJamo {
+
+    private static final char SYLLABLE_BASE = 0xAC00;
+    private static final char SYLLABLE_LAST = 0xD7A3;
+    private static final char COMPAT_JAMO_FIRST = 0x3131;
+    private static final char COMPAT_JAMO_LAST = 0x318E;
+    // NFKC는 호환 자모(ㄱ)를 조합형 자모(U+1100~)로 바꾸므로 다시 호환 자모로 되돌린다
+    private static final char LEADING_FIRST = 0x1100;
+    private static final char VOWEL_FIRST = 0x1161;
+    private static final char TRAILING_FIRST = 0x11A8;
+
+    private static final char[] CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ".toCharArray();
+    private static final char[] JUNGSEONG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ".toCharArray();
+    private static final char[] JONGSEONG = "\0ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ".toCharArray();
+
+    /** 두벌식에서 두 번 눌러 만드는 겹자모 → 입력 순서 */
+    private static final String[] COMPOUND = new String[COMPAT_JAMO_LAST - COMPAT_JAMO_FIRST + 1];
+
+    static {
+        String[][] pairs = {
+                {"ㄳ", "ㄱㅅ"}, {"ㄵ", "ㄴㅈ"}, {"ㄶ", "ㄴㅎ"}, {"ㄺ", "ㄹㄱ"}, {"ㄻ", "ㄹㅁ"}, {"ㄼ", "ㄹㅂ"},
+                {"ㄽ", "ㄹㅅ"}, {"ㄾ", "ㄹㅌ"}, {"ㄿ", "ㄹㅍ"}, {"ㅀ", "ㄹㅎ"}, {"ㅄ", "ㅂㅅ"},
+                {"ㅘ", "ㅗㅏ"}, {"ㅙ", "ㅗㅐ"}, {"ㅚ", "ㅗㅣ"}, {"ㅝ", "ㅜㅓ"}, {"ㅞ", "ㅜㅔ"}, {"ㅟ", "ㅜㅣ"}, {"ㅢ", "ㅡㅣ"}
+        };
+        for (String[] pair : pairs) {
+            COMPOUND[pair[0].charAt(0) - COMPAT_JAMO_FIRST] = pair[1];
+        }
+    }
+
+    private HangulJamo() {
+    }
+
+    /**
+     * 소문자 + NFKC + 공백 정리 + 한글 자모 분해
+     */
+    public static String normalize(String text) {
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder out = new StringBuilder(folded.length() * 3);
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c >= SYLLABLE_BASE && c <= SYLLABLE_LAST) {
+                int index = c - SYLLABLE_BASE;
+                out.append(CHOSEONG[index / 588]);
+                appendJamo(out, JUNGSEONG[(index % 588) / 28]);
+                int jong = index % 28;
+                if (jong > 0) {
+                    appendJamo(out, JONGSEONG[jong]);
+                }
+            } else {
+                appendJamo(out, c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * 초성 검색 키 — 음절은 초성만, 그 외 문자는 정규화된 그대로 ("삼성 tv" → "ㅅㅅ tv")
+     *
+     * @return 한글 음절이 하나도 없으면 null (일반 키와 같으므로 따로 둘 필요 없음)
+     */
+    public static String initials(String text) {
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder out = new StringBuilder(folded.length());
+        boolean hangul = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c >= SYLLABLE_BASE && c <= SYLLABLE_LAST) {
+                out.append(CHOSEONG[(c - SYLLABLE_BASE) / 588]);
+                hangul = true;
+            } else {
+                appendJamo(out, c);
+            }
+        }
+        return hangul ? out.toString() : null;
+    }
+
+    /**
+     * 정규화된 입력이 자음(호환 자모)과 공백만으로 이루어졌는지 — 초성 검색 대상 여부
+     */
+    public static boolean isInitialsQuery(String normalized) {
+        boolean consonant = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == ' ') continue;
+            if (c < COMPAT_JAMO_FIRST || c > 'ㅎ') return false;
+            consonant = true;
+        }
+        return consonant;
+    }
+
+    private static void appendJamo(StringBuilder out, char c) {
+        c = toCompatibility(c);
+        if (c >= COMPAT_JAMO_FIRST && c <= COMPAT_JAMO_LAST) {
+            String compound = COMPOUND[c - COMPAT_JAMO_FIRST];
+            if (compound != null) {
+                out.append(compound);
+                return;
+            }
+        }
+        out.append(c);
+    }
+
+    private static char toCompatibility(char c) {
+        if (c >= LEADING_FIRST && c < LEADING_FIRST + CHOSEONG.length) {
+            return CHOSEONG[c - LEADING_FIRST];
+        }
+        if (c >= VOWEL_FIRST && c < VOWEL_FIRST + JUNGSEONG.length) {
+            return JUNGSEONG[c - VOWEL_FIRST];
+        }
+        if (c >= TRAILING_FIRST && c < TRAILING_FIRST + JONGSEONG.length - 1) {
+            return JONGSEONG[c - TRAILING_FIRST + 1];
+        }
+        return c;
+    }
+}
@@ -0,0 +1,404 @@
+package com.livemart.product.search.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * 자동완성용 불변 접두어 인덱스
+ *
+ * 검색어(상품명/인기 검색어)마다 정규화 문자열을 한 번만 저장하고, 단어 시작 위치마다
+ * (term, offset) 키를 만들어 사전순으로 정렬해 둔다. 접두어 조회는
+ *   1) 이분 탐색으로 접두어가 같은 키 구간 [lo, hi) 를 찾고
+ *   2) 키 가중치 최대 세그먼트 트리로 구간 상위 k개를 뽑는다 (구간 분할 + 우선순위 큐)
+ * 구간 크기와 무관하게 O(log n + k log k) 이며, 모든 데이터가 원시 배열이라 객체 수가 항목 수에 비례하지 않는다.
+ *
+ * 한글 음절이 있는 검색어는 초성 키("ㅅㅅ")를 별도 테이블에 둔다. 자음만 입력된 경우에만 조회한다.
+ */
+public final class SuggestionIndex {
+
+    /** 정규화 문자열과 초성 문자열 구분자 */
+    private static final char SEPARATOR = '\0';
+    /** 한 번의 조회에서 꺼낼 최대 구간 수 — 같은 검색어의 여러 단어 키/제외 상품이 몰려도 조회 시간 상한 유지 */
+    private static final int MAX_POPS_FACTOR = 8;
+    private static final int INSERTION_SORT_THRESHOLD = 12;
+
+    public record Suggestion(String text, int weight, long productId) {
+    }
+
+    private final char[] displayChars;
+    private final int[] displayStarts;
+    private final char[] keyChars;
+    private final int[] keyStarts;
+    private final int[] separators;
+    private final int[] weights;
+    private final long[] productIds;
+    private final KeyTable words;
+    private final KeyTable initials;
+
+    private SuggestionIndex(Builder builder) {
+        int terms = builder.size;
+        this.displayChars = builder.displays.toString().toCharArray();
+        this.displayStarts = Arrays.copyOf(builder.displayStarts, terms + 1);
+        this.keyChars = builder.keys.toString().toCharArray();
+        this.keyStarts = Arrays.copyOf(builder.keyStarts, terms + 1);
+        this.separators = Arrays.copyOf(builder.separators, terms);
+        this.weights = Arrays.copyOf(builder.weights, terms);
+        this.productIds = Arrays.copyOf(builder.productIds, terms);
+        this.displayStarts[terms] = displayChars.length;
+        this.keyStarts[terms] = keyChars.length;
+        this.words = buildTable(false);
+        this.initials = buildTable(true);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SuggestionIndex empty() {
+        return builder().build();
+    }
+
+    /**
+     * 접두어 상위 limit개 (가중치 내림차순, 같은 검색어는 한 번만)
+     *
+     * @param prefix   HangulJamo.normalize 결과
+     * @param excluded 제외할 상품 ID (인덱스 이후 변경/삭제된 상품)
+     */
+    public List<Suggestion> lookup(String prefix, int limit, LongPredicate excluded) {
+        if (prefix.isEmpty() || limit <= 0 || weights.length == 0) {
+            return List.of();
+        }
+        List<Suggestion> result = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        collect(words, prefix, limit, excluded, result, seen);
+        if (result.size() < limit && HangulJamo.isInitialsQuery(prefix)) {
+            collect(initials, prefix, limit, excluded, result, seen);
+            result.sort((a, b) -> Integer.compare(b.weight(), a.weight()));
+        }
+        return result;
+    }
+
+    public int termCount() {
+        return weights.length;
+    }
+
+    public int keyCount() {
+        return words.terms.length + initials.terms.length;
+    }
+
+    /**
+     * 배열 크기 기준 힙 사용량 추정 (배열 헤더 16바이트 포함)
+     */
+    public long estimatedBytes() {
+        return array(displayChars.length, 2) + array(displayStarts.length, 4)
+                + array(keyChars.length, 2) + array(keyStarts.length, 4)
+                + array(separators.length, 4) + array(weights.length, 4) + array(productIds.length, 8)
+                + words.estimatedBytes() + initials.estimatedBytes();
+    }
+
+    private void collect(KeyTable table, String prefix, int limit, LongPredicate excluded,
+                         List<Suggestion> result, Set<Integer> seen) {
+        int lo = table.lowerBound(prefix);
+        int hi = table.upperBound(prefix, lo);
+        if (lo >= hi) {
+            return;
+        }
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> Integer.compare(weights[b[2]], weights[a[2]]));
+        push(ranges, table, lo, hi);
+        int pops = 0;
+        int maxPops = limit * MAX_POPS_FACTOR;
+        while (!ranges.isEmpty() && result.size() < limit && pops++ < maxPops) {
+            int[] range = ranges.poll();
+            int key = range[3];
+            int term = range[2];
+            if (seen.add(term) && (productIds[term] == 0 || !excluded.test(productIds[term]))) {
+                result.add(new Suggestion(display(term), weights[term], productIds[term]));
+            }
+            push(ranges, table, range[0], key);
+            push(ranges, table, key + 1, range[1]);
+        }
+    }
+
+    private static void push(PriorityQueue<int[]> ranges, KeyTable table, int lo, int hi) {
+        if (lo < hi) {
+            int key = table.maxKey(lo, hi);
+            ranges.add(new int[]{lo, hi, table.terms[key], key});
+        }
+    }
+
+    private String display(int term) {
+        return new String(displayChars, displayStarts[term], displayStarts[term + 1] - displayStarts[term]);
+    }
+
+    private KeyTable buildTable(boolean initialsOnly) {
+        int count = 0;
+        for (int term = 0; term < weights.length; term++) {
+            count += keyOffsets(term, initialsOnly, null);
+        }
+        int[] terms = new int[count];
+        int[] offsets = new int[count];
+        int next = 0;
+        int[] scratch = new int[64];
+        for (int term = 0; term < weights.length; term++) {
+            int n = keyOffsets(term, initialsOnly, scratch);
+            if (n > scratch.length) {
+                scratch = new int[n];
+                keyOffsets(term, initialsOnly, scratch);
+            }
+            for (int i = 0; i < n; i++) {
+                terms[next] = term;
+                offsets[next] = scratch[i];
+                next++;
+            }
+        }
+
+        int[] order = sortKeys(terms, offsets);
+
+        int[] sortedTerms = new int[count];
+        char[] sortedOffsets = new char[count];
+        for (int i = 0; i < count; i++) {
+            sortedTerms[i] = terms[order[i]];
+            sortedOffsets[i] = (char) offsets[order[i]];
+        }
+        return new KeyTable(sortedTerms, sortedOffsets);
+    }
+
+    /**
+     * 키 정렬 — multikey(3-way radix) quicksort. 공통 접두어를 한 글자씩만 비교하므로
+     * 수백만 키를 비교 함수 + 박싱으로 정렬하는 것보다 훨씬 빠르다.
+     */
+    private int[] sortKeys(int[] terms, int[] offsets) {
+        int count = terms.length;
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = keyStarts[terms[i]] + offsets[i];
+            ends[i] = keyEnd(terms[i], offsets[i]);
+        }
+        multikeySort(order, starts, ends, 0, count, 0);
+        return order;
+    }
+
+    private void multikeySort(int[] order, int[] starts, int[] ends, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            int pivot = charAt(order[(lo + hi) >>> 1], starts, ends, depth);
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                int c = charAt(order[i], starts, ends, depth);
+                if (c < pivot) swap(order, lt++, i++);
+                else if (c > pivot) swap(order, i, gt--);
+                else i++;
+            }
+            multikeySort(order, starts, ends, lo, lt, depth);
+            multikeySort(order, starts, ends, gt + 1, hi, depth);
+            if (pivot < 0) {
+                return;
+            }
+            // 가운데(같은 글자) 구간은 다음 글자로 이어서 — 재귀 대신 반복
+            lo = lt;
+            hi = gt + 1;
+            depth++;
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && compareFrom(order[j], order[j - 1], starts, ends, depth) < 0; j--) {
+                swap(order, j, j - 1);
+            }
+        }
+    }
+
+    private int charAt(int key, int[] starts, int[] ends, int depth) {
+        int position = starts[key] + depth;
+        return position < ends[key] ? keyChars[position] : -1;
+    }
+
+    private int compareFrom(int a, int b, int[] starts, int[] ends, int depth) {
+        int i = starts[a] + depth;
+        int j = starts[b] + depth;
+        while (i < ends[a] && j < ends[b]) {
+            char ca = keyChars[i++];
+            char cb = keyChars[j++];
+            if (ca != cb) return Character.compare(ca, cb);
+        }
+        return Integer.compare(ends[a] - i, ends[b] - j);
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * 검색어의 단어 시작 위치(키 시작 오프셋, 검색어 정규화 문자열 기준) — out이 null이거나 작으면 개수만 센다
+     */
+    private int keyOffsets(int term, boolean initialsOnly, int[] out) {
+        int from = initialsOnly ? separators[term] + 1 : keyStarts[term];
+        int to = initialsOnly ? keyStarts[term + 1] : separators[term];
+        if (from >= to) {
+            return 0;
+        }
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (i == from || keyChars[i - 1] == ' ') {
+                if (out != null && n < out.length) out[n] = i - keyStarts[term];
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private int keyEnd(int term, int offset) {
+        int start = keyStarts[term] + offset;
+        return start < separators[term] ? separators[term] : keyStarts[term + 1];
+    }
+
+    /**
+     * 키와 접두어 비교 — 키가 접두어로 시작하면 0
+     */
+    private int comparePrefix(int term, int offset, String prefix) {
+        int k = keyStarts[term] + offset;
+        int end = keyEnd(term, offset);
+        for (int i = 0; i < prefix.length(); i++, k++) {
+            if (k >= end) return -1;
+            char c = keyChars[k];
+            char p = prefix.charAt(i);
+            if (c != p) return Character.compare(c, p);
+        }
+        return 0;
+    }
+
+    private static long array(int length, int elementBytes) {
+        return 16 + (long) length * elementBytes;
+    }
+
+    /**
+     * 정렬된 키 테이블 — 키 i = (terms[i], offsets[i]), tree는 구간 최대 가중치 키
+     */
+    private final class KeyTable {
+
+        private final int[] terms;
+        private final char[] offsets;
+        private final int[] tree;
+        private final int leaves;
+
+        KeyTable(int[] terms, char[] offsets) {
+            this.terms = terms;
+            this.offsets = offsets;
+            int size = 1;
+            while (size < terms.length) size <<= 1;
+            this.leaves = size;
+            this.tree = new int[size * 2];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < terms.length; i++) tree[size + i] = i;
+            for (int node = size - 1; node >= 1; node--) {
+                tree[node] = better(tree[node * 2], tree[node * 2 + 1]);
+            }
+        }
+
+        int lowerBound(String prefix) {
+            int lo = 0;
+            int hi = terms.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparePrefix(terms[mid], offsets[mid], prefix) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        int upperBound(String prefix, int from) {
+            int lo = from;
+            int hi = terms.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparePrefix(terms[mid], offsets[mid], prefix) <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /** [lo, hi) 에서 가중치가 가장 큰 키 */
+        int maxKey(int lo, int hi) {
+            int best = -1;
+            for (int l = lo + leaves, r = hi + leaves; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) best = better(best, tree[l++]);
+                if ((r & 1) == 1) best = better(best, tree[--r]);
+            }
+            return best;
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) return b;
+            if (b < 0) return a;
+            return weights[terms[b]] > weights[terms[a]] ? b : a;
+        }
+
+        long estimatedBytes() {
+            return array(terms.length, 4) + array(offsets.length, 2) + array(tree.length, 4);
+        }
+    }
+
+    /**
+     * 인덱스 빌더 — 같은 검색어가 여러 번 들어오면 그대로 여러 항목이 된다 (중복 제거는 호출 측 책임)
+     */
+    public static final class Builder {
+
+        private final StringBuilder displays = new StringBuilder();
+        private final StringBuilder keys = new StringBuilder();
+        private int[] displayStarts = new int[1024];
+        private int[] keyStarts = new int[1024];
+        private int[] separators = new int[1024];
+        private int[] weights = new int[1024];
+        private long[] productIds = new long[1024];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * @param productId 상품명이면 상품 ID, 인기 검색어면 0
+         */
+        public Builder add(String display, int weight, long productId) {
+            String text = display.strip();
+            String normalized = HangulJamo.normalize(text);
+            // 키 오프셋을 char로 저장하므로 정규화+초성 문자열이 65535자를 넘는 항목은 제외
+            if (normalized.isEmpty() || normalized.length() > Character.MAX_VALUE / 2) {
+                return this;
+            }
+            if (size == weights.length) {
+                int capacity = size * 2;
+                displayStarts = Arrays.copyOf(displayStarts, capacity + 1);
+                keyStarts = Arrays.copyOf(keyStarts, capacity + 1);
+                separators = Arrays.copyOf(separators, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                productIds = Arrays.copyOf(productIds, capacity);
+            }
+            displayStarts[size] = displays.length();
+            displays.append(text);
+            keyStarts[size] = keys.length();
+            keys.append(normalized);
+            separators[size] = keys.length();
+            String initials = HangulJamo.initials(text);
+            if (initials != null) {
+                keys.append(SEPARATOR).append(initials);
+            }
+            weights[size] = weight;
+            productIds[size] = productId;
+            size++;
+            return this;
+        }
+
+        public SuggestionIndex build() {
+            return new SuggestionIndex(this);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.livemart.product.service;
 
+import com.livemart.common.exception.BusinessException;
 import com.livemart.product.document.ProductDocument;
 import com.livemart.product.domain.Category;
 import com.livemart.product.domain.Product;
@@ -12,26 +13,33 @@ import com.livemart.product.event.StockEvent;
 import com.livemart.product.repository.CategoryRepository;
 import com.livemart.product.repository.ProductRepository;
 import com.livemart.product.repository.ProductSearchRepository;
+import com.livemart.product.search.LiveStockStore;
+import com.livemart.product.search.ProductIndexPipeline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.TreeMap;
 
 @Slf4j
 @Service
@@ -49,6 +57,11 @@ public class ProductService {
     private final KafkaTemplate<String, StockEvent> stockKafkaTemplate;
     @org.springframework.beans.factory.annotation.Qualifier("dlqKafkaTemplate")
     private final KafkaTemplate<String, Object> dlqKafkaTemplate;
+    // 검색 인덱스는 커밋 후 비동기 Bulk 반영
+    private final ProductIndexPipeline productIndexPipeline;
+    private final LiveStockStore liveStockStore;
+    // 주문 일괄 재고 반영은 상품 id가 여러 개라 @CacheEvict 대신 커밋 후 직접 제거
+    private final CacheManager cacheManager;
 
     private static final String PRODUCT_TOPIC = "product-events";
     private static final String STOCK_TOPIC = "stock-events";
@@ -72,7 +85,7 @@ public class ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
-        syncToElasticsearch(savedProduct);
+        productIndexPipeline.upsert(savedProduct.getId());
         publishProductEvent(savedProduct, ProductEvent.EventType.CREATED);
 
         log.info("상품 생성 완료: productId={}, name={}", savedProduct.getId(), savedProduct.getName());
@@ -105,7 +118,7 @@ public class ProductService {
             product.changeCategory(category);
         }
 
-        syncToElasticsearch(product);
+        productIndexPipeline.upsert(product.getId());
         publishProductEvent(product, ProductEvent.EventType.UPDATED);
 
         log.info("상품 수정 완료: productId={}", productId);
@@ -138,9 +151,10 @@ public class ProductService {
 
     public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
         try {
-            return productSearchRepository
-                    .findByNameContainingOrDescriptionContaining(keyword, keyword, pageable)
-                    .map(ProductResponse::from);
+            Page<ProductDocument> documents = productSearchRepository
+                    .findByNameContainingOrDescriptionContaining(keyword, keyword, pageable);
+            return new PageImpl<>(liveStockStore.withLiveStock(documents.getContent()),
+                    documents.getPageable(), documents.getTotalElements());
         } catch (Exception e) {
             log.warn("Elasticsearch 검색 실패, DB fallback 사용: keyword={}, error={}", keyword, e.getMessage());
             return productRepository.searchByKeyword(keyword, pageable)
@@ -158,7 +172,7 @@ public class ProductService {
                 .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다"));
 
         productRepository.delete(product);
-        productSearchRepository.deleteById(String.valueOf(productId));
+        productIndexPipeline.delete(productId);
         publishProductEvent(product, ProductEvent.EventType.DELETED);
 
         log.info("상품 삭제 완료: productId={}", productId);
@@ -178,8 +192,8 @@ public class ProductService {
         int oldStock = product.getStockQuantity();
         product.updateStock(quantity);
 
-        syncToElasticsearch(product);
-        publishProductEvent(product, ProductEvent.EventType.STOCK_CHANGED);
+        applyStockChange(productId, oldStock, quantity);
+        publishStockChangedEvent(product, oldStock);
         publishStockEvent(productId, oldStock, quantity);
 
         log.info("재고 수정 완료: productId={}, oldStock={}, newStock={}", productId, oldStock, quantity);
@@ -194,11 +208,49 @@ public class ProductService {
         int newStock = oldStock + quantity;
         product.updateStock(newStock);
 
+        applyStockChange(productId, oldStock, newStock);
         publishStockEvent(productId, oldStock, newStock);
 
         log.info("Stock restored: productId={}, +{}, newStock={}", productId, quantity, newStock);
     }
 
+    /**
+     * 주문 재고 일괄 차감 — 상품마다 "재고 >= 수량" 조건부 상대 차감, 한 건이라도 부족하면 주문 전체 롤백
+     * 상품 id 순으로 갱신해 동시 주문 간 행 락 순서를 고정한다 (교착 방지).
+     */
+    @Transactional
+    public List<StockEvent.StockChange> deductStocks(String orderNumber, Map<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> ordered = new TreeMap<>(quantities);
+        ordered.forEach((productId, quantity) -> {
+            if (productRepository.deductStock(productId, quantity, now) == 0) {
+                throw BusinessException.insufficientStock(productId);
+            }
+        });
+        List<StockEvent.StockChange> changes = applyStockChanges(orderNumber, ordered, -1);
+        log.info("주문 재고 차감 완료: orderNumber={}, items={}", orderNumber, changes.size());
+        return changes;
+    }
+
+    /**
+     * 주문 취소 재고 일괄 복원 — 상대값 증가 (없는 상품은 건너뜀)
+     */
+    @Transactional
+    public List<StockEvent.StockChange> restoreStocks(String orderNumber, Map<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> restored = new TreeMap<>();
+        new TreeMap<>(quantities).forEach((productId, quantity) -> {
+            if (productRepository.addStock(productId, quantity, now) == 0) {
+                log.warn("재고 복원 대상 상품 없음: orderNumber={}, productId={}", orderNumber, productId);
+            } else {
+                restored.put(productId, quantity);
+            }
+        });
+        List<StockEvent.StockChange> changes = applyStockChanges(orderNumber, restored, 1);
+        log.info("주문 재고 복원 완료: orderNumber={}, items={}", orderNumber, changes.size());
+        return changes;
+    }
+
     // 재고 조회 및 검증 (비관적 락 사용)
     @Transactional
     public ProductResponse getProductWithLock(Long productId) {
@@ -210,29 +262,96 @@ public class ProductService {
         return ProductResponse.from(product);
     }
 
-    private void syncToElasticsearch(Product product) {
-        ProductDocument document = ProductDocument.builder()
-                .id(String.valueOf(product.getId()))
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .stockQuantity(product.getStockQuantity())
-                .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
-                .status(product.getStatus().name())
-                .imageUrl(product.getImageUrl())
-                .sellerId(product.getSellerId())
-                .build();
+    /**
+     * 재고 수량은 LiveStockStore로만 반영하고, 검색 문서는 품절 여부(inStock)가 바뀔 때만 재색인
+     */
+    private void applyStockChange(Long productId, int oldStock, int newStock) {
+        liveStockStore.put(productId, newStock);
+        if ((oldStock > 0) != (newStock > 0)) {
+            productIndexPipeline.upsert(productId);
+        }
+    }
 
-        productSearchRepository.save(document);
+    /**
+     * 일괄 갱신 후 재고를 한 번에 다시 읽어 LiveStockStore·검색 인덱스에 묶어 반영하고,
+     * 캐시 제거와 이벤트 발행은 커밋 후로 미룬다 (롤백된 차감이 밖으로 새지 않도록)
+     *
+     * @param sign 차감 -1, 복원 +1 — 갱신 후 재고에서 이전 재고를 역산
+     */
+    private List<StockEvent.StockChange> applyStockChanges(String orderNumber, Map<Long, Integer> quantities, int sign) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        List<ProductRepository.StockView> views = productRepository.findStockViewsByIdIn(quantities.keySet());
+        List<StockEvent.StockChange> changes = new ArrayList<>(views.size());
+        Map<Long, Integer> stocks = new HashMap<>();
+        Map<Long, Integer> oldStocks = new HashMap<>();
+        List<Long> flipped = new ArrayList<>();
+        for (ProductRepository.StockView view : views) {
+            int newStock = view.getStockQuantity();
+            int oldStock = newStock - sign * quantities.get(view.getId());
+            changes.add(new StockEvent.StockChange(view.getId(), oldStock, newStock));
+            stocks.put(view.getId(), newStock);
+            oldStocks.put(view.getId(), oldStock);
+            if ((oldStock > 0) != (newStock > 0)) {
+                flipped.add(view.getId());
+            }
+        }
+        liveStockStore.putAll(stocks);
+        productIndexPipeline.upsertAll(flipped);
+
+        afterCommit(() -> {
+            evictProductCaches(stocks.keySet());
+            views.forEach(view -> publishProductEvent(view, oldStocks.get(view.getId())));
+            publishStockBatchEvent(orderNumber, changes);
+            Map<Long, String> names = new HashMap<>();
+            views.forEach(view -> names.put(view.getId(), view.getName()));
+            changes.stream()
+                    .filter(change -> needsStockAlert(change.getOldStock(), change.getNewStock()))
+                    .forEach(change -> publishStockAlert(change.getProductId(), names.get(change.getProductId()),
+                            change.getOldStock(), change.getNewStock()));
+        });
+        return changes;
+    }
+
+    private void evictProductCaches(Iterable<Long> productIds) {
+        for (String name : List.of("products", "product-detail")) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                productIds.forEach(cache::evict);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     private void publishProductEvent(Product product, ProductEvent.EventType eventType) {
+        publishProductEvent(product, eventType, null);
+    }
+
+    private void publishStockChangedEvent(Product product, int oldStock) {
+        publishProductEvent(product, ProductEvent.EventType.STOCK_CHANGED, oldStock);
+    }
+
+    private void publishProductEvent(Product product, ProductEvent.EventType eventType, Integer previousStock) {
         ProductEvent event = ProductEvent.builder()
                 .eventType(eventType)
                 .productId(product.getId())
                 .productName(product.getName())
                 .price(product.getPrice())
                 .stockQuantity(product.getStockQuantity())
+                .previousStockQuantity(previousStock)
                 .status(product.getStatus())
                 .sellerId(product.getSellerId())
                 .occurredAt(LocalDateTime.now())
@@ -243,6 +362,35 @@ public class ProductService {
         log.info("Kafka 이벤트 발행: eventType={}, productId={}", eventType, product.getId());
     }
 
+    // 일괄 재고 반영용 — 카탈로그 인덱스·검색 캐시 리스너가 상품별 STOCK_CHANGED를 구독한다
+    private void publishProductEvent(ProductRepository.StockView view, int oldStock) {
+        ProductEvent event = ProductEvent.builder()
+                .eventType(ProductEvent.EventType.STOCK_CHANGED)
+                .productId(view.getId())
+                .productName(view.getName())
+                .price(view.getPrice())
+                .stockQuantity(view.getStockQuantity())
+                .previousStockQuantity(oldStock)
+                .status(view.getStatus())
+                .sellerId(view.getSellerId())
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        kafkaTemplate.send(PRODUCT_TOPIC, String.valueOf(view.getId()), event);
+    }
+
+    private void publishStockBatchEvent(String orderNumber, List<StockEvent.StockChange> changes) {
+        StockEvent event = StockEvent.builder()
+                .eventType(StockEvent.EventType.STOCK_BATCH_UPDATED)
+                .orderNumber(orderNumber)
+                .changes(changes)
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        stockKafkaTemplate.send(STOCK_TOPIC, orderNumber, event);
+        log.info("Stock batch event published: orderNumber={}, items={}", orderNumber, changes.size());
+    }
+
     private void publishStockEvent(Long productId, int oldStock, int newStock) {
         StockEvent event = StockEvent.builder()
                 .productId(productId)
@@ -254,49 +402,33 @@ public class ProductService {
         stockKafkaTemplate.send(STOCK_TOPIC, productId.toString(), event);
         log.info("Stock event published: productId={}, old={}, new={}", productId, oldStock, newStock);
 
-        // 재고 부족/소진 시 stock-alert-events 발행 → notification-service 처리
-        if (newStock <= 0 || (newStock <= STOCK_LOW_THRESHOLD && oldStock > STOCK_LOW_THRESHOLD)) {
+        if (needsStockAlert(oldStock, newStock)) {
             try {
-                Product product = productRepository.findById(productId).orElse(null);
-                if (product != null) {
-                    Map<String, Object> alert = new HashMap<>();
-                    alert.put("eventType", newStock <= 0 ? "OUT_OF_STOCK" : "LOW_STOCK");
-                    alert.put("productId", productId);
-                    alert.put("productName", product.getName());
-                    alert.put("availableQuantity", newStock);
-                    alert.put("warehouseCode", "DEFAULT");
-                    dlqKafkaTemplate.send(STOCK_ALERT_TOPIC, productId.toString(), alert);
-                    log.warn("재고 알림 발행: productId={}, newStock={}", productId, newStock);
-                }
+                productRepository.findById(productId)
+                        .ifPresent(product -> publishStockAlert(productId, product.getName(), oldStock, newStock));
             } catch (Exception e) {
                 log.error("재고 알림 발행 실패: {}", e.getMessage());
             }
         }
     }
 
-    /**
-     * DB의 모든 상품을 Elasticsearch에 일괄 인덱싱 (초기화/재구축용)
-     */
-    @Transactional(readOnly = true)
-    public int reindexAllProducts() {
-        AtomicInteger count = new AtomicInteger(0);
-        int pageSize = 100;
-        int page = 0;
-
-        while (true) {
-            List<Product> products = productRepository.findAll(PageRequest.of(page, pageSize)).getContent();
-            if (products.isEmpty()) break;
-
-            products.forEach(p -> {
-                syncToElasticsearch(p);
-                count.incrementAndGet();
-            });
+    // 재고 부족/소진 시 stock-alert-events 발행 → notification-service 처리
+    private static boolean needsStockAlert(int oldStock, int newStock) {
+        return newStock <= 0 || (newStock <= STOCK_LOW_THRESHOLD && oldStock > STOCK_LOW_THRESHOLD);
+    }
 
-            log.info("Elasticsearch 재인덱싱 진행: {}건 완료", count.get());
-            page++;
+    private void publishStockAlert(Long productId, String productName, int oldStock, int newStock) {
+        try {
+            Map<String, Object> alert = new HashMap<>();
+            alert.put("eventType", newStock <= 0 ? "OUT_OF_STOCK" : "LOW_STOCK");
+            alert.put("productId", productId);
+            alert.put("productName", productName);
+            alert.put("availableQuantity", newStock);
+            alert.put("warehouseCode", "DEFAULT");
+            dlqKafkaTemplate.send(STOCK_ALERT_TOPIC, productId.toString(), alert);
+            log.warn("재고 알림 발행: productId={}, newStock={}", productId, newStock);
+        } catch (Exception e) {
+            log.error("재고 알림 발행 실패: {}", e.getMessage());
         }
-
-        log.info("Elasticsearch 재인덱싱 완료: 총 {}건", count.get());
-        return count.get();
     }
-}
\ No newline at end of file
+}
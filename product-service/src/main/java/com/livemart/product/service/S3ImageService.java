@@ -1,5 +1,6 @@
 package com.livemart.product.service;
 
+import com.livemart.common.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,8 +13,10 @@ import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.UUID;
+import java.util.HexFormat;
 
 @Service
 @RequiredArgsConstructor
@@ -29,27 +32,48 @@ public class S3ImageService {
     @Value("${aws.s3.cdn-url:}")
     private String cdnUrl;
 
-    public String uploadImage(MultipartFile file, Long productId) throws IOException {
-        String extension = getExtension(file.getOriginalFilename());
-        String key = String.format("products/%d/%s%s", productId, UUID.randomUUID(), extension);
+    /**
+     * 원본만 저장 — 키는 내용의 SHA-256 (products/{productId}/{hash}).
+     * 크기/형식별 변형은 요청 시점에 ImageVariantService가 만든다.
+     */
+    public UploadedImage uploadImage(MultipartFile file, Long productId) throws IOException {
+        byte[] bytes = file.getBytes();
+        String hash = sha256(bytes);
+        String key = originalKey(productId, hash);
 
         PutObjectRequest request = PutObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
                 .contentType(file.getContentType())
-                .contentLength(file.getSize())
+                .contentLength((long) bytes.length)
                 .build();
 
-        s3Client.putObject(request, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+        s3Client.putObject(request, RequestBody.fromBytes(bytes));
 
         log.info("Image uploaded: bucket={}, key={}", bucketName, key);
 
         if (cdnUrl != null && !cdnUrl.isEmpty()) {
-            return cdnUrl + "/" + key;
+            return new UploadedImage(cdnUrl + "/" + key, hash);
         }
-        return getPublicUrl(key);
+        return new UploadedImage(getPublicUrl(key), hash);
     }
 
+    /**
+     * 원본 다운로드 (변형 렌더링용)
+     */
+    public byte[] loadOriginal(Long productId, String hash) {
+        try {
+            return s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(originalKey(productId, hash))
+                    .build()).asByteArray();
+        } catch (NoSuchKeyException e) {
+            throw new BusinessException("IMAGE_NOT_FOUND", "Image not found: " + hash, 404);
+        }
+    }
+
+    public record UploadedImage(String url, String hash) {}
+
     public void deleteImage(String imageUrl) {
         String key = extractKeyFromUrl(imageUrl);
         if (key == null) return;
@@ -87,9 +111,15 @@ public class S3ImageService {
         return idx >= 0 ? url.substring(idx) : null;
     }
 
-    private String getExtension(String filename) {
-        if (filename == null) return ".jpg";
-        int dot = filename.lastIndexOf('.');
-        return dot >= 0 ? filename.substring(dot) : ".jpg";
+    private static String originalKey(Long productId, String hash) {
+        return String.format("products/%d/%s", productId, hash);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,186 @@
+package com.livemart.product.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 가상 노드 기반 consistent hash ring (불변)
+ *
+ * shard마다 weight × vnodesPerWeight개의 토큰을 링(64비트 해시 공간)에 두고,
+ * 키는 해시값 이상인 첫 토큰의 shard가 소유한다 (끝을 넘으면 첫 토큰).
+ * shard를 추가하면 새 shard 토큰 바로 앞 구간만 주인이 바뀌므로 약 1/(n+1)의 키만 옮겨진다
+ * (modulo 방식은 n → n+1에서 약 n/(n+1)이 바뀜).
+ */
+public final class ConsistentHashRing {
+
+    /**
+     * 두 링의 토큰을 합친 구간 (startExclusive, endInclusive] — wrap 구간은 start > end
+     */
+    public record Segment(int index, long startExclusive, long endInclusive, String source, String target) {
+        public boolean moves() {
+            return !source.equals(target);
+        }
+    }
+
+    private final long[] tokens;
+    private final String[] owners;
+    private final Map<String, Integer> weights;
+
+    private ConsistentHashRing(long[] tokens, String[] owners, Map<String, Integer> weights) {
+        this.tokens = tokens;
+        this.owners = owners;
+        this.weights = weights;
+    }
+
+    public static Builder builder(int vnodesPerWeight) {
+        return new Builder(vnodesPerWeight);
+    }
+
+    public List<String> shardKeys() {
+        return List.copyOf(weights.keySet());
+    }
+
+    public Map<String, Integer> weights() {
+        return weights;
+    }
+
+    public String ownerOf(long entityId) {
+        return ownerOfHash(hash(entityId));
+    }
+
+    String ownerOfHash(long keyHash) {
+        return owners[slot(tokens, keyHash)];
+    }
+
+    /**
+     * 두 링의 토큰 경계를 모두 포함하는 구간 목록 — 각 구간 안의 키는 from/to 양쪽에서 주인이 하나로 정해진다
+     */
+    public static List<Segment> diff(ConsistentHashRing from, ConsistentHashRing to) {
+        long[] bounds = new long[from.tokens.length + to.tokens.length];
+        System.arraycopy(from.tokens, 0, bounds, 0, from.tokens.length);
+        System.arraycopy(to.tokens, 0, bounds, from.tokens.length, to.tokens.length);
+        Arrays.sort(bounds);
+        int distinct = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            if (i == 0 || bounds[i] != bounds[i - 1]) {
+                bounds[distinct++] = bounds[i];
+            }
+        }
+
+        List<Segment> segments = new ArrayList<>(distinct);
+        for (int i = 0; i < distinct; i++) {
+            long end = bounds[i];
+            long start = bounds[(i - 1 + distinct) % distinct];
+            // (start, end] 안의 모든 해시는 end와 같은 토큰으로 올라간다
+            segments.add(new Segment(i, start, end, from.ownerOfHash(end), to.ownerOfHash(end)));
+        }
+        return segments;
+    }
+
+    /**
+     * diff()의 구간 목록에서 키 해시가 속한 구간 번호
+     */
+    static int segmentOf(List<Segment> segments, long keyHash) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid).endInclusive() < keyHash) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low == segments.size() ? 0 : low;
+    }
+
+    private static int slot(long[] tokens, long keyHash) {
+        int i = Arrays.binarySearch(tokens, keyHash);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i == tokens.length ? 0 : i;
+    }
+
+    /** 키 해시 — 연속된 id도 링 전체에 고르게 퍼지도록 64비트 finalizer (MurmurHash3 fmix64) */
+    public static long hash(long entityId) {
+        long h = entityId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** 토큰 해시 — "shardKey#번호"의 FNV-1a 64 + fmix64 (인스턴스/재시작과 무관하게 같은 값) */
+    private static long tokenHash(String shardKey, int vnode) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : (shardKey + "#" + vnode).getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return hash(h);
+    }
+
+    public static final class Builder {
+
+        private final int vnodesPerWeight;
+        private final Map<String, Integer> weights = new LinkedHashMap<>();
+
+        private Builder(int vnodesPerWeight) {
+            if (vnodesPerWeight <= 0) {
+                throw new IllegalArgumentException("vnodesPerWeight must be positive: " + vnodesPerWeight);
+            }
+            this.vnodesPerWeight = vnodesPerWeight;
+        }
+
+        public Builder shard(String shardKey, int weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Shard weight must be positive: " + shardKey + "=" + weight);
+            }
+            weights.put(shardKey, weight);
+            return this;
+        }
+
+        public ConsistentHashRing build() {
+            if (weights.isEmpty()) {
+                throw new IllegalStateException("Ring needs at least one shard");
+            }
+            int count = weights.values().stream().mapToInt(w -> w * vnodesPerWeight).sum();
+            long[] packedTokens = new long[count];
+            String[] tokenOwners = new String[count];
+            int n = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                for (int v = 0; v < entry.getValue() * vnodesPerWeight; v++) {
+                    packedTokens[n] = tokenHash(entry.getKey(), v);
+                    tokenOwners[n] = entry.getKey();
+                    n++;
+                }
+            }
+
+            // 토큰 순으로 정렬 (충돌 시 먼저 등록된 shard 유지)
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(packedTokens[a], packedTokens[b]));
+            long[] tokens = new long[count];
+            String[] owners = new String[count];
+            int size = 0;
+            for (int i : order) {
+                if (size > 0 && tokens[size - 1] == packedTokens[i]) continue;
+                tokens[size] = packedTokens[i];
+                owners[size] = tokenOwners[i];
+                size++;
+            }
+            return new ConsistentHashRing(Arrays.copyOf(tokens, size), Arrays.copyOf(owners, size),
+                    Collections.unmodifiableMap(new LinkedHashMap<>(weights)));
+        }
+    }
+}
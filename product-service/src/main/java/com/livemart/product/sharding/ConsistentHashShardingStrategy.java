@@ -0,0 +1,189 @@
+package com.livemart.product.sharding;
+
+import com.livemart.product.sharding.ConsistentHashRing.Segment;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Consistent hash 기반 Sharding 전략 (가상 노드 + 가중치)
+ *
+ * 평소에는 링의 주인 shard로 라우팅한다. 마이그레이션(새 링으로 전환) 중에는 두 링의 토큰을 합친
+ * 구간(Segment)마다 상태를 두고 구간 단위로 라우팅을 바꾼다:
+ *
+ *   STABLE  : 주인이 바뀌지 않는 구간 — 기존 주인
+ *   COPYING : 옮겨질 구간 — 읽기는 기존 주인, 쓰기는 기존 + 새 주인 (이중 쓰기)
+ *   FLIPPED : 검증을 마친 구간 — 읽기/쓰기 모두 새 주인
+ *
+ * 구간 전환(flip)은 그 구간의 쓰기 락을 잡은 상태에서만 일어나므로, 전환 직전 검증과 전환 사이에
+ * 그 구간으로 들어오는 쓰기는 잠깐 대기하고 다른 구간은 영향이 없다.
+ * 라우팅 상태는 이 인스턴스 메모리에 있다 — 여러 인스턴스가 쓰는 경우 마이그레이션 동안 쓰기는
+ * 마이그레이션을 실행하는 인스턴스로 모아야 한다.
+ */
+@Slf4j
+public class ConsistentHashShardingStrategy implements ShardingStrategy {
+
+    enum SegmentState { STABLE, COPYING, FLIPPED }
+
+    /** 진행 중인 마이그레이션 — 구간별 상태와 쓰기 락 */
+    private record Migration(ConsistentHashRing target, List<Segment> segments,
+                             AtomicReferenceArray<SegmentState> states, ReentrantReadWriteLock[] locks) {}
+
+    private volatile ConsistentHashRing ring;
+    private volatile Migration migration;
+
+    public ConsistentHashShardingStrategy(ConsistentHashRing ring) {
+        this.ring = ring;
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    @Override
+    public String determineShardKey(Long entityId) {
+        if (entityId == null) {
+            throw new IllegalArgumentException("Entity ID cannot be null");
+        }
+        Migration current = migration;
+        long keyHash = ConsistentHashRing.hash(entityId);
+        if (current == null) {
+            return ring.ownerOfHash(keyHash);
+        }
+        int index = ConsistentHashRing.segmentOf(current.segments(), keyHash);
+        Segment segment = current.segments().get(index);
+        return current.states().get(index) == SegmentState.FLIPPED ? segment.target() : segment.source();
+    }
+
+    @Override
+    public List<String> getAllShardKeys() {
+        Migration current = migration;
+        if (current == null) {
+            return ring.shardKeys();
+        }
+        Set<String> keys = new LinkedHashSet<>(ring.shardKeys());
+        keys.addAll(current.target().shardKeys());
+        return List.copyOf(keys);
+    }
+
+    /**
+     * COPYING 구간이면 기존/새 주인 모두에 쓴다 — 구간 읽기 락 안에서 실행되어 flip과 겹치지 않음
+     */
+    @Override
+    public <R> R routeWrite(Long entityId, Function<List<String>, R> write) {
+        Migration current = migration;
+        if (current == null) {
+            return write.apply(List.of(ring.ownerOf(entityId)));
+        }
+        int index = ConsistentHashRing.segmentOf(current.segments(), ConsistentHashRing.hash(entityId));
+        Lock lock = current.locks()[index].readLock();
+        lock.lock();
+        try {
+            Segment segment = current.segments().get(index);
+            return switch (current.states().get(index)) {
+                case STABLE -> write.apply(List.of(segment.source()));
+                case COPYING -> write.apply(List.of(segment.source(), segment.target()));
+                case FLIPPED -> write.apply(List.of(segment.target()));
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 새 링으로의 마이그레이션 시작 — 주인이 바뀌는 구간은 이 시점부터 이중 쓰기
+     *
+     * @return 옮겨질 구간 목록
+     */
+    public synchronized List<Segment> beginMigration(ConsistentHashRing target) {
+        if (migration != null) {
+            throw new IllegalStateException("Shard migration already in progress");
+        }
+        List<Segment> segments = ConsistentHashRing.diff(ring, target);
+        AtomicReferenceArray<SegmentState> states = new AtomicReferenceArray<>(segments.size());
+        ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[segments.size()];
+        List<Segment> moving = new ArrayList<>();
+        for (Segment segment : segments) {
+            states.set(segment.index(), segment.moves() ? SegmentState.COPYING : SegmentState.STABLE);
+            locks[segment.index()] = new ReentrantReadWriteLock();
+            if (segment.moves()) {
+                moving.add(segment);
+            }
+        }
+        migration = new Migration(target, segments, states, locks);
+        log.info("Shard migration started: {} → {}, segments={}, moving={}",
+                ring.shardKeys(), target.shardKeys(), segments.size(), moving.size());
+        return moving;
+    }
+
+    /**
+     * 진행 중인 마이그레이션에서 키가 속한 구간 번호 (없으면 -1)
+     */
+    int segmentOf(long entityId) {
+        Migration current = migration;
+        return current == null ? -1 : ConsistentHashRing.segmentOf(current.segments(), ConsistentHashRing.hash(entityId));
+    }
+
+    /**
+     * 구간 쓰기 락 — 잡고 있는 동안 그 구간의 쓰기는 대기 (flip 직전 최종 검증용)
+     */
+    Lock segmentLock(int index) {
+        return requireMigration().locks()[index].writeLock();
+    }
+
+    /**
+     * 구간 라우팅을 새 주인으로 전환 — segmentLock을 잡은 상태에서 호출
+     */
+    void flip(int index) {
+        Migration current = requireMigration();
+        if (!current.locks()[index].isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException("Segment " + index + " must be locked before flipping");
+        }
+        current.states().set(index, SegmentState.FLIPPED);
+    }
+
+    /**
+     * 모든 구간 전환 후 새 링을 기본 라우팅으로
+     */
+    synchronized void completeMigration() {
+        Migration current = requireMigration();
+        for (int i = 0; i < current.states().length(); i++) {
+            if (current.states().get(i) == SegmentState.COPYING) {
+                throw new IllegalStateException("Segment " + i + " has not been flipped");
+            }
+        }
+        ring = current.target();
+        migration = null;
+        log.info("Shard migration completed: shards={}", ring.shardKeys());
+    }
+
+    /**
+     * 마이그레이션 중단 — 전환하지 않은 구간은 기존 주인이 그대로 최신 데이터를 갖고 있다
+     * (이미 전환된 구간이 있으면 되돌릴 수 없으므로 거부)
+     */
+    synchronized void abortMigration() {
+        Migration current = requireMigration();
+        for (int i = 0; i < current.states().length(); i++) {
+            if (current.states().get(i) == SegmentState.FLIPPED) {
+                throw new IllegalStateException("Segment " + i + " already flipped; finish the migration instead");
+            }
+        }
+        migration = null;
+        log.warn("Shard migration aborted: target={}", current.target().shardKeys());
+    }
+
+    private Migration requireMigration() {
+        Migration current = migration;
+        if (current == null) {
+            throw new IllegalStateException("No shard migration in progress");
+        }
+        return current;
+    }
+}
@@ -1,6 +1,7 @@
 package com.livemart.product.sharding;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,7 +14,7 @@ import java.util.Map;
  *
  * 수평 확장 전략:
  * 1. Range-based Sharding (범위 기반)
- * 2. Hash-based Sharding (해시 기반)
+ * 2. Hash-based Sharding (해시 기반 — consistent hash ring, ShardMigrationExecutor로 무중단 재배치)
  * 3. Geographic Sharding (지역 기반)
  * 4. 자동 라우팅
  */
@@ -22,11 +23,16 @@ import java.util.Map;
 public class DatabaseShardingConfig {
 
     /**
-     * Sharding 전략 설정
+     * Sharding 전략 설정 — 가상 노드 consistent hash (shard 추가 시 약 1/(n+1)의 키만 이동)
      */
     @Bean
-    public ShardingStrategy shardingStrategy() {
-        return new HashBasedShardingStrategy();
+    public ConsistentHashShardingStrategy shardingStrategy(
+            @Value("${product.sharding.vnodes-per-weight:128}") int vnodesPerWeight) {
+        return new ConsistentHashShardingStrategy(ConsistentHashRing.builder(vnodesPerWeight)
+                .shard("shard0", 1)
+                .shard("shard1", 1)
+                .shard("shard2", 1)
+                .build());
     }
 
     /**
@@ -0,0 +1,47 @@
+package com.livemart.product.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 정렬된 여러 결과(shard별)를 전역 정렬 순서로 합치는 k-way 병합
+ *
+ * 각 입력의 맨 앞 원소만 힙에 두고 가장 작은 것을 꺼낼 때마다 그 입력에서 한 개를 더 읽는다.
+ * limit개를 채우면 멈추므로 입력 전체를 읽거나 합친 뒤 다시 정렬하지 않는다 — O(limit · log k).
+ * 같은 순위면 입력 순서(shard 순서)가 앞선 쪽을 먼저 낸다.
+ */
+final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    private record Head<T>(T value, int source, Iterator<? extends T> rest) {}
+
+    static <T> List<T> merge(List<? extends Iterator<? extends T>> sortedInputs, Comparator<? super T> order, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Comparator<Head<T>> byValue = (a, b) -> order.compare(a.value(), b.value());
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sortedInputs.size()),
+                byValue.thenComparingInt(Head::source));
+        for (int i = 0; i < sortedInputs.size(); i++) {
+            Iterator<? extends T> input = sortedInputs.get(i);
+            if (input.hasNext()) {
+                heads.add(new Head<>(input.next(), i, input));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(Math.min(limit, 1024));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head<T> head = heads.poll();
+            merged.add(head.value());
+            if (head.rest().hasNext()) {
+                heads.add(new Head<>(head.rest().next(), head.source(), head.rest()));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,316 @@
+package com.livemart.product.sharding;
+
+import com.livemart.product.sharding.ConsistentHashRing.Segment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
+
+/**
+ * 무중단 shard 마이그레이션 실행기 (consistent hash ring 변경)
+ *
+ * 1. beginMigration — 주인이 바뀌는 구간은 이때부터 ShardingService.update가 기존/새 shard에 이중 쓰기
+ * 2. 복사 — 기존 shard를 id 순으로 batch 단위 keyset 스캔, 옮겨질 행만 새 shard로 복사 (delete + batch insert)
+ * 3. 검증/전환 — 구간별로 복사한 id의 행 digest를 양쪽에서 비교해 다른 행을 다시 복사한 뒤,
+ *    구간 쓰기 락을 잡고 한 번 더 비교해 일치하면 그 구간의 라우팅만 새 shard로 전환
+ * 4. 정리 — 기존 shard에 남은 옮겨진 구간의 행 삭제 후 새 링을 기본 라우팅으로
+ *
+ * 복사 중 이중 쓰기와 엇갈려 새 shard에 오래된 값이 들어갈 수 있는 행은 복사기가 쓴 행뿐이므로
+ * 검증은 복사한 id만 대상으로 한다. 쓰기가 멈추는 시간은 구간 하나의 최종 비교 동안이다.
+ */
+@Slf4j
+@Component
+public class ShardMigrationExecutor {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * @param totalRows     기존 shard에서 스캔한 전체 행 수
+     * @param movedRows     새 shard로 옮긴 행 수
+     * @param repairedRows  검증에서 다시 복사/삭제한 행 수 (복사 중 이중 쓰기와 엇갈린 행)
+     * @param rowsPerSecond 옮긴 행 기준 처리량
+     */
+    public record MigrationReport(
+            List<String> fromShards,
+            List<String> toShards,
+            long totalRows,
+            long movedRows,
+            double movedPercent,
+            int movingSegments,
+            long repairedRows,
+            Duration elapsed,
+            double rowsPerSecond
+    ) {}
+
+    private final ConsistentHashShardingStrategy shardingStrategy;
+    private final ShardQueryExecutor shardQueryExecutor;
+    private final int batchSize;
+
+    public ShardMigrationExecutor(ConsistentHashShardingStrategy shardingStrategy,
+                                  ShardQueryExecutor shardQueryExecutor,
+                                  @Value("${product.sharding.migration.batch-size:500}") int batchSize) {
+        this.shardingStrategy = shardingStrategy;
+        this.shardQueryExecutor = shardQueryExecutor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * table을 현재 링에서 target 링 배치로 옮긴다 — 끝나면 target이 기본 라우팅
+     */
+    public synchronized MigrationReport migrate(String table, String idColumn, ConsistentHashRing target) {
+        if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(idColumn).matches()) {
+            throw new IllegalArgumentException("Invalid table/column: " + table + "." + idColumn);
+        }
+        for (String shardKey : target.shardKeys()) {
+            if (shardQueryExecutor.template(shardKey) == null) {
+                throw new IllegalArgumentException("Target shard not configured: " + shardKey);
+            }
+        }
+
+        long started = System.nanoTime();
+        List<String> fromShards = shardingStrategy.ring().shardKeys();
+        List<Segment> moving = shardingStrategy.beginMigration(target);
+        Map<Integer, Segment> movingByIndex = new HashMap<>();
+        moving.forEach(segment -> movingByIndex.put(segment.index(), segment));
+        Map<Integer, List<Long>> copiedIds = new HashMap<>();
+        long[] totalRows = {0};
+        long repaired = 0;
+        int flipped = 0;
+
+        try {
+            // 2. 복사
+            Set<String> sources = new LinkedHashSet<>();
+            moving.forEach(segment -> sources.add(segment.source()));
+            for (String source : sources) {
+                JdbcTemplate sourceTemplate = requireTemplate(source);
+                scan(sourceTemplate, "SELECT * FROM " + table, table, idColumn, rows -> {
+                    totalRows[0] += rows.size();
+                    Map<String, List<Map<String, Object>>> byTarget = new LinkedHashMap<>();
+                    for (Map<String, Object> row : rows) {
+                        long id = idOf(row, idColumn);
+                        Segment segment = movingByIndex.get(shardingStrategy.segmentOf(id));
+                        if (segment != null) {
+                            byTarget.computeIfAbsent(segment.target(), k -> new ArrayList<>()).add(row);
+                            copiedIds.computeIfAbsent(segment.index(), k -> new ArrayList<>()).add(id);
+                        }
+                    }
+                    byTarget.forEach((shardKey, batch) ->
+                            replace(requireTemplate(shardKey), table, idColumn, batch));
+                });
+            }
+            for (String shardKey : fromShards) {
+                if (!sources.contains(shardKey)) {
+                    totalRows[0] += count(requireTemplate(shardKey), table);
+                }
+            }
+
+            // 3. 검증 후 구간별 전환
+            for (Segment segment : moving) {
+                List<Long> ids = copiedIds.getOrDefault(segment.index(), List.of());
+                JdbcTemplate source = requireTemplate(segment.source());
+                JdbcTemplate dest = requireTemplate(segment.target());
+                repaired += reconcile(source, dest, table, idColumn, ids);
+
+                Lock lock = shardingStrategy.segmentLock(segment.index());
+                lock.lock();
+                try {
+                    repaired += reconcile(source, dest, table, idColumn, ids);
+                    if (reconcile(source, dest, table, idColumn, ids) != 0) {
+                        throw new IllegalStateException("Checksum mismatch after repair: segment=" + segment.index());
+                    }
+                    shardingStrategy.flip(segment.index());
+                    flipped++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            // 4. 기존 shard 정리 — 복사 이후 이중 쓰기로 들어온 행까지 구간 기준으로 다시 스캔해 삭제
+            for (String source : sources) {
+                JdbcTemplate sourceTemplate = requireTemplate(source);
+                scan(sourceTemplate, "SELECT " + idColumn + " FROM " + table, table, idColumn, rows -> {
+                    List<Long> stale = new ArrayList<>();
+                    for (Map<String, Object> row : rows) {
+                        long id = idOf(row, idColumn);
+                        Segment segment = movingByIndex.get(shardingStrategy.segmentOf(id));
+                        if (segment != null && segment.source().equals(source)) {
+                            stale.add(id);
+                        }
+                    }
+                    deleteIds(sourceTemplate, table, idColumn, stale);
+                });
+            }
+            shardingStrategy.completeMigration();
+        } catch (RuntimeException e) {
+            if (flipped == 0) {
+                shardingStrategy.abortMigration();
+                log.error("Shard migration failed before any flip; routing unchanged (copied rows in target shards are orphans): table={}",
+                        table, e);
+            } else {
+                log.error("Shard migration failed after {} flipped segment(s); dual writes stay active until it is finished: table={}",
+                        flipped, table, e);
+            }
+            throw e;
+        }
+
+        long moved = copiedIds.values().stream().mapToLong(List::size).sum();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        MigrationReport report = new MigrationReport(
+                fromShards,
+                target.shardKeys(),
+                totalRows[0],
+                moved,
+                totalRows[0] == 0 ? 0.0 : moved * 100.0 / totalRows[0],
+                moving.size(),
+                repaired,
+                elapsed,
+                moved * 1_000_000_000.0 / Math.max(1, elapsed.toNanos()));
+        log.info("Shard migration report: table={}, {}", table, report);
+        return report;
+    }
+
+    @FunctionalInterface
+    private interface BatchHandler {
+        void handle(List<Map<String, Object>> rows);
+    }
+
+    /**
+     * id 순 keyset 페이지네이션 — OFFSET 없이 마지막 id 이후만 읽는다
+     */
+    private void scan(JdbcTemplate jdbcTemplate, String select, String table, String idColumn, BatchHandler handler) {
+        String sql = select + " WHERE " + idColumn + " > ? ORDER BY " + idColumn + " LIMIT ?";
+        long after = Long.MIN_VALUE;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, after, batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+            handler.handle(rows);
+            after = idOf(rows.get(rows.size() - 1), idColumn);
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 구간의 복사한 행을 양쪽에서 digest로 비교해 다른 행을 맞춘다
+     *
+     * @return 맞춘 행 수 (0이면 일치)
+     */
+    private long reconcile(JdbcTemplate source, JdbcTemplate target, String table, String idColumn, List<Long> ids) {
+        long repaired = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            Map<Long, Map<String, Object>> sourceRows = rowsById(source, table, idColumn, chunk);
+            Map<Long, Map<String, Object>> targetRows = rowsById(target, table, idColumn, chunk);
+
+            List<Map<String, Object>> stale = new ArrayList<>();
+            List<Long> deleted = new ArrayList<>();
+            for (Long id : chunk) {
+                Map<String, Object> expected = sourceRows.get(id);
+                Map<String, Object> actual = targetRows.get(id);
+                if (expected == null) {
+                    if (actual != null) {
+                        deleted.add(id);
+                    }
+                } else if (actual == null || digest(expected) != digest(actual)) {
+                    stale.add(expected);
+                }
+            }
+            deleteIds(target, table, idColumn, deleted);
+            replace(target, table, idColumn, stale);
+            repaired += stale.size() + deleted.size();
+        }
+        return repaired;
+    }
+
+    private Map<Long, Map<String, Object>> rowsById(JdbcTemplate jdbcTemplate, String table, String idColumn, List<Long> ids) {
+        String sql = "SELECT * FROM " + table + " WHERE " + idColumn + " IN (" + placeholders(ids.size()) + ")";
+        Map<Long, Map<String, Object>> rows = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(sql, ids.toArray())) {
+            rows.put(idOf(row, idColumn), row);
+        }
+        return rows;
+    }
+
+    /**
+     * 대상 shard에 행을 덮어쓴다 (같은 id 삭제 후 batch insert) — 그 사이 이중 쓰기 INSERT와 부딪히면 행 단위로 재시도
+     */
+    private void replace(JdbcTemplate target, String table, String idColumn, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + placeholders(columns.size()) + ")";
+        List<Object[]> args = rows.stream().map(row -> row.values().toArray()).toList();
+
+        deleteIds(target, table, idColumn, rows.stream().map(row -> idOf(row, idColumn)).toList());
+        try {
+            target.batchUpdate(insert, args);
+        } catch (DuplicateKeyException e) {
+            for (int i = 0; i < rows.size(); i++) {
+                target.update("DELETE FROM " + table + " WHERE " + idColumn + " = ?", idOf(rows.get(i), idColumn));
+                target.update(insert, args.get(i));
+            }
+        }
+    }
+
+    private void deleteIds(JdbcTemplate jdbcTemplate, String table, String idColumn, List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE " + idColumn + " IN (" + placeholders(chunk.size()) + ")",
+                    chunk.toArray());
+        }
+    }
+
+    private long count(JdbcTemplate jdbcTemplate, String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    private JdbcTemplate requireTemplate(String shardKey) {
+        JdbcTemplate jdbcTemplate = shardQueryExecutor.template(shardKey);
+        if (jdbcTemplate == null) {
+            throw new IllegalStateException("Shard not configured: " + shardKey);
+        }
+        return jdbcTemplate;
+    }
+
+    private static long idOf(Map<String, Object> row, String idColumn) {
+        return ((Number) row.get(idColumn)).longValue();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /** 행 digest — 컬럼 순서대로 값 문자열의 FNV-1a 64 */
+    static long digest(Map<String, Object> row) {
+        long h = 0xcbf29ce484222325L;
+        for (Object value : row.values()) {
+            for (byte b : String.valueOf(value).getBytes(StandardCharsets.UTF_8)) {
+                h ^= b & 0xff;
+                h *= 0x100000001b3L;
+            }
+            h ^= 0x1f;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,142 @@
+package com.livemart.product.sharding;
+
+import com.livemart.common.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shard scatter-gather 실행기
+ *
+ * - 전용 가상 스레드 실행기: shard당 가상 스레드 1개 — 블로킹 JDBC가 공용 ForkJoinPool(parallelStream)을 점유하지 않음
+ * - shard별 JdbcTemplate은 기동 시 한 번 만들어 재사용 (queryTimeout 설정 포함)
+ * - 모든 shard가 같은 마감 시각(query-timeout)을 공유 — 가장 느린 shard가 전체 응답 시간의 상한을 넘지 못함
+ * - 실패/시간 초과 shard 처리: PARTIAL이면 나머지 결과 + 실패 목록, FAIL이면 503 BusinessException
+ */
+@Slf4j
+@Component
+public class ShardQueryExecutor {
+
+    public enum PartialResultPolicy { FAIL, PARTIAL }
+
+    @FunctionalInterface
+    public interface ShardQuery<R> {
+        R execute(String shardKey, JdbcTemplate jdbcTemplate);
+    }
+
+    /**
+     * @param results  shard 순서대로의 결과
+     * @param failures 응답하지 못한 shard → 사유 (unavailable / timeout / 예외 메시지)
+     */
+    public record ShardResults<R>(Map<String, R> results, Map<String, String> failures) {
+        public boolean isPartial() {
+            return !failures.isEmpty();
+        }
+    }
+
+    private final ShardingStrategy shardingStrategy;
+    private final Map<String, JdbcTemplate> templates;
+    private final Duration timeout;
+    private final PartialResultPolicy defaultPolicy;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shard-query-", 0).factory());
+
+    public ShardQueryExecutor(ShardingStrategy shardingStrategy,
+                              @Qualifier("shardDataSources") Map<String, DataSource> shardDataSources,
+                              @Value("${product.sharding.query-timeout:3s}") Duration timeout,
+                              @Value("${product.sharding.partial-result-policy:PARTIAL}") PartialResultPolicy defaultPolicy) {
+        this.shardingStrategy = shardingStrategy;
+        this.timeout = timeout;
+        this.defaultPolicy = defaultPolicy;
+
+        Map<String, JdbcTemplate> built = new LinkedHashMap<>();
+        int queryTimeoutSeconds = (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+        shardDataSources.forEach((shardKey, dataSource) -> {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            // 마감 후 가상 스레드를 interrupt해도 드라이버가 멈추지 않을 수 있어 DB 쪽에서도 끊는다
+            template.setQueryTimeout(queryTimeoutSeconds);
+            built.put(shardKey, template);
+        });
+        this.templates = Collections.unmodifiableMap(built);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 단일 shard 템플릿 — 구성되지 않은 shard면 null
+     */
+    public JdbcTemplate template(String shardKey) {
+        return templates.get(shardKey);
+    }
+
+    public <R> ShardResults<R> scatter(ShardQuery<R> query) {
+        return scatter(query, defaultPolicy);
+    }
+
+    /**
+     * 모든 shard에 동시에 실행하고 마감 시각까지 결과를 모은다
+     */
+    public <R> ShardResults<R> scatter(ShardQuery<R> query, PartialResultPolicy policy) {
+        List<String> shardKeys = shardingStrategy.getAllShardKeys();
+        Map<String, Future<R>> futures = new LinkedHashMap<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (String shardKey : shardKeys) {
+            JdbcTemplate template = templates.get(shardKey);
+            if (template == null) {
+                failures.put(shardKey, "unavailable");
+            } else {
+                futures.put(shardKey, executor.submit(() -> query.execute(shardKey, template)));
+            }
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<String, R> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<R>> entry : futures.entrySet()) {
+                String shardKey = entry.getKey();
+                Future<R> future = entry.getValue();
+                try {
+                    results.put(shardKey, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    failures.put(shardKey, "timeout");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.error("Failed to query shard: shard={}", shardKey, cause);
+                    failures.put(shardKey, String.valueOf(cause.getMessage()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.values().forEach(future -> future.cancel(true));
+            throw new BusinessException("SHARD_QUERY_INTERRUPTED", "Shard query interrupted", 503);
+        }
+
+        if (!failures.isEmpty()) {
+            log.warn("Shard query incomplete: policy={}, failures={}", policy, failures);
+            if (policy == PartialResultPolicy.FAIL) {
+                throw new BusinessException("SHARD_UNAVAILABLE", "Shards did not respond: " + failures.keySet(), 503);
+            }
+        }
+        return new ShardResults<>(results, failures);
+    }
+}
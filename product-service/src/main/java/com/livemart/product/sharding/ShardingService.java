@@ -1,45 +1,54 @@
 package com.livemart.product.sharding;
 
+import com.livemart.common.exception.BusinessException;
+import com.livemart.product.sharding.ShardQueryExecutor.ShardResults;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
-import javax.sql.DataSource;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 /**
  * Sharding 서비스
  *
  * 기능:
  * 1. 자동 Shard 라우팅
- * 2. 브로드캐스트 쿼리 (모든 Shard 조회)
- * 3. 분산 집계
- * 4. Shard 통계
+ * 2. 브로드캐스트 쿼리 (모든 Shard 조회) — ShardQueryExecutor로 가상 스레드 scatter-gather
+ * 3. 전역 정렬 + limit 조회 (shard별 상위 N개만 읽어 k-way 병합)
+ * 4. 분산 집계
+ * 5. Shard 통계
+ * 6. 쓰기 라우팅 (shard 마이그레이션 중에는 기존/새 shard 이중 쓰기)
+ *
+ * 마이그레이션 중에는 옮겨지는 행이 두 shard에 동시에 존재한다. 조회는 ShardRowMapper.routingId()가 있으면
+ * 현재 라우팅상 주인이 아닌 shard의 행을 버려 중복을 막지만, count/sum은 행을 읽지 않으므로 그 동안 중복 집계될 수 있다.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ShardingService {
 
+    /** "컬럼 [ASC|DESC], ..." 형태만 허용 — ORDER BY에 그대로 붙으므로 */
+    private static final Pattern ORDER_BY = Pattern.compile(
+            "[A-Za-z_][A-Za-z0-9_]*( (?i:ASC|DESC))?(\\s*,\\s*[A-Za-z_][A-Za-z0-9_]*( (?i:ASC|DESC))?)*");
+
     private final ShardingStrategy shardingStrategy;
-    private final Map<String, DataSource> shardDataSources;
+    private final ShardQueryExecutor shardQueryExecutor;
 
     /**
      * 단일 Shard에서 조회
      */
     public <T> Optional<T> findById(Long id, ShardRowMapper<T> mapper) {
         String shardKey = shardingStrategy.determineShardKey(id);
-        DataSource dataSource = shardDataSources.get(shardKey);
+        JdbcTemplate jdbcTemplate = shardQueryExecutor.template(shardKey);
 
-        if (dataSource == null) {
+        if (jdbcTemplate == null) {
             log.error("Shard not found: {}", shardKey);
             return Optional.empty();
         }
 
-        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
-
         try {
             String sql = mapper.getSelectSql();
             T result = jdbcTemplate.queryForObject(
@@ -59,138 +68,148 @@ public class ShardingService {
     }
 
     /**
-     * 모든 Shard에서 조회 (브로드캐스트 쿼리)
+     * 모든 Shard에서 조회 (브로드캐스트 쿼리) — shard 순서대로 이어 붙임, 응답하지 못한 shard는 빠짐
      */
     public <T> List<T> findAll(ShardRowMapper<T> mapper) {
-        List<String> shardKeys = shardingStrategy.getAllShardKeys();
-
-        return shardKeys.parallelStream()
-            .flatMap(shardKey -> {
-                DataSource dataSource = shardDataSources.get(shardKey);
-                if (dataSource == null) {
-                    log.warn("Shard not available: {}", shardKey);
-                    return java.util.stream.Stream.empty();
-                }
-
-                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        ShardResults<List<T>> gathered = shardQueryExecutor.scatter((shardKey, jdbcTemplate) -> {
+            List<T> results = ownedBy(shardKey, mapper,
+                    jdbcTemplate.query(mapper.getSelectAllSql(), (rs, rowNum) -> mapper.mapRow(rs)));
+            log.debug("Queried shard: shard={}, results={}", shardKey, results.size());
+            return results;
+        });
 
-                try {
-                    String sql = mapper.getSelectAllSql();
-                    List<T> results = jdbcTemplate.query(
-                        sql,
-                        (rs, rowNum) -> mapper.mapRow(rs)
-                    );
+        List<T> all = new ArrayList<>();
+        gathered.results().values().forEach(all::addAll);
+        return all;
+    }
 
-                    log.debug("Queried shard: shard={}, results={}", shardKey, results.size());
+    /**
+     * 모든 Shard에서 전역 정렬 순서로 offset부터 limit개
+     *
+     * shard마다 ORDER BY + LIMIT (offset + limit)로 상위 행만 읽고, 이미 정렬된 shard 결과를 k-way 병합한다.
+     * sort.comparator()는 sort.orderBy()와 같은 순서여야 하고, 고유 컬럼으로 끝나야 페이지가 안정적이다.
+     */
+    public <T> ShardPage<T> findAllSorted(ShardRowMapper<T> mapper, ShardSort<T> sort, int offset, int limit) {
+        if (!ORDER_BY.matcher(sort.orderBy()).matches()) {
+            throw new IllegalArgumentException("Invalid ORDER BY: " + sort.orderBy());
+        }
+        if (offset < 0 || limit <= 0) {
+            return new ShardPage<>(List.of(), List.of());
+        }
+        int perShard = Math.addExact(offset, limit);
+        String sql = mapper.getSelectAllSql() + " ORDER BY " + sort.orderBy() + " LIMIT ?";
+        RowMapper<T> rowMapper = (rs, rowNum) -> mapper.mapRow(rs);
+
+        ShardResults<List<T>> gathered = shardQueryExecutor.scatter((shardKey, jdbcTemplate) -> {
+            // 주인이 아닌 행을 버린 만큼 더 읽어 shard별 상위 perShard개를 채운다 (마이그레이션 중에만 해당)
+            int fetch = perShard;
+            while (true) {
+                List<T> rows = jdbcTemplate.query(sql, rowMapper, fetch);
+                List<T> owned = ownedBy(shardKey, mapper, rows);
+                if (owned.size() >= perShard || rows.size() < fetch) {
+                    return owned.size() > perShard ? owned.subList(0, perShard) : owned;
+                }
+                fetch = Math.addExact(fetch, rows.size() - owned.size());
+            }
+        });
 
-                    return results.stream();
+        List<Iterator<T>> runs = gathered.results().values().stream().map(List::iterator).toList();
+        List<T> merged = KWayMerge.merge(runs, sort.comparator(), perShard);
+        List<T> page = offset >= merged.size() ? List.of() : merged.subList(offset, merged.size());
+        return new ShardPage<>(page, List.copyOf(gathered.failures().keySet()));
+    }
 
-                } catch (Exception e) {
-                    log.error("Failed to query shard: shard={}", shardKey, e);
-                    return java.util.stream.Stream.empty();
+    /**
+     * id 기준 쓰기 (INSERT/UPDATE/DELETE) — 마이그레이션 중 옮겨지는 구간이면 기존/새 shard 모두에 실행
+     *
+     * @return 읽기 주인 shard(첫 번째)에서 영향받은 행 수
+     */
+    public int update(Long id, String sql, Object... args) {
+        return shardingStrategy.routeWrite(id, shardKeys -> {
+            int updated = 0;
+            for (int i = 0; i < shardKeys.size(); i++) {
+                String shardKey = shardKeys.get(i);
+                JdbcTemplate jdbcTemplate = shardQueryExecutor.template(shardKey);
+                if (jdbcTemplate == null) {
+                    throw new BusinessException("SHARD_UNAVAILABLE", "Shard not configured: " + shardKey, 503);
+                }
+                int rows = jdbcTemplate.update(sql, args);
+                if (i == 0) {
+                    updated = rows;
                 }
-            })
-            .collect(Collectors.toList());
+            }
+            log.debug("Shard write: id={}, shards={}, rows={}", id, shardKeys, updated);
+            return updated;
+        });
+    }
+
+    private <T> List<T> ownedBy(String shardKey, ShardRowMapper<T> mapper, List<T> rows) {
+        List<T> owned = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            Long id = mapper.routingId(row);
+            if (id == null || shardKey.equals(shardingStrategy.determineShardKey(id))) {
+                owned.add(row);
+            }
+        }
+        return owned.size() == rows.size() ? rows : owned;
     }
 
     /**
      * 분산 카운트 집계
      */
     public long count(String tableName) {
-        List<String> shardKeys = shardingStrategy.getAllShardKeys();
-
-        return shardKeys.parallelStream()
-            .mapToLong(shardKey -> {
-                DataSource dataSource = shardDataSources.get(shardKey);
-                if (dataSource == null) return 0L;
-
-                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
-
-                try {
-                    String sql = "SELECT COUNT(*) FROM " + tableName;
-                    Long count = jdbcTemplate.queryForObject(sql, Long.class);
-
-                    log.debug("Shard count: shard={}, count={}", shardKey, count);
-
-                    return count != null ? count : 0L;
+        String sql = "SELECT COUNT(*) FROM " + tableName;
+        ShardResults<Long> gathered = shardQueryExecutor.scatter((shardKey, jdbcTemplate) -> {
+            Long count = jdbcTemplate.queryForObject(sql, Long.class);
+            log.debug("Shard count: shard={}, count={}", shardKey, count);
+            return count != null ? count : 0L;
+        });
 
-                } catch (Exception e) {
-                    log.error("Failed to count in shard: shard={}", shardKey, e);
-                    return 0L;
-                }
-            })
-            .sum();
+        return gathered.results().values().stream().mapToLong(Long::longValue).sum();
     }
 
     /**
      * 분산 합계 집계
      */
     public double sum(String tableName, String columnName) {
-        List<String> shardKeys = shardingStrategy.getAllShardKeys();
-
-        return shardKeys.parallelStream()
-            .mapToDouble(shardKey -> {
-                DataSource dataSource = shardDataSources.get(shardKey);
-                if (dataSource == null) return 0.0;
-
-                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
-
-                try {
-                    String sql = String.format("SELECT SUM(%s) FROM %s", columnName, tableName);
-                    Double sum = jdbcTemplate.queryForObject(sql, Double.class);
-
-                    return sum != null ? sum : 0.0;
+        String sql = String.format("SELECT SUM(%s) FROM %s", columnName, tableName);
+        ShardResults<Double> gathered = shardQueryExecutor.scatter((shardKey, jdbcTemplate) -> {
+            Double sum = jdbcTemplate.queryForObject(sql, Double.class);
+            return sum != null ? sum : 0.0;
+        });
 
-                } catch (Exception e) {
-                    log.error("Failed to sum in shard: shard={}", shardKey, e);
-                    return 0.0;
-                }
-            })
-            .sum();
+        return gathered.results().values().stream().mapToDouble(Double::doubleValue).sum();
     }
 
     /**
      * Shard별 통계
      */
     public Map<String, ShardStats> getShardStats(String tableName) {
-        List<String> shardKeys = shardingStrategy.getAllShardKeys();
-        Map<String, ShardStats> statsMap = new HashMap<>();
-
-        shardKeys.forEach(shardKey -> {
-            DataSource dataSource = shardDataSources.get(shardKey);
-            if (dataSource == null) {
-                statsMap.put(shardKey, new ShardStats(shardKey, 0L, 0L, "UNAVAILABLE"));
-                return;
-            }
+        ShardResults<ShardStats> gathered = shardQueryExecutor.scatter((shardKey, jdbcTemplate) -> {
+            // 레코드 수
+            String countSql = "SELECT COUNT(*) FROM " + tableName;
+            Long count = jdbcTemplate.queryForObject(countSql, Long.class);
+
+            // 테이블 크기 (MB)
+            String sizeSql = """
+                SELECT ROUND(((data_length + index_length) / 1024 / 1024), 2)
+                FROM information_schema.TABLES
+                WHERE table_schema = DATABASE()
+                AND table_name = ?
+                """;
+            Long sizeMb = jdbcTemplate.queryForObject(sizeSql, Long.class, tableName);
+
+            return new ShardStats(
+                shardKey,
+                count != null ? count : 0L,
+                sizeMb != null ? sizeMb : 0L,
+                "ONLINE"
+            );
+        }, ShardQueryExecutor.PartialResultPolicy.PARTIAL);
 
-            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
-
-            try {
-                // 레코드 수
-                String countSql = "SELECT COUNT(*) FROM " + tableName;
-                Long count = jdbcTemplate.queryForObject(countSql, Long.class);
-
-                // 테이블 크기 (MB)
-                String sizeSql = """
-                    SELECT ROUND(((data_length + index_length) / 1024 / 1024), 2)
-                    FROM information_schema.TABLES
-                    WHERE table_schema = DATABASE()
-                    AND table_name = ?
-                    """;
-                Long sizeMb = jdbcTemplate.queryForObject(sizeSql, Long.class, tableName);
-
-                statsMap.put(shardKey, new ShardStats(
-                    shardKey,
-                    count != null ? count : 0L,
-                    sizeMb != null ? sizeMb : 0L,
-                    "ONLINE"
-                ));
-
-            } catch (Exception e) {
-                log.error("Failed to get stats for shard: shard={}", shardKey, e);
-                statsMap.put(shardKey, new ShardStats(shardKey, 0L, 0L, "ERROR"));
-            }
-        });
+        Map<String, ShardStats> statsMap = new HashMap<>(gathered.results());
+        gathered.failures().forEach((shardKey, reason) -> statsMap.put(shardKey,
+                new ShardStats(shardKey, 0L, 0L, "unavailable".equals(reason) ? "UNAVAILABLE" : "ERROR")));
 
         return statsMap;
     }
@@ -298,6 +317,13 @@ public class ShardingService {
         String getSelectSql();
         String getSelectAllSql();
         T mapRow(java.sql.ResultSet rs) throws java.sql.SQLException;
+
+        /**
+         * 행의 라우팅 id — 제공하면 브로드캐스트 조회에서 현재 주인 shard의 행만 남긴다 (마이그레이션 중 중복 제거)
+         */
+        default Long routingId(T row) {
+            return null;
+        }
     }
 
     public record ShardStats(
@@ -306,4 +332,20 @@ public class ShardingService {
         long sizeMb,
         String status
     ) {}
+
+    /**
+     * 전역 정렬 기준 — orderBy는 shard SQL (예: "price DESC, id"), comparator는 병합 순서 (둘이 같은 순서여야 함)
+     */
+    public record ShardSort<T>(
+        String orderBy,
+        Comparator<? super T> comparator
+    ) {}
+
+    /**
+     * @param failedShards 응답하지 못해 결과에서 빠진 shard (PARTIAL 정책일 때)
+     */
+    public record ShardPage<T>(
+        List<T> content,
+        List<String> failedShards
+    ) {}
 }
@@ -3,6 +3,7 @@ package com.livemart.product.sharding;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Sharding 전략 인터페이스
@@ -18,6 +19,14 @@ public interface ShardingStrategy {
      * 전체 Shard 조회 (브로드캐스트 쿼리용)
      */
     List<String> getAllShardKeys();
+
+    /**
+     * 쓰기 대상 Shard로 write 실행 — 기본은 읽기와 같은 Shard 1개
+     * (마이그레이션 중 이중 쓰기가 필요한 전략은 재정의)
+     */
+    default <R> R routeWrite(Long entityId, Function<List<String>, R> write) {
+        return write.apply(List.of(determineShardKey(entityId)));
+    }
 }
 
 /**
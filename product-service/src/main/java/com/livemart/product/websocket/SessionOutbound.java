@@ -0,0 +1,216 @@
+package com.livemart.product.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 세션별 송신 큐 — 느린 클라이언트가 다른 세션 전송을 막지 않도록 격리
+ *
+ * 호출 스레드(Redis 리스너, tick)는 큐에 넣고 바로 돌아가며, 실제 전송은 세션당 최대 1개의 가상 스레드가 순서대로 한다.
+ * 큐는 메시지 수(maxQueued)와 바이트(bufferSizeLimit)로 제한되고, 넘치면 OverflowPolicy를 따른다:
+ *
+ *   DROP_OLDEST : 가장 오래된 메시지부터 버림
+ *   CONFLATE    : 같은 상품의 재고 메시지가 아직 큐에 있으면 새 값으로 바꿔치기 (밀린 세션도 최신 재고만 받음),
+ *                 그래도 넘치면 가장 오래된 메시지부터 버림
+ *   DISCONNECT  : 세션을 끊음 (클라이언트가 재접속 후 다시 구독)
+ *
+ * 한 번의 전송이 sendTimeLimit을 넘기면 정책과 관계없이 끊는다 — 블로킹된 클라이언트는 큐를 비울 수 없으므로.
+ */
+@Slf4j
+class SessionOutbound {
+
+    enum OverflowPolicy { DROP_OLDEST, CONFLATE, DISCONNECT }
+
+    record Limits(int maxQueued, int bufferSizeLimit, Duration sendTimeLimit, OverflowPolicy overflowPolicy) {}
+
+    record Meters(Counter sent, Counter dropped, Counter conflated, Counter overflowDisconnects, Counter sendTimeouts) {}
+
+    private record Outbound(TextMessage message, Long conflationKey) {
+        int size() {
+            return message.getPayloadLength();
+        }
+    }
+
+    private final WebSocketSession session;
+    private final Limits limits;
+    private final Meters meters;
+    private final Executor sender;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+    private int bufferedBytes;
+    private boolean draining;
+    private volatile int depth;
+    private volatile long sendStartedAt;
+    private volatile boolean closed;
+
+    SessionOutbound(WebSocketSession session, Limits limits, Meters meters, Executor sender) {
+        this.session = session;
+        this.limits = limits;
+        this.meters = meters;
+        this.sender = sender;
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * 송신 큐에 추가 — 블로킹하지 않음
+     *
+     * @param conflationKey 같은 키의 대기 메시지를 대체할 수 있으면 상품 id, 아니면 null (응답/알림)
+     * @return 큐에 들어갔으면 true (끊긴 세션이면 false)
+     */
+    boolean offer(TextMessage message, Long conflationKey) {
+        if (closed || !session.isOpen()) {
+            return false;
+        }
+        if (expireIfStalled(System.nanoTime())) {
+            return false;
+        }
+
+        boolean overflow = false;
+        boolean startDrain = false;
+        lock.lock();
+        try {
+            if (conflationKey != null && limits.overflowPolicy() == OverflowPolicy.CONFLATE && replace(message, conflationKey)) {
+                meters.conflated().increment();
+                return true;
+            }
+            Outbound outbound = new Outbound(message, conflationKey);
+            queue.addLast(outbound);
+            bufferedBytes += outbound.size();
+            while (queue.size() > limits.maxQueued() || bufferedBytes > limits.bufferSizeLimit()) {
+                if (limits.overflowPolicy() == OverflowPolicy.DISCONNECT) {
+                    overflow = true;
+                    break;
+                }
+                bufferedBytes -= queue.pollFirst().size();
+                meters.dropped().increment();
+            }
+            if (!overflow && !draining && !queue.isEmpty()) {
+                draining = true;
+                startDrain = true;
+            }
+            depth = queue.size();
+        } finally {
+            lock.unlock();
+        }
+
+        if (overflow) {
+            meters.overflowDisconnects().increment();
+            disconnect("send buffer overflow");
+            return false;
+        }
+        if (startDrain) {
+            sender.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * 진행 중인 전송이 sendTimeLimit을 넘겼으면 끊는다
+     *
+     * @return 끊었으면 true
+     */
+    boolean expireIfStalled(long now) {
+        long started = sendStartedAt;
+        if (closed || started == 0 || now - started <= limits.sendTimeLimit().toNanos()) {
+            return false;
+        }
+        meters.sendTimeouts().increment();
+        disconnect("send time limit exceeded");
+        return true;
+    }
+
+    /**
+     * 연결 종료 후 정리 — 남은 메시지는 버림
+     *
+     * @return 이번 호출로 닫혔으면 true
+     */
+    boolean close() {
+        lock.lock();
+        try {
+            boolean wasOpen = !closed;
+            closed = true;
+            queue.clear();
+            bufferedBytes = 0;
+            depth = 0;
+            return wasOpen;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean replace(TextMessage message, Long conflationKey) {
+        for (Iterator<Outbound> it = queue.descendingIterator(); it.hasNext(); ) {
+            Outbound queued = it.next();
+            if (conflationKey.equals(queued.conflationKey())) {
+                // 이전 값은 지우고 최신 값을 맨 뒤에 — 상품 내 순서는 그대로
+                it.remove();
+                Outbound latest = new Outbound(message, conflationKey);
+                queue.addLast(latest);
+                bufferedBytes += latest.size() - queued.size();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        while (true) {
+            Outbound next;
+            lock.lock();
+            try {
+                next = closed ? null : queue.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                bufferedBytes -= next.size();
+                depth = queue.size();
+            } finally {
+                lock.unlock();
+            }
+
+            sendStartedAt = System.nanoTime();
+            try {
+                session.sendMessage(next.message());
+                meters.sent().increment();
+            } catch (Exception e) {
+                log.debug("Failed to send stock message to session {}: {}", session.getId(), e.getMessage());
+                disconnect("send failed");
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+    }
+
+    private void disconnect(String reason) {
+        if (!close()) {
+            return;
+        }
+        log.warn("Closing slow WebSocket session: sessionId={}, reason={}", session.getId(), reason);
+        // 막힌 전송과 같은 락을 잡을 수 있어 호출 스레드가 아닌 가상 스레드에서 닫는다
+        sender.execute(() -> {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (Exception e) {
+                log.debug("Failed to close session {}: {}", session.getId(), e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.livemart.product.websocket;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품 → 구독 세션 역인덱스
+ *
+ * 재고 변경 1건을 받으면 그 상품의 구독 세션만 꺼내므로 전송 비용이 전체 세션 수가 아니라 구독자 수에 비례한다.
+ * 세션별 구독 목록도 함께 두어 연결 종료 시 그 세션이 구독한 상품 항목만 정리한다.
+ * 구독자가 0이 된 상품 항목은 바로 지운다 (compute 안에서 처리해 구독과 경합해도 항목이 사라지지 않음).
+ */
+class StockSubscriptionIndex {
+
+    /** 구독자 집합은 동시성 Set — 전송 중 구독이 바뀌어도 순회 가능 */
+    private final Map<Long, Set<WebSocketSession>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> productsBySession = new ConcurrentHashMap<>();
+
+    /**
+     * @return 새로 구독했으면 true, 이미 구독 중이거나 세션당 상한에 걸리면 false
+     */
+    boolean subscribe(WebSocketSession session, Long productId, int maxPerSession) {
+        Set<Long> products = productsBySession.computeIfAbsent(session.getId(), id -> ConcurrentHashMap.newKeySet());
+        synchronized (products) {
+            if (products.contains(productId) || products.size() >= maxPerSession) {
+                return false;
+            }
+            products.add(productId);
+        }
+        subscribers.compute(productId, (id, sessions) -> {
+            Set<WebSocketSession> set = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            set.add(session);
+            return set;
+        });
+        return true;
+    }
+
+    boolean unsubscribe(WebSocketSession session, Long productId) {
+        Set<Long> products = productsBySession.get(session.getId());
+        if (products == null || !products.remove(productId)) {
+            return false;
+        }
+        detach(session, productId);
+        return true;
+    }
+
+    /**
+     * 연결 종료 — 세션이 구독한 상품에서만 제거
+     */
+    void removeSession(WebSocketSession session) {
+        Set<Long> products = productsBySession.remove(session.getId());
+        if (products != null) {
+            products.forEach(productId -> detach(session, productId));
+        }
+    }
+
+    /**
+     * 상품 구독 세션 (없으면 빈 Set) — 반환된 Set은 읽기 전용으로만 사용
+     */
+    Set<WebSocketSession> subscribers(Long productId) {
+        Set<WebSocketSession> sessions = subscribers.get(productId);
+        return sessions != null ? sessions : Set.of();
+    }
+
+    boolean hasSubscribers(Long productId) {
+        return subscribers.containsKey(productId);
+    }
+
+    Set<Long> subscriptions(WebSocketSession session) {
+        Set<Long> products = productsBySession.get(session.getId());
+        return products != null ? Set.copyOf(products) : Set.of();
+    }
+
+    int productCount() {
+        return subscribers.size();
+    }
+
+    private void detach(WebSocketSession session, Long productId) {
+        subscribers.computeIfPresent(productId, (id, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
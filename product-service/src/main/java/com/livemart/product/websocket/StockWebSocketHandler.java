@@ -1,17 +1,30 @@
 package com.livemart.product.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebSocket 실시간 재고 알림 — Redis Pub/Sub 기반 다중 인스턴스 지원
@@ -19,27 +32,119 @@ import java.util.concurrent.ConcurrentHashMap;
  * 아키텍처:
  *   Producer: broadcastStockUpdate() → Redis PUBLISH stock:updates
  *   Consumer: handleStockUpdate()    ← Redis SUBSCRIBE (RedisConfig 등록)
- *             → 로컬 WS 세션에 전송
+ *             → 상품별 최신 메시지만 보관 (conflation)
+ *             → tick-interval마다 상품 구독 세션(StockSubscriptionIndex)에 전송
+ *
+ * - 세션은 여러 상품을 구독 (subscribe/unsubscribe에 productId 또는 productIds, 세션당 상한 max-subscriptions-per-session)
+ * - 한 tick 안에 같은 상품 재고가 여러 번 바뀌면 마지막 값 1건만 전송 — 클라이언트에 필요한 것은 현재 재고
+ * - Redis 메시지 JSON을 그대로 TextMessage 1개로 만들어 모든 구독 세션이 공유 (세션마다 직렬화하지 않음)
+ * - 구독자가 없는 상품 메시지는 파싱 후 바로 버림
+ * - 전송은 세션별 송신 큐(SessionOutbound)를 거쳐 가상 스레드에서 — 멈춘 클라이언트가 tick/리스너 스레드나 다른 세션을 막지 않음
  *
  * 효과: 50k 동시 접속 시 모든 인스턴스의 WebSocket 클라이언트에 재고 변경 전달 가능
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class StockWebSocketHandler extends TextWebSocketHandler {
 
-    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, SessionOutbound> sessions = new ConcurrentHashMap<>();
+    private final StockSubscriptionIndex subscriptions = new StockSubscriptionIndex();
+    /** 상품 → 이번 tick의 최신 재고 메시지 */
+    private final Map<Long, String> latestUpdates = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper;
     private final StringRedisTemplate stringRedisTemplate;
+    private final Duration tickInterval;
+    private final int maxSubscriptionsPerSession;
+    private final SessionOutbound.Limits outboundLimits;
+    private final SessionOutbound.Meters outboundMeters;
+    private final ExecutorService sender =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stock-ws-send-", 0).factory());
+    private ScheduledExecutorService ticker;
+
+    private final Counter updatesReceived;
+    private final Counter updatesConflated;
 
     public static final String STOCK_UPDATE_CHANNEL  = "stock:updates";
     public static final String LOW_STOCK_CHANNEL     = "stock:low-alerts";
 
+    public StockWebSocketHandler(ObjectMapper objectMapper,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 MeterRegistry registry,
+                                 @Value("${product.websocket.stock.tick-interval:200ms}") Duration tickInterval,
+                                 @Value("${product.websocket.stock.max-subscriptions-per-session:100}") int maxSubscriptionsPerSession,
+                                 @Value("${product.websocket.stock.outbound.max-queued:256}") int maxQueued,
+                                 @Value("${product.websocket.stock.outbound.buffer-size-limit:512KB}") DataSize bufferSizeLimit,
+                                 @Value("${product.websocket.stock.outbound.send-time-limit:10s}") Duration sendTimeLimit,
+                                 @Value("${product.websocket.stock.outbound.overflow-policy:CONFLATE}") SessionOutbound.OverflowPolicy overflowPolicy) {
+        this.objectMapper = objectMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.tickInterval = tickInterval;
+        this.maxSubscriptionsPerSession = maxSubscriptionsPerSession;
+        this.outboundLimits = new SessionOutbound.Limits(
+                maxQueued, (int) Math.min(Integer.MAX_VALUE, bufferSizeLimit.toBytes()), sendTimeLimit, overflowPolicy);
+
+        this.updatesReceived = Counter.builder("websocket.stock.updates.received")
+                .description("Stock updates received from Redis for locally subscribed products")
+                .register(registry);
+        this.updatesConflated = Counter.builder("websocket.stock.updates.conflated")
+                .description("Stock updates replaced by a newer value before the tick")
+                .register(registry);
+        this.outboundMeters = new SessionOutbound.Meters(
+                Counter.builder("websocket.stock.messages.sent")
+                        .description("Messages sent to stock WebSocket sessions")
+                        .register(registry),
+                Counter.builder("websocket.stock.outbound.dropped")
+                        .description("Queued messages dropped because a session send buffer was full")
+                        .register(registry),
+                Counter.builder("websocket.stock.outbound.conflated")
+                        .description("Queued stock updates replaced by a newer value for a lagging session")
+                        .register(registry),
+                Counter.builder("websocket.stock.sessions.disconnected")
+                        .tag("reason", "overflow")
+                        .description("Sessions closed by the send buffer limits")
+                        .register(registry),
+                Counter.builder("websocket.stock.sessions.disconnected")
+                        .tag("reason", "send-timeout")
+                        .description("Sessions closed by the send buffer limits")
+                        .register(registry));
+        Gauge.builder("websocket.stock.sessions", sessions, Map::size)
+                .description("Open stock WebSocket sessions")
+                .register(registry);
+        Gauge.builder("websocket.stock.subscribed.products", subscriptions, StockSubscriptionIndex::productCount)
+                .description("Products with at least one local subscriber")
+                .register(registry);
+        Gauge.builder("websocket.stock.outbound.queued", this, StockWebSocketHandler::queuedMessages)
+                .description("Messages waiting in session send queues")
+                .register(registry);
+        Gauge.builder("websocket.stock.outbound.queue.max", this, StockWebSocketHandler::deepestQueue)
+                .description("Deepest session send queue")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stock-ws-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(1, tickInterval.toMillis());
+        ticker.scheduleWithFixedDelay(this::flushQuietly, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdown();
+        }
+        sender.shutdownNow();
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.put(session.getId(), session);
-        log.info("WebSocket connected: sessionId={}, total={}", session.getId(), sessions.size());
-        session.sendMessage(new TextMessage(
+        sessions.put(session.getId(), new SessionOutbound(session, outboundLimits, outboundMeters, sender));
+        log.debug("WebSocket connected: sessionId={}, total={}", session.getId(), sessions.size());
+        send(session, new TextMessage(
             "{\"type\":\"connected\",\"message\":\"Real-time stock updates enabled\"}"
         ));
     }
@@ -47,19 +152,49 @@ public class StockWebSocketHandler extends TextWebSocketHandler {
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         Map<String, Object> payload = objectMapper.readValue(message.getPayload(), Map.class);
-        if ("subscribe".equals(payload.get("action"))) {
-            Long productId = ((Number) payload.get("productId")).longValue();
-            session.getAttributes().put("subscribedProductId", productId);
-            session.sendMessage(new TextMessage(
-                String.format("{\"type\":\"subscribed\",\"productId\":%d}", productId)
+        Object action = payload.get("action");
+        if (!"subscribe".equals(action) && !"unsubscribe".equals(action)) {
+            return;
+        }
+
+        List<Long> productIds = productIds(payload);
+        List<Long> changed = new ArrayList<>(productIds.size());
+        boolean limited = false;
+        for (Long productId : productIds) {
+            if ("subscribe".equals(action)) {
+                if (subscriptions.subscribe(session, productId, maxSubscriptionsPerSession)) {
+                    changed.add(productId);
+                } else if (subscriptions.subscriptions(session).size() >= maxSubscriptionsPerSession) {
+                    limited = true;
+                }
+            } else if (subscriptions.unsubscribe(session, productId)) {
+                changed.add(productId);
+            }
+        }
+
+        String type = "subscribe".equals(action) ? "subscribed" : "unsubscribed";
+        if (payload.containsKey("productIds")) {
+            send(session, new TextMessage(objectMapper.writeValueAsString(Map.of("type", type, "productIds", changed))));
+        } else if (!productIds.isEmpty()) {
+            send(session, new TextMessage(
+                String.format("{\"type\":\"%s\",\"productId\":%d}", type, productIds.get(0))
             ));
         }
+        if (limited) {
+            send(session, new TextMessage(String.format(
+                "{\"type\":\"error\",\"message\":\"Subscription limit exceeded\",\"limit\":%d}",
+                maxSubscriptionsPerSession)));
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        sessions.remove(session.getId());
-        log.info("WebSocket disconnected: sessionId={}, status={}, remaining={}", session.getId(), status, sessions.size());
+        SessionOutbound outbound = sessions.remove(session.getId());
+        if (outbound != null) {
+            outbound.close();
+        }
+        subscriptions.removeSession(session);
+        log.debug("WebSocket disconnected: sessionId={}, status={}, remaining={}", session.getId(), status, sessions.size());
     }
 
     /**
@@ -90,25 +225,49 @@ public class StockWebSocketHandler extends TextWebSocketHandler {
     // ── Redis Subscriber callbacks (RedisConfig에서 MessageListenerAdapter로 등록) ──────
 
     /**
-     * stock:updates 채널 수신 → 해당 상품을 구독한 로컬 WebSocket 세션에 전달
+     * stock:updates 채널 수신 → 로컬 구독자가 있는 상품이면 최신 메시지로 보관 (전송은 tick에서)
      */
     public void handleStockUpdate(String message) {
+        Long productId;
         try {
-            Map<String, Object> payload = objectMapper.readValue(message, Map.class);
-            Long productId = ((Number) payload.get("productId")).longValue();
-
-            sessions.values().forEach(session -> {
-                try {
-                    Long subscribedId = (Long) session.getAttributes().get("subscribedProductId");
-                    if (subscribedId != null && subscribedId.equals(productId) && session.isOpen()) {
-                        session.sendMessage(new TextMessage(message));
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to send stock update to session {}: {}", session.getId(), e.getMessage());
-                }
-            });
+            productId = objectMapper.readTree(message).path("productId").asLong();
         } catch (Exception e) {
             log.error("Failed to parse stock update from Redis: {}", message, e);
+            return;
+        }
+        if (!subscriptions.hasSubscribers(productId)) {
+            return;
+        }
+        updatesReceived.increment();
+        if (latestUpdates.put(productId, message) != null) {
+            updatesConflated.increment();
+        }
+    }
+
+    /**
+     * 이번 tick에 모인 상품별 최신 재고를 구독 세션 송신 큐에 넣는다 — 상품당 TextMessage 1개를 모든 구독자가 공유
+     * 이어서 전송이 send-time-limit 넘게 멈춘 세션을 정리한다 (새 메시지가 없는 세션도 대상).
+     */
+    void flush() {
+        for (Long productId : latestUpdates.keySet()) {
+            String latest = latestUpdates.remove(productId);
+            if (latest == null) {
+                continue;
+            }
+            TextMessage shared = new TextMessage(latest);
+            for (WebSocketSession session : subscriptions.subscribers(productId)) {
+                send(session, shared, productId);
+            }
+        }
+        long now = System.nanoTime();
+        sessions.values().forEach(outbound -> outbound.expireIfStalled(now));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Stock update tick failed", e);
         }
     }
 
@@ -116,14 +275,41 @@ public class StockWebSocketHandler extends TextWebSocketHandler {
      * stock:low-alerts 채널 수신 → 모든 로컬 WebSocket 세션에 전달
      */
     public void handleLowStockAlert(String message) {
-        sessions.values().forEach(session -> {
-            try {
-                if (session.isOpen()) {
-                    session.sendMessage(new TextMessage(message));
+        TextMessage shared = new TextMessage(message);
+        sessions.values().forEach(outbound -> outbound.offer(shared, null));
+    }
+
+    private void send(WebSocketSession session, TextMessage message) {
+        send(session, message, null);
+    }
+
+    private void send(WebSocketSession session, TextMessage message, Long conflationKey) {
+        SessionOutbound outbound = sessions.get(session.getId());
+        if (outbound != null) {
+            outbound.offer(message, conflationKey);
+        }
+    }
+
+    private double queuedMessages() {
+        return sessions.values().stream().mapToInt(SessionOutbound::depth).sum();
+    }
+
+    private double deepestQueue() {
+        return sessions.values().stream().mapToInt(SessionOutbound::depth).max().orElse(0);
+    }
+
+    private static List<Long> productIds(Map<String, Object> payload) {
+        Object many = payload.get("productIds");
+        if (many instanceof List<?> list) {
+            List<Long> ids = new ArrayList<>(list.size());
+            for (Object id : list) {
+                if (id instanceof Number number) {
+                    ids.add(number.longValue());
                 }
-            } catch (Exception e) {
-                log.error("Failed to send low stock alert to session {}: {}", session.getId(), e.getMessage());
             }
-        });
+            return ids;
+        }
+        Object one = payload.get("productId");
+        return one instanceof Number number ? List.of(number.longValue()) : List.of();
     }
 }
@@ -0,0 +1,115 @@
+package com.livemart.product.catalog;
+
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("CatalogIndex 단위 테스트")
+class CatalogIndexTest {
+
+    private final List<ProductRepository.CatalogView> catalog = new ArrayList<>();
+    private CatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        given(productRepository.findCatalogAfter(anyLong(), any(Limit.class))).willAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            return catalog.stream().filter(p -> p.getId() > afterId).toList();
+        });
+        index = new CatalogIndex(productRepository, new SimpleMeterRegistry(), Duration.ofMinutes(30), 100);
+
+        catalog.add(view(1L, 10L, "10000", 50, ProductStatus.ACTIVE));
+        catalog.add(view(2L, 10L, "11000", 5, ProductStatus.ACTIVE));
+        catalog.add(view(3L, 10L, "9500", 120, ProductStatus.ACTIVE));
+        catalog.add(view(4L, 10L, "13500", 80, ProductStatus.ACTIVE));   // +35% → 범위 밖
+        catalog.add(view(5L, 10L, "10100", 200, ProductStatus.INACTIVE)); // 판매 중지
+        catalog.add(view(6L, 20L, "10000", 10, ProductStatus.ACTIVE));   // 다른 카테고리
+    }
+
+    @Test
+    @DisplayName("같은 카테고리 ±30% ACTIVE 상품을 가격이 가까운 순으로 돌려준다")
+    void findsSimilarByPrice() {
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.similarByPrice(1L, 0.3, 10)).containsExactly(3L, 2L);
+        assertThat(index.similarByPrice(1L, 0.3, 1)).containsExactly(3L);
+        assertThat(index.similarByPrice(99L, 0.3, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("재고 많은 순은 ACTIVE만, 재고 임계값 조회는 상태와 무관하게 돌려준다")
+    void ordersByStock() {
+        index.rebuild();
+
+        assertThat(index.mostStocked(3)).containsExactly(3L, 4L, 1L);
+        assertThat(index.stockAtOrBelow(10)).containsExactlyInAnyOrder(2L, 6L);
+    }
+
+    @Test
+    @DisplayName("빌드 이후 변경은 overlay로 바로 반영되고, 병합 후에도 결과가 같다")
+    void appliesChangesBeforeAndAfterCompaction() {
+        index.rebuild();
+
+        index.onProductChanged(4L, 10L, new BigDecimal("10400"), 80, ProductStatus.ACTIVE); // 가격 인하 → 범위 안
+        index.onProductDeleted(3L);
+        assertThat(index.onStockChanged(1L, new BigDecimal("10000"), 3, ProductStatus.ACTIVE)).isTrue();
+        assertThat(index.onStockChanged(7L, new BigDecimal("10000"), 3, ProductStatus.ACTIVE)).isFalse();
+
+        assertThat(index.similarByPrice(2L, 0.3, 10)).containsExactly(4L, 1L);
+        assertThat(index.mostStocked(2)).containsExactly(4L, 6L);
+        assertThat(index.stockAtOrBelow(10)).containsExactlyInAnyOrder(1L, 2L, 6L);
+
+        index.compact();
+
+        assertThat(index.similarByPrice(2L, 0.3, 10)).containsExactly(4L, 1L);
+        assertThat(index.mostStocked(2)).containsExactly(4L, 6L);
+        assertThat(index.stockAtOrBelow(10)).containsExactlyInAnyOrder(1L, 2L, 6L);
+    }
+
+    private static ProductRepository.CatalogView view(Long id, Long categoryId, String price, int stock,
+                                                      ProductStatus status) {
+        return new ProductRepository.CatalogView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stock;
+            }
+
+            @Override
+            public ProductStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.livemart.product.config;
+
+import com.livemart.common.event.envelope.EventEnvelope;
+import com.livemart.product.event.OrderEvent;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("KafkaConfig 단위 테스트")
+class KafkaConfigTest {
+
+    @Test
+    @DisplayName("protobuf 인코딩에서도 재시도/DLT 템플릿이 OrderEvent를 보내고, 소비자 역직렬화기가 그대로 읽는다")
+    void orderRetryTemplateEncodesProtobuf() throws Exception {
+        KafkaConfig config = new KafkaConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "eventEncoding", "proto");
+        Serializer<OrderEvent> serializer = config.orderRetryKafkaTemplate().getProducerFactory().getValueSerializer();
+        Deserializer<OrderEvent> deserializer = config.orderConsumerFactory().getValueDeserializer();
+
+        OrderEvent event = OrderEvent.builder()
+                .eventType(OrderEvent.EventType.ORDER_CREATED)
+                .orderId(7L)
+                .orderNumber("ORD-7")
+                .userId(3L)
+                .items(List.of(OrderEvent.OrderItemInfo.builder()
+                        .productId(100L).productName("무선 이어폰").quantity(2).price(new BigDecimal("89000")).build()))
+                .totalAmount(new BigDecimal("178000"))
+                .status("PENDING")
+                .occurredAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5))
+                .build();
+
+        // 재시도 토픽 전달 경로 — 템플릿 직렬화기로 전송
+        MockProducer<String, OrderEvent> producer = new MockProducer<>(true, new StringSerializer(), serializer);
+        new KafkaTemplate<>(new MockProducerFactory<>(() -> producer))
+                .send("order-events-retry-0", "ORD-7", event).get();
+        assertThat(producer.history()).hasSize(1);
+
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload = serializer.serialize("order-events-retry-0", headers, event);
+
+        assertThat(EventEnvelope.encoding(headers)).isEqualTo(EventEnvelope.Encoding.PROTOBUF);
+        assertThat(deserializer.deserialize("order-events-retry-0", headers, payload)).isEqualTo(event);
+    }
+}
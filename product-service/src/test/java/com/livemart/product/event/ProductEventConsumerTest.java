@@ -0,0 +1,180 @@
+package com.livemart.product.event;
+
+import com.livemart.common.exception.BusinessException;
+import com.livemart.common.idempotency.IdempotentConsumer;
+import com.livemart.product.repository.ProcessedEventRepository;
+import com.livemart.product.repository.ProductRepository;
+import com.livemart.product.search.LiveStockStore;
+import com.livemart.product.search.ProductIndexPipeline;
+import com.livemart.product.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.dao.support.PersistenceExceptionTranslationInterceptor;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.annotation.RetryableTopicAnnotationProcessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * order-events 컨슈머 — 실제 트랜잭션에서 처리 기록과 재고 차감이 함께 커밋/롤백되는지 (H2 JPA)
+ */
+@DisplayName("ProductEventConsumer 단위 테스트 (H2 JPA)")
+class ProductEventConsumerTest {
+
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static JdbcTemplate jdbc;
+    private static ProductRepository productRepository;
+    private static ProcessedEventRepository processedEventRepository;
+    private static TransactionTemplate transactionTemplate;
+
+    private ProductEventConsumer consumer;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:product-event-consumer;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.livemart.product.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.getJpaPropertyMap().putAll(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy"));
+        factoryBean.afterPropertiesSet();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject());
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factoryBean.getObject()));
+
+        // 애플리케이션처럼 저장소 예외를 DataAccessException으로 변환 (처리 기록 PK 위반 → DataIntegrityViolationException)
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        repositories.addRepositoryProxyPostProcessor((factory, information) ->
+                factory.addAdvice(new PersistenceExceptionTranslationInterceptor(new HibernateJpaDialect())));
+        productRepository = repositories.getRepository(ProductRepository.class);
+        processedEventRepository = repositories.getRepository(ProcessedEventRepository.class);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        factoryBean.destroy();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbc.update("DELETE FROM processed_events");
+        jdbc.update("DELETE FROM products");
+        jdbc.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, status, seller_id, created_at, updated_at)
+                VALUES (1, 'product-1', 'description', 1000, 10, 'ACTIVE', 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+                       (2, 'product-2', 'description', 1000, 1, 'ACTIVE', 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)""");
+
+        ProductService productService = new ProductService(productRepository, null,
+                mock(KafkaTemplate.class), mock(KafkaTemplate.class), mock(KafkaTemplate.class),
+                mock(ProductIndexPipeline.class), mock(LiveStockStore.class),
+                new ConcurrentMapCacheManager("products", "product-detail"));
+        consumer = new ProductEventConsumer(productService, processedEventRepository, transactionTemplate,
+                new IdempotentConsumer("order-events", new SimpleMeterRegistry(), Duration.ofMinutes(10), 1_000, 0.01));
+    }
+
+    @Test
+    @DisplayName("생성보다 먼저 온 취소는 복원하지 않고 생성 이벤트 자리를 선점해, 나중에 온 생성은 차감하지 않는다")
+    void cancelBeforeCreateSkipsLaterDeduction() {
+        consumer.handleOrderEvent(order("ORD-1", OrderEvent.EventType.ORDER_CANCELLED, Map.of(1L, 3)));
+
+        assertThat(stock(1L)).isEqualTo(10);
+        assertThat(processedEventRepository.findById("ORD-1_ORDER_CREATED"))
+                .hasValueSatisfying(marker -> assertThat(marker.getEventType()).isEqualTo("ORDER_CREATED_CANCELLED"));
+
+        consumer.handleOrderEvent(order("ORD-1", OrderEvent.EventType.ORDER_CREATED, Map.of(1L, 3)));
+
+        assertThat(stock(1L)).isEqualTo(10);
+        assertThat(processedEventRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("차감이 실패하면 처리 기록 INSERT도 함께 롤백되어, 재전달 시 다시 처리한다")
+    void processedEventRollsBackWithFailedDeduction() {
+        OrderEvent created = order("ORD-2", OrderEvent.EventType.ORDER_CREATED, Map.of(1L, 3, 2L, 5));
+
+        assertThatThrownBy(() -> consumer.handleOrderEvent(created)).isInstanceOf(BusinessException.class);
+
+        // 상품 1 차감(먼저 실행)과 처리 기록 모두 롤백
+        assertThat(stock(1L)).isEqualTo(10);
+        assertThat(stock(2L)).isEqualTo(1);
+        assertThat(processedEventRepository.existsById("ORD-2_ORDER_CREATED")).isFalse();
+
+        jdbc.update("UPDATE products SET stock_quantity = 10 WHERE id = 2");
+        consumer.handleOrderEvent(created);
+
+        assertThat(stock(1L)).isEqualTo(7);
+        assertThat(stock(2L)).isEqualTo(5);
+        assertThat(processedEventRepository.existsById("ORD-2_ORDER_CREATED")).isTrue();
+    }
+
+    @Test
+    @DisplayName("재고 부족(BusinessException)은 재시도 토픽을 거치지 않고 바로 DLT로, 그 외 실패는 재시도")
+    void businessExceptionGoesStraightToDlt() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        StandardEnvironment environment = new StandardEnvironment();
+        beanFactory.addEmbeddedValueResolver(environment::resolvePlaceholders);
+        beanFactory.registerSingleton("orderRetryKafkaTemplate", mock(KafkaTemplate.class));
+        Method listener = ProductEventConsumer.class.getMethod("handleOrderEvent", OrderEvent.class);
+
+        RetryTopicConfiguration configuration = new RetryableTopicAnnotationProcessor(beanFactory).processAnnotation(
+                new String[]{"order-events"}, listener, listener.getAnnotation(RetryableTopic.class), consumer);
+        List<DestinationTopic.Properties> destinations = configuration.getDestinationTopicProperties();
+        DestinationTopic.Properties main = destinations.get(0);
+
+        assertThat(main.shouldRetryOn(1, BusinessException.insufficientStock(1L))).isFalse();
+        assertThat(main.shouldRetryOn(1, new IllegalStateException("deadlock"))).isTrue();
+        assertThat(destinations.get(destinations.size() - 1).isDltTopic()).isTrue();
+        assertThat(destinations.get(destinations.size() - 1).suffix()).isEqualTo(".DLT");
+        // 재고 부족은 컨슈머에서 BusinessException 그대로 던져진다 (감싸지 않음)
+        assertThatThrownBy(() -> consumer.handleOrderEvent(order("ORD-3", OrderEvent.EventType.ORDER_CREATED, Map.of(2L, 5))))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private static int stock(Long productId) {
+        return jdbc.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private static OrderEvent order(String orderNumber, OrderEvent.EventType type, Map<Long, Integer> quantities) {
+        List<OrderEvent.OrderItemInfo> items = quantities.entrySet().stream()
+                .map(line -> OrderEvent.OrderItemInfo.builder().productId(line.getKey()).quantity(line.getValue()).build())
+                .toList();
+        return OrderEvent.builder()
+                .eventType(type)
+                .orderNumber(orderNumber)
+                .items(items)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.livemart.product.event;
+
+import com.livemart.product.domain.Category;
+import com.livemart.product.domain.Product;
+import com.livemart.product.repository.ProductRepository;
+import com.livemart.product.search.SearchResultCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchCacheInvalidationListener 단위 테스트")
+class SearchCacheInvalidationListenerTest {
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private SearchCacheInvalidationListener listener;
+
+    @Test
+    @DisplayName("품절 전환은 상품 태그로 무효화한다")
+    void soldOutEvictsProductEntries() {
+        listener.handleProductEvent(stockChanged(3, 0));
+
+        then(searchResultCache).should().invalidateProduct(7L);
+        then(searchResultCache).should(never()).invalidate(anyLong(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("입고 전환은 상품이 빠져 있던 카테고리 항목까지 무효화한다")
+    void restockEvictsCategoryEntries() {
+        Category category = Category.builder().id(4L).name("전자제품").build();
+        given(productRepository.findById(7L)).willReturn(Optional.of(Product.builder().id(7L).category(category).build()));
+
+        listener.handleProductEvent(stockChanged(0, 12));
+
+        then(searchResultCache).should().invalidate(7L, 4L, false);
+        then(searchResultCache).should(never()).invalidateProduct(anyLong());
+    }
+
+    @Test
+    @DisplayName("재고 유무가 그대로인 변경은 무시한다")
+    void ignoresChangesWithoutAvailabilityFlip() {
+        listener.handleProductEvent(stockChanged(30, 12));
+        listener.handleProductEvent(stockChanged(0, 0));
+
+        then(searchResultCache).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("이전 재고가 없는 이벤트는 재고 0만 품절 전환으로 본다")
+    void legacyEventWithoutPreviousStock() {
+        listener.handleProductEvent(stockChanged(null, 12));
+        listener.handleProductEvent(stockChanged(null, 0));
+
+        then(searchResultCache).should().invalidateProduct(7L);
+        then(searchResultCache).should(never()).invalidate(anyLong(), anyLong(), anyBoolean());
+    }
+
+    private ProductEvent stockChanged(Integer previous, int stock) {
+        return ProductEvent.builder()
+                .eventType(ProductEvent.EventType.STOCK_CHANGED)
+                .productId(7L)
+                .previousStockQuantity(previous)
+                .stockQuantity(stock)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.livemart.product.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.parser.Parser;
+import graphql.validation.ValidationError;
+import graphql.validation.ValidationErrorType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PersistedQueryCache 단위 테스트")
+class PersistedQueryCacheTest {
+
+    private static final String LISTING = "{ products(page: 0, size: 20) { content { id price } } }";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PersistedQueryCache cache = new PersistedQueryCache(registry, 2);
+    private final AtomicInteger parses = new AtomicInteger();
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parser = input -> {
+        parses.incrementAndGet();
+        return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+    };
+
+    @Test
+    @DisplayName("같은 쿼리 본문은 한 번만 파싱·검증하고 이후엔 같은 문서를 돌려준다")
+    void parsesSameQueryOnce() {
+        PreparsedDocumentEntry first = cache.getDocumentAsync(input(LISTING, null), parser).join();
+        PreparsedDocumentEntry second = cache.getDocumentAsync(input(LISTING, null), parser).join();
+
+        assertThat(parses).hasValue(1);
+        assertThat(second.getDocument()).isSameAs(first.getDocument());
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("해시만 보낸 모르는 쿼리는 PersistedQueryNotFound, 본문과 함께 등록하면 이후 해시만으로 실행된다")
+    void registersHashOnlyQueriesAfterNotFound() {
+        String hash = PersistedQueryCache.sha256(LISTING);
+
+        PreparsedDocumentEntry unknown = cache.getDocumentAsync(input("", hash), parser).join();
+        assertThat(unknown.getErrors()).singleElement().isInstanceOf(PersistedQueryNotFound.class);
+
+        PreparsedDocumentEntry registered = cache.getDocumentAsync(input(LISTING, hash), parser).join();
+        PreparsedDocumentEntry byHash = cache.getDocumentAsync(input("", hash), parser).join();
+
+        assertThat(byHash.hasErrors()).isFalse();
+        assertThat(byHash.getDocument()).isSameAs(registered.getDocument());
+        assertThat(parses).hasValue(1);
+        assertThat(requests("not_found")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("해시가 본문과 다르면 PersistedQueryIdInvalid — 다른 쿼리로 캐시를 오염시키지 않는다")
+    void rejectsMismatchedHash() {
+        String otherHash = PersistedQueryCache.sha256("{ categories { id } }");
+
+        PreparsedDocumentEntry entry = cache.getDocumentAsync(input(LISTING, otherHash), parser).join();
+
+        assertThat(entry.getErrors()).singleElement().isInstanceOf(PersistedQueryIdInvalid.class);
+        assertThat(parses).hasValue(0);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("검증 오류가 난 문서는 저장하지 않는다")
+    void doesNotCacheInvalidDocuments() {
+        GraphQLError error = ValidationError.newValidationError()
+                .validationErrorType(ValidationErrorType.FieldUndefined)
+                .description("Field 'nope' is undefined")
+                .build();
+        Function<ExecutionInput, PreparsedDocumentEntry> failing = input -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(error);
+        };
+
+        cache.getDocumentAsync(input("{ nope }", null), failing).join();
+        cache.getDocumentAsync(input("{ nope }", null), failing).join();
+
+        assertThat(parses).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("max-entries를 넘으면 가장 오래 안 쓴 문서부터 밀려난다")
+    void evictsLeastRecentlyUsed() {
+        String a = "{ products { totalElements } }";
+        String b = "{ categories { id } }";
+        String c = "{ categories { name } }";
+
+        cache.getDocumentAsync(input(a, null), parser).join();
+        cache.getDocumentAsync(input(b, null), parser).join();
+        cache.getDocumentAsync(input(a, null), parser).join();  // a 최근 사용
+        cache.getDocumentAsync(input(c, null), parser).join();  // b 제거
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.getDocumentAsync(input(a, null), parser).join();
+        assertThat(parses).hasValue(3);
+        cache.getDocumentAsync(input(b, null), parser).join();
+        assertThat(parses).hasValue(4);
+    }
+
+    private static ExecutionInput input(String query, String sha256Hash) {
+        ExecutionInput.Builder builder = ExecutionInput.newExecutionInput().query(query);
+        if (sha256Hash != null) {
+            builder.extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", sha256Hash)));
+        }
+        return builder.build();
+    }
+
+    private double requests(String result) {
+        return registry.get("graphql.document.cache.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,172 @@
+package com.livemart.product.graphql;
+
+import com.livemart.product.repository.CategoryRepository;
+import com.livemart.product.repository.ProductProjectionRepository;
+import com.livemart.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 중첩 조회가 실제로 실행한 SQL 문장 수를 센다 (H2 JPA + Hibernate StatementInspector)
+ */
+@DisplayName("ProductGraphqlController 중첩 필드 배치 조회 테스트")
+class ProductGraphqlBatchingTest {
+
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS_PER_CATEGORY = 5;
+
+    private static final List<String> executed = new CopyOnWriteArrayList<>();
+
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static ProductRepository productRepository;
+    private static CategoryRepository categoryRepository;
+
+    private AnnotationConfigApplicationContext context;
+    private DefaultExecutionGraphQlService graphQlService;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:graphql-batching;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.livemart.product.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.getJpaPropertyMap().putAll(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+                    executed.add(sql);
+                    return sql;
+                }));
+        factoryBean.afterPropertiesSet();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject());
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        productRepository = repositories.getRepository(ProductRepository.class);
+        categoryRepository = repositories.getRepository(CategoryRepository.class);
+
+        // 카테고리 20개 × 상품 5개 — 카테고리 c의 상품 id는 5(c-1)+1 ~ 5c
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO categories (id, name, level) SELECT X, 'category-' || X, 0 FROM SYSTEM_RANGE(1, %d)"
+                .formatted(CATEGORIES));
+        jdbc.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, category_id, status, seller_id, created_at)
+                SELECT X, 'product-' || X, 'description ' || X, 10, 1, (X - 1) / %d + 1, 'ACTIVE', 1, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, %d)""".formatted(PRODUCTS_PER_CATEGORY, CATEGORIES * PRODUCTS_PER_CATEGORY));
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        factoryBean.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(ProductGraphqlController.class, () -> new ProductGraphqlController(productRepository, categoryRepository,
+                mock(ProductProjectionRepository.class)));
+        context.refresh();
+        AnnotatedControllerConfigurer configurer = new AnnotatedControllerConfigurer();
+        configurer.setApplicationContext(context);
+        configurer.afterPropertiesSet();
+
+        GraphQlSource source = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ClassPathResource("graphql/schema.graphqls"))
+                .configureRuntimeWiring(configurer)
+                .build();
+        DefaultBatchLoaderRegistry batchLoaderRegistry = new DefaultBatchLoaderRegistry();
+        new ProductDataLoaders(batchLoaderRegistry, productRepository);
+        graphQlService = new DefaultExecutionGraphQlService(source);
+        graphQlService.addDataLoaderRegistrar(batchLoaderRegistry);
+        executed.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("categories { products }는 카테고리 수와 무관하게 3문장 (카테고리 1 + 상품 id 1 + 상품 1)")
+    void resolvesCategoryProductsWithOneBatchPerLevel() {
+        Map<String, Object> data = execute("{ categories { id products { id name } } }");
+
+        List<Map<String, Object>> result = list(data.get("categories"));
+        assertThat(result).hasSize(CATEGORIES);
+        assertThat(result).allMatch(c -> list(c.get("products")).size() == PRODUCTS_PER_CATEGORY);
+        assertThat(list(result.get(3).get("products")).get(0)).containsEntry("name", "product-16");
+
+        assertThat(statements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("더 깊은 곳에서 같은 카테고리의 products를 다시 요청해도 요청 내 캐시로 추가 조회가 없다")
+    void reusesPerRequestCacheAtDeeperLevels() {
+        Map<String, Object> data = execute("""
+                { categories { id products { id category { id products { id category { id products { id } } } } } } }""");
+
+        List<Map<String, Object>> result = list(data.get("categories"));
+        Map<String, Object> nestedCategory = map(list(result.get(0).get("products")).get(0).get("category"));
+        assertThat(list(nestedCategory.get("products"))).hasSize(PRODUCTS_PER_CATEGORY);
+
+        assertThat(statements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("요청이 다르면 캐시를 공유하지 않는다")
+    void doesNotShareCacheAcrossRequests() {
+        execute("{ categories { products { id } } }");
+        execute("{ categories { products { id } } }");
+
+        assertThat(statements()).isEqualTo(6);
+    }
+
+    private static long statements() {
+        return executed.size();
+    }
+
+    private Map<String, Object> execute(String document) {
+        ExecutionGraphQlResponse response = graphQlService
+                .execute(new DefaultExecutionGraphQlRequest(document, null, null, null, "test", null))
+                .block();
+        assertThat(response.getErrors()).isEmpty();
+        return response.getData();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(Object value) {
+        return (List<Map<String, Object>>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
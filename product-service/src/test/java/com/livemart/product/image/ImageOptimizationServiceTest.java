@@ -0,0 +1,128 @@
+package com.livemart.product.image;
+
+import com.livemart.common.exception.BusinessException;
+import com.livemart.product.image.ImageOptimizationService.OptimizedImages;
+import com.livemart.product.image.ImageOptimizationService.VariantTiming;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ImageOptimizationService 단위 테스트")
+class ImageOptimizationServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ImageOptimizationService service;
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("원본 비율을 유지한 썸네일 3종과 LQIP를 만들고 변형별 시간을 남긴다")
+    void createsAllVariants() throws Exception {
+        service = new ImageOptimizationService(registry, 4, 64);
+
+        OptimizedImages images = service.optimizeImage(jpeg(2000, 1500)).join();
+
+        assertThat(read(images.thumbnailLarge())).extracting(BufferedImage::getWidth, BufferedImage::getHeight)
+                .containsExactly(800, 600);
+        assertThat(read(images.thumbnailMedium())).extracting(BufferedImage::getWidth, BufferedImage::getHeight)
+                .containsExactly(400, 300);
+        assertThat(read(images.thumbnailSmall())).extracting(BufferedImage::getWidth, BufferedImage::getHeight)
+                .containsExactly(150, 113);
+        BufferedImage lqip = read(java.util.Base64.getDecoder().decode(images.lqipBase64()));
+        assertThat(lqip.getWidth()).isEqualTo(20);
+        assertThat(read(images.original()).getWidth()).isEqualTo(2000);
+
+        boolean webpSupported = ImageIO.getImageWritersByFormatName("webp").hasNext();
+        assertThat(images.webp() == null).isEqualTo(!webpSupported);
+        assertThat(images.timings()).extracting(VariantTiming::variant)
+                .contains("original", "large", "medium", "small", "lqip");
+        assertThat(images.timings()).allMatch(t -> t.bytes() > 0);
+        assertThat(registry.get("image.pipeline.duration").tag("stage", "resize").tag("variant", "small").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("단계적 축소는 정확한 목표 크기를 만들고 색을 평균한다")
+    void scalesDownProgressively() {
+        BufferedImage checker = new BufferedImage(1024, 768, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < checker.getHeight(); y++) {
+            for (int x = 0; x < checker.getWidth(); x++) {
+                checker.setRGB(x, y, (x + y) % 2 == 0 ? 0xffffff : 0x000000);
+            }
+        }
+
+        BufferedImage scaled = ProgressiveScaler.scaleDown(checker, 150, 113);
+
+        assertThat(scaled.getWidth()).isEqualTo(150);
+        assertThat(scaled.getHeight()).isEqualTo(113);
+        // 1px 체커보드는 회색으로 — 한 번에 축소하면 흑/백 픽셀만 골라 찍혀 얼룩이 남음
+        int gray = scaled.getRGB(75, 56) & 0xff;
+        assertThat(gray).isBetween(120, 135);
+    }
+
+    @Test
+    @DisplayName("확대하지 않는다")
+    void doesNotUpscale() {
+        assertThat(ProgressiveScaler.fit(100, 50, 800)).extracting(d -> d.width, d -> d.height)
+                .containsExactly(100, 50);
+    }
+
+    @Test
+    @DisplayName("이미지가 아닌 업로드는 INVALID_IMAGE로 실패한다")
+    void rejectsUndecodableInput() {
+        service = new ImageOptimizationService(registry, 1, 4);
+
+        assertThatThrownBy(() -> service.optimizeImage("not an image".getBytes()).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("실행기 큐가 가득 차면 대기하지 않고 IMAGE_PIPELINE_BUSY로 거절한다")
+    void rejectsWhenQueueIsFull() throws Exception {
+        service = new ImageOptimizationService(registry, 1, 1);
+        byte[] upload = jpeg(2000, 1500);
+
+        List<CompletableFuture<OptimizedImages>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(service.optimizeImage(upload));
+        }
+
+        assertThat(futures).anyMatch(f -> f.isCompletedExceptionally()
+                && f.handle((r, e) -> e instanceof BusinessException).join());
+        assertThat(registry.get("image.pipeline.rejected").counter().count()).isPositive();
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8 | 0x40);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage read(byte[] bytes) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,205 @@
+package com.livemart.product.image;
+
+import com.livemart.product.image.ImageVariantCache.VariantKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ImageVariantCache 단위 테스트")
+class ImageVariantCacheTest {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final int VARIANT_BYTES = 10 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger renders = new AtomicInteger();
+    private ImageVariantCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache(DataSize.ofMegabytes(10));
+    }
+
+    @Test
+    @DisplayName("두 번째 요청부터는 렌더링 없이 디스크에서 읽는다")
+    void servesHitsFromDiskWithoutRendering() throws Exception {
+        VariantKey key = new VariantKey(HASH, 400, "jpg");
+        Function<VariantKey, CompletableFuture<byte[]>> slowRender = k -> CompletableFuture.supplyAsync(() -> {
+            sleep(50);   // 디코드 + 축소 + 인코딩 대신
+            return render(k);
+        });
+
+        long missStarted = System.nanoTime();
+        byte[] first = cache.get(key, slowRender).get(5, TimeUnit.SECONDS);
+        long missNanos = System.nanoTime() - missStarted;
+
+        long[] hitNanos = new long[1_000];
+        for (int i = 0; i < hitNanos.length; i++) {
+            long started = System.nanoTime();
+            CompletableFuture<byte[]> hit = cache.get(key, slowRender);
+            assertThat(hit).isDone();
+            assertThat(hit.join()).isEqualTo(first);
+            hitNanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(hitNanos);
+
+        assertThat(renders).hasValue(1);
+        assertThat(hitNanos[500]).isLessThan(missNanos / 10);
+        assertThat(Files.readAllBytes(cache.pathOf(key))).isEqualTo(first);
+        assertThat(registry.get("image.variants.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("크기 상한을 넘으면 가장 오래 안 쓴 변형부터 파일까지 삭제한다")
+    void evictsLeastRecentlyUsedUnderSizeCap() {
+        cache = newCache(DataSize.ofKilobytes(100));   // 변형 10개분
+        List<VariantKey> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            VariantKey key = new VariantKey(hash(i), 400, "jpg");
+            keys.add(key);
+            cache.get(key, this::renderNow).join();
+        }
+        // 가장 먼저 넣은 것을 다시 읽어 최근 사용으로
+        cache.get(keys.get(0), this::renderNow).join();
+
+        for (int i = 10; i < 15; i++) {
+            VariantKey key = new VariantKey(hash(i), 400, "jpg");
+            keys.add(key);
+            cache.get(key, this::renderNow).join();
+        }
+
+        assertThat(cache.totalBytes()).isLessThanOrEqualTo(DataSize.ofKilobytes(100).toBytes());
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.contains(keys.get(0))).isTrue();
+        for (VariantKey evicted : keys.subList(1, 6)) {
+            assertThat(cache.contains(evicted)).isFalse();
+            assertThat(cache.pathOf(evicted)).doesNotExist();
+        }
+        for (VariantKey kept : keys.subList(6, 15)) {
+            assertThat(cache.pathOf(kept)).exists();
+        }
+        assertThat(registry.get("image.variants.cache.evictions").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("같은 변형을 동시에 64건 요청해도 렌더링은 1번이다")
+    void coalescesConcurrentMisses() throws Exception {
+        VariantKey key = new VariantKey(HASH, 800, "webp");
+        int callers = 64;
+        CountDownLatch allRequested = new CountDownLatch(callers);
+        CompletableFuture<byte[]> gate = new CompletableFuture<>();
+        // 모든 요청이 들어올 때까지 렌더링이 끝나지 않음
+        Function<VariantKey, CompletableFuture<byte[]>> blockedRender = k -> gate.thenApply(ignored -> render(k));
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<CompletableFuture<byte[]>>> requests = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            requests.add(pool.submit(() -> {
+                CompletableFuture<byte[]> result = cache.get(key, blockedRender);
+                allRequested.countDown();
+                return result;
+            }));
+        }
+        assertThat(allRequested.await(5, TimeUnit.SECONDS)).isTrue();
+        gate.complete(null);
+
+        byte[] expected = null;
+        for (Future<CompletableFuture<byte[]>> request : requests) {
+            byte[] bytes = request.get().get(5, TimeUnit.SECONDS);
+            expected = expected == null ? bytes : expected;
+            assertThat(bytes).isEqualTo(expected);
+        }
+        pool.shutdown();
+
+        assertThat(renders).hasValue(1);
+        assertThat(registry.get("image.variants.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(registry.get("image.variants.cache.requests").tag("result", "coalesced").counter().count())
+                .isEqualTo(callers - 1);
+    }
+
+    @Test
+    @DisplayName("렌더링 실패는 기다리던 요청 모두에 전달되고 캐시에 남지 않는다")
+    void doesNotCacheFailedRenders() {
+        VariantKey key = new VariantKey(HASH, 150, "jpg");
+
+        CompletableFuture<byte[]> failed = cache.get(key,
+                k -> CompletableFuture.failedFuture(new IllegalStateException("decode failed")));
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(cache.contains(key)).isFalse();
+        assertThat(cache.get(key, this::renderNow).join()).hasSize(VARIANT_BYTES);
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("재기동하면 디스크의 변형으로 색인을 복원하고, 바깥에서 지운 파일은 다시 렌더링한다")
+    void reloadsIndexFromDisk() {
+        VariantKey kept = new VariantKey(HASH, 400, "jpg");
+        VariantKey removed = new VariantKey(hash(1), 400, "jpg");
+        cache.get(kept, this::renderNow).join();
+        cache.get(removed, this::renderNow).join();
+
+        ImageVariantCache restarted = newCache(DataSize.ofMegabytes(10));
+        assertThat(restarted.size()).isEqualTo(2);
+
+        restarted.get(kept, this::renderNow).join();
+        assertThat(renders).hasValue(2);
+
+        cache.pathOf(removed).toFile().delete();
+        restarted.get(removed, this::renderNow).join();
+        assertThat(renders).hasValue(3);
+    }
+
+    private ImageVariantCache newCache(DataSize maxSize) {
+        ImageVariantCache created = new ImageVariantCache(registry, dir, maxSize);
+        created.load();
+        return created;
+    }
+
+    private CompletableFuture<byte[]> renderNow(VariantKey key) {
+        return CompletableFuture.completedFuture(render(key));
+    }
+
+    private byte[] render(VariantKey key) {
+        renders.incrementAndGet();
+        byte[] bytes = new byte[VARIANT_BYTES];
+        Arrays.fill(bytes, (byte) key.width());
+        return bytes;
+    }
+
+    private static String hash(int i) {
+        return String.format("%064x", i);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.livemart.product.integration;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.livemart.product.document.ProductDocument;
+import com.livemart.product.dto.ProductResponse;
+import com.livemart.product.search.AdvancedSearchService;
+import com.livemart.product.search.LiveStockStore;
+import com.livemart.product.search.SearchCriteria;
+import com.livemart.product.search.SearchCursorManager;
+import com.livemart.product.search.SearchPage;
+import com.livemart.product.search.SearchResultCache;
+import com.livemart.product.search.suggest.AutocompleteEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 고급 검색 1페이지 vs 500페이지 지연시간 — offset(from/size) / 커서(search_after + PIT)
+ *
+ * 상품 문서 20,000건(가격 100종 → 같은 가격 다수)을 price 내림차순으로 조회한다.
+ * 500페이지(from=9,980)는 기본 max_result_window(10,000) 안의 가장 깊은 offset 페이지다.
+ * 커서 모드는 1페이지부터 커서를 따라가며, 500페이지 요청 하나의 지연만 잰다.
+ * 결과(중앙값 ms)는 로그로 남기고, 두 모드의 500페이지 내용이 같은지 검증한다.
+ */
+@Slf4j
+@Disabled("Requires Docker/Testcontainers - run manually with Docker available")
+@Testcontainers
+class SearchPagingLatencyTest {
+
+    private static final int DOCUMENTS = 20_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 499; // 0부터 → 500번째 페이지
+    private static final int RUNS = 15;
+
+    @Container
+    static ElasticsearchContainer elasticsearch =
+            new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.15.0")
+                    .withEnv("xpack.security.enabled", "false")
+                    .withEnv("ES_JAVA_OPTS", "-Xms512m -Xmx512m");
+
+    private static ElasticsearchClient client;
+    private static RestClient restClient;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        restClient = RestClient.builder(HttpHost.create(elasticsearch.getHttpHostAddress())).build();
+        client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+
+        client.indices().create(c -> c
+                .index("products_v1")
+                .aliases("products", a -> a)
+                .settings(s -> s.numberOfReplicas("0"))
+                .mappings(m -> m
+                        .properties("productId", p -> p.long_(l -> l))
+                        .properties("name", p -> p.text(t -> t))
+                        .properties("price", p -> p.double_(d -> d))
+                        .properties("inStock", p -> p.boolean_(b -> b))
+                        .properties("categoryName", p -> p.keyword(k -> k))
+                        .properties("status", p -> p.keyword(k -> k))));
+
+        for (int from = 1; from <= DOCUMENTS; from += 2_000) {
+            BulkRequest.Builder bulk = new BulkRequest.Builder();
+            for (long id = from; id < from + 2_000; id++) {
+                ProductDocument doc = ProductDocument.builder()
+                        .id(String.valueOf(id))
+                        .productId(id)
+                        .name("상품 " + id)
+                        .price(BigDecimal.valueOf(1_000L * (id % 100 + 1)))
+                        .inStock(true)
+                        .categoryName("카테고리" + id % 10)
+                        .status("ACTIVE")
+                        .build();
+                bulk.operations(op -> op.index(i -> i.index("products").id(doc.getId()).document(doc)));
+            }
+            client.bulk(bulk.build());
+        }
+        client.indices().refresh(r -> r.index("products"));
+    }
+
+    @AfterAll
+    static void close() throws Exception {
+        if (restClient != null) {
+            restClient.close();
+        }
+    }
+
+    @Test
+    @DisplayName("500페이지: 커서 조회가 offset 조회와 같은 결과를 더 일정한 지연으로 돌려준다")
+    void comparePageOneAndPageFiveHundred() {
+        AdvancedSearchService offsetOnly = service(Integer.MAX_VALUE);
+        AdvancedSearchService cursorPaging = service(1);
+
+        long[] offsetFirst = new long[RUNS];
+        long[] offsetDeep = new long[RUNS];
+        long[] cursorFirst = new long[RUNS];
+        long[] cursorDeep = new long[RUNS];
+        List<ProductResponse> offsetDeepPage = null;
+        List<ProductResponse> cursorDeepPage = null;
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            offsetOnly.advancedSearch(criteria(0, null));
+            offsetFirst[run] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            offsetDeepPage = offsetOnly.advancedSearch(criteria(DEEP_PAGE, null)).content();
+            offsetDeep[run] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            SearchPage page = cursorPaging.advancedSearch(criteria(0, null));
+            cursorFirst[run] = System.nanoTime() - start;
+            for (int p = 1; p <= DEEP_PAGE; p++) {
+                start = System.nanoTime();
+                page = cursorPaging.advancedSearch(criteria(p, page.nextCursor()));
+                if (p == DEEP_PAGE) {
+                    cursorDeep[run] = System.nanoTime() - start;
+                }
+            }
+            cursorDeepPage = page.content();
+        }
+
+        log.info("advancedSearch latency (median of {} runs, {} docs, size={}): offset page1={}ms page500={}ms, cursor page1={}ms page500={}ms",
+                RUNS, DOCUMENTS, PAGE_SIZE,
+                String.format("%.2f", medianMillis(offsetFirst)), String.format("%.2f", medianMillis(offsetDeep)),
+                String.format("%.2f", medianMillis(cursorFirst)), String.format("%.2f", medianMillis(cursorDeep)));
+
+        assertThat(cursorDeepPage).hasSize(PAGE_SIZE);
+        assertThat(ids(cursorDeepPage)).isEqualTo(ids(offsetDeepPage));
+    }
+
+    private static AdvancedSearchService service(int offsetPages) {
+        LiveStockStore liveStockStore = mock(LiveStockStore.class);
+        given(liveStockStore.withLiveStock(anyList())).willAnswer(inv -> {
+            List<ProductDocument> docs = inv.getArgument(0);
+            return docs.stream().map(doc -> ProductResponse.from(doc, 10)).toList();
+        });
+        SearchCursorManager cursors = new SearchCursorManager(client, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), offsetPages, 100);
+        // 결과 캐시는 끔 — 매 요청의 ES 조회 지연을 잰다
+        SearchResultCache cache = new SearchResultCache(mock(StringRedisTemplate.class), new SimpleMeterRegistry(),
+                false, Duration.ofSeconds(30), Duration.ofMinutes(5), 100, BigDecimal.valueOf(1_000), Duration.ofSeconds(2));
+        return new AdvancedSearchService(client, liveStockStore, mock(AutocompleteEngine.class), cursors, cache);
+    }
+
+    private static SearchCriteria criteria(int page, String cursor) {
+        return SearchCriteria.builder()
+                .sortBy("price")
+                .sortOrder(SortOrder.Desc)
+                .page(page)
+                .size(PAGE_SIZE)
+                .cursor(cursor)
+                .build();
+    }
+
+    private static List<Long> ids(List<ProductResponse> products) {
+        List<Long> ids = new ArrayList<>();
+        products.forEach(p -> ids.add(p.getId()));
+        return ids;
+    }
+
+    private static double medianMillis(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.livemart.product.integration;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.livemart.product.document.ProductDocument;
+import com.livemart.product.dto.ProductResponse;
+import com.livemart.product.search.AdvancedSearchService;
+import com.livemart.product.search.LiveStockStore;
+import com.livemart.product.search.SearchCriteria;
+import com.livemart.product.search.SearchCursorManager;
+import com.livemart.product.search.SearchPage;
+import com.livemart.product.search.SearchResultCache;
+import com.livemart.product.search.suggest.AutocompleteEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 결과 캐시 window에서 자른 1페이지 + 그 커서로 이어 조회한 페이지가 캐시 없이 조회한 페이지와 같은지
+ *
+ * _score 정렬, 가격 하한이 한 구간(1,000)보다 작아 window 조회에서는 가격 하한이 빠지는 경우.
+ * Redis는 항상 miss인 mock — miss여도 페이지와 커서는 window에서 만든다.
+ */
+@Disabled("Requires Docker/Testcontainers - run manually with Docker available")
+@Testcontainers
+class SearchResultCacheConsistencyTest {
+
+    private static final int PAGE_SIZE = 5;
+    private static final int PAGES = 6;
+    private static final String[] NAMES = {
+            "wireless earbuds", "wireless earbuds pro wireless", "earbuds case", "wireless mouse",
+            "bluetooth earbuds wireless charging", "wired earphones"};
+
+    @Container
+    static ElasticsearchContainer elasticsearch =
+            new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.15.0")
+                    .withEnv("xpack.security.enabled", "false")
+                    .withEnv("ES_JAVA_OPTS", "-Xms512m -Xmx512m");
+
+    private static ElasticsearchClient client;
+    private static RestClient restClient;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        restClient = RestClient.builder(HttpHost.create(elasticsearch.getHttpHostAddress())).build();
+        client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+
+        client.indices().create(c -> c
+                .index("products_v1")
+                .aliases("products", a -> a)
+                .settings(s -> s.numberOfReplicas("0"))
+                .mappings(m -> m
+                        .properties("productId", p -> p.long_(l -> l))
+                        .properties("name", p -> p.text(t -> t.analyzer("standard")))
+                        .properties("description", p -> p.text(t -> t.analyzer("standard")))
+                        .properties("price", p -> p.double_(d -> d))
+                        .properties("inStock", p -> p.boolean_(b -> b))
+                        .properties("status", p -> p.keyword(k -> k))));
+
+        // 가격 100 ~ 6,000 — 하한 450이면 1 ~ 4번이 빠진다
+        BulkRequest.Builder bulk = new BulkRequest.Builder();
+        for (long id = 1; id <= 60; id++) {
+            ProductDocument doc = ProductDocument.builder()
+                    .id(String.valueOf(id))
+                    .productId(id)
+                    .name(NAMES[(int) (id % NAMES.length)])
+                    .description(id % 4 == 0 ? "earbuds" : "accessory")
+                    .price(BigDecimal.valueOf(100L * id))
+                    .inStock(true)
+                    .status("ACTIVE")
+                    .build();
+            bulk.operations(op -> op.index(i -> i.index("products").id(doc.getId()).document(doc)));
+        }
+        client.bulk(bulk.build());
+        client.indices().refresh(r -> r.index("products"));
+    }
+
+    @AfterAll
+    static void close() throws Exception {
+        if (restClient != null) {
+            restClient.close();
+        }
+    }
+
+    @Test
+    @DisplayName("캐시 window의 1페이지와 커서로 이어 본 페이지가 캐시 없이 조회한 결과와 같다 (_score 정렬, 한 구간 미만 하한)")
+    void cachedPagesMatchUncachedPages() {
+        List<List<Long>> cached = pages(service(true));
+        List<List<Long>> uncached = pages(service(false));
+
+        assertThat(cached.get(0)).hasSize(PAGE_SIZE);
+        assertThat(cached).isEqualTo(uncached);
+        // 겹치거나 건너뛴 행 없이 하한 이상 전체를 한 번씩
+        List<Long> all = cached.stream().flatMap(List::stream).toList();
+        assertThat(all).doesNotHaveDuplicates().allMatch(id -> id >= 5);
+    }
+
+    private static List<List<Long>> pages(AdvancedSearchService service) {
+        List<List<Long>> pages = new ArrayList<>();
+        SearchPage page = service.advancedSearch(criteria(0, null));
+        pages.add(ids(page.content()));
+        for (int p = 1; p < PAGES && page.nextCursor() != null; p++) {
+            page = service.advancedSearch(criteria(p, page.nextCursor()));
+            pages.add(ids(page.content()));
+        }
+        return pages;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AdvancedSearchService service(boolean cacheEnabled) {
+        LiveStockStore liveStockStore = mock(LiveStockStore.class);
+        given(liveStockStore.withLiveStock(anyList())).willAnswer(inv -> {
+            List<ProductDocument> docs = inv.getArgument(0);
+            return docs.stream().map(doc -> ProductResponse.from(doc, 10)).toList();
+        });
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        given(redisTemplate.opsForValue()).willReturn(mock(ValueOperations.class));
+        SearchCursorManager cursors = new SearchCursorManager(client, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), 1, 100);
+        SearchResultCache cache = new SearchResultCache(redisTemplate, new SimpleMeterRegistry(), cacheEnabled,
+                Duration.ofSeconds(30), Duration.ofMinutes(5), 100, BigDecimal.valueOf(1_000), Duration.ofSeconds(2));
+        return new AdvancedSearchService(client, liveStockStore, mock(AutocompleteEngine.class), cursors, cache);
+    }
+
+    private static SearchCriteria criteria(int page, String cursor) {
+        return SearchCriteria.builder()
+                .keyword("Wireless Earbuds")
+                .minPrice(new BigDecimal("450"))
+                .sortBy("_score")
+                .sortOrder(SortOrder.Desc)
+                .page(page)
+                .size(PAGE_SIZE)
+                .cursor(cursor)
+                .build();
+    }
+
+    private static List<Long> ids(List<ProductResponse> products) {
+        List<Long> ids = new ArrayList<>();
+        products.forEach(p -> ids.add(p.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,113 @@
+package com.livemart.product.reactive;
+
+import com.livemart.product.dto.ProductResponse;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReactiveProductRepository 단위 테스트 (H2 R2DBC)")
+class ReactiveProductRepositoryTest {
+
+    private static final int PRODUCTS = 10_000;
+
+    private static DatabaseClient client;
+    private static ReactiveProductRepository repository;
+
+    @BeforeAll
+    static void setUp() {
+        client = DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///reactive-products?options=DB_CLOSE_DELAY=-1"));
+        repository = new ReactiveProductRepository(client, 100);
+
+        execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL)");
+        execute("""
+                CREATE TABLE products (
+                    id BIGINT PRIMARY KEY, name VARCHAR(200) NOT NULL, description TEXT,
+                    price DECIMAL(10,2) NOT NULL, stock_quantity INT NOT NULL, category_id BIGINT,
+                    status VARCHAR(20) NOT NULL, image_url VARCHAR(500), seller_id BIGINT NOT NULL,
+                    created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6))""");
+        execute("INSERT INTO categories VALUES (1, 'Fashion'), (2, 'Food'), (3, 'Digital')");
+        // id % 3 + 1 = 카테고리, 가격 = id * 10, 재고 = id % 100
+        execute("""
+                INSERT INTO products
+                SELECT X, 'product-' || X, NULL, X * 10, MOD(X, 100), MOD(X, 3) + 1, 'ACTIVE', NULL, 1,
+                       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, %d)""".formatted(PRODUCTS));
+    }
+
+    @Test
+    @DisplayName("카테고리 조건은 SQL에서 걸러 해당 카테고리 상품만 스트리밍한다")
+    void streamsOnlyRequestedCategory() {
+        List<ProductResponse> products = repository.streamByCategory(1L).collectList().block();
+
+        assertThat(products).hasSize(PRODUCTS / 3);
+        assertThat(products).allMatch(p -> p.getCategoryId() == 1L && "Fashion".equals(p.getCategoryName()));
+    }
+
+    @Test
+    @DisplayName("가격 범위는 양 끝을 포함해 가격 오름차순으로 나온다")
+    void streamsPriceRangeInPriceOrder() {
+        List<ProductResponse> products = repository
+                .streamByPriceBetween(new BigDecimal("1000"), new BigDecimal("2000"))
+                .collectList().block();
+
+        assertThat(products).hasSize(101);
+        assertThat(products.get(0).getPrice()).isEqualByComparingTo("1000");
+        assertThat(products).extracting(ProductResponse::getPrice).isSortedAccordingTo(BigDecimal::compareTo);
+    }
+
+    @Test
+    @DisplayName("재고 임계값 미만 상품만 재고 오름차순으로 나온다")
+    void streamsLowStockInStockOrder() {
+        List<ProductResponse> products = repository.streamByStockBelow(2).collectList().block();
+
+        assertThat(products).hasSize(PRODUCTS / 100 * 2);
+        assertThat(products).allMatch(p -> p.getStockQuantity() < 2);
+        assertThat(products).extracting(ProductResponse::getStockQuantity).isSorted();
+    }
+
+    @Test
+    @DisplayName("구독자가 요청한 만큼만 내보낸다 — 1건 요청이면 1건, 취소하면 스트림 종료")
+    void respectsSubscriberDemand() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        BaseSubscriber<ProductResponse> oneAtATime = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ProductResponse value) {
+                received.incrementAndGet();
+            }
+        };
+
+        repository.streamByCategory(1L).subscribe(oneAtATime);
+        Thread.sleep(Duration.ofMillis(300).toMillis());
+        assertThat(received).hasValue(1);
+
+        oneAtATime.request(9);
+        Thread.sleep(Duration.ofMillis(300).toMillis());
+        assertThat(received).hasValue(10);
+
+        oneAtATime.cancel();
+        assertThat(oneAtATime.isDisposed()).isTrue();
+        // 취소 후에도 같은 커넥션 팩토리로 조회 가능
+        assertThat(repository.findById(1L).block()).extracting(ProductResponse::getName).isEqualTo("product-1");
+    }
+
+    private static void execute(String sql) {
+        client.sql(sql).then().block();
+    }
+}
@@ -0,0 +1,90 @@
+package com.livemart.product.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("CoViewMatrix 단위 테스트")
+class CoViewMatrixTest {
+
+    /*
+     * 사용자 1: 10, 20, 30
+     * 사용자 2: 10, 20
+     * 사용자 3: 10, 40
+     * 사용자 4: 20, 30, 20 (중복 조회)
+     */
+    private CoViewMatrix matrix() {
+        return CoViewMatrix.builder()
+                .addUser(new long[]{10, 20, 30})
+                .addUser(new long[]{10, 20})
+                .addUser(new long[]{10, 40})
+                .addUser(new long[]{20, 30, 20})
+                .build();
+    }
+
+    @Test
+    @DisplayName("Jaccard 유사도 내림차순으로 상위 k개를 돌려준다")
+    void ranksByJaccard() {
+        CoViewMatrix.Neighbours n = matrix().neighbours(10L, 10, 500);
+
+        // U(10)={1,2,3}, U(20)={1,2,4}, U(30)={1,4}, U(40)={3}
+        // 20: 2/4, 40: 1/3, 30: 1/4
+        assertThat(n.neighbourIds()).containsExactly(20L, 40L, 30L);
+        assertThat(n.scores()[0]).isCloseTo(0.5f, within(1e-6f));
+        assertThat(n.scores()[1]).isCloseTo(1f / 3, within(1e-6f));
+        assertThat(n.scores()[2]).isCloseTo(0.25f, within(1e-6f));
+
+        assertThat(matrix().neighbours(10L, 1, 500).neighbourIds()).containsExactly(20L);
+        assertThat(matrix().neighbours(99L, 10, 500)).isNull();
+    }
+
+    @Test
+    @DisplayName("한 사용자의 중복 조회는 한 번으로 센다")
+    void countsEachUserOnce() {
+        CoViewMatrix.Neighbours n = matrix().neighbours(30L, 10, 500);
+
+        // U(30)={1,4}, U(20)={1,2,4} → 2/3
+        assertThat(n.neighbourIds()).containsExactly(20L, 10L);
+        assertThat(n.scores()[0]).isCloseTo(2f / 3, within(1e-6f));
+        assertThat(matrix().viewCount()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("조회 수가 상한을 넘는 사용자는 함께 본 횟수에서 제외한다")
+    void skipsHeavyUsers() {
+        CoViewMatrix.Neighbours n = matrix().neighbours(10L, 10, 2);
+
+        // 사용자 1(3개)이 빠짐 → 40: 1/3, 20: 1/5 (분모는 전체 조회자 수), 30 없음
+        assertThat(n.neighbourIds()).containsExactly(40L, 20L);
+    }
+
+    @Test
+    @DisplayName("일부 사용자만으로 만든 행렬은 지정한 전체 조회자 수로 점수를 낸다")
+    void usesViewerCountOverrides() {
+        CoViewMatrix partial = CoViewMatrix.builder()
+                .addUser(new long[]{10, 20})
+                .viewerCount(10L, 3)
+                .viewerCount(20L, 5)
+                .build();
+
+        assertThat(partial.neighbours(10L, 10, 500).scores()[0]).isCloseTo(1f / 7, within(1e-6f));
+    }
+
+    @Test
+    @DisplayName("전체 계산 결과는 Redis 값으로 인코딩/디코딩된다")
+    void encodesPublishedLists() {
+        StringBuilder published = new StringBuilder();
+        matrix().forEachNeighbours(2, 500, n -> {
+            if (n.productId() == 40L) {
+                published.append(CoViewSimilarity.encode(n));
+            }
+        });
+
+        assertThat(CoViewSimilarity.decode(published.toString()))
+                .extracting(CoViewSimilarity.Neighbour::productId)
+                .containsExactly(10L);
+        assertThat(CoViewSimilarity.decode(null)).isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package com.livemart.product.recommendation;
+
+import com.livemart.product.catalog.CatalogIndex;
+import com.livemart.product.dto.ProductResponse;
+import com.livemart.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+/**
+ * 카탈로그 인덱스 빌드 전(기동 직후, 빌드 실패) DB 대체 경로 (H2 JPA)
+ */
+@DisplayName("RecommendationEngine 단위 테스트 (H2 JPA)")
+class RecommendationEngineTest {
+
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static ProductRepository productRepository;
+
+    private CatalogIndex catalogIndex;
+    private RecommendationEngine engine;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:recommendation-engine;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.livemart.product.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.getJpaPropertyMap().putAll(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy"));
+        factoryBean.afterPropertiesSet();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject());
+        productRepository = new JpaRepositoryFactory(entityManager).getRepository(ProductRepository.class);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO categories (id, name, level) VALUES (1, 'Fashion', 0), (2, 'Food', 0)");
+        // 1~10: 카테고리 1, 가격 10,100 ~ 11,000, 재고 = id (5번은 판매 중지, 재고 500)
+        // 11: 카테고리 2, 가격은 6번과 가깝지만 다른 카테고리, 재고 100 / 12: 카테고리 없음, 재고 50
+        jdbc.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, category_id, status, seller_id, created_at)
+                SELECT X, 'product-' || X, 'description', 10000 + X * 100,
+                       CASE X WHEN 5 THEN 500 WHEN 11 THEN 100 WHEN 12 THEN 50 ELSE X END,
+                       CASE WHEN X <= 10 THEN 1 WHEN X = 11 THEN 2 END,
+                       CASE WHEN X = 5 THEN 'INACTIVE' ELSE 'ACTIVE' END, 1, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, 12)""");
+        jdbc.update("UPDATE products SET price = 10550 WHERE id = 11");
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        factoryBean.destroy();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        given(redisTemplate.opsForSet()).willReturn(mock(SetOperations.class));
+        catalogIndex = mock(CatalogIndex.class);
+        given(catalogIndex.isReady()).willReturn(false);
+        engine = new RecommendationEngine(productRepository, redisTemplate, catalogIndex,
+                mock(CoViewSimilarity.class), mock(ViewIngestionBuffer.class));
+    }
+
+    @Test
+    @DisplayName("인덱스 준비 전 콘텐츠 기반 추천은 DB에서 같은 카테고리·가격대 상품을 가격이 가까운 순으로 limit건만 읽는다")
+    void contentBasedFallsBackToDatabase() {
+        // 6번(10,600) 기준: 7(100), 4·8(200), 3·9(300) ... — 5번은 판매 중지, 11번은 다른 카테고리
+        assertThat(engine.getContentBasedRecommendations(6L, 4))
+                .extracting(ProductResponse::getId)
+                .containsExactly(7L, 4L, 8L, 3L);
+        assertThat(engine.getContentBasedRecommendations(12L, 4)).isEmpty();
+        then(catalogIndex).should(never()).similarByPrice(anyLong(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("인덱스 준비 전 인기 상품은 DB에서 판매 중 상품을 재고 많은 순으로 limit건만 읽는다")
+    void popularProductsFallBackToDatabase() {
+        // 조회 기록이 없는 사용자 → 인기 상품
+        assertThat(engine.getUserBasedRecommendations(1L, 3))
+                .extracting(ProductResponse::getId)
+                .containsExactly(11L, 12L, 10L);
+        then(catalogIndex).should(never()).mostStocked(anyInt());
+    }
+}
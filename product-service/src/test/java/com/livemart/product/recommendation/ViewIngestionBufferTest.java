@@ -0,0 +1,109 @@
+package com.livemart.product.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+
+@DisplayName("ViewIngestionBuffer 단위 테스트")
+class ViewIngestionBufferTest {
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private SimpleMeterRegistry registry;
+    private ViewIngestionBuffer buffer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        registry = new SimpleMeterRegistry();
+        // start()를 부르지 않아 주기 플러시 없음 — 호출 스레드 역압 경로만 본다
+        buffer = new ViewIngestionBuffer(redisTemplate, mock(CoViewSimilarity.class), registry,
+                2, 4, Duration.ofMillis(500));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 중 대기열이 가득 차면 max-pending을 넘기지 않고 버리며, 실패 후엔 호출 스레드가 Redis를 다시 부르지 않는다")
+    void dropsWhenFullAndFlushFailing() {
+        given(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .willThrow(new RedisConnectionFailureException("connection refused"));
+
+        for (long productId = 1; productId <= 10; productId++) {
+            buffer.record(1L, productId);
+        }
+
+        assertThat(buffer.pendingCount()).isEqualTo(4);
+        assertThat(dropped()).isEqualTo(6);
+        // 5번째 조회에서 한 번 비워 보고 실패 — 이후 조회는 Redis 호출 없이 버린다
+        then(redisTemplate).should(times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @DisplayName("장애 후 플러시가 성공하면 다시 받는다")
+    void acceptsAgainAfterSuccessfulFlush() {
+        given(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .willThrow(new RedisConnectionFailureException("connection refused"));
+        for (long productId = 1; productId <= 5; productId++) {
+            buffer.record(1L, productId);
+        }
+
+        reset(redisTemplate);
+        given(redisTemplate.executePipelined(any(SessionCallback.class))).willReturn(List.of());
+        assertThat(buffer.flush()).isEqualTo(4);
+        buffer.record(1L, 6L);
+
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+        assertThat(dropped()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("다른 스레드가 플러시 중이면 가득 찬 대기열에서 기다리지 않고 버린다")
+    void dropsWithoutWaitingWhileAnotherFlushRuns() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(redisTemplate.executePipelined(any(SessionCallback.class))).willAnswer(inv -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+        for (long productId = 1; productId <= 4; productId++) {
+            buffer.record(1L, productId);
+        }
+
+        Thread flusher = new Thread(buffer::flush);
+        flusher.start();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 첫 배치(2건)를 쓰는 중 — 자리 2개를 채운 뒤 다음 조회는 flushLock을 기다리지 않고 버려진다
+        buffer.record(2L, 1L);
+        buffer.record(2L, 2L);
+        buffer.record(2L, 3L);
+
+        assertThat(buffer.pendingCount()).isEqualTo(4);
+        assertThat(dropped()).isEqualTo(1);
+
+        release.countDown();
+        flusher.join(5_000);
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    private double dropped() {
+        return registry.get("recommendation.views.dropped.total").counter().count();
+    }
+}
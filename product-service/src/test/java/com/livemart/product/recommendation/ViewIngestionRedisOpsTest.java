@@ -0,0 +1,164 @@
+package com.livemart.product.recommendation;
+
+import com.livemart.product.config.RedisConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 조회 1,000건당 Redis 명령 수 — 기존 recordUserView(조회마다 직접 쓰기) vs ViewIngestionBuffer
+ *
+ * 사용자 200명, 상품 2,000개(앞쪽 상품 편중), 같은 사용자의 재조회 포함.
+ * CONFIG RESETSTAT 후 INFO commandstats의 calls 합으로 세고, 왕복 수와 함께 로그로 남긴다.
+ * 두 방식이 남긴 user:views / product:views 내용이 같은지도 검증한다.
+ */
+@Slf4j
+@Disabled("Requires Docker/Testcontainers - run manually with Docker available")
+@Testcontainers
+class ViewIngestionRedisOpsTest {
+
+    private static final int VIEWS = 1_000;
+    private static final int USERS = 200;
+    private static final int PRODUCTS = 2_000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private long[][] views;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getFirstMappedPort());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void close() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        views = new long[VIEWS][];
+        for (int i = 0; i < VIEWS; i++) {
+            double r = random.nextDouble();
+            views[i] = new long[]{1L + random.nextInt(USERS), 1L + (long) (r * r * PRODUCTS)};
+        }
+    }
+
+    @Test
+    @DisplayName("조회 1,000건: 버퍼 플러시가 직접 쓰기보다 명령/왕복 수가 적고 결과는 같다")
+    void countsRedisCommandsPerThousandViews() {
+        // 기존 방식: 조회마다 SADD 2 + EXPIRE 2 + dirty SADD 1
+        flushAll();
+        resetStats();
+        for (long[] view : views) {
+            legacyRecord(view[0], view[1]);
+        }
+        long legacyCommands = commandCalls();
+        Map<String, Set<Object>> legacyState = snapshot();
+
+        // 버퍼: 1,000건을 모아 한 번에 플러시
+        flushAll();
+        CoViewSimilarity coViewSimilarity = new CoViewSimilarity(redisTemplate, stringRedisTemplate,
+                mock(RedissonClient.class), new SimpleMeterRegistry(), true, 50, 500,
+                Duration.ofHours(6), Duration.ofMinutes(1), 500);
+        ViewIngestionBuffer buffer = new ViewIngestionBuffer(redisTemplate, coViewSimilarity,
+                new SimpleMeterRegistry(), 2_000, 50_000, Duration.ofMillis(500));
+        resetStats();
+        for (long[] view : views) {
+            buffer.record(view[0], view[1]);
+        }
+        int distinct = buffer.pendingCount();
+        buffer.flush();
+        long bufferedCommands = commandCalls();
+        Map<String, Set<Object>> bufferedState = snapshot();
+
+        log.info("view ingestion: views={}, distinct pairs={}, per-view writes={} commands/{} round trips, buffered flush={} commands/2 round trips",
+                VIEWS, distinct, legacyCommands, legacyCommands, bufferedCommands);
+
+        assertThat(bufferedState).isEqualTo(legacyState);
+        assertThat(bufferedCommands).isLessThan(legacyCommands);
+    }
+
+    /** 버퍼 도입 전 RecommendationEngine.recordUserView와 같은 명령 순서 */
+    private static void legacyRecord(long userId, long productId) {
+        String userKey = RecommendationEngine.USER_VIEWS_KEY + userId;
+        String productKey = RecommendationEngine.PRODUCT_VIEWS_KEY + productId;
+        redisTemplate.opsForSet().add(userKey, productId);
+        redisTemplate.opsForSet().add(productKey, userId);
+        redisTemplate.expire(userKey, 30, TimeUnit.DAYS);
+        redisTemplate.expire(productKey, 30, TimeUnit.DAYS);
+        stringRedisTemplate.opsForSet().add(CoViewSimilarity.DIRTY_KEY, String.valueOf(productId));
+    }
+
+    private static Map<String, Set<Object>> snapshot() {
+        Map<String, Set<Object>> state = new TreeMap<>();
+        for (String pattern : new String[]{RecommendationEngine.USER_VIEWS_KEY + "*", RecommendationEngine.PRODUCT_VIEWS_KEY + "*"}) {
+            Set<String> keys = redisTemplate.keys(pattern);
+            for (String key : keys) {
+                state.put(key, redisTemplate.opsForSet().members(key));
+            }
+        }
+        state.put(CoViewSimilarity.DIRTY_KEY, new HashSet<>(stringRedisTemplate.opsForSet().members(CoViewSimilarity.DIRTY_KEY)));
+        return state;
+    }
+
+    private static long commandCalls() {
+        Map<String, Long> calls = new HashMap<>();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Properties stats = connection.serverCommands().info("commandstats");
+            stats.forEach((name, value) -> {
+                String command = String.valueOf(name);
+                if (command.startsWith("cmdstat_") && !command.equals("cmdstat_info") && !command.equals("cmdstat_config")) {
+                    String callsField = String.valueOf(value).split(",")[0];
+                    calls.put(command, Long.parseLong(callsField.substring("calls=".length())));
+                }
+            });
+        }
+        return calls.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static void resetStats() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().resetConfigStats();
+        }
+    }
+
+    private static void flushAll() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+    }
+}
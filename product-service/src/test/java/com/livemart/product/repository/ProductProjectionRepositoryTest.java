@@ -0,0 +1,136 @@
+package com.livemart.product.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ProductProjectionRepository 단위 테스트 (H2 JPA)")
+class ProductProjectionRepositoryTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static ProductProjectionRepository repository;
+
+    @BeforeAll
+    static void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:product-projection;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.livemart.product.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.getJpaPropertyMap().putAll(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+                    statements.add(sql.toLowerCase());
+                    return sql;
+                }));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory emf = factoryBean.getObject();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        repository = new ProductProjectionRepository(entityManager);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO categories (id, name, level) VALUES (1, 'Fashion', 0), (2, 'Food', 0)");
+        // 1~30: 카테고리 1, 31~50: 카테고리 2, 51~55: 카테고리 없음
+        jdbc.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, category_id, status, seller_id, created_at)
+                SELECT X, 'product-' || X, CASE WHEN X = 7 THEN 'Organic cotton shirt' ELSE 'long description ' || X END,
+                       X * 100, 10, CASE WHEN X <= 30 THEN 1 WHEN X <= 50 THEN 2 END, 'ACTIVE',
+                       CASE WHEN MOD(X, 2) = 0 THEN 10 ELSE 20 END, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, 55)""");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factoryBean.destroy();
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    @DisplayName("id, price만 요청하면 그 컬럼만 SELECT하고 categories를 조인하지 않는다")
+    void selectsOnlyRequestedColumns() {
+        Page<Map<String, Object>> page = repository.findAll(
+                new ProductProjection(Set.of("price"), Set.of()), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getContent().get(0)).containsOnlyKeys("id", "price");
+        assertThat(page.getTotalElements()).isEqualTo(55);
+
+        String select = statements.get(0);
+        assertThat(select).doesNotContain("description", "name", "join", "categor");
+    }
+
+    @Test
+    @DisplayName("카테고리 필드를 요청하면 LEFT JOIN으로 읽고, 카테고리가 없는 상품은 category가 null")
+    void joinsCategoryOnlyWhenRequested() {
+        Page<Map<String, Object>> page = repository.findAll(
+                new ProductProjection(Set.of("name"), Set.of("name")), PageRequest.of(0, 100));
+
+        assertThat(page.getContent()).hasSize(55);
+        Map<String, Object> first = page.getContent().stream().filter(p -> p.get("id").equals(1L)).findFirst().orElseThrow();
+        assertThat(first.get("category")).isEqualTo(Map.of("id", 1L, "name", "Fashion"));
+        Map<String, Object> uncategorized = page.getContent().stream().filter(p -> p.get("id").equals(51L)).findFirst().orElseThrow();
+        assertThat(uncategorized).containsEntry("category", null);
+
+        assertThat(statements.get(0)).contains("left join").doesNotContain("description");
+    }
+
+    @Test
+    @DisplayName("조건은 ProductRepository와 같다 — 카테고리 / 판매자 / 이름·설명 키워드")
+    void appliesSameFiltersAsEntityQueries() {
+        ProductProjection idOnly = new ProductProjection(Set.of(), Set.of());
+
+        assertThat(repository.findByCategoryId(idOnly, 2L, PageRequest.of(0, 100)).getContent()).hasSize(20);
+        assertThat(repository.findBySellerId(idOnly, 10L, PageRequest.of(0, 100)).getContent()).hasSize(27);
+        assertThat(repository.searchByKeyword(idOnly, "COTTON", PageRequest.of(0, 10)).getContent())
+                .extracting(p -> p.get("id")).containsExactly(7L);
+        assertThat(repository.searchByKeyword(idOnly, "product-5", PageRequest.of(0, 100)).getContent())
+                .extracting(p -> p.get("id")).contains(5L, 50L, 55L);
+    }
+
+    @Test
+    @DisplayName("첫 페이지가 다 차지 않으면 count 쿼리를 생략한다")
+    void skipsCountWhenPageIsNotFull() {
+        Page<Map<String, Object>> page = repository.findByCategoryId(
+                new ProductProjection(Set.of("price"), Set.of()), 2L, PageRequest.of(0, 50));
+
+        assertThat(page.getTotalElements()).isEqualTo(20);
+        assertThat(statements).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("엔티티 속성이 아닌 이름은 거부한다")
+    void rejectsUnknownColumns() {
+        assertThatThrownBy(() -> new ProductProjection(Set.of("price; DROP TABLE products"), Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ProductProjection(Set.of("id"), Set.of("products")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
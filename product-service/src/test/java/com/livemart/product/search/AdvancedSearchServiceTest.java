@@ -0,0 +1,82 @@
+package com.livemart.product.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import com.livemart.product.document.ProductDocument;
+import com.livemart.product.search.suggest.AutocompleteEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("AdvancedSearchService 단위 테스트")
+class AdvancedSearchServiceTest {
+
+    private ElasticsearchClient elasticsearchClient;
+    private final List<SearchRequest> requests = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        elasticsearchClient = mock(ElasticsearchClient.class);
+        given(elasticsearchClient.search(any(SearchRequest.class), eq(ProductDocument.class))).willAnswer(inv -> {
+            requests.add(inv.getArgument(0));
+            return SearchResponse.<ProductDocument>of(r -> r
+                    .took(1)
+                    .timedOut(false)
+                    .shards(s -> s.total(1).successful(1).failed(0))
+                    .hits(h -> h.hits(List.of())));
+        });
+    }
+
+    @Test
+    @DisplayName("캐시 window 조회와 정확한 조건 조회는 점수 절이 같고, 가격/상태 조건은 filter 문맥에만 있다")
+    void windowQueryScoresLikeExactQuery() {
+        SearchCriteria criteria = SearchCriteria.builder()
+                .keyword("Wireless Earbuds")
+                .minPrice(new BigDecimal("450"))
+                .sortBy("_score")
+                .sortOrder(SortOrder.Desc)
+                .build();
+
+        service(true).advancedSearch(criteria);
+        service(false).advancedSearch(criteria);
+
+        BoolQuery window = requests.get(0).query().bool();
+        BoolQuery exact = requests.get(1).query().bool();
+        assertThat(window.must()).hasSize(1);
+        assertThat(window.must().get(0).multiMatch().query()).isEqualTo("Wireless Earbuds");
+        assertThat(window.must().toString()).isEqualTo(exact.must().toString());
+        // 한 구간(1,000) 미만 하한은 window에서 빠지고, 정확한 조회에서도 범위는 filter에만
+        assertThat(window.filter()).noneMatch(q -> q.isRange());
+        assertThat(exact.filter()).anyMatch(q -> q.isRange());
+        assertThat(exact.filter()).anyMatch(q -> q.isTerm() && "status".equals(q.term().field()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private AdvancedSearchService service(boolean cacheEnabled) {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        given(redisTemplate.opsForValue()).willReturn(mock(ValueOperations.class));
+        SearchResultCache cache = new SearchResultCache(redisTemplate, new SimpleMeterRegistry(), cacheEnabled,
+                Duration.ofSeconds(30), Duration.ofMinutes(5), 100, new BigDecimal("1000"), Duration.ofSeconds(2));
+        SearchCursorManager cursors = new SearchCursorManager(elasticsearchClient, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), 5, 100);
+        return new AdvancedSearchService(elasticsearchClient, mock(LiveStockStore.class),
+                mock(AutocompleteEngine.class), cursors, cache);
+    }
+}
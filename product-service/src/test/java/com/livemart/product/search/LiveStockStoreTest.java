@@ -0,0 +1,101 @@
+package com.livemart.product.search;
+
+import com.livemart.product.domain.Product;
+import com.livemart.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@DisplayName("LiveStockStore 단위 테스트")
+class LiveStockStoreTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> values;
+    private ProductRepository productRepository;
+    private LiveStockStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        productRepository = mock(ProductRepository.class);
+        given(redisTemplate.opsForValue()).willReturn(values);
+        store = new LiveStockStore(redisTemplate, productRepository, Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Redis에 없는 상품만 DB에서 읽어 채운다")
+    void missFallsBackToDatabase() {
+        given(values.multiGet(List.of("product:stock:1", "product:stock:2"))).willReturn(Arrays.asList("7", null));
+        given(productRepository.findAllById(List.of(2L))).willReturn(List.of(product(2L, 3)));
+
+        Map<Long, Integer> stocks = store.get(List.of(1L, 2L));
+
+        assertThat(stocks).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 7, 2L, 3));
+        then(productRepository).should(times(1)).findAllById(List.of(2L));
+        // DB에서 읽은 값은 다시 Redis에 채운다
+        then(redisTemplate).should(times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시 전체를 DB 값으로 돌려주고 조회를 실패시키지 않는다")
+    void redisFailureFallsBackToDatabase() {
+        given(values.multiGet(anyList())).willThrow(new RedisConnectionFailureException("connection refused"));
+        given(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .willThrow(new RedisConnectionFailureException("connection refused"));
+        given(productRepository.findAllById(List.of(1L, 2L))).willReturn(List.of(product(1L, 5), product(2L, 0)));
+
+        Map<Long, Integer> stocks = store.get(List.of(1L, 2L));
+
+        assertThat(stocks).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 5, 2L, 0));
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안의 재고 반영은 커밋 후에 Redis로 나간다")
+    void putIsDeferredUntilAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.put(1L, 9);
+
+            then(redisTemplate).should(never()).executePipelined(any(RedisCallback.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            then(redisTemplate).should(times(1)).executePipelined(any(RedisCallback.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖의 재고 반영은 바로 Redis로 나간다")
+    void putWithoutTransactionWritesImmediately() {
+        store.put(1L, 9);
+
+        then(redisTemplate).should(times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    private Product product(Long id, int stock) {
+        return Product.builder().id(id).name("상품" + id).stockQuantity(stock).build();
+    }
+}
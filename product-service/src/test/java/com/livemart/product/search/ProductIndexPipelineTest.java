@@ -0,0 +1,186 @@
+package com.livemart.product.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import com.livemart.product.domain.Product;
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ProductIndexPipeline 단위 테스트")
+class ProductIndexPipelineTest {
+
+    private static final Duration BACKOFF = Duration.ofSeconds(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private ProductRepository productRepository;
+    private ElasticsearchClient elasticsearchClient;
+    private KafkaTemplate<String, Object> dlqKafkaTemplate;
+    private SimpleMeterRegistry registry;
+    private ProductIndexPipeline pipeline;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        elasticsearchClient = mock(ElasticsearchClient.class);
+        dlqKafkaTemplate = mock(KafkaTemplate.class);
+        registry = new SimpleMeterRegistry();
+        pipeline = new ProductIndexPipeline(productRepository, elasticsearchClient, dlqKafkaTemplate, registry,
+                100, 1_000, 3, Duration.ofMillis(250), BACKOFF, clock::get);
+
+        given(productRepository.findAllById(anyIterable())).willAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            return ((Collection<Long>) ids).stream().map(this::product).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("같은 상품의 연속 변경은 1건으로 합쳐져 Bulk 요청 1회로 반영된다")
+    void coalescesRepeatedChanges() throws Exception {
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(success("1", "2"));
+
+        for (int tick = 0; tick < 10; tick++) {
+            pipeline.enqueue(1L, ProductIndexPipeline.Operation.UPSERT);
+            clock.addAndGet(1_000_000);
+        }
+        pipeline.enqueue(2L, ProductIndexPipeline.Operation.UPSERT);
+
+        assertThat(pipeline.drain()).isEqualTo(2);
+
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        then(elasticsearchClient).should(times(1)).bulk(captor.capture());
+        assertThat(captor.getValue().operations()).hasSize(2);
+        assertThat(registry.counter("products.index.coalesced.total").count()).isEqualTo(9.0);
+        // 지연은 합쳐진 변경 중 첫 변경 시점 기준 (10ms)
+        assertThat(registry.timer("products.index.lag").max(TimeUnit.MILLISECONDS))
+                .isEqualTo(10.0);
+        assertThat(pipeline.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("ES 장애 시 백오프 후 재시도하고, 최대 시도 초과 시 DLT로 발행한다")
+    void retriesThenDeadLetters() throws Exception {
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willThrow(new IOException("connection refused"));
+
+        pipeline.enqueue(7L, ProductIndexPipeline.Operation.UPSERT);
+
+        assertThat(pipeline.drain()).isEqualTo(1);
+        assertThat(pipeline.pendingCount()).isEqualTo(1);
+        // 백오프 대기 중에는 플러시하지 않음
+        assertThat(pipeline.drain()).isZero();
+
+        clock.addAndGet(BACKOFF.toNanos());
+        assertThat(pipeline.drain()).isEqualTo(1);
+        clock.addAndGet(BACKOFF.toNanos() * 2);
+        assertThat(pipeline.drain()).isEqualTo(1);
+
+        assertThat(pipeline.pendingCount()).isZero();
+        then(dlqKafkaTemplate).should(times(1))
+                .send(eq(ProductIndexPipeline.DEAD_LETTER_TOPIC), eq("7"), any(Map.class));
+        assertThat(registry.counter("products.index.retries.total").count()).isEqualTo(2.0);
+        assertThat(registry.counter("products.index.dead.letter.total").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("재시도 불가 오류(4xx)는 즉시 DLT로 발행하고 나머지 문서는 반영된다")
+    void nonRetryableItemGoesToDeadLetter() throws Exception {
+        BulkResponseItem ok = item("1", 200, null);
+        BulkResponseItem rejected = item("2", 400, ErrorCause.of(e -> e.type("mapper_parsing_exception").reason("bad price")));
+        given(elasticsearchClient.bulk(any(BulkRequest.class)))
+                .willReturn(BulkResponse.of(b -> b.errors(true).took(1).items(List.of(ok, rejected))));
+
+        pipeline.enqueue(1L, ProductIndexPipeline.Operation.UPSERT);
+        pipeline.enqueue(2L, ProductIndexPipeline.Operation.UPSERT);
+        pipeline.drain();
+
+        assertThat(pipeline.pendingCount()).isZero();
+        then(dlqKafkaTemplate).should(times(1))
+                .send(eq(ProductIndexPipeline.DEAD_LETTER_TOPIC), eq("2"), any(Map.class));
+        assertThat(registry.timer("products.index.lag").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("커밋 이후 삭제된 상품은 upsert 대신 삭제로 반영된다")
+    void missingProductIsDeleted() throws Exception {
+        given(productRepository.findAllById(anyIterable())).willReturn(List.of());
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(success("3"));
+
+        pipeline.enqueue(3L, ProductIndexPipeline.Operation.UPSERT);
+        pipeline.drain();
+
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        then(elasticsearchClient).should().bulk(captor.capture());
+        assertThat(captor.getValue().operations().get(0).isDelete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("재인덱싱 중에는 새 인덱스에도 같은 변경을 기록하고 대상 상품을 모아 둔다")
+    void shadowWritesDuringReindex() throws Exception {
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(success("5", "5"));
+
+        pipeline.startShadow("products_v20250101000000");
+        pipeline.enqueue(5L, ProductIndexPipeline.Operation.UPSERT);
+        pipeline.drain();
+
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        then(elasticsearchClient).should().bulk(captor.capture());
+        assertThat(captor.getValue().operations())
+                .extracting(op -> op.index().index())
+                .containsExactly(ProductIndexPipeline.INDEX_NAME, "products_v20250101000000");
+        assertThat(pipeline.shadowTouched()).containsExactly(5L);
+
+        pipeline.stopShadow();
+        assertThat(pipeline.shadowTouched()).isEmpty();
+    }
+
+    private Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .name("상품" + id)
+                .price(new BigDecimal("10000"))
+                .stockQuantity(10)
+                .status(ProductStatus.ACTIVE)
+                .sellerId(1L)
+                .build();
+    }
+
+    private static BulkResponse success(String... ids) {
+        List<BulkResponseItem> items = Arrays.stream(ids).map(id -> item(id, 200, null)).toList();
+        return BulkResponse.of(b -> b.errors(false).took(1).items(items));
+    }
+
+    private static BulkResponseItem item(String id, int status, ErrorCause error) {
+        return BulkResponseItem.of(i -> i
+                .operationType(OperationType.Index)
+                .index(ProductIndexPipeline.INDEX_NAME)
+                .id(id)
+                .status(status)
+                .error(error));
+    }
+}
@@ -0,0 +1,244 @@
+package com.livemart.product.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.get_alias.IndexAliases;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import com.livemart.product.document.ProductDocument;
+import com.livemart.product.domain.Product;
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@DisplayName("ProductReindexer 단위 테스트")
+class ProductReindexerTest {
+
+    private ProductRepository productRepository;
+    private ElasticsearchClient elasticsearchClient;
+    private ElasticsearchIndicesClient indices;
+    private ProductIndexPipeline indexPipeline;
+    private final NavigableSet<Long> productIds = new TreeSet<>();
+    private final List<BulkRequest> bulkRequests = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        productRepository = mock(ProductRepository.class);
+        elasticsearchClient = mock(ElasticsearchClient.class);
+        indices = mock(ElasticsearchIndicesClient.class);
+        indexPipeline = mock(ProductIndexPipeline.class);
+        given(elasticsearchClient.indices()).willReturn(indices);
+        given(indices.existsAlias(any(Function.class))).willReturn(new BooleanResponse(false));
+        given(indices.exists(any(Function.class))).willReturn(new BooleanResponse(false));
+
+        given(productRepository.findMinId()).willAnswer(inv -> productIds.isEmpty() ? null : productIds.first());
+        given(productRepository.findMaxId()).willAnswer(inv -> productIds.isEmpty() ? null : productIds.last());
+        given(productRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(anyLong(), anyLong(), any(Limit.class)))
+                .willAnswer(inv -> {
+                    Long after = inv.getArgument(0);
+                    Long upper = inv.getArgument(1);
+                    Limit limit = inv.getArgument(2);
+                    return productIds.subSet(after, false, upper, true).stream()
+                            .limit(limit.max())
+                            .map(this::product)
+                            .toList();
+                });
+        respondToBulk(id -> false);
+    }
+
+    @Test
+    @DisplayName("id 구간 분할과 keyset 페이지가 모든 상품을 정확히 한 번씩 적재한다")
+    void rangesCoverEveryIdExactlyOnce() throws Exception {
+        // 드문드문한 id — 구간 경계와 배치 경계가 엇갈리도록
+        LongStream.rangeClosed(3, 997).filter(id -> id % 7 != 0).boxed().forEach(productIds::add);
+
+        ProductReindexer.Result result = reindexer(3, 7).reindex();
+
+        List<Long> loaded = bulkRequests.stream()
+                .flatMap(request -> request.operations().stream())
+                .map(op -> Long.valueOf(op.index().id()))
+                .toList();
+        assertThat(loaded).containsExactlyInAnyOrderElementsOf(productIds);
+        assertThat(result.documents()).isEqualTo(productIds.size());
+        assertThat(bulkRequests).allMatch(request -> request.operations().stream()
+                .allMatch(op -> op.index().index().equals(result.index())));
+    }
+
+    @Test
+    @DisplayName("Bulk 일부가 429로 거절되면 그 문서만 다시 보낸다")
+    void retriesRejectedItemsOnly() throws Exception {
+        productIds.addAll(List.of(1L, 2L, 3L));
+        Set<String> rejectedOnce = Collections.synchronizedSet(new TreeSet<>(List.of("2")));
+        respondToBulk(rejectedOnce::remove);
+
+        ProductReindexer.Result result = reindexer(1, 10).reindex();
+
+        assertThat(bulkRequests).hasSize(2);
+        assertThat(bulkRequests.get(1).operations()).extracting(op -> op.index().id()).containsExactly("2");
+        assertThat(result.documents()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("429 재시도를 넘기면 재인덱싱을 중단하고, 새 인덱스만 지우고 alias는 건드리지 않는다")
+    @SuppressWarnings("unchecked")
+    void abortsAfterTooManyRetriesAndKeepsAlias() throws Exception {
+        productIds.addAll(List.of(1L, 2L, 3L));
+        respondToBulk(id -> id.equals("3"));
+
+        assertThatThrownBy(() -> reindexer(1, 10).reindex())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("재시도 초과");
+
+        assertThat(bulkRequests).hasSize(3);
+        then(indices).should(never()).updateAliases(any(Function.class));
+        then(indexPipeline).should().stopShadow();
+        ArgumentCaptor<Function<DeleteIndexRequest.Builder, ObjectBuilder<DeleteIndexRequest>>> delete =
+                ArgumentCaptor.forClass(Function.class);
+        then(indices).should(times(1)).delete(delete.capture());
+        List<String> deleted = delete.getValue().apply(new DeleteIndexRequest.Builder()).build().index();
+        assertThat(deleted).hasSize(1);
+        assertThat(deleted.get(0)).startsWith(ProductReindexer.ALIAS + "_v");
+    }
+
+    @Test
+    @DisplayName("products가 레거시 단일 인덱스면 alias 추가와 같은 요청에서 인덱스를 제거한다")
+    @SuppressWarnings("unchecked")
+    void swapRemovesLegacyIndex() throws Exception {
+        productIds.add(1L);
+        given(indices.exists(any(Function.class))).willReturn(new BooleanResponse(true));
+
+        ProductReindexer.Result result = reindexer(1, 10).reindex();
+
+        List<Action> actions = aliasActions();
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).isAdd()).isTrue();
+        assertThat(actions.get(0).add().index()).isEqualTo(result.index());
+        assertThat(actions.get(0).add().alias()).isEqualTo(ProductReindexer.ALIAS);
+        assertThat(actions.get(1).isRemoveIndex()).isTrue();
+        assertThat(actions.get(1).removeIndex().index()).isEqualTo(ProductReindexer.ALIAS);
+        // 레거시 인덱스는 alias 요청에서 지워졌으므로 따로 삭제하지 않는다
+        then(indices).should(never()).delete(any(Function.class));
+    }
+
+    @Test
+    @DisplayName("products가 이미 alias면 catch-up 뒤 이전 인덱스에서 alias를 옮기고 이전 인덱스를 삭제한다")
+    @SuppressWarnings("unchecked")
+    void swapMovesExistingAlias() throws Exception {
+        productIds.add(1L);
+        given(indices.existsAlias(any(Function.class))).willReturn(new BooleanResponse(true));
+        given(indices.getAlias(any(Function.class))).willReturn(GetAliasResponse.of(r -> r
+                .result("products_v20250101000000", IndexAliases.of(a -> a.aliases(Map.of())))));
+        given(indexPipeline.shadowTouched()).willReturn(Set.of(42L));
+
+        ProductReindexer.Result result = reindexer(1, 10).reindex();
+
+        assertThat(result.caughtUp()).isEqualTo(1);
+        List<Action> actions = aliasActions();
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).add().index()).isEqualTo(result.index());
+        assertThat(actions.get(1).isRemove()).isTrue();
+        assertThat(actions.get(1).remove().index()).isEqualTo("products_v20250101000000");
+        assertThat(actions.get(1).remove().alias()).isEqualTo(ProductReindexer.ALIAS);
+
+        InOrder order = inOrder(indexPipeline, indices);
+        order.verify(indexPipeline).enqueue(42L, ProductIndexPipeline.Operation.UPSERT);
+        order.verify(indexPipeline).drain();
+        order.verify(indices).updateAliases(any(Function.class));
+        order.verify(indexPipeline).stopShadow();
+        order.verify(indices).delete(any(Function.class));
+    }
+
+    private ProductReindexer reindexer(int parallelism, int batchSize) {
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        IndexOperations indexOps = mock(IndexOperations.class);
+        given(elasticsearchOperations.indexOps(ProductDocument.class)).willReturn(indexOps);
+        given(indexOps.createMapping()).willReturn(Document.create());
+        return new ProductReindexer(productRepository, elasticsearchClient, elasticsearchOperations, indexPipeline,
+                new SimpleMeterRegistry(), parallelism, batchSize, "1s", 1);
+    }
+
+    /** 요청을 기록하고, rejected가 true인 문서는 429로 응답 */
+    @SuppressWarnings("unchecked")
+    private void respondToBulk(Predicate<String> rejected) throws Exception {
+        given(elasticsearchClient.bulk(any(Function.class))).willAnswer(inv -> {
+            Function<BulkRequest.Builder, ObjectBuilder<BulkRequest>> fn = inv.getArgument(0);
+            BulkRequest request = fn.apply(new BulkRequest.Builder()).build();
+            bulkRequests.add(request);
+            List<BulkResponseItem> items = request.operations().stream()
+                    .map(op -> item(op.index().id(), rejected.test(op.index().id())))
+                    .toList();
+            boolean errors = items.stream().anyMatch(item -> item.error() != null);
+            return BulkResponse.of(b -> b.errors(errors).took(1).items(items));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Action> aliasActions() throws Exception {
+        ArgumentCaptor<Function<UpdateAliasesRequest.Builder, ObjectBuilder<UpdateAliasesRequest>>> captor =
+                ArgumentCaptor.forClass(Function.class);
+        then(indices).should().updateAliases(captor.capture());
+        return captor.getValue().apply(new UpdateAliasesRequest.Builder()).build().actions();
+    }
+
+    private static BulkResponseItem item(String id, boolean rejected) {
+        return BulkResponseItem.of(i -> i
+                .operationType(OperationType.Index)
+                .index(ProductReindexer.ALIAS)
+                .id(id)
+                .status(rejected ? 429 : 201)
+                .error(rejected ? ErrorCause.of(e -> e.type("es_rejected_execution_exception").reason("queue full")) : null));
+    }
+
+    private Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .name("상품" + id)
+                .price(new BigDecimal("10000"))
+                .stockQuantity(10)
+                .status(ProductStatus.ACTIVE)
+                .sellerId(1L)
+                .build();
+    }
+}
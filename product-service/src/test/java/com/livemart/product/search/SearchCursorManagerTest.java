@@ -0,0 +1,94 @@
+package com.livemart.product.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("SearchCursorManager 단위 테스트")
+class SearchCursorManagerTest {
+
+    private static final Duration KEEP_ALIVE = Duration.ofMinutes(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger pitSequence = new AtomicInteger();
+    private SearchCursorManager manager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        ElasticsearchClient elasticsearchClient = mock(ElasticsearchClient.class);
+        given(elasticsearchClient.openPointInTime(any(Function.class))).willAnswer(inv ->
+                OpenPointInTimeResponse.of(r -> r.id("pit-" + pitSequence.incrementAndGet())
+                        .shards(s -> s.total(1).successful(1).failed(0))));
+        manager = new SearchCursorManager(elasticsearchClient, new SimpleMeterRegistry(),
+                KEEP_ALIVE, 5, 2, clock::get);
+    }
+
+    @Test
+    @DisplayName("커서는 정렬 값 타입을 유지한 채 왕복한다")
+    void roundTripsSortValues() {
+        List<FieldValue> sortValues = List.of(FieldValue.of(12.5), FieldValue.of(42L), FieldValue.of("a"));
+        String token = manager.encode(new SearchCursorManager.Cursor(
+                "pit-1", SearchCursorManager.toRaw(sortValues), 6, 1234));
+
+        SearchCursorManager.Cursor decoded = manager.decode(token, 1234);
+
+        assertThat(decoded.pitId()).isEqualTo("pit-1");
+        assertThat(decoded.page()).isEqualTo(6);
+        List<FieldValue> restored = SearchCursorManager.toFieldValues(decoded.sortValues());
+        assertThat(restored.get(0).doubleValue()).isEqualTo(12.5);
+        assertThat(restored.get(1).longValue()).isEqualTo(42L);
+        assertThat(restored.get(2).stringValue()).isEqualTo("a");
+    }
+
+    @Test
+    @DisplayName("검색 조건이 바뀌었거나 손상된 커서는 거부한다")
+    void rejectsForeignOrBrokenCursor() {
+        SearchCriteria criteria = SearchCriteria.builder().keyword("이어폰").minPrice(new BigDecimal("10000")).build();
+        int fingerprint = SearchCursorManager.fingerprint(criteria, "price", "desc");
+        String token = manager.encode(new SearchCursorManager.Cursor(null, List.of(1.0, 7L), 5, fingerprint));
+
+        criteria.setMinPrice(new BigDecimal("20000"));
+        int changed = SearchCursorManager.fingerprint(criteria, "price", "desc");
+
+        assertThat(changed).isNotEqualTo(fingerprint);
+        assertThatThrownBy(() -> manager.decode(token, changed)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> manager.decode("not-a-cursor", fingerprint)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("열린 PIT가 상한에 도달하면 PIT 없이 진행하고, keep-alive가 지나면 상한에서 빠진다")
+    void capsOpenPointInTimes() {
+        assertThat(manager.open("products")).isEqualTo("pit-1");
+        assertThat(manager.open("products")).isEqualTo("pit-2");
+        assertThat(manager.open("products")).isNull();
+
+        // 검색 요청으로 pit-1만 연장
+        clock.addAndGet(KEEP_ALIVE.toNanos() / 2);
+        manager.extended("pit-1", "pit-1");
+        clock.addAndGet(KEEP_ALIVE.toNanos() / 2);
+
+        assertThat(manager.openCount()).isEqualTo(1);
+        assertThat(manager.open("products")).isEqualTo("pit-3");
+
+        manager.close("pit-3");
+        assertThat(manager.openCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.livemart.product.search;
+
+import com.livemart.product.document.ProductDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+
+@DisplayName("SearchResultCache 단위 테스트")
+class SearchResultCacheTest {
+
+    private ValueOperations<String, String> values;
+    private SimpleMeterRegistry registry;
+    private SearchResultCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        given(redisTemplate.opsForValue()).willReturn(values);
+        registry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(redisTemplate, registry, true, Duration.ofSeconds(30), Duration.ofMinutes(5),
+                100, new BigDecimal("1000"), Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("같은 결과를 내는 조건은 같은 키가 된다 (토큰 순서, 대소문자, 가격 구간)")
+    void canonicalizesCriteria() {
+        SearchCriteria a = SearchCriteria.builder().keyword("  Galaxy   S24 ")
+                .minPrice(new BigDecimal("10200")).maxPrice(new BigDecimal("49000.00")).build();
+        SearchCriteria b = SearchCriteria.builder().keyword("s24 galaxy")
+                .minPrice(new BigDecimal("10900")).maxPrice(new BigDecimal("48500")).build();
+        SearchCriteria otherCategory = SearchCriteria.builder().keyword("s24 galaxy").categoryId(3L)
+                .minPrice(new BigDecimal("10900")).maxPrice(new BigDecimal("48500")).build();
+
+        SearchResultCache.Query query = cache.query(a, "_score", "desc");
+
+        assertThat(query.normalizedKeyword()).isEqualTo("galaxy s24");
+        // ES에는 입력 그대로 — 정규화 키워드는 캐시 키에만
+        assertThat(query.keyword()).isEqualTo("  Galaxy   S24 ");
+        assertThat(query.toCriteria().getKeyword()).isEqualTo("  Galaxy   S24 ");
+        assertThat(query.minPrice()).isEqualByComparingTo("10000");
+        assertThat(query.maxPrice()).isEqualByComparingTo("49000");
+        assertThat(query.key()).isEqualTo(cache.query(b, "_score", "desc").key());
+        assertThat(query.key()).isNotEqualTo(cache.query(otherCategory, "_score", "desc").key());
+        assertThat(query.key()).isNotEqualTo(cache.query(a, "price", "desc").key());
+    }
+
+    @Test
+    @DisplayName("분석기가 접지 않는 차이(전각 문자)는 다른 키가 된다")
+    void keepsFullWidthKeywordsApart() {
+        SearchCriteria fullWidth = SearchCriteria.builder().keyword("Ｇａｌａｘｙ S24").build();
+        SearchCriteria ascii = SearchCriteria.builder().keyword("galaxy s24").build();
+
+        assertThat(cache.query(fullWidth, "_score", "desc").key())
+                .isNotEqualTo(cache.query(ascii, "_score", "desc").key());
+    }
+
+    @Test
+    @DisplayName("하한이 한 구간보다 작으면 window 조회에서 가격 하한을 빼고, 정확한 하한은 slice에서 거른다")
+    void dropsLowerBoundBelowOneBucket() {
+        SearchResultCache.Query query = cache.query(
+                SearchCriteria.builder().minPrice(new BigDecimal("450")).build(), "_score", "desc");
+
+        assertThat(query.minPrice()).isNull();
+        assertThat(query.toCriteria().getMinPrice()).isNull();
+    }
+
+    @Test
+    @DisplayName("넓힌 가격 구간의 window를 요청한 가격으로 다시 걸러 페이지를 자른다")
+    void slicesWindowByExactPrice() {
+        // 가격 10,000 ~ 14,000 → 10,500 / 11,000 ... 순서대로 20건
+        List<ProductDocument> documents = new ArrayList<>();
+        List<List<Object>> sortValues = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            documents.add(ProductDocument.builder().id(String.valueOf(id)).productId(id)
+                    .price(BigDecimal.valueOf(9_500 + 500 * id)).build());
+            sortValues.add(List.of(id));
+        }
+
+        SearchResultCache.Window partial = new SearchResultCache.Window(documents, sortValues, false);
+        SearchResultCache.Slice first = partial.slice(new BigDecimal("10200"), null, 0, 5);
+        assertThat(first.documents()).extracting(ProductDocument::getProductId).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(first.lastSortValues()).containsExactly(6L);
+        // 걸러낸 뒤 window 안에서 모자라면 ES로 직접 조회해야 함
+        assertThat(partial.slice(new BigDecimal("10200"), null, 3, 5)).isNull();
+
+        SearchResultCache.Window complete = new SearchResultCache.Window(documents, sortValues, true);
+        SearchResultCache.Slice last = complete.slice(new BigDecimal("10200"), null, 3, 5);
+        assertThat(last.documents()).extracting(ProductDocument::getProductId).containsExactly(17L, 18L, 19L, 20L);
+        assertThat(last.lastSortValues()).isNull();
+    }
+
+    @Test
+    @DisplayName("적중하면 ES를 조회하지 않고, 채울 때 걸린 시간을 절약 시간으로 집계한다")
+    void servesHitsAndRecordsSavedTime() throws Exception {
+        ProductDocument doc = ProductDocument.builder().id("7").productId(7L).name("무선 이어폰")
+                .price(new BigDecimal("39000")).build();
+        SearchResultCache.Window window = new SearchResultCache.Window(List.of(doc), List.of(List.of(1.5, 7)), true);
+        given(values.get(anyString())).willReturn(SearchResultCache.encode(window, Duration.ofMillis(80).toNanos()));
+        AtomicInteger loads = new AtomicInteger();
+
+        SearchResultCache.Window cached = cache.hits(cache.query(new SearchCriteria(), "_score", "desc"), () -> {
+            loads.incrementAndGet();
+            return window;
+        });
+
+        assertThat(loads).hasValue(0);
+        assertThat(cached.documents()).extracting(ProductDocument::getName).containsExactly("무선 이어폰");
+        assertThat(cached.documents().get(0).getPrice()).isEqualByComparingTo("39000");
+        assertThat(registry.get("search.cache.requests").tag("cache", "hits").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("search.cache.saved.time").counter().count()).isGreaterThan(0.0);
+    }
+
+    @Test
+    @DisplayName("품절 전환 무효화도 invalidation-delay 뒤 한 번 더 지운다")
+    @SuppressWarnings("unchecked")
+    void invalidateProductEvictsTwice() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        SetOperations<String, String> sets = mock(SetOperations.class);
+        given(redisTemplate.opsForSet()).willReturn(sets);
+        given(sets.members(SearchResultCache.PRODUCT_TAG_PREFIX + 7)).willReturn(Set.of("search:cache:hits:a"));
+        SearchResultCache delayed = new SearchResultCache(redisTemplate, new SimpleMeterRegistry(), true,
+                Duration.ofSeconds(30), Duration.ofMinutes(5), 100, new BigDecimal("1000"), Duration.ofMillis(50));
+        delayed.start();
+        try {
+            delayed.invalidateProduct(7L);
+
+            then(redisTemplate).should(timeout(2_000).times(2)).delete(List.of(SearchResultCache.PRODUCT_TAG_PREFIX + 7));
+        } finally {
+            delayed.stop();
+        }
+    }
+}
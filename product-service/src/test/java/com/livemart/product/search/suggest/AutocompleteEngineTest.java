@@ -0,0 +1,191 @@
+package com.livemart.product.search.suggest;
+
+import com.livemart.product.domain.ProductStatus;
+import com.livemart.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+@DisplayName("AutocompleteEngine 단위 테스트")
+class AutocompleteEngineTest {
+
+    private ProductRepository productRepository;
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> popularQueries;
+    private AutocompleteEngine engine;
+    private final List<ProductRepository.NameView> catalog = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        popularQueries = mock(ZSetOperations.class);
+        given(redisTemplate.opsForZSet()).willReturn(popularQueries);
+        given(productRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                eq(ProductStatus.ACTIVE), anyLong(), any(Limit.class))).willAnswer(inv -> {
+            long afterId = inv.getArgument(1);
+            return catalog.stream().filter(p -> p.getId() > afterId).toList();
+        });
+        engine = new AutocompleteEngine(productRepository, redisTemplate, new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), 100, 3, 1_000, Duration.ofSeconds(10), 4);
+
+        catalog.add(name(1L, "가방 백팩"));
+        catalog.add(name(2L, "닭가슴살 1kg"));
+        catalog.add(name(3L, "과자 선물세트"));
+        catalog.add(name(4L, "삼성 갤럭시 S24"));
+    }
+
+    @Test
+    @DisplayName("자음/모음 입력 중인 접두어도 완성된 음절과 같은 결과를 돌려준다")
+    void matchesHangulWhileComposing() {
+        engine.rebuild();
+
+        assertThat(engine.isReady()).isTrue();
+        assertThat(engine.suggest("갑", 10)).containsExactly("가방 백팩");    // 가방 입력 중 (받침 → 다음 음절 초성)
+        assertThat(engine.suggest("달", 10)).containsExactly("닭가슴살 1kg"); // 겹받침 입력 중
+        assertThat(engine.suggest("고", 10)).containsExactly("과자 선물세트"); // 이중모음 입력 중
+        assertThat(engine.suggest("ㄱㅂ", 10)).containsExactly("가방 백팩");   // 초성 검색
+        assertThat(engine.suggest("갤", 10)).containsExactly("삼성 갤럭시 S24"); // 단어 시작 위치
+        assertThat(engine.suggest("s2", 10)).containsExactly("삼성 갤럭시 S24");
+    }
+
+    @Test
+    @DisplayName("최소 검색 횟수를 넘긴 인기 검색어만, 검색 횟수 순으로 상품명보다 앞선다")
+    void ranksPopularQueriesByCount() {
+        given(popularQueries.reverseRangeByScoreWithScores(
+                AutocompleteEngine.POPULAR_QUERIES_KEY, 3.0, Double.POSITIVE_INFINITY, 0L, 100L))
+                .willReturn(Set.of(new DefaultTypedTuple<>("삼성 노트북", 5.0), new DefaultTypedTuple<>("삼성", 40.0)));
+        engine.rebuild();
+
+        assertThat(engine.suggest("삼", 10)).containsExactly("삼성", "삼성 노트북", "삼성 갤럭시 S24");
+        assertThat(engine.suggest("삼", 1)).containsExactly("삼성");
+    }
+
+    @Test
+    @DisplayName("검색어는 메모리에서 세고, 반영 주기에 파이프라인 한 번으로 합산한 뒤 ZSET을 상위 개수로 자른다")
+    @SuppressWarnings("unchecked")
+    void flushesQueryCountsInOnePipeline() {
+        engine.recordQuery("Galaxy   S24");
+        engine.recordQuery("galaxy s24");
+        engine.recordQuery(" GALAXY S24 ");
+        engine.recordQuery("사과");
+
+        then(redisTemplate).shouldHaveNoInteractions();
+
+        engine.flushQueries();
+
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        then(redisTemplate).should(times(1)).executePipelined(callback.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        given(connection.zSetCommands()).willReturn(zSetCommands);
+        callback.getValue().doInRedis(connection);
+
+        byte[] key = bytes(AutocompleteEngine.POPULAR_QUERIES_KEY);
+        then(zSetCommands).should().zIncrBy(aryEq(key), eq(3.0), aryEq(bytes("galaxy s24")));
+        then(zSetCommands).should().zIncrBy(aryEq(key), eq(1.0), aryEq(bytes("사과")));
+        then(zSetCommands).should().zRemRange(aryEq(key), eq(0L), eq(-101L));
+
+        // 반영한 집계는 비워진다
+        engine.flushQueries();
+        then(redisTemplate).should(times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("허용하지 않는 문자가 섞였거나 대기 중 검색어 종류가 상한을 넘으면 세지 않는다")
+    @SuppressWarnings("unchecked")
+    void skipsUnsafeQueriesAndBoundsPending() {
+        engine.recordQuery("<script>alert(1)</script>");
+        engine.recordQuery("a");
+        for (int i = 0; i < 10; i++) {
+            engine.recordQuery("검색어 " + i);
+        }
+        engine.recordQuery("검색어 0");
+
+        engine.flushQueries();
+
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        then(redisTemplate).should().executePipelined(callback.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        given(connection.zSetCommands()).willReturn(zSetCommands);
+        callback.getValue().doInRedis(connection);
+
+        // max-pending-queries(4)종까지만, 이미 세던 검색어는 계속 센다
+        then(zSetCommands).should(times(4)).zIncrBy(any(byte[].class), anyDouble(), any(byte[].class));
+        then(zSetCommands).should().zIncrBy(any(byte[].class), eq(2.0), aryEq(bytes("검색어 0")));
+    }
+
+    @Test
+    @DisplayName("빌드 이후 상품 변경은 재빌드 전에도 반영되고, 재빌드 후 overlay는 비워진다")
+    void appliesProductChangesBetweenBuilds() {
+        engine.rebuild();
+
+        engine.onProductChanged(1L, "가죽 백팩", ProductStatus.ACTIVE);   // 이름 변경
+        engine.onProductChanged(2L, null, ProductStatus.DELETED);         // 삭제
+        engine.onProductChanged(5L, "가습기", ProductStatus.ACTIVE);      // 신규
+
+        assertThat(engine.suggest("가", 10)).containsExactlyInAnyOrder("가죽 백팩", "가습기");
+        assertThat(engine.suggest("닭", 10)).isEmpty();
+
+        catalog.set(0, name(1L, "가죽 백팩"));
+        catalog.remove(1);
+        catalog.add(name(5L, "가습기"));
+        engine.rebuild();
+
+        assertThat(engine.suggest("가", 10)).containsExactlyInAnyOrder("가죽 백팩", "가습기");
+        assertThat(engine.suggest("닭", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("한글 음절은 겹받침/이중모음까지 입력 순서대로 자모 분해된다")
+    void decomposesHangul() {
+        assertThat(HangulJamo.normalize("닭")).isEqualTo("ㄷㅏㄹㄱ");
+        assertThat(HangulJamo.normalize("과")).isEqualTo("ㄱㅗㅏ");
+        assertThat(HangulJamo.normalize("  Ｓ24   울트라 ")).isEqualTo("s24 ㅇㅜㄹㅌㅡㄹㅏ");
+        assertThat(HangulJamo.normalize("ㄱ")).isEqualTo("ㄱ");
+        assertThat(HangulJamo.initials("삼성 tv")).isEqualTo("ㅅㅅ tv");
+        assertThat(HangulJamo.initials("iphone")).isNull();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ProductRepository.NameView name(Long id, String name) {
+        return new ProductRepository.NameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.livemart.product.service;
 
+import com.livemart.common.exception.BusinessException;
 import com.livemart.product.document.ProductDocument;
 import com.livemart.product.domain.Category;
 import com.livemart.product.domain.Product;
@@ -12,17 +13,23 @@ import com.livemart.product.event.StockEvent;
 import com.livemart.product.repository.CategoryRepository;
 import com.livemart.product.repository.ProductRepository;
 import com.livemart.product.repository.ProductSearchRepository;
+import com.livemart.product.search.LiveStockStore;
+import com.livemart.product.search.ProductIndexPipeline;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.*;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -53,11 +60,24 @@ class ProductServiceTest {
     @SuppressWarnings("unchecked")
     private KafkaTemplate<String, StockEvent> stockKafkaTemplate;
 
+    @Mock
+    @SuppressWarnings("unchecked")
+    private KafkaTemplate<String, Object> dlqKafkaTemplate;
+
+    @Mock
+    private ProductIndexPipeline productIndexPipeline;
+
+    @Mock
+    private LiveStockStore liveStockStore;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("products", "product-detail");
+
     @BeforeEach
     void setUp() {
         productService = new ProductService(
-                productRepository, categoryRepository, productSearchRepository,
-                kafkaTemplate, stockKafkaTemplate);
+                productRepository, categoryRepository,
+                kafkaTemplate, stockKafkaTemplate, dlqKafkaTemplate, productIndexPipeline, liveStockStore, cacheManager);
+        ReflectionTestUtils.setField(productService, "productSearchRepository", productSearchRepository);
     }
 
     // ──────────────────────────────────────────────────────────────────
@@ -86,6 +106,17 @@ class ProductServiceTest {
                 .build();
     }
 
+    private ProductRepository.StockView buildStockView(Long id, String name, int stock) {
+        ProductRepository.StockView view = mock(ProductRepository.StockView.class);
+        given(view.getId()).willReturn(id);
+        given(view.getName()).willReturn(name);
+        given(view.getPrice()).willReturn(new BigDecimal("10000"));
+        given(view.getStockQuantity()).willReturn(stock);
+        given(view.getStatus()).willReturn(ProductStatus.ACTIVE);
+        given(view.getSellerId()).willReturn(10L);
+        return view;
+    }
+
     // ──────────────────────────────────────────────────────────────────
     // createProduct tests
     // ──────────────────────────────────────────────────────────────────
@@ -113,7 +144,6 @@ class ProductServiceTest {
 
             given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
             given(productRepository.save(any(Product.class))).willReturn(savedProduct);
-            given(productSearchRepository.save(any(ProductDocument.class))).willReturn(new ProductDocument());
 
             // when
             ProductResponse response = productService.createProduct(request);
@@ -126,7 +156,7 @@ class ProductServiceTest {
             assertThat(response.getCategoryName()).isEqualTo("전자제품");
             assertThat(response.getStatus()).isEqualTo(ProductStatus.ACTIVE);
             then(productRepository).should(times(1)).save(any(Product.class));
-            then(productSearchRepository).should(times(1)).save(any(ProductDocument.class));
+            then(productIndexPipeline).should(times(1)).upsert(anyLong());
             then(kafkaTemplate).should(times(1)).send(eq("product-events"), anyString(), any(ProductEvent.class));
         }
 
@@ -232,7 +262,6 @@ class ProductServiceTest {
             );
 
             given(productRepository.findById(100L)).willReturn(Optional.of(product));
-            given(productSearchRepository.save(any(ProductDocument.class))).willReturn(new ProductDocument());
 
             // when
             ProductResponse response = productService.updateProduct(100L, request);
@@ -241,7 +270,7 @@ class ProductServiceTest {
             assertThat(response).isNotNull();
             // Product.updateInfo() is called — verify the call chain
             then(productRepository).should(times(1)).findById(100L);
-            then(productSearchRepository).should(times(1)).save(any(ProductDocument.class));
+            then(productIndexPipeline).should(times(1)).upsert(anyLong());
             then(kafkaTemplate).should(times(1)).send(eq("product-events"), anyString(), any(ProductEvent.class));
         }
 
@@ -257,14 +286,13 @@ class ProductServiceTest {
 
             given(productRepository.findById(150L)).willReturn(Optional.of(product));
             given(categoryRepository.findById(5L)).willReturn(Optional.of(newCategory));
-            given(productSearchRepository.save(any(ProductDocument.class))).willReturn(new ProductDocument());
 
             // when
             productService.updateProduct(150L, request);
 
             // then
             then(categoryRepository).should(times(1)).findById(5L);
-            then(productSearchRepository).should(times(1)).save(any(ProductDocument.class));
+            then(productIndexPipeline).should(times(1)).upsert(anyLong());
         }
 
         @Test
@@ -297,7 +325,6 @@ class ProductServiceTest {
             Product product = buildProduct(200L, "노트북", new BigDecimal("1500000"), 10, category);
 
             given(productRepository.findByIdWithLock(200L)).willReturn(Optional.of(product));
-            given(productSearchRepository.save(any(ProductDocument.class))).willReturn(new ProductDocument());
 
             // when
             productService.updateStock(200L, 25);
@@ -305,7 +332,9 @@ class ProductServiceTest {
             // then
             assertThat(product.getStockQuantity()).isEqualTo(25);
             then(productRepository).should(times(1)).findByIdWithLock(200L);
-            then(productSearchRepository).should(times(1)).save(any(ProductDocument.class));
+            // 재고 수량은 실시간 저장소로만, 품절 여부가 그대로면 검색 문서는 재색인하지 않음
+            then(liveStockStore).should(times(1)).put(200L, 25);
+            then(productIndexPipeline).should(never()).upsert(anyLong());
             then(kafkaTemplate).should(times(1)).send(eq("product-events"), anyString(), any(ProductEvent.class));
             then(stockKafkaTemplate).should(times(1)).send(eq("stock-events"), anyString(), any(StockEvent.class));
         }
@@ -318,13 +347,43 @@ class ProductServiceTest {
             Product product = buildProduct(201L, "품절 예정 상품", new BigDecimal("50000"), 5, category);
 
             given(productRepository.findByIdWithLock(201L)).willReturn(Optional.of(product));
-            given(productSearchRepository.save(any(ProductDocument.class))).willReturn(new ProductDocument());
 
             // when
             productService.updateStock(201L, 0);
 
             // then
             assertThat(product.getStockQuantity()).isEqualTo(0);
+            then(productIndexPipeline).should(times(1)).upsert(201L);
+        }
+
+        @Test
+        @DisplayName("재고 폭주 - 색인 요청은 품절/입고 전환 횟수만큼만 발생")
+        void updateStock_stockStorm_indexesOnlyAvailabilityFlips() {
+            // given: 인기 상품 20개가 재고 100에서 시작해 아래 순서를 50라운드 반복
+            //   100 → 95 → 60 → 20 → 0(품절) → 0 → 15(입고) → 40 → 0(품절) → 80(입고) → 100
+            //   라운드당 전환 4회, 마지막이 재고 있음이라 다음 라운드도 같은 횟수
+            int[] round = {95, 60, 20, 0, 0, 15, 40, 0, 80, 100};
+            int hotProducts = 20;
+            int rounds = 50;
+            Category category = buildCategory(1L, "전자제품");
+            for (long id = 1; id <= hotProducts; id++) {
+                Product product = buildProduct(1000L + id, "인기상품" + id, new BigDecimal("10000"), 100, category);
+                given(productRepository.findByIdWithLock(1000L + id)).willReturn(Optional.of(product));
+            }
+
+            // when
+            for (int r = 0; r < rounds; r++) {
+                for (int stock : round) {
+                    for (long id = 1; id <= hotProducts; id++) {
+                        productService.updateStock(1000L + id, stock);
+                    }
+                }
+            }
+
+            // then: 재고 변경 10,000건 중 검색 색인 요청은 20 × 50 × 4 = 4,000건
+            then(liveStockStore).should(times(10_000)).put(anyLong(), anyInt());
+            then(productIndexPipeline).should(times(4_000)).upsert(anyLong());
+            then(productIndexPipeline).should(times(200)).upsert(1001L);
         }
 
         @Test
@@ -409,6 +468,76 @@ class ProductServiceTest {
         }
     }
 
+    // ──────────────────────────────────────────────────────────────────
+    // deductStocks / restoreStocks tests
+    // ──────────────────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("주문 재고 일괄 반영 (deductStocks / restoreStocks)")
+    class BulkStockTest {
+
+        @Test
+        @DisplayName("성공 - 상품별 조건부 차감 후 재고 이벤트는 주문당 1건")
+        void deductStocks_success() {
+            // given
+            given(productRepository.deductStock(anyLong(), anyInt(), any())).willReturn(1);
+            given(productRepository.findStockViewsByIdIn(any())).willReturn(List.of(
+                    buildStockView(1L, "무선 이어폰", 48),
+                    buildStockView(2L, "한정판 티셔츠", 0)));
+            cacheManager.getCache("product-detail").put(1L, "cached");
+
+            // when
+            List<StockEvent.StockChange> changes = productService.deductStocks("ORD-1", Map.of(1L, 2, 2L, 1));
+
+            // then
+            assertThat(changes).extracting(StockEvent.StockChange::getOldStock).containsExactly(50, 1);
+            ArgumentCaptor<StockEvent> event = ArgumentCaptor.forClass(StockEvent.class);
+            then(stockKafkaTemplate).should(times(1)).send(eq("stock-events"), eq("ORD-1"), event.capture());
+            assertThat(event.getValue().getEventType()).isEqualTo(StockEvent.EventType.STOCK_BATCH_UPDATED);
+            assertThat(event.getValue().getChanges()).hasSize(2);
+            then(kafkaTemplate).should(times(2)).send(eq("product-events"), anyString(), any(ProductEvent.class));
+            // 품절로 바뀐 상품만 재색인, 재고는 한 번에
+            then(productIndexPipeline).should(times(1)).upsertAll(List.of(2L));
+            then(liveStockStore).should(times(1)).putAll(Map.of(1L, 48, 2L, 0));
+            assertThat(cacheManager.getCache("product-detail").get(1L)).isNull();
+            then(productRepository).should(never()).findByIdWithLock(anyLong());
+        }
+
+        @Test
+        @DisplayName("실패 - 한 상품이라도 재고가 부족하면 예외, 이벤트·캐시 반영 없음")
+        void deductStocks_insufficientStock_throwsException() {
+            // given
+            given(productRepository.deductStock(eq(1L), anyInt(), any())).willReturn(1);
+            given(productRepository.deductStock(eq(2L), anyInt(), any())).willReturn(0);
+
+            // when & then
+            assertThatThrownBy(() -> productService.deductStocks("ORD-2", Map.of(1L, 1, 2L, 99)))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("2");
+            then(stockKafkaTemplate).shouldHaveNoInteractions();
+            then(kafkaTemplate).shouldHaveNoInteractions();
+            then(liveStockStore).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("성공 - 취소 복원은 상대값 증가, 품절에서 풀린 상품만 재색인")
+        void restoreStocks_success() {
+            // given
+            given(productRepository.addStock(anyLong(), anyInt(), any())).willReturn(1);
+            given(productRepository.findStockViewsByIdIn(any())).willReturn(List.of(
+                    buildStockView(1L, "무선 이어폰", 50),
+                    buildStockView(2L, "한정판 티셔츠", 1)));
+
+            // when
+            List<StockEvent.StockChange> changes = productService.restoreStocks("ORD-1", Map.of(1L, 2, 2L, 1));
+
+            // then
+            assertThat(changes).extracting(StockEvent.StockChange::getOldStock).containsExactly(48, 0);
+            then(productIndexPipeline).should(times(1)).upsertAll(List.of(2L));
+            then(stockKafkaTemplate).should(times(1)).send(eq("stock-events"), eq("ORD-1"), any(StockEvent.class));
+        }
+    }
+
     // ──────────────────────────────────────────────────────────────────
     // getProductsByCategory tests
     // ──────────────────────────────────────────────────────────────────
@@ -505,7 +634,7 @@ class ProductServiceTest {
                     .name("무선 이어폰")
                     .description("블루투스 이어폰")
                     .price(new BigDecimal("89000"))
-                    .stockQuantity(50)
+                    .inStock(true)
                     .status("ACTIVE")
                     .sellerId(10L)
                     .build();
@@ -513,6 +642,7 @@ class ProductServiceTest {
             Page<ProductDocument> esResult = new PageImpl<>(List.of(doc), pageable, 1);
             given(productSearchRepository.findByNameContainingOrDescriptionContaining(keyword, keyword, pageable))
                     .willReturn(esResult);
+            given(liveStockStore.withLiveStock(List.of(doc))).willReturn(List.of(ProductResponse.from(doc, 50)));
 
             // when
             Page<ProductResponse> result = productService.searchProducts(keyword, pageable);
@@ -520,6 +650,8 @@ class ProductServiceTest {
             // then
             assertThat(result.getContent()).hasSize(1);
             assertThat(result.getContent().get(0).getName()).isEqualTo("무선 이어폰");
+            assertThat(result.getContent().get(0).getStockQuantity()).isEqualTo(50);
+            assertThat(result.getTotalElements()).isEqualTo(1);
             then(productSearchRepository).should(times(1))
                     .findByNameContainingOrDescriptionContaining(keyword, keyword, pageable);
             then(productRepository).should(never()).searchByKeyword(anyString(), any(Pageable.class));
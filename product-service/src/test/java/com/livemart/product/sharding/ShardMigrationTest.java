@@ -0,0 +1,219 @@
+package com.livemart.product.sharding;
+
+import com.livemart.product.sharding.ShardMigrationExecutor.MigrationReport;
+import com.livemart.product.sharding.ShardQueryExecutor.PartialResultPolicy;
+import com.livemart.product.sharding.ShardingService.ShardRowMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Slf4j
+@DisplayName("Consistent hash ring + 무중단 shard 마이그레이션 테스트 (H2 shard 4개)")
+class ShardMigrationTest {
+
+    private static final int PRODUCTS = 30_000;
+    private static final int VNODES = 128;
+
+    record Row(long id, int stock) {}
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+
+    private final ShardRowMapper<Row> mapper = new ShardRowMapper<>() {
+        @Override
+        public String getSelectSql() {
+            return "SELECT id, stock FROM products WHERE id = ?";
+        }
+
+        @Override
+        public String getSelectAllSql() {
+            return "SELECT id, stock FROM products";
+        }
+
+        @Override
+        public Row mapRow(ResultSet rs) throws SQLException {
+            return new Row(rs.getLong("id"), rs.getInt("stock"));
+        }
+
+        @Override
+        public Long routingId(Row row) {
+            return row.id();
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 4; i++) {
+            EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .setName("migration-shard" + i + "-" + UUID.randomUUID())
+                    .build();
+            databases.add(database);
+            new JdbcTemplate(database).execute(
+                    "CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(64), stock INT)");
+            shards.put("shard" + i, database);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        databases.forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    @DisplayName("3 → 4 shard 마이그레이션: 동시 쓰기 중에도 모든 행이 새 주인 shard에 정확히 한 번, 최신 값으로 존재")
+    void migratesOnlineWithConcurrentWrites() throws Exception {
+        ConsistentHashRing from = ring(3);
+        ConsistentHashRing to = ring(4);
+        ConsistentHashShardingStrategy strategy = new ConsistentHashShardingStrategy(from);
+        ShardQueryExecutor queryExecutor = new ShardQueryExecutor(strategy, shards, Duration.ofSeconds(10), PartialResultPolicy.FAIL);
+        ShardingService service = new ShardingService(strategy, queryExecutor);
+        ShardMigrationExecutor migrationExecutor = new ShardMigrationExecutor(strategy, queryExecutor, 500);
+
+        Map<Long, Integer> expected = new ConcurrentHashMap<>();
+        Map<String, List<Object[]>> seed = new HashMap<>();
+        for (long id = 1; id <= PRODUCTS; id++) {
+            seed.computeIfAbsent(from.ownerOf(id), k -> new ArrayList<>()).add(new Object[]{id, "product-" + id, 100});
+            expected.put(id, 100);
+        }
+        seed.forEach((shardKey, rows) -> new JdbcTemplate(shards.get(shardKey))
+                .batchUpdate("INSERT INTO products (id, name, stock) VALUES (?, ?, ?)", rows));
+
+        // 마이그레이션 동안 기존 행 재고 변경 + 새 상품 등록
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong writes = new AtomicLong();
+        AtomicReference<Throwable> writerError = new AtomicReference<>();
+        Thread writer = Thread.ofPlatform().name("migration-writer").start(() -> {
+            Random random = new Random(11);
+            long nextId = PRODUCTS + 1;
+            try {
+                while (running.get()) {
+                    if (random.nextInt(10) == 0) {
+                        long id = nextId++;
+                        service.update(id, "INSERT INTO products (id, name, stock) VALUES (?, ?, ?)", id, "product-" + id, 7);
+                        expected.put(id, 7);
+                    } else {
+                        long id = 1 + random.nextInt(PRODUCTS);
+                        int stock = random.nextInt(1_000);
+                        if (service.update(id, "UPDATE products SET stock = ? WHERE id = ?", stock, id) == 1) {
+                            expected.put(id, stock);
+                        }
+                    }
+                    writes.incrementAndGet();
+                }
+            } catch (Throwable e) {
+                writerError.set(e);
+            }
+        });
+
+        MigrationReport report;
+        try {
+            Thread.sleep(50);
+            report = migrationExecutor.migrate("products", "id", to);
+            Thread.sleep(50);
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+
+        log.info("3 → 4 shards: rows={}, moved={} ({}%), segments={}, repaired={}, elapsed={}ms, {} rows/s, concurrent writes={}",
+                report.totalRows(), report.movedRows(), String.format("%.1f", report.movedPercent()), report.movingSegments(),
+                report.repairedRows(), report.elapsed().toMillis(), String.format("%.0f", report.rowsPerSecond()), writes.get());
+
+        assertThat(writerError.get()).isNull();
+        assertThat(writes.get()).isPositive();
+        assertThat(report.movedPercent()).isBetween(15.0, 35.0);
+        assertThat(strategy.ring()).isSameAs(to);
+
+        Map<Long, String> location = new HashMap<>();
+        for (Map.Entry<String, DataSource> shard : shards.entrySet()) {
+            new JdbcTemplate(shard.getValue()).query("SELECT id, stock FROM products", rs -> {
+                long id = rs.getLong("id");
+                String previous = location.put(id, shard.getKey());
+                assertThat(previous).as("id %d duplicated in %s and %s", id, previous, shard.getKey()).isNull();
+                assertThat(shard.getKey()).as("owner of %d", id).isEqualTo(to.ownerOf(id));
+                assertThat(rs.getInt("stock")).as("stock of %d", id).isEqualTo(expected.get(id));
+            });
+        }
+        assertThat(location.keySet()).containsExactlyInAnyOrderElementsOf(expected.keySet());
+        assertThat(service.findAll(mapper)).hasSize(expected.size());
+        assertThat(service.count("products")).isEqualTo(expected.size());
+    }
+
+    @Test
+    @DisplayName("shard 추가 시 consistent hash는 약 1/4, modulo는 약 3/4의 키를 옮긴다")
+    void movesFewerKeysThanModulo() {
+        ConsistentHashRing from = ring(3);
+        ConsistentHashRing to = ring(4);
+        int keys = 100_000;
+        int ringMoved = 0;
+        int moduloMoved = 0;
+        for (long id = 1; id <= keys; id++) {
+            if (!from.ownerOf(id).equals(to.ownerOf(id))) ringMoved++;
+            if (id % 3 != id % 4) moduloMoved++;
+        }
+
+        assertThat(ringMoved / (double) keys).isCloseTo(0.25, within(0.05));
+        assertThat(moduloMoved / (double) keys).isCloseTo(0.75, within(0.02));
+
+        // 옮겨지는 키는 모두 새 shard로만 간다
+        for (long id = 1; id <= keys; id++) {
+            if (!from.ownerOf(id).equals(to.ownerOf(id))) {
+                assertThat(to.ownerOf(id)).isEqualTo("shard3");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("키 분포는 weight에 비례하고, 구간 목록은 두 링의 주인과 일치한다")
+    void distributesByWeight() {
+        ConsistentHashRing weighted = ConsistentHashRing.builder(VNODES).shard("shard0", 2).shard("shard1", 1).build();
+        ConsistentHashRing even = ring(2);
+        int keys = 100_000;
+        Map<String, Integer> counts = new HashMap<>();
+        for (long id = 1; id <= keys; id++) {
+            counts.merge(weighted.ownerOf(id), 1, Integer::sum);
+        }
+        assertThat(counts.get("shard0") / (double) keys).isCloseTo(2 / 3.0, within(0.05));
+
+        List<ConsistentHashRing.Segment> segments = ConsistentHashRing.diff(even, weighted);
+        for (long id = 1; id <= 10_000; id++) {
+            ConsistentHashRing.Segment segment = segments.get(ConsistentHashRing.segmentOf(segments, ConsistentHashRing.hash(id)));
+            assertThat(segment.source()).isEqualTo(even.ownerOf(id));
+            assertThat(segment.target()).isEqualTo(weighted.ownerOf(id));
+        }
+    }
+
+    private static ConsistentHashRing ring(int shardCount) {
+        ConsistentHashRing.Builder builder = ConsistentHashRing.builder(VNODES);
+        for (int i = 0; i < shardCount; i++) {
+            builder.shard("shard" + i, 1);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.livemart.product.sharding;
+
+import com.livemart.common.exception.BusinessException;
+import com.livemart.product.sharding.ShardQueryExecutor.PartialResultPolicy;
+import com.livemart.product.sharding.ShardingService.ShardPage;
+import com.livemart.product.sharding.ShardingService.ShardRowMapper;
+import com.livemart.product.sharding.ShardingService.ShardSort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ShardingService scatter-gather 테스트 (H2 shard 3개)")
+class ShardingServiceTest {
+
+    private static final int PRODUCTS = 300;
+
+    record Row(long id, BigDecimal price) {}
+
+    private static final Comparator<Row> PRICE_DESC_ID =
+            Comparator.comparing(Row::price).reversed().thenComparingLong(Row::id);
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+    private final List<Row> all = new ArrayList<>();
+    private final AtomicInteger mappedRows = new AtomicInteger();
+
+    private final ShardRowMapper<Row> mapper = new ShardRowMapper<>() {
+        @Override
+        public String getSelectSql() {
+            return "SELECT id, price FROM products WHERE id = ?";
+        }
+
+        @Override
+        public String getSelectAllSql() {
+            return "SELECT id, price FROM products";
+        }
+
+        @Override
+        public Row mapRow(ResultSet rs) throws SQLException {
+            mappedRows.incrementAndGet();
+            return new Row(rs.getLong("id"), rs.getBigDecimal("price"));
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .setName("shard" + i + "-" + UUID.randomUUID())
+                    .build();
+            databases.add(database);
+            new JdbcTemplate(database).execute("CREATE TABLE products (id BIGINT PRIMARY KEY, price DECIMAL(12, 2))");
+            shards.put("shard" + i, database);
+        }
+
+        // 가격 50종 → 같은 가격이 여러 shard에 걸쳐 있음 (동률은 id로 끊음)
+        Random random = new Random(7);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            Row row = new Row(id, BigDecimal.valueOf(1_000 + random.nextInt(50) * 100L).setScale(2));
+            all.add(row);
+            new JdbcTemplate(shards.get("shard" + id % 3))
+                    .update("INSERT INTO products (id, price) VALUES (?, ?)", row.id(), row.price());
+        }
+        all.sort(PRICE_DESC_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databases.forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    @DisplayName("전역 정렬 페이지는 전체 정렬 결과와 같고, shard마다 offset+limit 행만 읽는다")
+    void mergesGloballySortedPage() {
+        ShardingService service = service(shards, Duration.ofSeconds(5), PartialResultPolicy.PARTIAL);
+
+        ShardPage<Row> page = service.findAllSorted(mapper, new ShardSort<>("price DESC, id", PRICE_DESC_ID), 10, 20);
+
+        assertThat(page.content()).containsExactlyElementsOf(all.subList(10, 30));
+        assertThat(page.failedShards()).isEmpty();
+        assertThat(mappedRows.get()).isLessThanOrEqualTo(3 * 30);
+    }
+
+    @Test
+    @DisplayName("ORDER BY에는 컬럼과 방향만 허용한다")
+    void rejectsUnsafeOrderBy() {
+        ShardingService service = service(shards, Duration.ofSeconds(5), PartialResultPolicy.PARTIAL);
+
+        assertThatThrownBy(() -> service.findAllSorted(mapper,
+                new ShardSort<>("price; DROP TABLE products", PRICE_DESC_ID), 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("없는 shard는 PARTIAL이면 나머지 결과와 실패 목록을, FAIL이면 503을 돌려준다")
+    void appliesPartialResultPolicy() {
+        Map<String, DataSource> twoShards = new LinkedHashMap<>(shards);
+        twoShards.remove("shard2");
+
+        ShardPage<Row> page = service(twoShards, Duration.ofSeconds(5), PartialResultPolicy.PARTIAL)
+                .findAllSorted(mapper, new ShardSort<>("price DESC, id", PRICE_DESC_ID), 0, PRODUCTS);
+
+        assertThat(page.failedShards()).containsExactly("shard2");
+        assertThat(page.content()).containsExactlyElementsOf(all.stream().filter(r -> r.id() % 3 != 2).toList());
+
+        assertThatThrownBy(() -> service(twoShards, Duration.ofSeconds(5), PartialResultPolicy.FAIL).count("products"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("status").isEqualTo(503);
+    }
+
+    @Test
+    @DisplayName("느린 shard는 마감 시각에 끊고 나머지 결과로 응답한다")
+    void cutsOffSlowShard() {
+        Map<String, DataSource> withSlowShard = new LinkedHashMap<>(shards);
+        withSlowShard.put("shard1", new DelegatingDataSource(shards.get("shard1")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    Thread.sleep(3_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("interrupted", e);
+                }
+                return super.getConnection();
+            }
+        });
+        ShardingService service = service(withSlowShard, Duration.ofMillis(300), PartialResultPolicy.PARTIAL);
+
+        long started = System.nanoTime();
+        ShardPage<Row> page = service.findAllSorted(mapper, new ShardSort<>("price DESC, id", PRICE_DESC_ID), 0, 10);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        assertThat(page.failedShards()).containsExactly("shard1");
+        assertThat(page.content()).containsExactlyElementsOf(
+                all.stream().filter(r -> r.id() % 3 != 1).limit(10).toList());
+        assertThat(elapsedMs).isLessThan(2_000);
+    }
+
+    @Test
+    @DisplayName("단건 조회는 id로 shard를 찾고, 집계는 모든 shard를 합친다")
+    void routesAndAggregates() {
+        ShardingService service = service(shards, Duration.ofSeconds(5), PartialResultPolicy.PARTIAL);
+
+        assertThat(service.findById(152L, mapper)).map(Row::id).contains(152L);
+        assertThat(service.findAll(mapper)).hasSize(PRODUCTS);
+        assertThat(service.count("products")).isEqualTo(PRODUCTS);
+        assertThat(service.sum("products", "price"))
+                .isEqualTo(all.stream().mapToDouble(r -> r.price().doubleValue()).sum());
+    }
+
+    private static ShardingService service(Map<String, DataSource> shards, Duration timeout, PartialResultPolicy policy) {
+        ShardingStrategy strategy = new HashBasedShardingStrategy();
+        return new ShardingService(strategy, new ShardQueryExecutor(strategy, shards, timeout, policy));
+    }
+}
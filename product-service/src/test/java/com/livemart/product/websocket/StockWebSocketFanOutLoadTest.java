@@ -0,0 +1,192 @@
+package com.livemart.product.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@DisplayName("StockWebSocketHandler 구독 인덱스 + conflation 부하 테스트 (세션 50,000개)")
+class StockWebSocketFanOutLoadTest {
+
+    private static final int SESSIONS = 50_000;
+    private static final int PRODUCTS = 2_000;
+    private static final int SUBSCRIPTIONS_PER_SESSION = 5;
+    private static final int TICKS = 20;
+    private static final int UPDATES_PER_TICK = 20_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private StockWebSocketHandler handler;
+    private final List<StubWebSocketSession> sessions = new ArrayList<>();
+    private final Map<StubWebSocketSession, Set<Long>> subscribed = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        handler = new StockWebSocketHandler(objectMapper, null, registry, Duration.ofMillis(200), 100,
+                256, DataSize.ofKilobytes(512), Duration.ofSeconds(10), SessionOutbound.OverflowPolicy.CONFLATE);
+        Random random = new Random(42);
+        for (int i = 0; i < SESSIONS; i++) {
+            StubWebSocketSession session = new StubWebSocketSession("s" + i);
+            handler.afterConnectionEstablished(session);
+            Set<Long> productIds = new LinkedHashSet<>();
+            while (productIds.size() < SUBSCRIPTIONS_PER_SESSION) {
+                productIds.add(1L + random.nextInt(PRODUCTS));
+            }
+            handler.handleTextMessage(session, new TextMessage(objectMapper.writeValueAsString(
+                    Map.of("action", "subscribe", "productIds", productIds))));
+            sessions.add(session);
+            subscribed.put(session, productIds);
+        }
+        awaitDelivered();
+        sessions.forEach(StubWebSocketSession::clear);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (handler != null) {
+            handler.stop();
+        }
+    }
+
+    /**
+     * 모든 세션에 marker를 보내고 도착할 때까지 대기 — 송신 큐는 세션별 FIFO라 그 전 메시지도 모두 전달된 상태
+     */
+    private void awaitDelivered() throws InterruptedException {
+        String marker = "{\"type\":\"marker\",\"id\":\"" + UUID.randomUUID() + "\"}";
+        handler.handleLowStockAlert(marker);
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        for (StubWebSocketSession session : sessions) {
+            while (session.isOpen() && !session.received().contains(marker)) {
+                assertThat(System.nanoTime()).as("marker delivery to %s", session.getId()).isLessThan(deadline);
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    private static List<String> withoutMarkers(List<String> received) {
+        return received.stream().filter(m -> !m.startsWith("{\"type\":\"marker\"")).toList();
+    }
+
+    @Test
+    @DisplayName("tick마다 구독 상품의 최신 재고만 1건씩 받고, 전송 수는 (갱신 상품 × 구독자)에 비례한다")
+    void fansOutConflatedUpdatesThroughIndex() throws Exception {
+        Random random = new Random(7);
+        long totalSends = 0;
+        long totalUpdates = 0;
+        long elapsedNanos = 0;
+
+        for (int tick = 0; tick < TICKS; tick++) {
+            Map<Long, String> latest = new HashMap<>();
+            long started = System.nanoTime();
+            for (int u = 0; u < UPDATES_PER_TICK; u++) {
+                // 상위 10% 상품에 갱신이 몰리는 분포
+                long productId = random.nextInt(4) == 0
+                        ? 1L + random.nextInt(PRODUCTS)
+                        : 1L + random.nextInt(PRODUCTS / 10);
+                String message = String.format(
+                        "{\"type\":\"stockUpdate\",\"productId\":%d,\"stock\":%d,\"timestamp\":%d}",
+                        productId, random.nextInt(500), tick * 1_000L + u);
+                handler.handleStockUpdate(message);
+                latest.put(productId, message);
+            }
+            handler.flush();
+            awaitDelivered();
+            elapsedNanos += System.nanoTime() - started;
+            totalUpdates += UPDATES_PER_TICK;
+
+            for (StubWebSocketSession session : sessions) {
+                Set<String> expected = new HashSet<>();
+                for (Long productId : subscribed.get(session)) {
+                    String message = latest.get(productId);
+                    if (message != null) {
+                        expected.add(message);
+                    }
+                }
+                List<String> received = withoutMarkers(session.received());
+                assertThat(received).hasSize(expected.size());
+                assertThat(new HashSet<>(received)).isEqualTo(expected);
+                totalSends += received.size();
+                session.clear();
+            }
+        }
+
+        double linearScans = (double) SESSIONS * totalUpdates;
+        log.info("sessions={}, updates={}, sends={}, conflated={}, {} ms/tick incl. delivery (linear scan would check {} session×update pairs)",
+                SESSIONS, totalUpdates, totalSends,
+                (long) registry.get("websocket.stock.updates.conflated").counter().count(),
+                String.format("%.1f", elapsedNanos / 1e6 / TICKS), String.format("%.1e", linearScans));
+
+        assertThat(registry.get("websocket.stock.messages.sent").counter().count()).isGreaterThanOrEqualTo(totalSends);
+        assertThat(registry.get("websocket.stock.updates.conflated").counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("연결 종료/구독 해제한 세션은 더 이상 받지 않고, 구독자가 없는 상품은 인덱스에서 빠진다")
+    void removesClosedSessionsFromIndex() throws Exception {
+        StubWebSocketSession closed = sessions.get(0);
+        StubWebSocketSession unsubscribed = sessions.get(1);
+        Long closedProduct = subscribed.get(closed).iterator().next();
+        Long unsubscribedProduct = subscribed.get(unsubscribed).iterator().next();
+
+        closed.close();
+        handler.afterConnectionClosed(closed, CloseStatus.NORMAL);
+        handler.handleTextMessage(unsubscribed, new TextMessage(
+                "{\"action\":\"unsubscribe\",\"productId\":" + unsubscribedProduct + "}"));
+        unsubscribed.clear();
+
+        handler.handleStockUpdate("{\"type\":\"stockUpdate\",\"productId\":" + closedProduct + ",\"stock\":1}");
+        handler.handleStockUpdate("{\"type\":\"stockUpdate\",\"productId\":" + unsubscribedProduct + ",\"stock\":2}");
+        handler.flush();
+        awaitDelivered();
+
+        assertThat(closed.received()).isEmpty();
+        assertThat(unsubscribed.received()).noneMatch(m -> m.contains("\"productId\":" + unsubscribedProduct + ","));
+
+        for (StubWebSocketSession session : sessions) {
+            handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        }
+        assertThat(registry.get("websocket.stock.subscribed.products").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("세션당 구독 상한을 넘으면 오류 메시지를 보낸다")
+    void limitsSubscriptionsPerSession() throws Exception {
+        StubWebSocketSession session = new StubWebSocketSession("limited");
+        handler.afterConnectionEstablished(session);
+        sessions.add(session);
+        List<Long> productIds = new ArrayList<>();
+        for (long id = 1; id <= 120; id++) {
+            productIds.add(id);
+        }
+
+        handler.handleTextMessage(session, new TextMessage(objectMapper.writeValueAsString(
+                Map.of("action", "subscribe", "productIds", productIds))));
+        awaitDelivered();
+
+        List<String> received = withoutMarkers(session.received());
+        assertThat(received).anyMatch(m -> m.contains("\"type\":\"subscribed\""));
+        assertThat(received).anyMatch(m -> m.contains("Subscription limit exceeded"));
+        Map<?, ?> reply = objectMapper.readValue(received.get(1), Map.class);
+        assertThat((List<?>) reply.get("productIds")).hasSize(100);
+    }
+}
@@ -0,0 +1,190 @@
+package com.livemart.product.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.livemart.product.websocket.SessionOutbound.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.TextMessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StockWebSocketHandler 느린 클라이언트 격리 테스트")
+class StockWebSocketSlowConsumerTest {
+
+    private static final int HEALTHY = 200;
+    private static final int STALLED = 50;
+    private static final int PRODUCTS = 5;
+    private static final int MAX_QUEUED = 16;
+    private static final int ROUNDS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<StubWebSocketSession> healthy = new ArrayList<>();
+    private final List<StubWebSocketSession> stalled = new ArrayList<>();
+    private StockWebSocketHandler handler;
+
+    @AfterEach
+    void tearDown() {
+        stalled.forEach(StubWebSocketSession::release);
+        if (handler != null) {
+            handler.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("멈춘 클라이언트의 전송이 막혀 있는 동안에도 정상 클라이언트는 매 라운드를 모두 받는다")
+    void stalledClientsDoNotDelayHealthyOnes() throws Exception {
+        setUp(OverflowPolicy.CONFLATE, Duration.ofMinutes(1), STALLED);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            publishRound(round);
+            handler.flush();
+            for (StubWebSocketSession session : healthy) {
+                awaitCount(session, PRODUCTS * (round + 1));
+            }
+            if (round == 0) {
+                for (StubWebSocketSession session : stalled) {
+                    awaitBlocked(session);
+                }
+            }
+            // 동기 전송이었다면 첫 멈춘 세션에서 tick 스레드가 멈춰 정상 세션은 이번 라운드를 받지 못함
+            assertThat(stalled).allMatch(StubWebSocketSession::isSendBlocked);
+        }
+
+        for (StubWebSocketSession session : healthy) {
+            List<String> received = session.received();
+            assertThat(received).hasSize(PRODUCTS * ROUNDS);
+            assertThat(received.subList(received.size() - PRODUCTS, received.size()))
+                    .allMatch(m -> m.contains("\"stock\":" + (ROUNDS - 1) + "}"));
+        }
+        assertThat(stalled).allMatch(session -> session.receivedCount() == 0);
+    }
+
+    @Test
+    @DisplayName("CONFLATE: 밀린 세션의 큐에는 상품당 최신 재고 1건만 남는다")
+    void conflatesQueuedUpdatesForStalledClients() throws Exception {
+        setUp(OverflowPolicy.CONFLATE, Duration.ofMinutes(1), STALLED);
+        deliverRounds();
+
+        // 멈춘 세션: 전송 중 1건 + 상품당 1건
+        assertThat(gauge("websocket.stock.outbound.queue.max")).isLessThanOrEqualTo(PRODUCTS);
+        assertThat(registry.get("websocket.stock.outbound.conflated").counter().count()).isPositive();
+        assertThat(registry.get("websocket.stock.outbound.dropped").counter().count()).isZero();
+        assertThat(stalled).allMatch(StubWebSocketSession::isOpen);
+
+        // 풀리면 각 상품의 마지막 값만 받는다
+        StubWebSocketSession session = stalled.get(0);
+        session.release();
+        awaitCount(session, PRODUCTS + 1);
+        List<String> received = session.received();
+        assertThat(received.subList(1, received.size()))
+                .allMatch(m -> m.contains("\"stock\":" + (ROUNDS - 1) + "}"));
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST: 큐가 max-queued를 넘으면 오래된 메시지부터 버리고 연결은 유지한다")
+    void dropsOldestWhenQueueIsFull() throws Exception {
+        setUp(OverflowPolicy.DROP_OLDEST, Duration.ofMinutes(1), STALLED);
+        deliverRounds();
+
+        assertThat(gauge("websocket.stock.outbound.queue.max")).isEqualTo(MAX_QUEUED);
+        assertThat(gauge("websocket.stock.outbound.queued")).isEqualTo(MAX_QUEUED * STALLED);
+        assertThat(registry.get("websocket.stock.outbound.dropped").counter().count())
+                .isEqualTo((double) STALLED * (ROUNDS * PRODUCTS - 1 - MAX_QUEUED));
+        assertThat(stalled).allMatch(StubWebSocketSession::isOpen);
+    }
+
+    @Test
+    @DisplayName("DISCONNECT: 큐가 넘치면 세션을 끊는다")
+    void disconnectsOnOverflow() throws Exception {
+        setUp(OverflowPolicy.DISCONNECT, Duration.ofMinutes(1), STALLED);
+        deliverRounds();
+
+        assertThat(stalled).noneMatch(StubWebSocketSession::isOpen);
+        assertThat(healthy).allMatch(StubWebSocketSession::isOpen);
+        assertThat(registry.get("websocket.stock.sessions.disconnected").tag("reason", "overflow").counter().count())
+                .isEqualTo(STALLED);
+    }
+
+    @Test
+    @DisplayName("한 번의 전송이 send-time-limit을 넘기면 정책과 관계없이 끊는다")
+    void disconnectsAfterSendTimeLimit() throws Exception {
+        setUp(OverflowPolicy.CONFLATE, Duration.ofMillis(200), STALLED);
+        publishRound(0);
+        handler.flush();
+        Thread.sleep(300);
+
+        handler.flush();
+
+        assertThat(stalled).noneMatch(StubWebSocketSession::isOpen);
+        assertThat(healthy).allMatch(StubWebSocketSession::isOpen);
+        assertThat(registry.get("websocket.stock.sessions.disconnected").tag("reason", "send-timeout").counter().count())
+                .isEqualTo(STALLED);
+    }
+
+    private void setUp(OverflowPolicy policy, Duration sendTimeLimit, int stalledCount) throws Exception {
+        handler = new StockWebSocketHandler(objectMapper, null, registry, Duration.ofMillis(200), 100,
+                MAX_QUEUED, DataSize.ofKilobytes(64), sendTimeLimit, policy);
+        for (int i = 0; i < HEALTHY + stalledCount; i++) {
+            StubWebSocketSession session = new StubWebSocketSession(policy + "-" + i);
+            handler.afterConnectionEstablished(session);
+            handler.handleTextMessage(session, new TextMessage(
+                    "{\"action\":\"subscribe\",\"productIds\":[1,2,3,4,5]}"));
+            awaitCount(session, 2);
+            session.clear();
+            if (i < HEALTHY) {
+                healthy.add(session);
+            } else {
+                session.stall();
+                stalled.add(session);
+            }
+        }
+    }
+
+    /**
+     * 라운드마다 상품 5개 재고를 바꾸고 flush — 모든 정상 세션이 받을 때까지 대기
+     */
+    private void deliverRounds() throws InterruptedException {
+        for (int round = 0; round < ROUNDS; round++) {
+            publishRound(round);
+            handler.flush();
+            for (StubWebSocketSession session : healthy) {
+                awaitCount(session, PRODUCTS * (round + 1));
+            }
+        }
+    }
+
+    private void publishRound(int round) {
+        for (int productId = 1; productId <= PRODUCTS; productId++) {
+            handler.handleStockUpdate(String.format(
+                    "{\"type\":\"stockUpdate\",\"productId\":%d,\"stock\":%d}", productId, round));
+        }
+    }
+
+    private static void awaitCount(StubWebSocketSession session, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (session.receivedCount() < count) {
+            assertThat(System.nanoTime()).as("delivery to %s", session.getId()).isLessThan(deadline);
+            Thread.sleep(0, 100_000);
+        }
+    }
+
+    private static void awaitBlocked(StubWebSocketSession session) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!session.isSendBlocked()) {
+            assertThat(System.nanoTime()).as("stalled send to %s", session.getId()).isLessThan(deadline);
+            Thread.sleep(0, 100_000);
+        }
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,167 @@
+package com.livemart.product.websocket;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 전송된 메시지를 메모리에 모으는 WebSocketSession (네트워크 없음)
+ * stall() 후에는 release()/close() 전까지 sendMessage가 막힌다 — 수신을 멈춘 클라이언트 흉내
+ */
+class StubWebSocketSession implements WebSocketSession {
+
+    private final String id;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<String> received = new ArrayList<>();
+    private final AtomicInteger blockedSends = new AtomicInteger();
+    private volatile CountDownLatch stall;
+    private volatile boolean open = true;
+
+    StubWebSocketSession(String id) {
+        this.id = id;
+    }
+
+    synchronized List<String> received() {
+        return List.copyOf(received);
+    }
+
+    synchronized int receivedCount() {
+        return received.size();
+    }
+
+    /** stall()에 걸려 sendMessage 안에서 기다리는 전송이 있는지 */
+    boolean isSendBlocked() {
+        return blockedSends.get() > 0;
+    }
+
+    synchronized void clear() {
+        received.clear();
+    }
+
+    void stall() {
+        stall = new CountDownLatch(1);
+    }
+
+    void release() {
+        CountDownLatch latch = stall;
+        stall = null;
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        CountDownLatch latch = stall;
+        if (latch != null) {
+            blockedSends.incrementAndGet();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while stalled", e);
+            } finally {
+                blockedSends.decrementAndGet();
+            }
+            if (!open) {
+                throw new IOException("Session closed");
+            }
+        }
+        synchronized (this) {
+            received.add(((TextMessage) message).getPayload());
+        }
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        release();
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+        close();
+    }
+
+    @Override
+    public URI getUri() {
+        return null;
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+        return new HttpHeaders();
+    }
+
+    @Override
+    public Principal getPrincipal() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return null;
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+        return null;
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+        return List.of();
+    }
+}
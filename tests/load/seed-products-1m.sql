@@ -0,0 +1,20 @@
+-- 검색 재인덱싱 측정용 상품 100만 건 생성 (product-service DB: productdb)
+-- psql -h localhost -p 5435 -U productapp -d productdb -f tests/load/seed-products-1m.sql
+
+INSERT INTO categories (name, description)
+SELECT 'bench-category-' || c, '재인덱싱 측정용'
+FROM generate_series(1, 50) AS c
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO products (name, description, price, stock_quantity, category_id, status, image_url, seller_id)
+SELECT 'bench product ' || g,
+       'bench description ' || md5(g::text),
+       (1000 + (g % 500) * 100)::numeric(10, 2),
+       g % 300,
+       (SELECT id FROM categories WHERE name = 'bench-category-' || (1 + g % 50)),
+       'ACTIVE',
+       'https://cdn.example.com/bench/' || g || '.jpg',
+       1 + g % 1000
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE products;